@@ -10,10 +10,12 @@ import it.magius.struttura.architect.ingame.ChunkDiscoveryHandler;
 import it.magius.struttura.architect.ingame.InGameManager;
 import it.magius.struttura.architect.ingame.ModAttachments;
 import it.magius.struttura.architect.ingame.spawn.SpawnQueue;
+import it.magius.struttura.architect.ingame.spawn.TerrainProfileCache;
 import it.magius.struttura.architect.ingame.tracker.BuildingTracker;
 import it.magius.struttura.architect.item.TapeAttackHandler;
 import it.magius.struttura.architect.i18n.I18n;
 import it.magius.struttura.architect.network.NetworkHandler;
+import it.magius.struttura.architect.placement.PlacementScheduler;
 import it.magius.struttura.architect.registry.ConstructionRegistry;
 import it.magius.struttura.architect.registry.ModItems;
 import it.magius.struttura.architect.session.EditingSession;
@@ -77,6 +79,12 @@ public class Architect implements ModInitializer {
 		// Register spawn queue for gradual chunk processing
 		SpawnQueue.getInstance().register();
 
+		// Register terrain profile cache (drops profiles of unloaded chunks)
+		TerrainProfileCache.getInstance().register();
+
+		// Register placement scheduler (spawn/pull/move spread over ticks)
+		PlacementScheduler.getInstance().register();
+
 		// Register building tracker for player proximity detection
 		BuildingTracker.getInstance().register();
 
@@ -101,10 +109,18 @@ public class Architect implements ModInitializer {
 
 		// Salva tutte le costruzioni quando il server si ferma
 		ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+			// Completa i piazzamenti in corso, cosi' le costruzioni salvate sono coerenti
+			PlacementScheduler.getInstance().finishAll();
 			LOGGER.info("Server stopping, saving all constructions...");
 			ConstructionRegistry.getInstance().saveAll();
 		});
 
+		// Dopo la disconnessione dei giocatori (che registra le sessioni aperte),
+		// scrive su disco i salvataggi in coda e ferma il thread IO
+		ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+			ConstructionRegistry.getInstance().shutdown();
+		});
+
 		// Initialize InGame system when world loads
 		ServerWorldEvents.LOAD.register((server, world) -> {
 			InGameManager.getInstance().onWorldLoad(server, world);
@@ -117,6 +133,11 @@ public class Architect implements ModInitializer {
 
 		// Pulisci il registro quando il mondo viene scaricato
 		ServerWorldEvents.UNLOAD.register((server, world) -> {
+			// Ferma i piazzamenti ancora in corso: girano solo le fasi di pulizia
+			// (unfreeze, ripristino dei move), finche' il mondo e' ancora disponibile
+			PlacementScheduler.getInstance().cancelAll();
+			PlacementScheduler.getInstance().finishAll();
+
 			// Solo per il mondo overworld (evita di pulire piu' volte)
 			if (world.dimension() == net.minecraft.world.level.Level.OVERWORLD) {
 				LOGGER.info("World unloading, clearing construction registry");
@@ -151,6 +172,14 @@ public class Architect implements ModInitializer {
 		// Quando un giocatore si disconnette, termina la sessione di editing
 		ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
 			var player = handler.getPlayer();
+
+			// Ferma i piazzamenti avviati dal giocatore (spawn di prova, move)
+			int cancelledJobs = PlacementScheduler.getInstance().cancelOwnedBy(player.getUUID());
+			if (cancelledJobs > 0) {
+				LOGGER.info("Player {} disconnected, cancelled {} placement jobs",
+					player.getName().getString(), cancelledJobs);
+			}
+
 			EditingSession session = EditingSession.getSession(player.getUUID());
 			if (session != null) {
 				// Registra la costruzione (questo la salva anche su disco) e termina la sessione
@@ -17,12 +17,14 @@ import it.magius.struttura.architect.model.ConstructionBounds;
 import it.magius.struttura.architect.model.ConstructionSnapshot;
 import it.magius.struttura.architect.model.EntityData;
 import it.magius.struttura.architect.model.ModInfo;
+import it.magius.struttura.architect.model.PalettedBlockMap;
 import it.magius.struttura.architect.model.Room;
+import it.magius.struttura.architect.storage.BlockNbtFormat;
+import it.magius.struttura.architect.storage.BlockStateCodec;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.NbtIo;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
@@ -47,6 +49,10 @@ public class ApiClient {
     private static final Gson GSON = new GsonBuilder().create();
     private static final AtomicBoolean REQUEST_IN_PROGRESS = new AtomicBoolean(false);
 
+    // blocks.nbt version sent on push (the backend parses the legacy palette + list layout).
+    // Downloads accept both versions.
+    private static final int CLOUD_BLOCKS_VERSION = BlockNbtFormat.VERSION_LEGACY;
+
     /**
      * Risultato di una richiesta API.
      */
@@ -346,104 +352,26 @@ public class ApiClient {
     /**
      * Serializza i blocchi della costruzione in formato NBT compresso.
      * Le coordinate vengono normalizzate (relative a 0,0,0) sottraendo i bounds minimi.
+     * Il push usa il formato legacy (v1) che il backend si aspetta.
      */
     private static byte[] serializeBlocksToNbt(ConstructionSnapshot snapshot, ConstructionBounds bounds) throws IOException {
-        CompoundTag root = new CompoundTag();
+        return serializeBlocksToNbt(snapshot, bounds, CLOUD_BLOCKS_VERSION);
+    }
 
+    /**
+     * Serializza i blocchi in formato NBT compresso nella versione indicata
+     * ({@link BlockNbtFormat#VERSION_LEGACY} o {@link BlockNbtFormat#VERSION_PACKED}).
+     */
+    private static byte[] serializeBlocksToNbt(ConstructionSnapshot snapshot, ConstructionBounds bounds, int version) throws IOException {
         // Ottieni i bounds per normalizzare le coordinate
         int offsetX = bounds.isValid() ? bounds.getMinX() : 0;
         int offsetY = bounds.isValid() ? bounds.getMinY() : 0;
         int offsetZ = bounds.isValid() ? bounds.getMinZ() : 0;
 
-        Architect.LOGGER.debug("Serializing blocks with offset ({},{},{})", offsetX, offsetY, offsetZ);
-
-        // Palette: mappa blockState -> index
-        Map<String, Integer> palette = new LinkedHashMap<>();
-        ListTag paletteList = new ListTag();
-
-        // Blocchi
-        ListTag blocksList = new ListTag();
-
-        for (Map.Entry<BlockPos, BlockState> entry : snapshot.blocks().entrySet()) {
-            BlockPos pos = entry.getKey();
-            BlockState state = entry.getValue();
+        Architect.LOGGER.debug("Serializing blocks with offset ({},{},{}), format v{}", offsetX, offsetY, offsetZ, version);
 
-            // Serializza lo stato del blocco
-            String stateString = serializeBlockState(state);
-
-            // Aggiungi alla palette se non esiste
-            int paletteIndex = palette.computeIfAbsent(stateString, s -> {
-                CompoundTag paletteEntry = new CompoundTag();
-                paletteEntry.putString("state", s);
-                paletteList.add(paletteEntry);
-                return palette.size();
-            });
-
-            // Aggiungi il blocco con coordinate RELATIVE (normalizzate a 0,0,0)
-            CompoundTag blockTag = new CompoundTag();
-            blockTag.putInt("x", pos.getX() - offsetX);
-            blockTag.putInt("y", pos.getY() - offsetY);
-            blockTag.putInt("z", pos.getZ() - offsetZ);
-            blockTag.putInt("p", paletteIndex);
-
-            // Se il blocco ha un NBT associato (block entity), includilo
-            CompoundTag blockEntityNbt = snapshot.blockEntityNbt().get(pos);
-            if (blockEntityNbt != null && !blockEntityNbt.isEmpty()) {
-                blockTag.put("nbt", blockEntityNbt);
-            }
-
-            blocksList.add(blockTag);
-        }
-
-        root.put("palette", paletteList);
-        root.put("blocks", blocksList);
-        root.putInt("version", 1);
-
-        // Salva i delta delle stanze
-        CompoundTag roomsTag = new CompoundTag();
-        for (Map.Entry<String, ConstructionSnapshot.RoomSnapshot> roomEntry : snapshot.rooms().entrySet()) {
-            ConstructionSnapshot.RoomSnapshot roomSnapshot = roomEntry.getValue();
-            if (!roomSnapshot.blocks().isEmpty()) {
-                CompoundTag roomTag = new CompoundTag();
-                ListTag roomBlocksList = new ListTag();
-
-                for (Map.Entry<BlockPos, BlockState> entry : roomSnapshot.blocks().entrySet()) {
-                    BlockPos pos = entry.getKey();
-                    BlockState state = entry.getValue();
-
-                    String stateString = serializeBlockState(state);
-
-                    // Aggiungi alla palette condivisa se non esiste
-                    int paletteIndex = palette.computeIfAbsent(stateString, s -> {
-                        CompoundTag paletteEntry = new CompoundTag();
-                        paletteEntry.putString("state", s);
-                        paletteList.add(paletteEntry);
-                        return palette.size();
-                    });
-
-                    CompoundTag blockTag = new CompoundTag();
-                    // Coordinate relative (normalizzate)
-                    blockTag.putInt("x", pos.getX() - offsetX);
-                    blockTag.putInt("y", pos.getY() - offsetY);
-                    blockTag.putInt("z", pos.getZ() - offsetZ);
-                    blockTag.putInt("p", paletteIndex);
-
-                    // NBT del block entity se presente
-                    CompoundTag blockEntityNbt = roomSnapshot.blockEntityNbt().get(pos);
-                    if (blockEntityNbt != null && !blockEntityNbt.isEmpty()) {
-                        blockTag.put("nbt", blockEntityNbt);
-                    }
-
-                    roomBlocksList.add(blockTag);
-                }
-
-                roomTag.put("blocks", roomBlocksList);
-                roomsTag.put(roomEntry.getKey(), roomTag);
-            }
-        }
-        if (!roomsTag.isEmpty()) {
-            root.put("rooms", roomsTag);
-        }
+        CompoundTag root = BlockNbtFormat.write(snapshot, snapshot.rooms().keySet(),
+            offsetX, offsetY, offsetZ, version, BlockStateCodec::serialize);
 
         // Comprimi in memoria
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -543,37 +471,9 @@ public class ApiClient {
         com.google.gson.JsonArray paletteArray = new com.google.gson.JsonArray();
 
         // Blocks
-        com.google.gson.JsonArray blocksArray = new com.google.gson.JsonArray();
-
-        for (Map.Entry<BlockPos, BlockState> entry : snapshot.blocks().entrySet()) {
-            BlockPos pos = entry.getKey();
-            BlockState state = entry.getValue();
-
-            String stateString = serializeBlockState(state);
-
-            int paletteIndex = palette.computeIfAbsent(stateString, s -> {
-                JsonObject paletteEntry = new JsonObject();
-                paletteEntry.addProperty("state", s);
-                paletteArray.add(paletteEntry);
-                return palette.size();
-            });
-
-            JsonObject blockObj = new JsonObject();
-            blockObj.addProperty("x", pos.getX() - offsetX);
-            blockObj.addProperty("y", pos.getY() - offsetY);
-            blockObj.addProperty("z", pos.getZ() - offsetZ);
-            blockObj.addProperty("p", paletteIndex);
-
-            CompoundTag blockEntityNbt = snapshot.blockEntityNbt().get(pos);
-            if (blockEntityNbt != null && !blockEntityNbt.isEmpty()) {
-                blockObj.add("nbt", NbtJsonConverter.compoundTagToJson(blockEntityNbt));
-            }
-
-            blocksArray.add(blockObj);
-        }
-
         root.add("palette", paletteArray);
-        root.add("blocks", blocksArray);
+        root.add("blocks", blocksToJson(snapshot.blocks(), snapshot.blockEntityNbt(),
+            offsetX, offsetY, offsetZ, palette, paletteArray));
 
         // Room deltas
         JsonObject roomsObj = new JsonObject();
@@ -581,36 +481,8 @@ public class ApiClient {
             ConstructionSnapshot.RoomSnapshot roomSnapshot = roomEntry.getValue();
             if (!roomSnapshot.blocks().isEmpty()) {
                 JsonObject roomObj = new JsonObject();
-                com.google.gson.JsonArray roomBlocksArray = new com.google.gson.JsonArray();
-
-                for (Map.Entry<BlockPos, BlockState> entry : roomSnapshot.blocks().entrySet()) {
-                    BlockPos pos = entry.getKey();
-                    BlockState state = entry.getValue();
-
-                    String stateString = serializeBlockState(state);
-
-                    int paletteIndex = palette.computeIfAbsent(stateString, s -> {
-                        JsonObject paletteEntry = new JsonObject();
-                        paletteEntry.addProperty("state", s);
-                        paletteArray.add(paletteEntry);
-                        return palette.size();
-                    });
-
-                    JsonObject blockObj = new JsonObject();
-                    blockObj.addProperty("x", pos.getX() - offsetX);
-                    blockObj.addProperty("y", pos.getY() - offsetY);
-                    blockObj.addProperty("z", pos.getZ() - offsetZ);
-                    blockObj.addProperty("p", paletteIndex);
-
-                    CompoundTag blockEntityNbt = roomSnapshot.blockEntityNbt().get(pos);
-                    if (blockEntityNbt != null && !blockEntityNbt.isEmpty()) {
-                        blockObj.add("nbt", NbtJsonConverter.compoundTagToJson(blockEntityNbt));
-                    }
-
-                    roomBlocksArray.add(blockObj);
-                }
-
-                roomObj.add("blocks", roomBlocksArray);
+                roomObj.add("blocks", blocksToJson(roomSnapshot.blocks(), roomSnapshot.blockEntityNbt(),
+                    offsetX, offsetY, offsetZ, palette, paletteArray));
                 roomsObj.add(roomEntry.getKey(), roomObj);
             }
         }
@@ -621,6 +493,44 @@ public class ApiClient {
         return root;
     }
 
+    /**
+     * Serializes one block section (base or room) to a JSON array, straight from the
+     * paletted snapshot with normalized coordinates. The palette is shared between sections.
+     */
+    private static com.google.gson.JsonArray blocksToJson(PalettedBlockMap blocks, Map<BlockPos, CompoundTag> blockEntityNbt,
+                                                          int offsetX, int offsetY, int offsetZ,
+                                                          Map<String, Integer> palette,
+                                                          com.google.gson.JsonArray paletteArray) {
+        com.google.gson.JsonArray blocksArray = new com.google.gson.JsonArray();
+        BlockPos.MutableBlockPos lookup = new BlockPos.MutableBlockPos();
+
+        blocks.forEachBlock(offsetX, offsetY, offsetZ, (x, y, z, state) -> {
+            String stateString = BlockStateCodec.serialize(state);
+
+            int paletteIndex = palette.computeIfAbsent(stateString, s -> {
+                JsonObject paletteEntry = new JsonObject();
+                paletteEntry.addProperty("state", s);
+                paletteArray.add(paletteEntry);
+                return palette.size();
+            });
+
+            JsonObject blockObj = new JsonObject();
+            blockObj.addProperty("x", x);
+            blockObj.addProperty("y", y);
+            blockObj.addProperty("z", z);
+            blockObj.addProperty("p", paletteIndex);
+
+            CompoundTag nbt = blockEntityNbt.isEmpty() ? null
+                : blockEntityNbt.get(lookup.set(x + offsetX, y + offsetY, z + offsetZ));
+            if (nbt != null && !nbt.isEmpty()) {
+                blockObj.add("nbt", NbtJsonConverter.compoundTagToJson(nbt));
+            }
+
+            blocksArray.add(blockObj);
+        });
+        return blocksArray;
+    }
+
     /**
      * Serializes entities to JSON format with NBT type hints.
      * Structure mirrors serializeEntitiesToNbt() but produces a JsonObject.
@@ -720,30 +630,6 @@ public class ApiClient {
         }
     }
 
-    /**
-     * Serializza un BlockState in stringa.
-     */
-    private static String serializeBlockState(BlockState state) {
-        String blockId = BuiltInRegistries.BLOCK.getKey(state.getBlock()).toString();
-        StringBuilder sb = new StringBuilder(blockId);
-
-        var properties = state.getValues();
-        if (!properties.isEmpty()) {
-            sb.append("[");
-            boolean first = true;
-            for (var entry : properties.entrySet()) {
-                if (!first) sb.append(",");
-                first = false;
-                sb.append(entry.getKey().getName());
-                sb.append("=");
-                sb.append(entry.getValue().toString().toLowerCase());
-            }
-            sb.append("]");
-        }
-
-        return sb.toString();
-    }
-
     /**
      * Legge la risposta dalla connessione.
      */
@@ -1134,7 +1020,7 @@ public class ApiClient {
         List<BlockState> palette = new ArrayList<>();
         for (int i = 0; i < paletteArray.size(); i++) {
             String stateString = paletteArray.get(i).getAsJsonObject().get("state").getAsString();
-            BlockState state = parseBlockState(stateString);
+            BlockState state = BlockStateCodec.parse(stateString);
             palette.add(state);
         }
 
@@ -1651,36 +1537,22 @@ public class ApiClient {
                                                       int offsetX, int offsetY, int offsetZ) throws IOException {
         ByteArrayInputStream bais = new ByteArrayInputStream(nbtBytes);
         CompoundTag root = NbtIo.readCompressed(bais, net.minecraft.nbt.NbtAccounter.unlimitedHeap());
+        int version = BlockNbtFormat.getVersion(root);
 
         // Read palette
-        ListTag paletteList = root.getList("palette").orElse(new ListTag());
         List<BlockState> palette = new ArrayList<>();
-
-        for (int i = 0; i < paletteList.size(); i++) {
-            CompoundTag paletteEntry = paletteList.getCompound(i).orElseThrow();
-            String stateString = paletteEntry.getString("state").orElse("");
-            BlockState state = parseBlockState(stateString);
-            palette.add(state);
+        for (String stateString : BlockNbtFormat.readPalette(root)) {
+            palette.add(BlockStateCodec.parse(stateString));
         }
 
         // Read blocks (denormalizing coordinates)
-        ListTag blocksList = root.getList("blocks").orElse(new ListTag());
-        for (int i = 0; i < blocksList.size(); i++) {
-            CompoundTag blockTag = blocksList.getCompound(i).orElseThrow();
-            int x = blockTag.getInt("x").orElse(0) + offsetX;
-            int y = blockTag.getInt("y").orElse(0) + offsetY;
-            int z = blockTag.getInt("z").orElse(0) + offsetZ;
-            int paletteIndex = blockTag.getInt("p").orElse(0);
-
-            BlockPos pos = new BlockPos(x, y, z);
-            BlockState state = palette.get(paletteIndex);
-            blocks.put(pos, state);
-
-            CompoundTag beNbt = blockTag.getCompound("nbt").orElse(null);
-            if (beNbt != null && !beNbt.isEmpty()) {
+        BlockNbtFormat.readSection(root, version, (x, y, z, p, beNbt) -> {
+            BlockPos pos = new BlockPos(x + offsetX, y + offsetY, z + offsetZ);
+            blocks.put(pos, palette.get(p));
+            if (beNbt != null) {
                 blockEntityNbt.put(pos, beNbt);
             }
-        }
+        });
 
         // Load room block deltas (denormalizing coordinates)
         CompoundTag roomsTag = root.getCompound("rooms").orElse(null);
@@ -1697,23 +1569,13 @@ public class ApiClient {
                 Map<BlockPos, BlockState> roomBlocks = new HashMap<>();
                 Map<BlockPos, CompoundTag> roomBlockEntityNbt = new HashMap<>();
 
-                ListTag roomBlocksList = roomTag.getList("blocks").orElse(new ListTag());
-                for (int i = 0; i < roomBlocksList.size(); i++) {
-                    CompoundTag blockTag = roomBlocksList.getCompound(i).orElseThrow();
-                    int x = blockTag.getInt("x").orElse(0) + offsetX;
-                    int y = blockTag.getInt("y").orElse(0) + offsetY;
-                    int z = blockTag.getInt("z").orElse(0) + offsetZ;
-                    int paletteIndex = blockTag.getInt("p").orElse(0);
-
-                    BlockPos pos = new BlockPos(x, y, z);
-                    BlockState state = palette.get(paletteIndex);
-                    roomBlocks.put(pos, state);
-
-                    CompoundTag beNbt = blockTag.getCompound("nbt").orElse(null);
-                    if (beNbt != null && !beNbt.isEmpty()) {
+                BlockNbtFormat.readSection(roomTag, version, (x, y, z, p, beNbt) -> {
+                    BlockPos pos = new BlockPos(x + offsetX, y + offsetY, z + offsetZ);
+                    roomBlocks.put(pos, palette.get(p));
+                    if (beNbt != null) {
                         roomBlockEntityNbt.put(pos, beNbt);
                     }
-                }
+                });
 
                 // Merge with existing room snapshot or create new
                 ConstructionSnapshot.RoomSnapshot existing = roomSnapshots.get(roomId);
@@ -1799,78 +1661,6 @@ public class ApiClient {
         }
     }
 
-    /**
-     * Parsa una stringa di BlockState (es: "minecraft:oak_stairs[facing=north,half=bottom]")
-     */
-    private static BlockState parseBlockState(String stateString) {
-        try {
-            // Separa l'ID del blocco dalle proprietà
-            String blockIdStr;
-            String propertiesStr = null;
-
-            int bracketIndex = stateString.indexOf('[');
-            if (bracketIndex != -1) {
-                blockIdStr = stateString.substring(0, bracketIndex);
-                propertiesStr = stateString.substring(bracketIndex + 1, stateString.length() - 1);
-            } else {
-                blockIdStr = stateString;
-            }
-
-            // Ottieni il blocco cercando nel registro
-            net.minecraft.world.level.block.Block block = net.minecraft.world.level.block.Blocks.AIR;
-
-            for (net.minecraft.world.level.block.Block b : BuiltInRegistries.BLOCK) {
-                String registeredId = BuiltInRegistries.BLOCK.getKey(b).toString();
-                if (registeredId.equals(blockIdStr)) {
-                    block = b;
-                    break;
-                }
-            }
-
-            BlockState state = block.defaultBlockState();
-
-            // Applica le proprietà se presenti
-            if (propertiesStr != null && !propertiesStr.isEmpty()) {
-                state = applyProperties(state, propertiesStr);
-            }
-
-            return state;
-
-        } catch (Exception e) {
-            Architect.LOGGER.warn("Failed to parse block state: {}", stateString, e);
-            return net.minecraft.world.level.block.Blocks.AIR.defaultBlockState();
-        }
-    }
-
-    /**
-     * Applica le proprietà a un BlockState.
-     */
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private static BlockState applyProperties(BlockState state, String propertiesStr) {
-        String[] pairs = propertiesStr.split(",");
-        for (String pair : pairs) {
-            String[] keyValue = pair.split("=");
-            if (keyValue.length != 2) continue;
-
-            String propName = keyValue[0].trim();
-            String propValue = keyValue[1].trim();
-
-            // Trova la proprietà nel blocco
-            for (net.minecraft.world.level.block.state.properties.Property<?> prop :
-                    state.getProperties()) {
-                if (prop.getName().equals(propName)) {
-                    Optional<?> value = prop.getValue(propValue);
-                    if (value.isPresent()) {
-                        state = state.setValue((net.minecraft.world.level.block.state.properties.Property) prop,
-                                              (Comparable) value.get());
-                    }
-                    break;
-                }
-            }
-        }
-        return state;
-    }
-
     /**
      * Risultato di una richiesta di metadata only.
      */
@@ -2432,11 +2222,15 @@ public class ApiClient {
 
                 // Parse limits and rules
                 int xWorld = 0;
+                double weight = 1.0;
                 List<SpawnRule> rules = new ArrayList<>();
 
                 if (bldgObj.has("limits") && bldgObj.get("limits").isJsonObject()) {
                     JsonObject limitsObj = bldgObj.getAsJsonObject("limits");
                     xWorld = limitsObj.has("xWorld") ? limitsObj.get("xWorld").getAsInt() : 0;
+                    // Optional relative selection weight (absent = 1, all buildings equally likely)
+                    weight = limitsObj.has("weight") && !limitsObj.get("weight").isJsonNull()
+                        ? limitsObj.get("weight").getAsDouble() : 1.0;
 
                     if (limitsObj.has("rules") && limitsObj.get("rules").isJsonArray()) {
                         for (JsonElement ruleElement : limitsObj.getAsJsonArray("rules")) {
@@ -2514,7 +2308,7 @@ public class ApiClient {
                     }
                 }
 
-                buildings.add(new SpawnableBuilding(rdns, pk, ownerUserId, isPrivate, hash, author, entrance, entranceYaw, xWorld, rules, bounds, names, descriptions));
+                buildings.add(new SpawnableBuilding(rdns, pk, ownerUserId, isPrivate, hash, author, entrance, entranceYaw, xWorld, weight, rules, bounds, names, descriptions));
             }
         }
 
@@ -15,6 +15,8 @@ import it.magius.struttura.architect.ingame.InGameState;
 import it.magius.struttura.architect.ingame.model.SpawnableBuilding;
 import it.magius.struttura.architect.ingame.model.SpawnableList;
 import it.magius.struttura.architect.ingame.model.SpawnRule;
+import it.magius.struttura.architect.ingame.spawn.SpawnQueue;
+import it.magius.struttura.architect.ingame.spawn.TerrainProfileCache;
 import it.magius.struttura.architect.model.Construction;
 import it.magius.struttura.architect.model.ConstructionBounds;
 import it.magius.struttura.architect.model.ConstructionSnapshot;
@@ -23,10 +25,13 @@ import it.magius.struttura.architect.model.Room;
 import it.magius.struttura.architect.network.FirstPushDisclaimerPacket;
 import it.magius.struttura.architect.network.NetworkHandler;
 import it.magius.struttura.architect.placement.ConstructionOperations;
+import it.magius.struttura.architect.placement.PlacementJob;
+import it.magius.struttura.architect.placement.PlacementScheduler;
 import it.magius.struttura.architect.registry.ConstructionRegistry;
 import it.magius.struttura.architect.registry.ModItems;
 import it.magius.struttura.architect.selection.SelectionManager;
 import it.magius.struttura.architect.session.EditingSession;
+import it.magius.struttura.architect.storage.ConstructionCatalog;
 import it.magius.struttura.architect.vanilla.VanillaBatchPushState;
 import it.magius.struttura.architect.vanilla.VanillaStructureLoader;
 import net.minecraft.commands.CommandSourceStack;
@@ -66,6 +71,13 @@ public class StrutturaCommand {
         return PULLING_CONSTRUCTIONS.contains(constructionId);
     }
 
+    /**
+     * Verifica se una costruzione è attualmente visibile nel mondo (show).
+     */
+    public static boolean isConstructionVisible(String constructionId) {
+        return VISIBLE_CONSTRUCTIONS.contains(constructionId);
+    }
+
     // Suggerimenti per gli ID delle costruzioni esistenti (incluse quelle in editing)
     private static final SuggestionProvider<CommandSourceStack> CONSTRUCTION_ID_SUGGESTIONS =
         (context, builder) -> {
@@ -290,6 +302,13 @@ public class StrutturaCommand {
                         return 1;
                     })
                 )
+                // Catalog maintenance (admin only)
+                .then(Commands.literal("catalog")
+                    .requires(source -> source.permissions().hasPermission(Permissions.COMMANDS_ADMIN))
+                    .then(Commands.literal("rebuild")
+                        .executes(StrutturaCommand::executeCatalogRebuild)
+                    )
+                )
                 // Adventure commands for InGame mode
                 .then(Commands.literal("adventure")
                     .then(Commands.literal("init")
@@ -389,6 +408,12 @@ public class StrutturaCommand {
             return 0;
         }
 
+        // Verifica che la costruzione non sia in fase di posizionamento (pull/move in corso)
+        if (PlacementScheduler.getInstance().isPlacing(id)) {
+            source.sendFailure(Component.literal(I18n.tr(player, "placement.in_progress", id)));
+            return 0;
+        }
+
         // Verifica che un altro giocatore non stia gia' modificando questa costruzione
         EditingSession existingSession = getSessionForConstruction(id);
         if (existingSession != null) {
@@ -593,7 +618,7 @@ public class StrutturaCommand {
         CommandSourceStack source = ctx.getSource();
 
         // Ottiene tutte le costruzioni, incluse quelle in editing
-        Collection<Construction> constructions = getAllConstructionsIncludingEditing();
+        Collection<ConstructionCatalog.Entry> constructions = getAllConstructionsIncludingEditing();
 
         // Per list, usiamo la lingua del giocatore se disponibile
         ServerPlayer player = source.getEntity() instanceof ServerPlayer sp ? sp : null;
@@ -616,38 +641,38 @@ public class StrutturaCommand {
             sb.append(I18n.tr(player, "list.header")).append("\n");
             sb.append(I18n.tr(player, "list.total", constructions.size())).append("\n");
 
-            for (Construction c : constructions) {
-                BlockPos pos = getConstructionPosition(c.getId());
+            for (ConstructionCatalog.Entry c : constructions) {
+                BlockPos pos = getConstructionPosition(c.id());
                 String posStr = pos != null
                     ? String.format("[%d, %d, %d]", pos.getX(), pos.getY(), pos.getZ())
                     : I18n.tr(player, "list.position_unavailable");
 
                 // Indica se in editing
-                boolean inEditing = isConstructionBeingEdited(c.getId());
+                boolean inEditing = isConstructionBeingEdited(c.id());
                 String editingMarker = inEditing ? " [EDITING]" : "";
 
-                sb.append("\n- ").append(c.getId()).append(editingMarker);
-                sb.append("\n  ").append(I18n.tr(player, "list.author", c.getAuthorName()));
-                sb.append("\n  ").append(I18n.tr(player, "list.blocks", c.getBlockCount()));
+                sb.append("\n- ").append(c.id()).append(editingMarker);
+                sb.append("\n  ").append(I18n.tr(player, "list.author", c.authorName()));
+                sb.append("\n  ").append(I18n.tr(player, "list.blocks", c.blockCount()));
                 sb.append("\n  ").append(I18n.tr(player, "list.position", posStr));
             }
         } else {
             sb.append(I18n.tr("list.header")).append("\n");
             sb.append(I18n.tr("list.total", constructions.size())).append("\n");
 
-            for (Construction c : constructions) {
-                BlockPos pos = getConstructionPosition(c.getId());
+            for (ConstructionCatalog.Entry c : constructions) {
+                BlockPos pos = getConstructionPosition(c.id());
                 String posStr = pos != null
                     ? String.format("[%d, %d, %d]", pos.getX(), pos.getY(), pos.getZ())
                     : I18n.tr("list.position_unavailable");
 
                 // Indica se in editing
-                boolean inEditing = isConstructionBeingEdited(c.getId());
+                boolean inEditing = isConstructionBeingEdited(c.id());
                 String editingMarker = inEditing ? " [EDITING]" : "";
 
-                sb.append("\n- ").append(c.getId()).append(editingMarker);
-                sb.append("\n  ").append(I18n.tr("list.author", c.getAuthorName()));
-                sb.append("\n  ").append(I18n.tr("list.blocks", c.getBlockCount()));
+                sb.append("\n- ").append(c.id()).append(editingMarker);
+                sb.append("\n  ").append(I18n.tr("list.author", c.authorName()));
+                sb.append("\n  ").append(I18n.tr("list.blocks", c.blockCount()));
                 sb.append("\n  ").append(I18n.tr("list.position", posStr));
             }
         }
@@ -721,8 +746,7 @@ public class StrutturaCommand {
 
         // Count how many blocks of this type exist
         ServerLevel level = (ServerLevel) player.level();
-        Map<String, Integer> blockCounts = construction.getBlockCounts(level);
-        int countBefore = blockCounts.getOrDefault(blockId, 0);
+        int countBefore = construction.countBlocksByType(blockId, level);
 
         if (countBefore == 0) {
             final String finalBlockId = blockId;
@@ -799,26 +823,33 @@ public class StrutturaCommand {
      */
     private static int executeArchitectSpawn(ServerPlayer player, Construction construction,
                                               CommandSourceStack source, java.util.List<String> forcedRoomIds) {
-        // Delegate to ConstructionOperations.architectSpawn
-        ConstructionSnapshot snapshot = ConstructionSnapshot.fromWorld(construction, (ServerLevel) player.level());
-        var result = ConstructionOperations.architectSpawn(
-            player, construction, snapshot, player.getYRot(), forcedRoomIds
-        );
-
-        if (result.blocksPlaced() > 0) {
-            Architect.LOGGER.info("Player {} architect-spawned {} ({} blocks, {} entities, {} rooms)",
-                player.getName().getString(), construction.getId(),
-                result.blocksPlaced(), result.entitiesSpawned(), result.roomsSpawned());
-
-            source.sendSuccess(() -> Component.literal(
-                I18n.tr(player, "spawn.architect_success",
-                    construction.getId(), result.blocksPlaced(), result.roomsSpawned())
-            ), true);
-            return 1;
-        } else {
+        // Delegate to ConstructionOperations.architectSpawn (placed across ticks)
+        ServerLevel level = (ServerLevel) player.level();
+        ConstructionSnapshot snapshot = ConstructionSnapshot.fromWorld(construction, level);
+        if (snapshot.blocks().isEmpty()) {
             source.sendFailure(Component.literal(I18n.tr(player, "spawn.failed", construction.getId())));
             return 0;
         }
+
+        var job = ConstructionOperations.architectSpawnJob(
+            player, construction, snapshot, player.getYRot(), forcedRoomIds
+        );
+        job.ownedBy(player.getUUID()).onProgress(PlacementScheduler.actionBarProgress(player, construction.getId())).onComplete(result -> {
+            if (result.blocksPlaced() > 0) {
+                Architect.LOGGER.info("Player {} architect-spawned {} ({} blocks, {} entities, {} rooms)",
+                    player.getName().getString(), construction.getId(),
+                    result.blocksPlaced(), result.entitiesSpawned(), result.roomsSpawned());
+
+                source.sendSuccess(() -> Component.literal(
+                    I18n.tr(player, "spawn.architect_success",
+                        construction.getId(), result.blocksPlaced(), result.roomsSpawned())
+                ), true);
+            } else {
+                source.sendFailure(Component.literal(I18n.tr(player, "spawn.failed", construction.getId())));
+            }
+        });
+        PlacementScheduler.getInstance().submit(job);
+        return 1;
     }
 
     /**
@@ -1004,21 +1035,22 @@ public class StrutturaCommand {
     }
 
     /**
-     * Ottiene tutte le costruzioni (dal registry + sessioni attive non salvate).
+     * Ottiene i dati di tutte le costruzioni (catalogo del registry + sessioni attive non salvate),
+     * senza caricare da disco quelle non in memoria.
      */
-    private static Collection<Construction> getAllConstructionsIncludingEditing() {
-        Map<String, Construction> all = new HashMap<>();
+    private static Collection<ConstructionCatalog.Entry> getAllConstructionsIncludingEditing() {
+        Map<String, ConstructionCatalog.Entry> all = new HashMap<>();
 
         // Aggiungi tutte dal registry
-        for (Construction c : ConstructionRegistry.getInstance().getAll()) {
-            all.put(c.getId(), c);
+        for (ConstructionCatalog.Entry entry : ConstructionRegistry.getInstance().getEntries()) {
+            all.put(entry.id(), entry);
         }
 
         // Aggiungi quelle in editing che non sono ancora nel registry
         for (EditingSession session : EditingSession.getAllSessions()) {
             Construction c = session.getConstruction();
             if (!all.containsKey(c.getId())) {
-                all.put(c.getId(), c);
+                all.put(c.getId(), ConstructionCatalog.Entry.of(c));
             }
         }
 
@@ -1701,6 +1733,12 @@ public class StrutturaCommand {
             return 0;
         }
 
+        // Verifica che non sia in corso un piazzamento (move)
+        if (PlacementScheduler.getInstance().isPlacing(id)) {
+            source.sendFailure(Component.literal(I18n.tr(player, "placement.in_progress", id)));
+            return 0;
+        }
+
         // Verifica che non ci sia già una richiesta API in corso
         if (ApiClient.isRequestInProgress()) {
             source.sendFailure(Component.literal(I18n.tr(player, "push.request_in_progress")));
@@ -1725,28 +1763,33 @@ public class StrutturaCommand {
             // Callback viene eseguito su thread async, schedula sul main thread
             if (server != null) {
                 server.execute(() -> {
-                    // Sblocca la costruzione
-                    PULLING_CONSTRUCTIONS.remove(id);
-
                     if (response.success() && response.construction() != null) {
                         Construction construction = response.construction();
 
                         // Register the construction in the registry
                         ConstructionRegistry.getInstance().register(construction);
 
-                        // Use centralized placement with PULL mode (updates construction coordinates)
+                        // Use centralized placement with PULL mode (updates construction coordinates),
+                        // placed across ticks: the construction stays locked until the job is done
                         ConstructionSnapshot snapshot = ConstructionSnapshot.fromWorld(construction, (ServerLevel) player.level());
-                        var placementResult = ConstructionOperations.placeConstruction(
+                        var job = ConstructionOperations.placeConstructionJob(
                             player, construction, snapshot, ConstructionOperations.PlacementMode.PULL, true,
                             null, player.getYRot(), false
                         );
+                        job.onProgress(PlacementScheduler.actionBarProgress(player, id)).onComplete(placementResult -> {
+                            // Sblocca la costruzione
+                            PULLING_CONSTRUCTIONS.remove(id);
 
-                        ChatMessages.send(player, ChatMessages.Level.INFO, "pull.success", id,
-                            placementResult.blocksPlaced(), placementResult.entitiesSpawned());
+                            ChatMessages.send(player, ChatMessages.Level.INFO, "pull.success", id,
+                                placementResult.blocksPlaced(), placementResult.entitiesSpawned());
 
-                        Architect.LOGGER.info("Pull successful for {}: {} blocks placed, {} entities spawned",
-                            id, placementResult.blocksPlaced(), placementResult.entitiesSpawned());
+                            Architect.LOGGER.info("Pull successful for {}: {} blocks placed, {} entities spawned",
+                                id, placementResult.blocksPlaced(), placementResult.entitiesSpawned());
+                        }).onCancel(() -> PULLING_CONSTRUCTIONS.remove(id));
+                        PlacementScheduler.getInstance().submit(job);
                     } else {
+                        // Sblocca la costruzione
+                        PULLING_CONSTRUCTIONS.remove(id);
                         ChatMessages.send(player, ChatMessages.Level.ERROR, "pull.failed", id, response.statusCode(), response.message());
                         Architect.LOGGER.warn("Pull failed for {}: {} - {}",
                             id, response.statusCode(), response.message());
@@ -1814,36 +1857,60 @@ public class StrutturaCommand {
             return 0;
         }
 
-        ServerLevel level = (ServerLevel) player.level();
-
-        // 1. Save old bounds BEFORE removing the construction
-        ConstructionBounds oldBounds = construction.getBounds().copy();
+        // Verifica che non sia gia' in corso un piazzamento (pull/move)
+        if (PlacementScheduler.getInstance().isPlacing(id)) {
+            source.sendFailure(Component.literal(I18n.tr(player, "placement.in_progress", id)));
+            return 0;
+        }
 
-        // 2. Remove from old position first (use MOVE_CLEAR mode with old bounds)
-        ConstructionOperations.removeConstruction(
-            level, construction, ConstructionOperations.RemovalMode.MOVE_CLEAR, oldBounds
-        );
+        ServerLevel level = (ServerLevel) player.level();
 
-        // 3. Place at new position in front of player (updates construction coordinates)
+        // 1. Single snapshot of the construction BEFORE clearing it: base from the world,
+        // room data (deltas and entities) from disk
         ConstructionSnapshot snapshot = ConstructionSnapshot.fromWorld(construction, level);
-        var placementResult = ConstructionOperations.placeConstruction(
-            player, construction, snapshot, ConstructionOperations.PlacementMode.MOVE, true,
-            null, player.getYRot(), false
-        );
+        if (!construction.getRooms().isEmpty()) {
+            var diskRooms = ConstructionRegistry.getInstance().getStorage()
+                .loadRoomSnapshots(id, construction.getBounds());
+            if (diskRooms != null && !diskRooms.isEmpty()) {
+                snapshot.rooms().clear();
+                snapshot.rooms().putAll(diskRooms);
+            }
+        }
 
-        // 4. Save the updated construction
-        ConstructionRegistry.getInstance().register(construction);
+        // 2-3. Clear the tracked positions at the old location, then place at the new position
+        // in front of player (updates construction coordinates), placed across ticks
+        BlockPos playerPos = player.blockPosition();
+        var job = ConstructionOperations.moveConstructionJob(player, construction, snapshot);
+        job.ownedBy(player.getUUID()).onProgress(PlacementScheduler.actionBarProgress(player, id)).onComplete(placementResult -> {
+            // 4. Save blocks/entities at the new positions from the placed snapshot (no world read),
+            // then the updated construction
+            construction.updateCachedStats(level);
+            ConstructionRegistry.getInstance().getStorage().saveAsync(construction, placementResult.placedSnapshot());
+            ConstructionRegistry.getInstance().register(construction);
 
-        // 5. Update visibility state
-        VISIBLE_CONSTRUCTIONS.add(id);
+            // 5. Update visibility state
+            VISIBLE_CONSTRUCTIONS.add(id);
 
-        BlockPos playerPos = player.blockPosition();
-        Architect.LOGGER.info("Player {} moved construction {} from old position to ({}, {}, {})",
-            player.getName().getString(), id, playerPos.getX(), playerPos.getY(), playerPos.getZ());
+            Architect.LOGGER.info("Player {} moved construction {} from old position to ({}, {}, {})",
+                player.getName().getString(), id, playerPos.getX(), playerPos.getY(), playerPos.getZ());
 
-        source.sendSuccess(() -> Component.literal(
-            I18n.tr(player, "move.success", id, placementResult.blocksPlaced())
-        ), true);
+            source.sendSuccess(() -> Component.literal(
+                I18n.tr(player, "move.success", id, placementResult.blocksPlaced())
+            ), true);
+        }).onCancel(() -> {
+            if (job.hasStarted(PlacementJob.Stage.COORDINATES)) {
+                // Stopped after the new coordinates (entities not spawned): keep it at the new position
+                construction.updateCachedStats(level);
+                ConstructionRegistry.getInstance().getStorage().saveAsync(construction, job.resultSoFar().placedSnapshot());
+                ConstructionRegistry.getInstance().register(construction);
+                VISIBLE_CONSTRUCTIONS.add(id);
+                source.sendFailure(Component.literal(I18n.tr(player, "move.incomplete", id)));
+            } else {
+                // Placed back at the old position by the job cleanup
+                source.sendFailure(Component.literal(I18n.tr(player, "move.cancelled", id)));
+            }
+        });
+        PlacementScheduler.getInstance().submit(job);
 
         return 1;
     }
@@ -2715,6 +2782,16 @@ public class StrutturaCommand {
         source.sendSuccess(() -> Component.literal(I18n.tr(player, "adventure.status.buildings", buildingCount)), false);
         source.sendSuccess(() -> Component.literal(I18n.tr(player, "adventure.status.spawn_rate", String.format("%.1f", spawnPercentage))), false);
 
+        SpawnQueue spawnQueue = SpawnQueue.getInstance();
+        source.sendSuccess(() -> Component.literal(I18n.tr(player, "adventure.status.spawn_queue",
+            spawnQueue.getQueueSize(), spawnQueue.getEvaluatedChunks(), spawnQueue.getDroppedUnloaded(),
+            String.format("%.2f", spawnQueue.getAverageEvaluationMs()))), false);
+
+        TerrainProfileCache terrainCache = TerrainProfileCache.getInstance();
+        source.sendSuccess(() -> Component.literal(I18n.tr(player, "adventure.status.terrain_cache",
+            terrainCache.size(), terrainCache.getHits(), terrainCache.getMisses(),
+            terrainCache.getColumnHits(), terrainCache.getColumnMisses())), false);
+
         return 1;
     }
 
@@ -2832,7 +2909,9 @@ public class StrutturaCommand {
 
         // For force command, use the detailed version that reports failures
         it.magius.struttura.architect.ingame.spawn.PositionValidator.FindResult findResult =
-            validator.findPositionWithDetails(level, chunkPos, building, rule, random);
+            validator.findPositionWithDetails(
+                it.magius.struttura.architect.ingame.spawn.TerrainSnapshot.capture(level, chunkPos, building, rule),
+                chunkPos, building, rule, random);
 
         if (findResult.position() == null) {
             source.sendFailure(Component.literal(I18n.tr(player, "adventure.force.no_position", rdns)));
@@ -2897,4 +2976,50 @@ public class StrutturaCommand {
 
         return 1;
     }
+
+    // ===== Catalog Commands =====
+
+    /**
+     * /struttura catalog rebuild - Rebuilds the construction catalog in background and reports throughput
+     */
+    private static int executeCatalogRebuild(CommandContext<CommandSourceStack> ctx) {
+        CommandSourceStack source = ctx.getSource();
+        ServerPlayer player = source.getEntity() instanceof ServerPlayer sp ? sp : null;
+        ConstructionRegistry registry = ConstructionRegistry.getInstance();
+
+        if (!registry.isStorageInitialized()) {
+            source.sendFailure(Component.literal(player != null
+                ? I18n.tr(player, "catalog.not_ready") : I18n.tr("catalog.not_ready")));
+            return 0;
+        }
+
+        var server = source.getServer();
+        boolean started = registry.rebuildCatalogAsync(result -> server.execute(() -> {
+            if (result == null) {
+                source.sendFailure(Component.literal(player != null
+                    ? I18n.tr(player, "catalog.rebuild.failed") : I18n.tr("catalog.rebuild.failed")));
+                return;
+            }
+            Object[] args = {
+                result.constructions(),
+                result.failed(),
+                result.elapsedMillis(),
+                String.format("%.0f", result.constructionsPerSecond()),
+                String.format("%.2f", result.megabytesPerSecond())
+            };
+            String message = player != null
+                ? I18n.tr(player, "catalog.rebuild.done", args) : I18n.tr("catalog.rebuild.done", args);
+            source.sendSuccess(() -> Component.literal(message), true);
+        }));
+
+        if (!started) {
+            source.sendFailure(Component.literal(player != null
+                ? I18n.tr(player, "catalog.rebuild.running") : I18n.tr("catalog.rebuild.running")));
+            return 0;
+        }
+
+        source.sendSuccess(() -> Component.literal(player != null
+            ? I18n.tr(player, "catalog.rebuild.started") : I18n.tr("catalog.rebuild.started")), true);
+        return 1;
+    }
 }
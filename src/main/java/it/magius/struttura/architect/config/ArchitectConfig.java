@@ -61,6 +61,15 @@ public class ArchitectConfig {
     private int listRefreshIntervalMinutes = 60;  // How often to check for list updates (minutes)
     private int maxCachedNbt = 25;                // Maximum NBT files to keep in memory
 
+    // Architect registry settings
+    private int maxLoadedConstructions = 64;      // Constructions kept in memory (others stay in the catalog only)
+    private int storageParallelism = 0;           // Worker threads for catalog rebuilds (0 = one per core)
+
+    // Placement settings
+    private int placementTickBudgetMs = 10;       // Time per server tick spent on spawn/pull/move placement jobs
+    private int spawnEvaluationTickBudgetMs = 5;  // Max time per server tick spent on in-game chunk spawn evaluations
+    private int spawnEvaluationThreads = 2;       // Worker threads for spawn position searches (0 = on the server thread)
+
     // Transient fields from /mod/settings response (not persisted to disk)
     private transient boolean cloudDenied = false;
     private transient String latestVersion = null;
@@ -89,6 +98,7 @@ public class ArchitectConfig {
         if (Files.exists(configPath)) {
             try (Reader reader = Files.newBufferedReader(configPath, StandardCharsets.UTF_8)) {
                 ArchitectConfig config = GSON.fromJson(reader, ArchitectConfig.class);
+                config.clampLimits();
                 Architect.LOGGER.info("Loaded config from {}", configPath);
                 return config;
             } catch (Exception e) {
@@ -102,6 +112,18 @@ public class ArchitectConfig {
         return config;
     }
 
+    /**
+     * Riporta nei limiti i valori letti dal file: Gson scrive i campi senza passare dai setter,
+     * e ad esempio maxLoadedConstructions a 0 svuoterebbe il registry a ogni get.
+     */
+    private void clampLimits() {
+        setMaxLoadedConstructions(maxLoadedConstructions);
+        setStorageParallelism(storageParallelism);
+        setPlacementTickBudgetMs(placementTickBudgetMs);
+        setSpawnEvaluationTickBudgetMs(spawnEvaluationTickBudgetMs);
+        setSpawnEvaluationThreads(spawnEvaluationThreads);
+    }
+
     /**
      * Salva la configurazione su file.
      */
@@ -183,6 +205,11 @@ public class ArchitectConfig {
     public String getInGameListId() { return inGameListId; }
     public int getListRefreshIntervalMinutes() { return listRefreshIntervalMinutes; }
     public int getMaxCachedNbt() { return maxCachedNbt; }
+    public int getMaxLoadedConstructions() { return maxLoadedConstructions; }
+    public int getStorageParallelism() { return storageParallelism; }
+    public int getPlacementTickBudgetMs() { return placementTickBudgetMs; }
+    public int getSpawnEvaluationTickBudgetMs() { return spawnEvaluationTickBudgetMs; }
+    public int getSpawnEvaluationThreads() { return spawnEvaluationThreads; }
     public boolean isCloudDenied() { return cloudDenied; }
     public String getLatestVersion() { return latestVersion; }
     public String getDownloadUrl() { return downloadUrl; }
@@ -255,6 +282,11 @@ public class ArchitectConfig {
     public void setInGameListId(String inGameListId) { this.inGameListId = inGameListId; }
     public void setListRefreshIntervalMinutes(int minutes) { this.listRefreshIntervalMinutes = Math.max(1, minutes); }
     public void setMaxCachedNbt(int max) { this.maxCachedNbt = Math.max(1, max); }
+    public void setMaxLoadedConstructions(int max) { this.maxLoadedConstructions = Math.max(1, max); }
+    public void setStorageParallelism(int parallelism) { this.storageParallelism = Math.max(0, parallelism); }
+    public void setPlacementTickBudgetMs(int budgetMs) { this.placementTickBudgetMs = Math.max(1, budgetMs); }
+    public void setSpawnEvaluationTickBudgetMs(int budgetMs) { this.spawnEvaluationTickBudgetMs = Math.max(1, budgetMs); }
+    public void setSpawnEvaluationThreads(int threads) { this.spawnEvaluationThreads = Math.max(0, threads); }
     public void setCloudDenied(boolean cloudDenied) { this.cloudDenied = cloudDenied; }
     public void setLatestVersion(String latestVersion) { this.latestVersion = latestVersion; }
     public void setDownloadUrl(String downloadUrl) { this.downloadUrl = downloadUrl; }
@@ -30,7 +30,10 @@ public class DevTestRunner {
     // All available tests - add new tests here
     private static final List<DevTest> AVAILABLE_TESTS = List.of(
         new TestRoomsAfterPull4Dir(),
-        new TestRoomsAfterPullMove4Dir()
+        new TestRoomsAfterPullMove4Dir(),
+        new TestSnapshotCaptureTiming(),
+        new TestSpawnSearchAllocation(),
+        new TestPlacementJobFailure()
         // Add more tests here as they are created
     );
 
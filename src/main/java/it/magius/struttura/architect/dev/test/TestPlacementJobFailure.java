@@ -0,0 +1,120 @@
+package it.magius.struttura.architect.dev.test;
+
+import it.magius.struttura.architect.Architect;
+import it.magius.struttura.architect.placement.PlacementJob;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TEST: Cleanup stages of a placement job still run when a stage throws.
+ *
+ * Builds a job with the stage layout of a spawn (BLOCKS, SHAPES, ENTITIES, UNFREEZE as cleanup)
+ * without touching the world, and injects a failure in the middle of ENTITIES. Checks that
+ * UNFREEZE ran for every entity "spawned" before the failure, that the stages after the failure
+ * were skipped, that the cancel listener was called instead of the completion one and that the
+ * failure is rethrown. A second job checks that a failing cleanup stage does not prevent the next one.
+ */
+public class TestPlacementJobFailure implements DevTest {
+
+    private static final int ENTITIES = 5;
+    private static final int FAILING_ENTITY = 3;
+
+    @Override
+    public String getId() {
+        return "placementJobFailure";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Checks that UNFREEZE cleanup runs when a placement stage throws";
+    }
+
+    @Override
+    public void run(ServerPlayer player, MinecraftServer server, TestCompletionCallback onComplete) {
+        Architect.LOGGER.info("[{}] Starting test: {}", getId(), getDescription());
+        player.sendSystemMessage(Component.literal("[Test:" + getId() + "] Starting..."));
+
+        List<String> errors = new ArrayList<>();
+        checkFailureInStage(errors);
+        checkFailureInCleanup(errors);
+
+        boolean passed = errors.isEmpty();
+        String message = passed ? "cleanup stages ran after failures" : String.join("; ", errors);
+        Architect.LOGGER.info("[{}] {}", getId(), message);
+        player.sendSystemMessage(Component.literal("[Test:" + getId() + "] " + message));
+        onComplete.onComplete(passed, message);
+    }
+
+    /**
+     * ENTITIES throws at FAILING_ENTITY: the entities spawned before must still be unfrozen.
+     */
+    private static void checkFailureInStage(List<String> errors) {
+        List<Integer> spawned = new ArrayList<>();
+        List<Integer> unfrozen = new ArrayList<>();
+        boolean[] shapesRan = {false};
+        boolean[] completed = {false};
+        boolean[] cancelled = {false};
+
+        PlacementJob<Integer> job = new PlacementJob<Integer>(null)
+            .then(PlacementJob.Stage.BLOCKS, 4, i -> {})
+            .then(PlacementJob.Stage.ENTITIES, ENTITIES, i -> {
+                if (i == FAILING_ENTITY) {
+                    throw new IllegalStateException("injected failure");
+                }
+                spawned.add(i);
+            })
+            .then(PlacementJob.Stage.SHAPES, 4, i -> shapesRan[0] = true)
+            .thenAlways(PlacementJob.Stage.UNFREEZE, spawned::size, i -> unfrozen.add(spawned.get(i)))
+            .result(spawned::size)
+            .onComplete(r -> completed[0] = true)
+            .onCancel(() -> cancelled[0] = true);
+
+        boolean rethrown = false;
+        try {
+            job.runToCompletion();
+        } catch (IllegalStateException e) {
+            rethrown = true;
+        }
+
+        if (!unfrozen.equals(spawned) || spawned.size() != FAILING_ENTITY) {
+            errors.add("UNFREEZE did not run for the spawned entities (spawned " + spawned + ", unfrozen " + unfrozen + ")");
+        }
+        if (shapesRan[0]) {
+            errors.add("stage after the failure was run");
+        }
+        if (completed[0] || !cancelled[0] || !job.isCancelled() || !job.isDone()) {
+            errors.add("failed job not reported as cancelled");
+        }
+        if (!rethrown) {
+            errors.add("failure not rethrown by runToCompletion");
+        }
+    }
+
+    /**
+     * The first cleanup stage throws: the second one must still run.
+     */
+    private static void checkFailureInCleanup(List<String> errors) {
+        boolean[] secondCleanupRan = {false};
+        PlacementJob<Void> job = new PlacementJob<Void>(null)
+            .then(PlacementJob.Stage.ENTITIES, 1, i -> {
+                throw new IllegalStateException("injected failure");
+            })
+            .thenAlways(PlacementJob.Stage.UNFREEZE, () -> 1, i -> {
+                throw new IllegalStateException("injected cleanup failure");
+            })
+            .thenAlways(PlacementJob.Stage.UNFREEZE, () -> 1, i -> secondCleanupRan[0] = true);
+
+        try {
+            job.runToCompletion();
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        if (!secondCleanupRan[0]) {
+            errors.add("cleanup stage skipped after a failing cleanup stage");
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package it.magius.struttura.architect.dev.test;
+
+import it.magius.struttura.architect.Architect;
+import it.magius.struttura.architect.model.BlockPosSet;
+import it.magius.struttura.architect.model.PalettedBlockMap;
+import it.magius.struttura.architect.model.WorldCapture;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * TEST: World capture by chunk section vs per-position lookups.
+ *
+ * Tracks every position of a box around the player (read only, the world is not modified),
+ * captures it with both WorldCapture paths and checks that states and block entity NBT
+ * are identical. Timings of both paths are logged and reported in the result message.
+ */
+public class TestSnapshotCaptureTiming implements DevTest {
+
+    private static final int HALF_SIZE_XZ = 48;
+    private static final int HEIGHT = 48;
+    private static final int WARMUP_RUNS = 2;
+    private static final int TIMED_RUNS = 5;
+
+    @Override
+    public String getId() {
+        return "snapshotCaptureTiming";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Compares section-batched world capture with per-position capture (results and timing)";
+    }
+
+    @Override
+    public void run(ServerPlayer player, MinecraftServer server, TestCompletionCallback onComplete) {
+        ServerLevel level = (ServerLevel) player.level();
+        BlockPos center = player.blockPosition();
+
+        Architect.LOGGER.info("[{}] Starting test: {}", getId(), getDescription());
+        player.sendSystemMessage(Component.literal("[Test:" + getId() + "] Starting..."));
+
+        int minY = Math.max(level.getMinY(), center.getY() - HEIGHT / 2);
+        BlockPosSet positions = new BlockPosSet(HALF_SIZE_XZ * HALF_SIZE_XZ * 4 * HEIGHT);
+        for (int x = center.getX() - HALF_SIZE_XZ; x < center.getX() + HALF_SIZE_XZ; x++) {
+            for (int z = center.getZ() - HALF_SIZE_XZ; z < center.getZ() + HALF_SIZE_XZ; z++) {
+                for (int y = minY; y < minY + HEIGHT; y++) {
+                    positions.add(BlockPos.asLong(x, y, z));
+                }
+            }
+        }
+
+        // Warm-up (chunk loading, JIT)
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            WorldCapture.capturePerPosition(positions, level, new PalettedBlockMap(), new HashMap<>(), false);
+            WorldCapture.captureBySection(positions, level, new PalettedBlockMap(), new HashMap<>(), false);
+        }
+
+        long perPositionNanos = 0;
+        long bySectionNanos = 0;
+        PalettedBlockMap perPositionBlocks = null;
+        PalettedBlockMap bySectionBlocks = null;
+        Map<BlockPos, CompoundTag> perPositionNbt = null;
+        Map<BlockPos, CompoundTag> bySectionNbt = null;
+
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            perPositionBlocks = new PalettedBlockMap();
+            perPositionNbt = new HashMap<>();
+            long start = System.nanoTime();
+            WorldCapture.capturePerPosition(positions, level, perPositionBlocks, perPositionNbt, false);
+            perPositionNanos += System.nanoTime() - start;
+
+            bySectionBlocks = new PalettedBlockMap();
+            bySectionNbt = new HashMap<>();
+            start = System.nanoTime();
+            WorldCapture.captureBySection(positions, level, bySectionBlocks, bySectionNbt, false);
+            bySectionNanos += System.nanoTime() - start;
+        }
+
+        boolean statesMatch = perPositionBlocks.equals(bySectionBlocks);
+        // Same positions and same tag content (CompoundTag equality is by value)
+        boolean nbtMatch = perPositionNbt.equals(bySectionNbt);
+
+        double perPositionMs = perPositionNanos / 1_000_000.0 / TIMED_RUNS;
+        double bySectionMs = bySectionNanos / 1_000_000.0 / TIMED_RUNS;
+        String message = String.format(
+            "%d positions, %d block entities: per-position %.2f ms, by-section %.2f ms (x%.2f)%s%s",
+            positions.size(), bySectionNbt.size(), perPositionMs, bySectionMs,
+            bySectionMs > 0 ? perPositionMs / bySectionMs : 0.0,
+            statesMatch ? "" : ", STATES DIFFER",
+            nbtMatch ? "" : ", BLOCK ENTITIES DIFFER");
+
+        Architect.LOGGER.info("[{}] {}", getId(), message);
+        player.sendSystemMessage(Component.literal("[Test:" + getId() + "] " + message));
+        onComplete.onComplete(statesMatch && nbtMatch, message);
+    }
+}
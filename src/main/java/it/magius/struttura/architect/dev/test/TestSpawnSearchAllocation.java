@@ -0,0 +1,180 @@
+package it.magius.struttura.architect.dev.test;
+
+import it.magius.struttura.architect.Architect;
+import it.magius.struttura.architect.ingame.model.EnsureBoundsMode;
+import it.magius.struttura.architect.ingame.model.PositionType;
+import it.magius.struttura.architect.ingame.model.SpawnRule;
+import it.magius.struttura.architect.ingame.model.SpawnableBuilding;
+import it.magius.struttura.architect.ingame.spawn.PositionValidator;
+import it.magius.struttura.architect.ingame.spawn.SpawnPosition;
+import it.magius.struttura.architect.ingame.spawn.TerrainSnapshot;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.phys.AABB;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * TEST: Allocations of the spawn position search, fast path vs diagnostic path.
+ *
+ * For every loaded chunk around the player and every position type, runs the validator with
+ * findPosition (reason codes only, used by spawning) and findPositionWithDetails (text for every
+ * rejection, as every search did before the split) with the same seed, against the same terrain
+ * snapshots (read only, the world is not modified). Checks both paths find the same positions;
+ * allocated bytes and time per evaluated chunk of both paths are logged and reported.
+ *
+ * Uses a synthetic 12x8x12 building with one rule per position type over the whole world height.
+ */
+public class TestSpawnSearchAllocation implements DevTest {
+
+    private static final int CHUNK_RADIUS = 4;
+    private static final int WARMUP_RUNS = 2;
+    private static final int TIMED_RUNS = 5;
+
+    @Override
+    public String getId() {
+        return "spawnSearchAllocation";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Compares allocations per chunk of the spawn position search without and with diagnostics";
+    }
+
+    @Override
+    public void run(ServerPlayer player, MinecraftServer server, TestCompletionCallback onComplete) {
+        ServerLevel level = (ServerLevel) player.level();
+        ChunkPos center = player.chunkPosition();
+
+        Architect.LOGGER.info("[{}] Starting test: {}", getId(), getDescription());
+        player.sendSystemMessage(Component.literal("[Test:" + getId() + "] Starting..."));
+
+        if (allocatedBytes() < 0) {
+            Architect.LOGGER.warn("[{}] Thread allocation counters not available, reporting timings only", getId());
+        }
+
+        PositionType[] types = PositionType.values();
+        SpawnableBuilding[] buildings = new SpawnableBuilding[types.length];
+        SpawnRule[] rules = new SpawnRule[types.length];
+        for (int i = 0; i < types.length; i++) {
+            rules[i] = new SpawnRule(List.of(), 1.0, types[i], level.getMinY() + 1, level.getMaxY() - 1,
+                5, EnsureBoundsMode.NONE);
+            buildings[i] = new SpawnableBuilding("it.magius.test.alloc." + types[i].getApiValue(), 0, 0, false,
+                "", "", new BlockPos(6, 0, 0), 0f, 0, List.of(rules[i]), new AABB(0, 0, 0, 12, 8, 12),
+                Map.of(), Map.of());
+        }
+
+        // Capture the terrain once per chunk (all buildings have the same size and margin)
+        List<ChunkPos> chunks = new ArrayList<>();
+        List<TerrainSnapshot> snapshots = new ArrayList<>();
+        for (int cx = center.x - CHUNK_RADIUS; cx <= center.x + CHUNK_RADIUS; cx++) {
+            for (int cz = center.z - CHUNK_RADIUS; cz <= center.z + CHUNK_RADIUS; cz++) {
+                if (level.getChunkSource().getChunkNow(cx, cz) != null) {
+                    ChunkPos chunkPos = new ChunkPos(cx, cz);
+                    chunks.add(chunkPos);
+                    snapshots.add(TerrainSnapshot.capture(level, chunkPos, buildings[0], rules[0]));
+                }
+            }
+        }
+
+        // Warm-up (JIT, column facts of the terrain profiles)
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            runAll(chunks, snapshots, types, buildings, rules, false, null);
+            runAll(chunks, snapshots, types, buildings, rules, true, null);
+        }
+
+        long fastNanos = 0;
+        long fastBytes = 0;
+        long diagnosticNanos = 0;
+        long diagnosticBytes = 0;
+        SpawnPosition[] fastPositions = new SpawnPosition[chunks.size() * types.length];
+        SpawnPosition[] diagnosticPositions = new SpawnPosition[chunks.size() * types.length];
+
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            runAll(chunks, snapshots, types, buildings, rules, false, fastPositions);
+            fastNanos += System.nanoTime() - start;
+            fastBytes += allocatedBytes() - bytes;
+
+            bytes = allocatedBytes();
+            start = System.nanoTime();
+            runAll(chunks, snapshots, types, buildings, rules, true, diagnosticPositions);
+            diagnosticNanos += System.nanoTime() - start;
+            diagnosticBytes += allocatedBytes() - bytes;
+        }
+
+        int found = 0;
+        boolean positionsMatch = true;
+        for (int i = 0; i < fastPositions.length; i++) {
+            if (fastPositions[i] != null) {
+                found++;
+            }
+            positionsMatch &= Objects.equals(fastPositions[i], diagnosticPositions[i]);
+        }
+
+        long evaluations = (long) chunks.size() * types.length * TIMED_RUNS;
+        boolean countersAvailable = allocatedBytes() >= 0;
+        double fastBytesPerChunk = evaluations > 0 ? (double) fastBytes / evaluations : 0.0;
+        double diagnosticBytesPerChunk = evaluations > 0 ? (double) diagnosticBytes / evaluations : 0.0;
+        double fastUs = evaluations > 0 ? fastNanos / 1000.0 / evaluations : 0.0;
+        double diagnosticUs = evaluations > 0 ? diagnosticNanos / 1000.0 / evaluations : 0.0;
+
+        String message = String.format(
+            "%d chunks x %d types, %d positions found: fast %s B/chunk %.1f us, diagnostic %s B/chunk %.1f us%s",
+            chunks.size(), types.length, found,
+            countersAvailable ? String.format("%.0f", fastBytesPerChunk) : "n/a", fastUs,
+            countersAvailable ? String.format("%.0f", diagnosticBytesPerChunk) : "n/a", diagnosticUs,
+            positionsMatch ? "" : ", POSITIONS DIFFER");
+
+        boolean passed = !chunks.isEmpty() && positionsMatch
+            && (!countersAvailable || fastBytes <= diagnosticBytes);
+
+        Architect.LOGGER.info("[{}] {}", getId(), message);
+        player.sendSystemMessage(Component.literal("[Test:" + getId() + "] " + message));
+        onComplete.onComplete(passed, message);
+    }
+
+    /**
+     * Runs the search of every type in every chunk, seeded per chunk and type.
+     * Stores the found positions in results when not null.
+     */
+    private static void runAll(List<ChunkPos> chunks, List<TerrainSnapshot> snapshots, PositionType[] types,
+                               SpawnableBuilding[] buildings, SpawnRule[] rules,
+                               boolean diagnostics, SpawnPosition[] results) {
+        for (int c = 0; c < chunks.size(); c++) {
+            ChunkPos chunkPos = chunks.get(c);
+            TerrainSnapshot terrain = snapshots.get(c);
+            for (int t = 0; t < types.length; t++) {
+                PositionValidator validator = PositionValidator.forType(types[t]);
+                Random random = new Random(chunkPos.toLong() * 31 + t);
+                SpawnPosition position = diagnostics
+                    ? validator.findPositionWithDetails(terrain, chunkPos, buildings[t], rules[t], random).position()
+                    : validator.findPosition(terrain, chunkPos, buildings[t], rules[t], random).orElse(null);
+                if (results != null) {
+                    results[c * types.length + t] = position;
+                }
+            }
+        }
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, -1 if the JVM does not track them.
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+            && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
@@ -11,6 +11,7 @@ import it.magius.struttura.architect.ingame.model.InGameListInfo;
 import it.magius.struttura.architect.ingame.model.SpawnableBuilding;
 import it.magius.struttura.architect.ingame.spawn.OccupiedChunks;
 import it.magius.struttura.architect.ingame.spawn.SpawnQueue;
+import it.magius.struttura.architect.ingame.spawn.TerrainProfileCache;
 import it.magius.struttura.architect.ingame.model.SpawnableList;
 import it.magius.struttura.architect.network.InGameListsPacket;
 import it.magius.struttura.architect.network.NetworkHandler;
@@ -188,6 +189,7 @@ public class InGameManager {
         BuildingDownloader.getInstance().reset();
         BuildingCache.getInstance().clear();
         SpawnQueue.getInstance().clear();
+        TerrainProfileCache.getInstance().clear();
         OccupiedChunks.clear();
 
         worldLoaded = false;
@@ -493,6 +495,7 @@ public class InGameManager {
         BuildingDownloader.getInstance().reset();
         BuildingCache.getInstance().clear();
         SpawnQueue.getInstance().clear();
+        TerrainProfileCache.getInstance().clear();
         spawnerActivationTime = 0;
 
         // Clear cached lists to force re-fetch
@@ -151,6 +151,9 @@ public class SpawnableListStorage {
             json.addProperty("author", building.getAuthor());
         }
         json.addProperty("xWorld", building.getXWorld());
+        if (building.getWeight() != 1.0) {
+            json.addProperty("weight", building.getWeight());
+        }
 
         // Entrance position with yaw
         JsonObject entranceJson = new JsonObject();
@@ -252,6 +255,7 @@ public class SpawnableListStorage {
             String author = json.has("author") && !json.get("author").isJsonNull()
                 ? json.get("author").getAsString() : null;
             int xWorld = json.has("xWorld") ? json.get("xWorld").getAsInt() : 0;
+            double weight = json.has("weight") ? json.get("weight").getAsDouble() : 1.0;
 
             // Entrance with yaw
             BlockPos entrance = BlockPos.ZERO;
@@ -310,7 +314,7 @@ public class SpawnableListStorage {
                 }
             }
 
-            return new SpawnableBuilding(rdns, pk, ownerUserId, isPrivate, hash, author, entrance, entranceYaw, xWorld, rules, bounds, names, descriptions);
+            return new SpawnableBuilding(rdns, pk, ownerUserId, isPrivate, hash, author, entrance, entranceYaw, xWorld, weight, rules, bounds, names, descriptions);
 
         } catch (Exception e) {
             Architect.LOGGER.error("Failed to deserialize building", e);
@@ -1,14 +1,19 @@
 package it.magius.struttura.architect.ingame.cache;
 
+import it.magius.struttura.architect.Architect;
 import it.magius.struttura.architect.config.ArchitectConfig;
 import it.magius.struttura.architect.model.Construction;
 import it.magius.struttura.architect.model.ConstructionSnapshot;
+import it.magius.struttura.architect.placement.PlacementPlan;
+import it.magius.struttura.architect.placement.RoomOverlapIndex;
+import it.magius.struttura.architect.placement.SpawnPlanSource;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * LRU cache for downloaded building constructions (NBT data).
@@ -30,6 +35,15 @@ public class BuildingCache {
     // TODO: Refactor to use ConstructionSnapshot as the primary cache entry instead of Construction
     private final Map<String, ConstructionSnapshot> snapshotByRdns = new ConcurrentHashMap<>();
 
+    // Compiled placement plans per rotation (0-3), next to the snapshot they were built from
+    private final Map<String, AtomicReferenceArray<PlacementPlan>> plansByRdns = new ConcurrentHashMap<>();
+
+    // Room bounds and overlap matrix, next to the snapshot they were built from
+    private final Map<String, RoomOverlapIndex> roomIndexByRdns = new ConcurrentHashMap<>();
+
+    // Plans being compiled on a worker thread (key: rdns#rotationSteps)
+    private final Set<String> compilingPlans = ConcurrentHashMap.newKeySet();
+
     // Track buildings currently being downloaded to prevent duplicate download requests
     private final Set<String> downloading = ConcurrentHashMap.newKeySet();
 
@@ -141,6 +155,9 @@ public class BuildingCache {
      */
     public void putSnapshot(String rdns, ConstructionSnapshot snapshot) {
         snapshotByRdns.put(rdns, snapshot);
+        // Plans and room index of the previous snapshot no longer match
+        plansByRdns.remove(rdns);
+        roomIndexByRdns.remove(rdns);
     }
 
     /**
@@ -153,6 +170,96 @@ public class BuildingCache {
         return snapshotByRdns.get(rdns);
     }
 
+    /**
+     * Gets the placement plan of a building for the given rotation.
+     * A cached plan is returned if it matches the snapshot and frame; otherwise the plan is
+     * compiled now (server thread) and cached. Missing plans of the other rotations are then
+     * compiled on a worker thread, so later spawns of the same building skip the compilation.
+     *
+     * @param rdns the building's reverse DNS identifier
+     * @param snapshot the cached snapshot of the building
+     * @param frame construction data captured on the server thread
+     * @param rotationSteps rotation steps (0-3)
+     * @return the plan (never null)
+     */
+    public PlacementPlan getPlacementPlan(String rdns, ConstructionSnapshot snapshot,
+                                          PlacementPlan.Frame frame, int rotationSteps) {
+        AtomicReferenceArray<PlacementPlan> plans =
+            plansByRdns.computeIfAbsent(rdns, k -> new AtomicReferenceArray<>(4));
+
+        PlacementPlan plan = plans.get(rotationSteps);
+        if (plan == null || !plan.matches(snapshot, frame, rotationSteps)) {
+            long start = System.nanoTime();
+            plan = PlacementPlan.compile(snapshot, frame, rotationSteps);
+            plans.set(rotationSteps, plan);
+            Architect.LOGGER.debug("Compiled placement plan for {} (rotation {}) in {} ms",
+                rdns, rotationSteps, (System.nanoTime() - start) / 1_000_000);
+
+            for (int steps = 0; steps < 4; steps++) {
+                PlacementPlan other = plans.get(steps);
+                if (other == null || !other.matches(snapshot, frame, steps)) {
+                    compilePlanAsync(rdns, plans, snapshot, frame, steps);
+                }
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Gets the room bounds/overlap index of a building, built on first use and kept until
+     * the snapshot changes.
+     *
+     * @param rdns the building's reverse DNS identifier
+     * @param construction the construction (rooms, bounds)
+     * @param snapshot the cached snapshot of the building
+     * @return the index (never null)
+     */
+    public RoomOverlapIndex getRoomOverlapIndex(String rdns, Construction construction, ConstructionSnapshot snapshot) {
+        RoomOverlapIndex index = roomIndexByRdns.get(rdns);
+        if (index == null || !index.matches(construction, snapshot)) {
+            index = RoomOverlapIndex.build(construction, snapshot);
+            roomIndexByRdns.put(rdns, index);
+        }
+        return index;
+    }
+
+    /**
+     * Cached spawn data of a building, for ConstructionOperations.architectSpawnJob.
+     * Must be used on the server thread (the frame is captured now).
+     */
+    public SpawnPlanSource getSpawnPlanSource(String rdns, Construction construction, ConstructionSnapshot snapshot) {
+        PlacementPlan.Frame frame = PlacementPlan.Frame.of(construction);
+        return new SpawnPlanSource() {
+            @Override
+            public PlacementPlan plan(int rotationSteps) {
+                return getPlacementPlan(rdns, snapshot, frame, rotationSteps);
+            }
+
+            @Override
+            public RoomOverlapIndex roomIndex() {
+                return getRoomOverlapIndex(rdns, construction, snapshot);
+            }
+        };
+    }
+
+    private void compilePlanAsync(String rdns, AtomicReferenceArray<PlacementPlan> plans,
+                                  ConstructionSnapshot snapshot, PlacementPlan.Frame frame, int rotationSteps) {
+        String key = rdns + "#" + rotationSteps;
+        if (!compilingPlans.add(key)) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                plans.set(rotationSteps, PlacementPlan.compile(snapshot, frame, rotationSteps));
+            } catch (Exception e) {
+                Architect.LOGGER.warn("Failed to compile placement plan for {} (rotation {}): {}",
+                    rdns, rotationSteps, e.getMessage());
+            } finally {
+                compilingPlans.remove(key);
+            }
+        });
+    }
+
     /**
      * Removes a building from the cache.
      * @param rdns the building's reverse DNS identifier
@@ -161,6 +268,8 @@ public class BuildingCache {
         cache.remove(rdns);
         hashByRdns.remove(rdns);
         snapshotByRdns.remove(rdns);
+        plansByRdns.remove(rdns);
+        roomIndexByRdns.remove(rdns);
     }
 
     /**
@@ -183,6 +292,8 @@ public class BuildingCache {
         cache.clear();
         hashByRdns.clear();
         snapshotByRdns.clear();
+        plansByRdns.clear();
+        roomIndexByRdns.clear();
         downloading.clear();
     }
 
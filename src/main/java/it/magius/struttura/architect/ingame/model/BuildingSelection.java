@@ -0,0 +1,121 @@
+package it.magius.struttura.architect.ingame.model;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Weighted selection among the buildings of a list that can still spawn, using the alias
+ * method (Vose): O(n) to build, O(1) per selection, no allocation when selecting.
+ *
+ * Built by {@link SpawnableList} and thrown away when a building reaches (or leaves) its
+ * xWorld limit. Buildings with weight 0 are never selected.
+ *
+ * With equal weights (whatever their value) every column is full (probability 1): the coin
+ * draw is skipped and a selection is a single random.nextInt(n) over the spawnable buildings
+ * in list order, the same draw (and the same building) as the previous uniform selection.
+ */
+final class BuildingSelection {
+
+    private final SpawnableBuilding[] candidates;
+    // Probability of keeping the column (else its alias); >= 1 means always kept
+    private final double[] probability;
+    private final int[] alias;
+
+    private BuildingSelection(SpawnableBuilding[] candidates, double[] probability, int[] alias) {
+        this.candidates = candidates;
+        this.probability = probability;
+        this.alias = alias;
+    }
+
+    static BuildingSelection build(List<SpawnableBuilding> buildings) {
+        int n = 0;
+        double totalWeight = 0;
+        double firstWeight = 0;
+        boolean equalWeights = true;
+        for (SpawnableBuilding building : buildings) {
+            if (building.canSpawn() && building.getWeight() > 0) {
+                if (n == 0) {
+                    firstWeight = building.getWeight();
+                } else if (building.getWeight() != firstWeight) {
+                    equalWeights = false;
+                }
+                n++;
+                totalWeight += building.getWeight();
+            }
+        }
+
+        SpawnableBuilding[] candidates = new SpawnableBuilding[n];
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+        int index = 0;
+        for (SpawnableBuilding building : buildings) {
+            if (building.canSpawn() && building.getWeight() > 0) {
+                candidates[index] = building;
+                // Scaled so that the average column is 1. Equal weights are set to exactly 1:
+                // the summed total is not exact for non-integer weights (e.g. 0.1 each), and a
+                // column just below 1 would consume an extra draw
+                probability[index] = equalWeights ? 1.0 : building.getWeight() * n / totalWeight;
+                alias[index] = index;
+                index++;
+            }
+        }
+        if (equalWeights) {
+            return new BuildingSelection(candidates, probability, alias);
+        }
+
+        // Vose: pair each under-full column with an over-full one
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (probability[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            alias[less] = more;
+            probability[more] = (probability[more] + probability[less]) - 1.0;
+            if (probability[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Left over only because of rounding: full columns
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1.0;
+        }
+
+        return new BuildingSelection(candidates, probability, alias);
+    }
+
+    /**
+     * Selects a building, or null if none can spawn.
+     */
+    SpawnableBuilding select(Random random) {
+        int n = candidates.length;
+        if (n == 0) {
+            return null;
+        }
+        int column = random.nextInt(n);
+        if (probability[column] >= 1.0 || random.nextDouble() < probability[column]) {
+            return candidates[column];
+        }
+        return candidates[alias[column]];
+    }
+
+    /**
+     * Number of buildings that can be selected.
+     */
+    int size() {
+        return candidates.length;
+    }
+}
@@ -24,6 +24,7 @@ public class SpawnableBuilding {
     private final BlockPos entrance;        // Entrance anchor position (normalized coordinates)
     private final float entranceYaw;        // Entrance facing direction
     private final int xWorld;               // Max spawns in this world (0 = unlimited)
+    private final double weight;            // Relative selection weight in the list (default 1, 0 = never selected)
     private final List<SpawnRule> rules;    // Spawn rules per biome
     private final AABB bounds;              // Bounding box (dimensions, origin at 0,0,0)
     private final Map<String, String> names;        // Localized names (lang code -> name)
@@ -32,11 +33,20 @@ public class SpawnableBuilding {
     // Runtime state (not persisted)
     private int spawnedCount = 0;
     private boolean downloadFailed = false;  // True if NBT download failed, applies 20% penalty
+    private SpawnableList list;              // List selecting this building, told when canSpawn() changes
 
     public SpawnableBuilding(String rdns, long pk, long ownerUserId, boolean isPrivate, String hash, String author,
                              BlockPos entrance, float entranceYaw,
                              int xWorld, List<SpawnRule> rules, AABB bounds,
                              Map<String, String> names, Map<String, String> descriptions) {
+        this(rdns, pk, ownerUserId, isPrivate, hash, author, entrance, entranceYaw,
+            xWorld, 1.0, rules, bounds, names, descriptions);
+    }
+
+    public SpawnableBuilding(String rdns, long pk, long ownerUserId, boolean isPrivate, String hash, String author,
+                             BlockPos entrance, float entranceYaw,
+                             int xWorld, double weight, List<SpawnRule> rules, AABB bounds,
+                             Map<String, String> names, Map<String, String> descriptions) {
         this.rdns = rdns;
         this.pk = pk;
         this.ownerUserId = ownerUserId;
@@ -46,6 +56,7 @@ public class SpawnableBuilding {
         this.entrance = entrance;
         this.entranceYaw = entranceYaw;
         this.xWorld = xWorld;
+        this.weight = Double.isFinite(weight) ? Math.max(0.0, weight) : 1.0;
         this.rules = rules != null ? List.copyOf(rules) : List.of();
         this.bounds = bounds;
         this.names = names != null ? Map.copyOf(names) : Map.of();
@@ -117,6 +128,14 @@ public class SpawnableBuilding {
         return xWorld;
     }
 
+    /**
+     * Gets the relative selection weight of this building in its list.
+     * @return the weight (1 by default), 0 if the building is never selected
+     */
+    public double getWeight() {
+        return weight;
+    }
+
     /**
      * Gets the spawn rules for this building.
      */
@@ -198,6 +217,26 @@ public class SpawnableBuilding {
      */
     public void incrementSpawnCount() {
         spawnedCount++;
+        if (xWorld != 0 && spawnedCount == xWorld && list != null) {
+            // Limit reached: no longer selectable
+            list.invalidateSelection();
+        }
+    }
+
+    /**
+     * Releases a spawn counted by {@link #incrementSpawnCount()} that did not happen
+     * (placement cancelled or nothing placed).
+     */
+    public void decrementSpawnCount() {
+        if (spawnedCount == 0) {
+            return;
+        }
+        boolean couldSpawn = canSpawn();
+        spawnedCount--;
+        if (!couldSpawn && list != null) {
+            // Below the limit again: selectable
+            list.invalidateSelection();
+        }
     }
 
     /**
@@ -232,7 +271,19 @@ public class SpawnableBuilding {
      * Resets the runtime spawn count.
      */
     public void resetSpawnCount() {
+        boolean couldSpawn = canSpawn();
         spawnedCount = 0;
+        if (!couldSpawn && list != null) {
+            list.invalidateSelection();
+        }
+    }
+
+    /**
+     * Sets the list whose selection must be rebuilt when this building reaches its spawn limit.
+     * A building belongs to one list at a time (lists are replaced, never shared).
+     */
+    void attachTo(SpawnableList list) {
+        this.list = list;
     }
 
     /**
@@ -1,20 +1,33 @@
 package it.magius.struttura.architect.ingame.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 /**
  * Represents a spawnable list containing buildings that can be spawned in the world.
  * Downloaded from the REST API when InGame mode is initialized.
+ *
+ * The buildings never change after creation (a refresh replaces the whole list): the rdns index
+ * is built once, the weighted selection ({@link BuildingSelection}) only when a building
+ * reaches or leaves its xWorld limit. Server thread only.
  */
 public class SpawnableList {
 
     private final String listHash;               // Content hash of the list for cache validation
     private final double spawningPercentage;     // 0.0-1.0, base probability of any spawn in a chunk
     private final List<SpawnableBuilding> buildings;
+    private final Map<String, SpawnableBuilding> buildingsByRdns;
     private long downloadTime;                   // Timestamp when list was downloaded (for refresh checks)
 
+    // Selection among the buildings that can still spawn, null = rebuild on next use
+    private BuildingSelection selection;
+    // Incremented every time the selectable buildings change
+    private int selectionRevision = 0;
+
     public SpawnableList(String listHash, double spawningPercentage, List<SpawnableBuilding> buildings) {
         this(listHash, spawningPercentage, buildings, System.currentTimeMillis());
     }
@@ -22,8 +35,15 @@ public class SpawnableList {
     public SpawnableList(String listHash, double spawningPercentage, List<SpawnableBuilding> buildings, long downloadTime) {
         this.listHash = listHash;
         this.spawningPercentage = Math.max(0.0, Math.min(1.0, spawningPercentage));
-        this.buildings = buildings != null ? new ArrayList<>(buildings) : new ArrayList<>();
+        this.buildings = buildings != null ? Collections.unmodifiableList(new ArrayList<>(buildings)) : List.of();
         this.downloadTime = downloadTime;
+
+        this.buildingsByRdns = new HashMap<>(Math.max(16, this.buildings.size() * 2));
+        for (SpawnableBuilding building : this.buildings) {
+            // First occurrence wins, as the previous linear search did
+            buildingsByRdns.putIfAbsent(building.getRdns(), building);
+            building.attachTo(this);
+        }
     }
 
     /**
@@ -58,7 +78,7 @@ public class SpawnableList {
     }
 
     /**
-     * Gets all buildings in this list.
+     * Gets all buildings in this list (read only).
      */
     public List<SpawnableBuilding> getBuildings() {
         return buildings;
@@ -84,34 +104,47 @@ public class SpawnableList {
      * @return the building, or null if not found
      */
     public SpawnableBuilding getBuildingByRdns(String rdns) {
-        for (SpawnableBuilding building : buildings) {
-            if (building.getRdns().equals(rdns)) {
-                return building;
-            }
-        }
-        return null;
+        return buildingsByRdns.get(rdns);
     }
 
     /**
-     * Selects a random building that can still be spawned.
+     * Selects a random building that can still be spawned, proportionally to the building weights
+     * (uniform when no weights are set).
      * @param random the random generator (seeded for deterministic selection)
      * @return a spawnable building, or null if none are available
      */
     public SpawnableBuilding selectRandomBuilding(Random random) {
-        // Filter to buildings that can still spawn
-        List<SpawnableBuilding> available = new ArrayList<>();
-        for (SpawnableBuilding building : buildings) {
-            if (building.canSpawn()) {
-                available.add(building);
-            }
-        }
+        return getSelection().select(random);
+    }
 
-        if (available.isEmpty()) {
-            return null;
-        }
+    /**
+     * Counts the buildings that can still be spawned (the candidates of {@link #selectRandomBuilding}).
+     */
+    public int countSpawnable() {
+        return getSelection().size();
+    }
+
+    /**
+     * Revision of the selectable buildings: changes whenever a building reaches or leaves its
+     * spawn limit, so a selection made at an older revision may no longer be valid.
+     */
+    public int getSelectionRevision() {
+        return selectionRevision;
+    }
 
-        // Select randomly from available buildings
-        return available.get(random.nextInt(available.size()));
+    /**
+     * Drops the selection, rebuilt on next use. Called by the buildings when canSpawn() changes.
+     */
+    void invalidateSelection() {
+        selection = null;
+        selectionRevision++;
+    }
+
+    private BuildingSelection getSelection() {
+        if (selection == null) {
+            selection = BuildingSelection.build(buildings);
+        }
+        return selection;
     }
 
     /**
@@ -3,11 +3,9 @@ package it.magius.struttura.architect.ingame.spawn;
 import it.magius.struttura.architect.ingame.model.SpawnRule;
 import it.magius.struttura.architect.ingame.model.SpawnableBuilding;
 import net.minecraft.core.BlockPos;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.ChunkPos;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 
@@ -19,29 +17,23 @@ import java.util.Random;
  * Subclasses implement:
  * - getYAtPosition(): how to find the Y coordinate for this position type
  * - validatePlacement(): specific checks for this position type
+ * and may override search() for a different search (e.g. multiple Y attempts).
+ *
+ * findPosition() (spawning) and findPositionWithDetails() (debug commands) share search():
+ * failures are recorded as reason codes in a SearchTrace, text is only rendered for the latter.
  */
 public abstract class AbstractPositionValidator implements PositionValidator {
 
     /**
-     * Result of placement validation.
-     * @param valid true if placement is valid
-     * @param reason if invalid, describes why
+     * Rotations tried at each position, in order.
      */
-    protected record PlacementResult(boolean valid, String reason) {
-        public static PlacementResult ok() {
-            return new PlacementResult(true, null);
-        }
-
-        public static PlacementResult fail(String reason) {
-            return new PlacementResult(false, reason);
-        }
-    }
+    protected static final int[] ROTATIONS = {0, 90, 180, 270};
 
     /**
      * Context passed to validatePlacement with pre-calculated values.
      */
     protected record PlacementContext(
-        ServerLevel level,
+        TerrainSnapshot terrain,
         BlockPos entrancePos,
         SpawnableBuilding building,
         int rotation,
@@ -55,25 +47,37 @@ public abstract class AbstractPositionValidator implements PositionValidator {
     ) {}
 
     @Override
-    public Optional<SpawnPosition> findPosition(ServerLevel level, ChunkPos chunkPos,
+    public Optional<SpawnPosition> findPosition(TerrainSnapshot terrain, ChunkPos chunkPos,
                                                  SpawnableBuilding building, SpawnRule rule, Random random) {
-        FindResult result = findPositionWithDetails(level, chunkPos, building, rule, random);
-        return result.position() != null ? Optional.of(result.position()) : Optional.empty();
+        return Optional.ofNullable(search(terrain, chunkPos, building, rule, random, SearchTrace.fast()));
     }
 
     @Override
-    public FindResult findPositionWithDetails(ServerLevel level, ChunkPos chunkPos,
+    public FindResult findPositionWithDetails(TerrainSnapshot terrain, ChunkPos chunkPos,
                                                SpawnableBuilding building, SpawnRule rule, Random random) {
+        SearchTrace trace = SearchTrace.diagnostic();
+        SpawnPosition position = search(terrain, chunkPos, building, rule, random, trace);
+        return position != null ? FindResult.success(position) : FindResult.failure(trace.getLines());
+    }
+
+    /**
+     * Searches a valid position. Both paths use it: rejections go to the trace, which renders
+     * text only in diagnostic mode (same random draws, same result either way).
+     *
+     * @return the position, or null if none found
+     */
+    @Nullable
+    protected SpawnPosition search(TerrainSnapshot terrain, ChunkPos chunkPos, SpawnableBuilding building,
+                                   SpawnRule rule, Random random, SearchTrace trace) {
 
-        int buildingWidth = building.getSizeX();
-        int buildingDepth = building.getSizeZ();
         int margin = rule.getMargin();
 
-        List<String> failureReasons = new ArrayList<>();
-        failureReasons.add(String.format("Building: %s (size %dx%dx%d)",
-            building.getRdns(), buildingWidth, building.getSizeY(), buildingDepth));
-        failureReasons.add(String.format("Rule: Y range [%d-%d], margin=%d, type=%s",
-            rule.getY1(), rule.getY2(), margin, rule.getType()));
+        if (trace.diagnostics()) {
+            trace.note(String.format("Building: %s (size %dx%dx%d)",
+                building.getRdns(), building.getSizeX(), building.getSizeY(), building.getSizeZ()));
+            trace.note(String.format("Rule: Y range [%d-%d], margin=%d, type=%s",
+                rule.getY1(), rule.getY2(), margin, rule.getType()));
+        }
 
         // Divide chunk into 4 quadrants and try each
         int[][] quadrants = {
@@ -97,49 +101,38 @@ public abstract class AbstractPositionValidator implements PositionValidator {
             int worldZ = chunkPos.getBlockZ(localZ);
 
             // Get Y coordinate for this position type
-            int y = getYAtPosition(level, worldX, worldZ, rule, random);
+            int y = getYAtPosition(terrain, worldX, worldZ, rule, random);
 
             // Check Y range
             if (y < rule.getY1() || y > rule.getY2()) {
-                failureReasons.add(String.format("Quadrant [%d,%d] at (%d,%d): Y=%d outside range [%d-%d]",
-                    quadrant[0], quadrant[1], worldX, worldZ, y, rule.getY1(), rule.getY2()));
+                trace.reject(RejectReason.Y_OUT_OF_RANGE, y, rule.getY1(), rule.getY2());
+                trace.quadrantFailed(quadrant[0], quadrant[1], worldX, worldZ);
                 continue;
             }
 
             // Try all 4 rotations
-            int[] rotations = {0, 90, 180, 270};
-            for (int rotation : rotations) {
-                BlockPos entrancePos = new BlockPos(worldX, y, worldZ);
-
-                PlacementContext ctx = createPlacementContext(level, entrancePos, building, rotation, margin);
-
-                // Check that all chunks the building will occupy are loaded
-                String chunkCheck = PositionValidator.checkChunksLoaded(
-                    level, ctx.buildingOrigin(), ctx.effectiveWidth(), ctx.effectiveDepth(), margin);
-                if (chunkCheck != null) {
-                    failureReasons.add(String.format("Pos %s rot %d°: %s",
-                        entrancePos.toShortString(), rotation, chunkCheck));
-                    continue;
-                }
-
-                // Type-specific validation
-                PlacementResult result = validatePlacement(ctx);
-                if (result.valid()) {
-                    return FindResult.success(SpawnPosition.at(entrancePos, rotation, rule));
-                } else {
-                    failureReasons.add(String.format("Pos %s rot %d°: %s",
-                        entrancePos.toShortString(), rotation, result.reason()));
+            BlockPos entrancePos = new BlockPos(worldX, y, worldZ);
+            for (int rotation : ROTATIONS) {
+                PlacementContext ctx = createPlacementContext(terrain, entrancePos, building, rotation, margin);
+
+                // Check that all chunks the building will occupy are loaded,
+                // then type-specific validation
+                if (PositionValidator.checkChunksLoaded(
+                        terrain, ctx.buildingOrigin(), ctx.effectiveWidth(), ctx.effectiveDepth(), margin, trace)
+                    && validatePlacement(ctx, trace)) {
+                    return SpawnPosition.at(entrancePos, rotation, rule);
                 }
+                trace.placementFailed(worldX, y, worldZ, rotation);
             }
         }
 
-        return FindResult.failure(failureReasons);
+        return null;
     }
 
     /**
      * Creates placement context with pre-calculated rotated values.
      */
-    protected PlacementContext createPlacementContext(ServerLevel level, BlockPos entrancePos,
+    protected PlacementContext createPlacementContext(TerrainSnapshot terrain, BlockPos entrancePos,
                                                        SpawnableBuilding building, int rotation, int margin) {
         int sizeX = building.getSizeX();
         int sizeZ = building.getSizeZ();
@@ -186,7 +179,7 @@ public abstract class AbstractPositionValidator implements PositionValidator {
         BlockPos buildingOrigin = new BlockPos(buildingOriginX, entrancePos.getY(), buildingOriginZ);
 
         return new PlacementContext(
-            level, entrancePos, building, rotation, margin,
+            terrain, entrancePos, building, rotation, margin,
             effectiveWidth, effectiveDepth, rotatedEntranceX, rotatedEntranceZ, buildingOrigin
         );
     }
@@ -196,13 +189,14 @@ public abstract class AbstractPositionValidator implements PositionValidator {
      * Each validator implements this differently (surface height, random Y, water level, etc.)
      * @param random seeded random for deterministic selection when needed
      */
-    protected abstract int getYAtPosition(ServerLevel level, int x, int z, SpawnRule rule, Random random);
+    protected abstract int getYAtPosition(TerrainSnapshot terrain, int x, int z, SpawnRule rule, Random random);
 
     /**
      * Validates that the building can be placed at this position.
      * Called after chunk loading is verified.
      * @param ctx the placement context with pre-calculated values
-     * @return PlacementResult indicating if valid or why not
+     * @param trace records why not (returning trace.reject...)
+     * @return true if valid
      */
-    protected abstract PlacementResult validatePlacement(PlacementContext ctx);
+    protected abstract boolean validatePlacement(PlacementContext ctx, SearchTrace trace);
 }
@@ -4,14 +4,11 @@ import it.magius.struttura.architect.ingame.model.PositionType;
 import it.magius.struttura.architect.ingame.model.SpawnRule;
 import it.magius.struttura.architect.ingame.model.SpawnableBuilding;
 import net.minecraft.core.BlockPos;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.tags.BlockTags;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -39,15 +36,15 @@ public class BottomWaterValidator extends AbstractPositionValidator {
     }
 
     @Override
-    protected int getYAtPosition(ServerLevel level, int x, int z, SpawnRule rule, Random random) {
-        // Not used - we override findPositionWithDetails to handle multiple Y attempts
+    protected int getYAtPosition(TerrainSnapshot terrain, int x, int z, SpawnRule rule, Random random) {
+        // Not used - we override search to handle multiple Y attempts
         return rule.getY1();
     }
 
     @Override
-    protected PlacementResult validatePlacement(PlacementContext ctx) {
+    protected boolean validatePlacement(PlacementContext ctx, SearchTrace trace) {
         // Not used directly - we call validateAtY instead
-        return validateAtY(ctx, ctx.entrancePos().getY());
+        return validateAtY(ctx, ctx.entrancePos().getY(), trace);
     }
 
     /**
@@ -60,7 +57,7 @@ public class BottomWaterValidator extends AbstractPositionValidator {
      * - waterY = anchorY + 1 (first water block above floor)
      * - topY = anchorY + heightAboveAnchor (where water must still be present)
      */
-    private PlacementResult validateAtY(PlacementContext ctx, int anchorY) {
+    private boolean validateAtY(PlacementContext ctx, int anchorY, SearchTrace trace) {
         int entranceY = ctx.building().getEntrance().getY();
         int buildingHeight = ctx.building().getSizeY();
         int heightAboveAnchor = buildingHeight - entranceY;
@@ -71,68 +68,55 @@ public class BottomWaterValidator extends AbstractPositionValidator {
         int topY = anchorY + heightAboveAnchor;
 
         // Check that the anchor position is solid floor
-        BlockPos anchorPos = new BlockPos(ctx.entrancePos().getX(), anchorY, ctx.entrancePos().getZ());
-        BlockState anchorState = ctx.level().getBlockState(anchorPos);
+        int anchorX = ctx.entrancePos().getX();
+        int anchorZ = ctx.entrancePos().getZ();
+        BlockState anchorState = ctx.terrain().getBlockState(anchorX, anchorY, anchorZ);
         if (!isSolidFloorBlock(anchorState)) {
-            return PlacementResult.fail(String.format(
-                "Anchor at %s is not solid floor (found: %s)",
-                anchorPos.toShortString(), anchorState.getBlock().getName().getString()));
+            return trace.rejectBlock(RejectReason.ANCHOR_NOT_FLOOR, anchorX, anchorY, anchorZ, anchorState);
         }
 
         // Check that water is above the anchor
-        BlockPos waterPos = new BlockPos(ctx.entrancePos().getX(), waterY, ctx.entrancePos().getZ());
-        BlockState waterState = ctx.level().getBlockState(waterPos);
+        BlockState waterState = ctx.terrain().getBlockState(anchorX, waterY, anchorZ);
         if (!isWater(waterState) && !isIgnorableUnderwaterBlock(waterState)) {
-            return PlacementResult.fail(String.format(
-                "No water above anchor at %s (found: %s)",
-                waterPos.toShortString(), waterState.getBlock().getName().getString()));
+            return trace.rejectBlock(RejectReason.NO_WATER_ABOVE_ANCHOR, anchorX, waterY, anchorZ, waterState);
         }
 
-        // Check corners of the building footprint
-        int[] cornerXOffsets = {0, ctx.effectiveWidth() - 1, 0, ctx.effectiveWidth() - 1};
-        int[] cornerZOffsets = {0, 0, ctx.effectiveDepth() - 1, ctx.effectiveDepth() - 1};
+        // Check corners of the building footprint (NW, NE, SW, SE)
+        int maxDX = ctx.effectiveWidth() - 1;
+        int maxDZ = ctx.effectiveDepth() - 1;
 
         for (int i = 0; i < 4; i++) {
-            int cornerX = ctx.buildingOrigin().getX() + cornerXOffsets[i];
-            int cornerZ = ctx.buildingOrigin().getZ() + cornerZOffsets[i];
+            int cornerX = ctx.buildingOrigin().getX() + ((i & 1) != 0 ? maxDX : 0);
+            int cornerZ = ctx.buildingOrigin().getZ() + ((i & 2) != 0 ? maxDZ : 0);
 
             // Check floor at corner (anchor level)
-            BlockPos cornerFloorPos = new BlockPos(cornerX, anchorY, cornerZ);
-            BlockState cornerFloorState = ctx.level().getBlockState(cornerFloorPos);
-
+            BlockState cornerFloorState = ctx.terrain().getBlockState(cornerX, anchorY, cornerZ);
             if (!isSolidFloorBlock(cornerFloorState)) {
-                return PlacementResult.fail(String.format(
-                    "Corner %d has no solid floor at %s (found: %s)",
-                    i, cornerFloorPos.toShortString(), cornerFloorState.getBlock().getName().getString()));
+                return trace.rejectCorner(RejectReason.CORNER_NO_FLOOR,
+                    i, cornerX, anchorY, cornerZ, cornerFloorState);
             }
 
             // Check water above floor at corner
-            BlockPos cornerWaterPos = new BlockPos(cornerX, waterY, cornerZ);
-            BlockState cornerWaterState = ctx.level().getBlockState(cornerWaterPos);
-
+            BlockState cornerWaterState = ctx.terrain().getBlockState(cornerX, waterY, cornerZ);
             if (!isWater(cornerWaterState) && !isIgnorableUnderwaterBlock(cornerWaterState)) {
-                return PlacementResult.fail(String.format(
-                    "Corner %d has no water above floor at %s (found: %s)",
-                    i, cornerWaterPos.toShortString(), cornerWaterState.getBlock().getName().getString()));
+                return trace.rejectCorner(RejectReason.CORNER_NO_WATER_ABOVE_FLOOR,
+                    i, cornerX, waterY, cornerZ, cornerWaterState);
             }
 
             // Check water above the building top at this corner
-            BlockPos cornerTopPos = new BlockPos(cornerX, topY, cornerZ);
-            BlockState cornerTopState = ctx.level().getBlockState(cornerTopPos);
-
+            BlockState cornerTopState = ctx.terrain().getBlockState(cornerX, topY, cornerZ);
             if (!isWater(cornerTopState) && !isIgnorableUnderwaterBlock(cornerTopState)) {
-                return PlacementResult.fail(String.format(
-                    "Corner %d has no water above building top at %s (found: %s)",
-                    i, cornerTopPos.toShortString(), cornerTopState.getBlock().getName().getString()));
+                return trace.rejectCorner(RejectReason.CORNER_NO_WATER_ABOVE_TOP,
+                    i, cornerX, topY, cornerZ, cornerTopState);
             }
         }
 
-        return PlacementResult.ok();
+        return true;
     }
 
     @Override
-    public FindResult findPositionWithDetails(ServerLevel level, ChunkPos chunkPos,
-                                               SpawnableBuilding building, SpawnRule rule, Random random) {
+    protected SpawnPosition search(TerrainSnapshot terrain, ChunkPos chunkPos, SpawnableBuilding building,
+                                   SpawnRule rule, Random random, SearchTrace trace) {
 
         int buildingWidth = building.getSizeX();
         int buildingDepth = building.getSizeZ();
@@ -145,11 +129,12 @@ public class BottomWaterValidator extends AbstractPositionValidator {
         int entranceY = building.getEntrance().getY();
         int heightAboveAnchor = buildingHeight - entranceY;
 
-        List<String> failureReasons = new ArrayList<>();
-        failureReasons.add(String.format("Building: %s (size %dx%dx%d, entranceY=%d, heightAbove=%d)",
-            building.getRdns(), buildingWidth, buildingHeight, buildingDepth, entranceY, heightAboveAnchor));
-        failureReasons.add(String.format("Rule: Y range [%d-%d], margin=%d, type=%s",
-            rule.getY1(), rule.getY2(), margin, rule.getType()));
+        if (trace.diagnostics()) {
+            trace.note(String.format("Building: %s (size %dx%dx%d, entranceY=%d, heightAbove=%d)",
+                building.getRdns(), buildingWidth, buildingHeight, buildingDepth, entranceY, heightAboveAnchor));
+            trace.note(String.format("Rule: Y range [%d-%d], margin=%d, type=%s",
+                rule.getY1(), rule.getY2(), margin, rule.getType()));
+        }
 
         // Divide chunk into 4 quadrants and try each
         int[][] quadrants = {
@@ -184,9 +169,8 @@ public class BottomWaterValidator extends AbstractPositionValidator {
 
             // Check if there's any valid range at all
             if (effectiveMaxY < effectiveMinY) {
-                failureReasons.add(String.format(
-                    "Quadrant [%d,%d] at (%d,%d): Y range too small (effective [%d-%d] invalid for height %d)",
-                    quadrant[0], quadrant[1], worldX, worldZ, effectiveMinY, effectiveMaxY, buildingHeight));
+                trace.reject(RejectReason.Y_RANGE_TOO_SMALL, effectiveMinY, effectiveMaxY, buildingHeight, margin);
+                trace.quadrantFailed(quadrant[0], quadrant[1], worldX, worldZ);
                 continue;
             }
 
@@ -196,9 +180,8 @@ public class BottomWaterValidator extends AbstractPositionValidator {
             while (true) {
                 // Check if we've exhausted the valid range
                 if (currentMinY > effectiveMaxY) {
-                    failureReasons.add(String.format(
-                        "Quadrant [%d,%d] at (%d,%d): Exhausted Y range [%d-%d]",
-                        quadrant[0], quadrant[1], worldX, worldZ, effectiveMinY, effectiveMaxY));
+                    trace.reject(RejectReason.Y_RANGE_EXHAUSTED, effectiveMinY, effectiveMaxY);
+                    trace.quadrantFailed(quadrant[0], quadrant[1], worldX, worldZ);
                     break;
                 }
 
@@ -208,37 +191,25 @@ public class BottomWaterValidator extends AbstractPositionValidator {
 
                 // First check if this Y could be a valid underwater floor position
                 // (solid block below building base, water above building top)
-                if (!isValidUnderwaterFloorCandidate(level, worldX, y, worldZ, entranceY, heightAboveAnchor)) {
+                if (!isValidUnderwaterFloorCandidate(terrain, worldX, y, worldZ, entranceY, heightAboveAnchor)) {
                     // Move minY up past this attempt for next iteration
                     currentMinY = y + 1;
                     continue;
                 }
 
                 // Try all 4 rotations at this Y
-                int[] rotations = {0, 90, 180, 270};
-
-                for (int rotation : rotations) {
-                    BlockPos entrancePos = new BlockPos(worldX, y, worldZ);
-
-                    PlacementContext ctx = createPlacementContext(level, entrancePos, building, rotation, margin);
-
-                    // Check that all chunks the building will occupy are loaded
-                    String chunkCheck = PositionValidator.checkChunksLoaded(
-                        level, ctx.buildingOrigin(), ctx.effectiveWidth(), ctx.effectiveDepth(), margin);
-                    if (chunkCheck != null) {
-                        failureReasons.add(String.format("Pos %s rot %d°: %s",
-                            entrancePos.toShortString(), rotation, chunkCheck));
-                        continue;
-                    }
-
-                    // Validate the position
-                    PlacementResult result = validateAtY(ctx, y);
-                    if (result.valid()) {
-                        return FindResult.success(SpawnPosition.at(entrancePos, rotation, rule));
-                    } else {
-                        failureReasons.add(String.format("Pos %s rot %d°: %s",
-                            entrancePos.toShortString(), rotation, result.reason()));
+                BlockPos entrancePos = new BlockPos(worldX, y, worldZ);
+                for (int rotation : ROTATIONS) {
+                    PlacementContext ctx = createPlacementContext(terrain, entrancePos, building, rotation, margin);
+
+                    // Check that all chunks the building will occupy are loaded,
+                    // then validate the position
+                    if (PositionValidator.checkChunksLoaded(
+                            terrain, ctx.buildingOrigin(), ctx.effectiveWidth(), ctx.effectiveDepth(), margin, trace)
+                        && validateAtY(ctx, y, trace)) {
+                        return SpawnPosition.at(entrancePos, rotation, rule);
                     }
+                    trace.placementFailed(worldX, y, worldZ, rotation);
                 }
 
                 // Move minY up past this attempt for next iteration
@@ -246,7 +217,7 @@ public class BottomWaterValidator extends AbstractPositionValidator {
             }
         }
 
-        return FindResult.failure(failureReasons);
+        return null;
     }
 
     /**
@@ -261,23 +232,23 @@ public class BottomWaterValidator extends AbstractPositionValidator {
      * @param entranceY how far the anchor is from the building base (normalized)
      * @param heightAboveAnchor how much of the building is above the anchor
      */
-    private boolean isValidUnderwaterFloorCandidate(ServerLevel level, int x, int anchorY, int z,
+    private boolean isValidUnderwaterFloorCandidate(TerrainSnapshot terrain, int x, int anchorY, int z,
                                                      int entranceY, int heightAboveAnchor) {
         // Check 1: Anchor level must be solid floor
-        BlockState anchorState = level.getBlockState(new BlockPos(x, anchorY, z));
+        BlockState anchorState = terrain.getBlockState(x, anchorY, z);
         if (!isSolidFloorBlock(anchorState)) {
             return false;
         }
 
         // Check 2: Water must be above the anchor
-        BlockState aboveState = level.getBlockState(new BlockPos(x, anchorY + 1, z));
+        BlockState aboveState = terrain.getBlockState(x, anchorY + 1, z);
         if (!isWater(aboveState) && !isIgnorableUnderwaterBlock(aboveState)) {
             return false;
         }
 
         // Check 3: Water must be above the building top
         int topY = anchorY + heightAboveAnchor;
-        BlockState topState = level.getBlockState(new BlockPos(x, topY, z));
+        BlockState topState = terrain.getBlockState(x, topY, z);
         if (!isWater(topState) && !isIgnorableUnderwaterBlock(topState)) {
             return false;
         }
@@ -11,6 +11,9 @@ import it.magius.struttura.architect.ingame.model.SpawnableBuilding;
 import it.magius.struttura.architect.model.Construction;
 import it.magius.struttura.architect.model.ConstructionSnapshot;
 import it.magius.struttura.architect.placement.ConstructionOperations;
+import it.magius.struttura.architect.placement.PlacementScheduler;
+import it.magius.struttura.architect.placement.SectionBlockWriter;
+import it.magius.struttura.architect.placement.SpawnPlanSource;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Entity;
@@ -153,8 +156,12 @@ public class InGameBuildingSpawner {
             return;
         }
 
-        // Use architectSpawn with specific spawn point (InGame mode)
-        var result = ConstructionOperations.architectSpawn(
+        // Rotated block plans and room overlaps are cached per building next to the snapshot
+        SpawnPlanSource cached = BuildingCache.getInstance()
+            .getSpawnPlanSource(building.getRdns(), construction, snapshot);
+
+        // Use architectSpawn with specific spawn point (InGame mode), placed across ticks
+        var job = ConstructionOperations.architectSpawnJob(
             level,
             construction,
             snapshot,
@@ -162,34 +169,63 @@ public class InGameBuildingSpawner {
             null,                   // No forced rooms
             entrancePos,            // Specific spawn point (entrance position)
             roomSeed,               // Seed for room selection
-            null                    // No player - using spawn point instead
+            null,                   // No player - using spawn point instead
+            cached
         );
 
-        if (result.blocksPlaced() > 0) {
-            // Calculate world-space bounds using centralized calculator
-            AABB worldBounds = BoundsCalculator.calculate(construction, result.origin(), rotationDegrees);
-
-            // Get localized name (prefer English for storage)
-            String buildingName = building.getLocalizedName("en_us");
-            String buildingAuthor = building.getAuthor();
-
-            // Store building data in chunk (including name/author for offline display)
-            ChunkDataManager.setBuildingData(
-                chunk,
-                building.getRdns(),
-                building.getPk(),
-                worldBounds,
-                rotationDegrees,
-                buildingName,
-                buildingAuthor
-            );
-
-            // Note: OccupiedChunks.markOccupied() is now called BEFORE spawning in SpawnEvaluator
-            // to prevent race conditions with other chunks in the queue
-
-            // Increment spawn count
-            building.incrementSpawnCount();
-        }
+        // Reserve the spawn now: the queue keeps selecting buildings while the job runs,
+        // the xWorld limit must already count this one. Released if nothing gets placed.
+        building.incrementSpawnCount();
+
+        // Chunk data is written only once the building is completely in the world
+        int chunkX = chunk.getPos().x;
+        int chunkZ = chunk.getPos().z;
+        job.onComplete(result -> {
+            if (result.blocksPlaced() <= 0) {
+                building.decrementSpawnCount();
+                return;
+            }
+            LevelChunk targetChunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+            if (targetChunk == null) {
+                Architect.LOGGER.warn("Chunk [{}, {}] unloaded during placement, building data not stored for {}",
+                    chunkX, chunkZ, building.getRdns());
+                return;
+            }
+            onSpawnCompleted(targetChunk, building, construction, result, rotationDegrees);
+        }).onCancel(() -> {
+            Architect.LOGGER.warn("Placement of {} cancelled, building data not stored", building.getRdns());
+            building.decrementSpawnCount();
+        });
+
+        PlacementScheduler.getInstance().submit(job);
+    }
+
+    /**
+     * Stores the building data in the chunk after the placement job has completed.
+     */
+    private static void onSpawnCompleted(LevelChunk chunk, SpawnableBuilding building, Construction construction,
+                                         ConstructionOperations.ArchitectSpawnResult result, int rotationDegrees) {
+        // Calculate world-space bounds using centralized calculator
+        AABB worldBounds = BoundsCalculator.calculate(construction, result.origin(), rotationDegrees);
+
+        // Get localized name (prefer English for storage)
+        String buildingName = building.getLocalizedName("en_us");
+        String buildingAuthor = building.getAuthor();
+
+        // Store building data in chunk (including name/author for offline display)
+        ChunkDataManager.setBuildingData(
+            chunk,
+            building.getRdns(),
+            building.getPk(),
+            worldBounds,
+            rotationDegrees,
+            buildingName,
+            buildingAuthor
+        );
+
+        // Note: OccupiedChunks.markOccupied() is now called BEFORE spawning in SpawnEvaluator
+        // to prevent race conditions with other chunks in the queue
+        // Note: the spawn count is reserved when the placement job is submitted
     }
 
     /**
@@ -223,27 +259,23 @@ public class InGameBuildingSpawner {
             entitiesRemoved++;
         }
 
-        // Phase 2: Clear all blocks without drops
-        // IMPORTANT: Iterate from TOP to BOTTOM (Y descending) to remove plants/grass
-        // before removing the ground blocks they sit on. This prevents plants from
-        // breaking naturally and dropping items when their support block is removed.
-        int clearedCount = 0;
+        // Phase 2: Clear all blocks without drops.
+        // Written in bulk by chunk section: direct palette writes trigger no block updates,
+        // so plants cannot break and drop items when the ground under them is removed
         BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
         BlockState fillBlock = useWater ? Blocks.WATER.defaultBlockState() : Blocks.AIR.defaultBlockState();
+        SectionBlockWriter writer = new SectionBlockWriter(level, flags);
 
         for (int y = maxY; y >= minY; y--) {
             for (int x = minX; x <= maxX; x++) {
                 for (int z = minZ; z <= maxZ; z++) {
                     pos.set(x, y, z);
-                    BlockState currentState = level.getBlockState(pos);
-                    // Replace if not already the target block type
-                    if (currentState.getBlock() != fillBlock.getBlock()) {
-                        level.setBlock(pos, fillBlock, flags);
-                        clearedCount++;
-                    }
+                    writer.add(pos, fillBlock);
                 }
             }
         }
+        int clearedCount = writer.writeAll();
+        writer.logStats("Pre-clear");
 
         if (entitiesRemoved > 0 || clearedCount > 0) {
             Architect.LOGGER.debug("Pre-clear: {} {} blocks, {} entities",
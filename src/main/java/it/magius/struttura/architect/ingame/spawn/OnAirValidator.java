@@ -4,12 +4,8 @@ import it.magius.struttura.architect.ingame.model.PositionType;
 import it.magius.struttura.architect.ingame.model.SpawnRule;
 import it.magius.struttura.architect.ingame.model.SpawnableBuilding;
 import net.minecraft.core.BlockPos;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.ChunkPos;
-import net.minecraft.world.level.block.state.BlockState;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 
@@ -31,21 +27,21 @@ public class OnAirValidator extends AbstractPositionValidator {
     }
 
     @Override
-    protected int getYAtPosition(ServerLevel level, int x, int z, SpawnRule rule, Random random) {
-        // Not used - we override findPositionWithDetails to handle multiple Y attempts
+    protected int getYAtPosition(TerrainSnapshot terrain, int x, int z, SpawnRule rule, Random random) {
+        // Not used - we override search to handle multiple Y attempts
         return rule.getY1();
     }
 
     @Override
-    protected PlacementResult validatePlacement(PlacementContext ctx) {
+    protected boolean validatePlacement(PlacementContext ctx, SearchTrace trace) {
         // Not used directly - we call validateAtY instead
-        return validateAtY(ctx, ctx.entrancePos().getY());
+        return validateAtY(ctx, ctx.entrancePos().getY(), trace);
     }
 
     /**
      * Validates placement at a specific Y coordinate.
      */
-    private PlacementResult validateAtY(PlacementContext ctx, int y) {
+    private boolean validateAtY(PlacementContext ctx, int y, SearchTrace trace) {
         int margin = ctx.margin();
         int sizeY = ctx.building().getSizeY();
 
@@ -57,28 +53,24 @@ public class OnAirValidator extends AbstractPositionValidator {
         int minZ = ctx.buildingOrigin().getZ() - margin;
         int maxZ = ctx.buildingOrigin().getZ() + ctx.effectiveDepth() + margin - 1;
 
-        // Check all blocks within expanded bounds are air
-        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        // Check all blocks within expanded bounds are air, one column at a time
+        // (air runs are memoized per column by the terrain profile)
         for (int bx = minX; bx <= maxX; bx++) {
-            for (int by = minY; by <= maxY; by++) {
-                for (int bz = minZ; bz <= maxZ; bz++) {
-                    pos.set(bx, by, bz);
-                    BlockState state = ctx.level().getBlockState(pos);
-                    if (!state.isAir()) {
-                        return PlacementResult.fail(String.format(
-                            "Non-air block at %s (block: %s)",
-                            pos.toShortString(), state.getBlock().getName().getString()));
-                    }
+            for (int bz = minZ; bz <= maxZ; bz++) {
+                int by = ctx.terrain().getLowestNonAirY(bx, bz, minY, maxY);
+                if (by != TerrainSnapshot.NONE) {
+                    return trace.rejectBlock(RejectReason.NON_AIR_BLOCK, bx, by, bz,
+                        ctx.terrain().getBlockState(bx, by, bz));
                 }
             }
         }
 
-        return PlacementResult.ok();
+        return true;
     }
 
     @Override
-    public FindResult findPositionWithDetails(ServerLevel level, ChunkPos chunkPos,
-                                               SpawnableBuilding building, SpawnRule rule, Random random) {
+    protected SpawnPosition search(TerrainSnapshot terrain, ChunkPos chunkPos, SpawnableBuilding building,
+                                   SpawnRule rule, Random random, SearchTrace trace) {
 
         int buildingWidth = building.getSizeX();
         int buildingDepth = building.getSizeZ();
@@ -88,11 +80,12 @@ public class OnAirValidator extends AbstractPositionValidator {
         // Height needed for the building including margins
         int requiredHeight = buildingHeight + 2 * margin;
 
-        List<String> failureReasons = new ArrayList<>();
-        failureReasons.add(String.format("Building: %s (size %dx%dx%d)",
-            building.getRdns(), buildingWidth, buildingHeight, buildingDepth));
-        failureReasons.add(String.format("Rule: Y range [%d-%d], margin=%d, type=%s",
-            rule.getY1(), rule.getY2(), margin, rule.getType()));
+        if (trace.diagnostics()) {
+            trace.note(String.format("Building: %s (size %dx%dx%d)",
+                building.getRdns(), buildingWidth, buildingHeight, buildingDepth));
+            trace.note(String.format("Rule: Y range [%d-%d], margin=%d, type=%s",
+                rule.getY1(), rule.getY2(), margin, rule.getType()));
+        }
 
         // Divide chunk into 4 quadrants and try each
         int[][] quadrants = {
@@ -125,9 +118,8 @@ public class OnAirValidator extends AbstractPositionValidator {
 
             // Check if there's any valid range at all
             if (effectiveMaxY < effectiveMinY) {
-                failureReasons.add(String.format(
-                    "Quadrant [%d,%d] at (%d,%d): Y range too small (effective [%d-%d] invalid for height %d + margin %d)",
-                    quadrant[0], quadrant[1], worldX, worldZ, effectiveMinY, effectiveMaxY, buildingHeight, margin));
+                trace.reject(RejectReason.Y_RANGE_TOO_SMALL, effectiveMinY, effectiveMaxY, buildingHeight, margin);
+                trace.quadrantFailed(quadrant[0], quadrant[1], worldX, worldZ);
                 continue;
             }
 
@@ -137,9 +129,8 @@ public class OnAirValidator extends AbstractPositionValidator {
             while (true) {
                 // Check if we've exhausted the valid range
                 if (currentMinY > effectiveMaxY) {
-                    failureReasons.add(String.format(
-                        "Quadrant [%d,%d] at (%d,%d): Exhausted Y range [%d-%d]",
-                        quadrant[0], quadrant[1], worldX, worldZ, effectiveMinY, effectiveMaxY));
+                    trace.reject(RejectReason.Y_RANGE_EXHAUSTED, effectiveMinY, effectiveMaxY);
+                    trace.quadrantFailed(quadrant[0], quadrant[1], worldX, worldZ);
                     break;
                 }
 
@@ -148,31 +139,18 @@ public class OnAirValidator extends AbstractPositionValidator {
                 int y = (range <= 0) ? currentMinY : currentMinY + random.nextInt(range + 1);
 
                 // Try all 4 rotations at this Y
-                int[] rotations = {0, 90, 180, 270};
-                boolean foundAtThisY = false;
-
-                for (int rotation : rotations) {
-                    BlockPos entrancePos = new BlockPos(worldX, y, worldZ);
-
-                    PlacementContext ctx = createPlacementContext(level, entrancePos, building, rotation, margin);
-
-                    // Check that all chunks the building will occupy are loaded
-                    String chunkCheck = PositionValidator.checkChunksLoaded(
-                        level, ctx.buildingOrigin(), ctx.effectiveWidth(), ctx.effectiveDepth(), margin);
-                    if (chunkCheck != null) {
-                        failureReasons.add(String.format("Pos %s rot %d°: %s",
-                            entrancePos.toShortString(), rotation, chunkCheck));
-                        continue;
-                    }
-
-                    // Validate all blocks are air
-                    PlacementResult result = validateAtY(ctx, y);
-                    if (result.valid()) {
-                        return FindResult.success(SpawnPosition.at(entrancePos, rotation, rule));
-                    } else {
-                        failureReasons.add(String.format("Pos %s rot %d°: %s",
-                            entrancePos.toShortString(), rotation, result.reason()));
+                BlockPos entrancePos = new BlockPos(worldX, y, worldZ);
+                for (int rotation : ROTATIONS) {
+                    PlacementContext ctx = createPlacementContext(terrain, entrancePos, building, rotation, margin);
+
+                    // Check that all chunks the building will occupy are loaded,
+                    // then validate all blocks are air
+                    if (PositionValidator.checkChunksLoaded(
+                            terrain, ctx.buildingOrigin(), ctx.effectiveWidth(), ctx.effectiveDepth(), margin, trace)
+                        && validateAtY(ctx, y, trace)) {
+                        return SpawnPosition.at(entrancePos, rotation, rule);
                     }
+                    trace.placementFailed(worldX, y, worldZ, rotation);
                 }
 
                 // Move minY up past this attempt for next iteration
@@ -180,6 +158,6 @@ public class OnAirValidator extends AbstractPositionValidator {
             }
         }
 
-        return FindResult.failure(failureReasons);
+        return null;
     }
 }
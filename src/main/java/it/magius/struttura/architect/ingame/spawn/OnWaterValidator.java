@@ -4,14 +4,11 @@ import it.magius.struttura.architect.ingame.model.PositionType;
 import it.magius.struttura.architect.ingame.model.SpawnRule;
 import it.magius.struttura.architect.ingame.model.SpawnableBuilding;
 import net.minecraft.core.BlockPos;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.tags.BlockTags;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -36,15 +33,15 @@ public class OnWaterValidator extends AbstractPositionValidator {
     }
 
     @Override
-    protected int getYAtPosition(ServerLevel level, int x, int z, SpawnRule rule, Random random) {
-        // Not used - we override findPositionWithDetails to handle multiple Y attempts
-        return getWaterSurfaceHeight(level, x, z, rule.getY1(), rule.getY2());
+    protected int getYAtPosition(TerrainSnapshot terrain, int x, int z, SpawnRule rule, Random random) {
+        // Not used - we override search to handle multiple Y attempts
+        return getWaterSurfaceHeight(terrain, x, z, rule.getY1(), rule.getY2());
     }
 
     @Override
-    protected PlacementResult validatePlacement(PlacementContext ctx) {
+    protected boolean validatePlacement(PlacementContext ctx, SearchTrace trace) {
         // Not used directly - we call validateAtY instead
-        return validateAtY(ctx, ctx.entrancePos().getY());
+        return validateAtY(ctx, ctx.entrancePos().getY(), trace);
     }
 
     /**
@@ -52,7 +49,7 @@ public class OnWaterValidator extends AbstractPositionValidator {
      * All blocks within bounds + margin must be water or ignorable underwater blocks.
      * Fails if any solid ground block (dirt, stone, sand, etc.) is found.
      */
-    private PlacementResult validateAtY(PlacementContext ctx, int y) {
+    private boolean validateAtY(PlacementContext ctx, int y, SearchTrace trace) {
         int margin = ctx.margin();
         int sizeY = ctx.building().getSizeY();
 
@@ -64,30 +61,30 @@ public class OnWaterValidator extends AbstractPositionValidator {
         int minZ = ctx.buildingOrigin().getZ() - margin;
         int maxZ = ctx.buildingOrigin().getZ() + ctx.effectiveDepth() + margin - 1;
 
-        // Check all blocks within expanded bounds
-        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        // Check all blocks within expanded bounds, column by column:
+        // water runs are skipped (memoized per column), only the other blocks are checked
+        TerrainSnapshot terrain = ctx.terrain();
         for (int bx = minX; bx <= maxX; bx++) {
-            for (int by = minY; by <= maxY; by++) {
-                for (int bz = minZ; bz <= maxZ; bz++) {
-                    pos.set(bx, by, bz);
-                    BlockState state = ctx.level().getBlockState(pos);
+            for (int bz = minZ; bz <= maxZ; bz++) {
+                int by = terrain.getLowestNonWaterY(bx, bz, minY, maxY);
+                while (by != TerrainSnapshot.NONE) {
+                    BlockState state = terrain.getBlockState(bx, by, bz);
 
                     // Check if this block is acceptable for underwater placement
                     if (!isAcceptableUnderwaterBlock(state)) {
-                        return PlacementResult.fail(String.format(
-                            "Unacceptable block at %s (block: %s)",
-                            pos.toShortString(), state.getBlock().getName().getString()));
+                        return trace.rejectBlock(RejectReason.UNACCEPTABLE_BLOCK, bx, by, bz, state);
                     }
+                    by = terrain.getLowestNonWaterY(bx, bz, by + 1, maxY);
                 }
             }
         }
 
-        return PlacementResult.ok();
+        return true;
     }
 
     @Override
-    public FindResult findPositionWithDetails(ServerLevel level, ChunkPos chunkPos,
-                                               SpawnableBuilding building, SpawnRule rule, Random random) {
+    protected SpawnPosition search(TerrainSnapshot terrain, ChunkPos chunkPos, SpawnableBuilding building,
+                                   SpawnRule rule, Random random, SearchTrace trace) {
 
         int buildingWidth = building.getSizeX();
         int buildingDepth = building.getSizeZ();
@@ -97,11 +94,12 @@ public class OnWaterValidator extends AbstractPositionValidator {
         // Height needed for the building including margins
         int requiredHeight = buildingHeight + 2 * margin;
 
-        List<String> failureReasons = new ArrayList<>();
-        failureReasons.add(String.format("Building: %s (size %dx%dx%d)",
-            building.getRdns(), buildingWidth, buildingHeight, buildingDepth));
-        failureReasons.add(String.format("Rule: Y range [%d-%d], margin=%d, type=%s",
-            rule.getY1(), rule.getY2(), margin, rule.getType()));
+        if (trace.diagnostics()) {
+            trace.note(String.format("Building: %s (size %dx%dx%d)",
+                building.getRdns(), buildingWidth, buildingHeight, buildingDepth));
+            trace.note(String.format("Rule: Y range [%d-%d], margin=%d, type=%s",
+                rule.getY1(), rule.getY2(), margin, rule.getType()));
+        }
 
         // Divide chunk into 4 quadrants and try each
         int[][] quadrants = {
@@ -125,16 +123,15 @@ public class OnWaterValidator extends AbstractPositionValidator {
             int worldZ = chunkPos.getBlockZ(localZ);
 
             // Find water surface at this position within rule's Y range
-            int waterSurfaceY = getWaterSurfaceHeight(level, worldX, worldZ, rule.getY1(), rule.getY2());
+            int waterSurfaceY = getWaterSurfaceHeight(terrain, worldX, worldZ, rule.getY1(), rule.getY2());
             if (waterSurfaceY < 0) {
-                failureReasons.add(String.format(
-                    "Quadrant [%d,%d] at (%d,%d): No water found",
-                    quadrant[0], quadrant[1], worldX, worldZ));
+                trace.reject(RejectReason.NO_WATER_FOUND);
+                trace.quadrantFailed(quadrant[0], quadrant[1], worldX, worldZ);
                 continue;
             }
 
             // Find water depth (distance from surface to sea floor)
-            int seaFloorY = findSeaFloorY(level, worldX, worldZ, waterSurfaceY);
+            int seaFloorY = findSeaFloorY(terrain, worldX, worldZ, waterSurfaceY);
 
             // Calculate valid Y range for submerged placement
             // Building must be completely underwater:
@@ -151,10 +148,9 @@ public class OnWaterValidator extends AbstractPositionValidator {
 
             // Check if there's any valid range at all
             if (effectiveMaxY < effectiveMinY) {
-                failureReasons.add(String.format(
-                    "Quadrant [%d,%d] at (%d,%d): Water depth too shallow (surface=%d, floor=%d, effective [%d-%d] invalid for height %d + margin %d)",
-                    quadrant[0], quadrant[1], worldX, worldZ, waterSurfaceY, seaFloorY,
-                    effectiveMinY, effectiveMaxY, buildingHeight, margin));
+                trace.reject(RejectReason.WATER_TOO_SHALLOW, waterSurfaceY, seaFloorY,
+                    effectiveMinY, effectiveMaxY, buildingHeight, margin);
+                trace.quadrantFailed(quadrant[0], quadrant[1], worldX, worldZ);
                 continue;
             }
 
@@ -164,9 +160,8 @@ public class OnWaterValidator extends AbstractPositionValidator {
             while (true) {
                 // Check if we've exhausted the valid range
                 if (currentMaxY < effectiveMinY) {
-                    failureReasons.add(String.format(
-                        "Quadrant [%d,%d] at (%d,%d): Exhausted Y range [%d-%d]",
-                        quadrant[0], quadrant[1], worldX, worldZ, effectiveMinY, effectiveMaxY));
+                    trace.reject(RejectReason.Y_RANGE_EXHAUSTED, effectiveMinY, effectiveMaxY);
+                    trace.quadrantFailed(quadrant[0], quadrant[1], worldX, worldZ);
                     break;
                 }
 
@@ -175,30 +170,18 @@ public class OnWaterValidator extends AbstractPositionValidator {
                 int y = (range <= 0) ? currentMaxY : effectiveMinY + random.nextInt(range + 1);
 
                 // Try all 4 rotations at this Y
-                int[] rotations = {0, 90, 180, 270};
-
-                for (int rotation : rotations) {
-                    BlockPos entrancePos = new BlockPos(worldX, y, worldZ);
-
-                    PlacementContext ctx = createPlacementContext(level, entrancePos, building, rotation, margin);
-
-                    // Check that all chunks the building will occupy are loaded
-                    String chunkCheck = PositionValidator.checkChunksLoaded(
-                        level, ctx.buildingOrigin(), ctx.effectiveWidth(), ctx.effectiveDepth(), margin);
-                    if (chunkCheck != null) {
-                        failureReasons.add(String.format("Pos %s rot %d°: %s",
-                            entrancePos.toShortString(), rotation, chunkCheck));
-                        continue;
-                    }
-
-                    // Validate all blocks are water/acceptable
-                    PlacementResult result = validateAtY(ctx, y);
-                    if (result.valid()) {
-                        return FindResult.success(SpawnPosition.at(entrancePos, rotation, rule));
-                    } else {
-                        failureReasons.add(String.format("Pos %s rot %d°: %s",
-                            entrancePos.toShortString(), rotation, result.reason()));
+                BlockPos entrancePos = new BlockPos(worldX, y, worldZ);
+                for (int rotation : ROTATIONS) {
+                    PlacementContext ctx = createPlacementContext(terrain, entrancePos, building, rotation, margin);
+
+                    // Check that all chunks the building will occupy are loaded,
+                    // then validate all blocks are water/acceptable
+                    if (PositionValidator.checkChunksLoaded(
+                            terrain, ctx.buildingOrigin(), ctx.effectiveWidth(), ctx.effectiveDepth(), margin, trace)
+                        && validateAtY(ctx, y, trace)) {
+                        return SpawnPosition.at(entrancePos, rotation, rule);
                     }
+                    trace.placementFailed(worldX, y, worldZ, rotation);
                 }
 
                 // Move maxY down past this attempt for next iteration
@@ -206,7 +189,7 @@ public class OnWaterValidator extends AbstractPositionValidator {
             }
         }
 
-        return FindResult.failure(failureReasons);
+        return null;
     }
 
     /**
@@ -220,29 +203,11 @@ public class OnWaterValidator extends AbstractPositionValidator {
      * @param maxY maximum Y to search (from spawn rule)
      * @return Y coordinate of the topmost water block, or -1 if no water found
      */
-    private int getWaterSurfaceHeight(ServerLevel level, int x, int z, int minY, int maxY) {
-        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos(x, maxY, z);
-
-        // Scan down from maxY looking for water
-        // This pattern finds both surface and underground water lakes
-        while (pos.getY() >= minY) {
-            BlockState state = level.getBlockState(pos);
-
-            if (isWater(state)) {
-                // Found water - return this Y as the surface
-                return pos.getY();
-            }
-
-            // Ice counts as "above water" - keep scanning
-            if (isIce(state)) {
-                pos.setY(pos.getY() - 1);
-                continue;
-            }
-
-            pos.setY(pos.getY() - 1);
-        }
-
-        return -1; // No water found
+    private int getWaterSurfaceHeight(TerrainSnapshot terrain, int x, int z, int minY, int maxY) {
+        // Topmost water block from maxY down (memoized per column): ice and anything
+        // else above it is skipped. This finds both surface and underground water lakes
+        int waterY = terrain.getHighestWaterY(x, z, minY, maxY);
+        return waterY != TerrainSnapshot.NONE ? waterY : -1; // -1: no water found
     }
 
     /**
@@ -250,16 +215,17 @@ public class OnWaterValidator extends AbstractPositionValidator {
      *
      * @return Y coordinate of the sea floor, or minY if no floor found
      */
-    private int findSeaFloorY(ServerLevel level, int x, int z, int startY) {
-        int minY = level.getMinY();
-        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos(x, startY, z);
-
-        while (pos.getY() > minY) {
-            BlockState state = level.getBlockState(pos);
-            if (isSolidGroundBlock(state)) {
-                return pos.getY();
+    private int findSeaFloorY(TerrainSnapshot terrain, int x, int z, int startY) {
+        int minY = terrain.getMinY();
+
+        // Solid ground blocks are all solid: jump between the solid blocks of the column
+        // and only check those (coral blocks are solid but acceptable underwater)
+        int y = terrain.getFirstSolidBelow(x, startY, z);
+        while (y != TerrainSnapshot.NONE && y > minY) {
+            if (isSolidGroundBlock(terrain.getBlockState(x, y, z))) {
+                return y;
             }
-            pos.setY(pos.getY() - 1);
+            y = terrain.getFirstSolidBelow(x, y - 1, z);
         }
 
         return minY;
@@ -272,13 +238,6 @@ public class OnWaterValidator extends AbstractPositionValidator {
         return state.is(Blocks.WATER);
     }
 
-    /**
-     * Checks if a block is ice (any type).
-     */
-    private boolean isIce(BlockState state) {
-        return state.is(BlockTags.ICE);
-    }
-
     /**
      * Checks if a block is acceptable for underwater building placement.
      * Water, coral, kelp, seagrass, and other non-solid underwater blocks are acceptable.
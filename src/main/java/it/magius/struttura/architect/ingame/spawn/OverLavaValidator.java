@@ -2,8 +2,6 @@ package it.magius.struttura.architect.ingame.spawn;
 
 import it.magius.struttura.architect.ingame.model.PositionType;
 import it.magius.struttura.architect.ingame.model.SpawnRule;
-import net.minecraft.core.BlockPos;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 
@@ -26,41 +24,34 @@ public class OverLavaValidator extends AbstractPositionValidator {
     }
 
     @Override
-    protected int getYAtPosition(ServerLevel level, int x, int z, SpawnRule rule, Random random) {
+    protected int getYAtPosition(TerrainSnapshot terrain, int x, int z, SpawnRule rule, Random random) {
         // Find lava surface height at this position (one block above lava)
         // Search within the rule's Y range to handle both surface and underground lava
-        return getLavaSurfaceHeight(level, x, z, rule.getY1(), rule.getY2());
+        return getLavaSurfaceHeight(terrain, x, z, rule.getY1(), rule.getY2());
     }
 
     @Override
-    protected PlacementResult validatePlacement(PlacementContext ctx) {
+    protected boolean validatePlacement(PlacementContext ctx, SearchTrace trace) {
         int anchorY = ctx.entrancePos().getY();
         int lavaY = anchorY - 1; // Lava should be directly below the anchor
 
         // Check entire footprint has lava at lavaY
         for (int x = ctx.buildingOrigin().getX(); x < ctx.buildingOrigin().getX() + ctx.effectiveWidth(); x++) {
             for (int z = ctx.buildingOrigin().getZ(); z < ctx.buildingOrigin().getZ() + ctx.effectiveDepth(); z++) {
-                BlockPos lavaPos = new BlockPos(x, lavaY, z);
-                BlockState state = ctx.level().getBlockState(lavaPos);
-
+                BlockState state = ctx.terrain().getBlockState(x, lavaY, z);
                 if (!isLava(state)) {
-                    return PlacementResult.fail(String.format(
-                        "No lava at %s (found: %s)",
-                        lavaPos.toShortString(), state.getBlock().getName().getString()));
+                    return trace.rejectBlock(RejectReason.NO_LAVA, x, lavaY, z, state);
                 }
 
                 // Also check that the block above lava (where building sits) is air
-                BlockPos abovePos = new BlockPos(x, anchorY, z);
-                BlockState aboveState = ctx.level().getBlockState(abovePos);
+                BlockState aboveState = ctx.terrain().getBlockState(x, anchorY, z);
                 if (!aboveState.isAir()) {
-                    return PlacementResult.fail(String.format(
-                        "Non-air block above lava at %s (found: %s)",
-                        abovePos.toShortString(), aboveState.getBlock().getName().getString()));
+                    return trace.rejectBlock(RejectReason.NON_AIR_ABOVE_LAVA, x, anchorY, z, aboveState);
                 }
             }
         }
 
-        return PlacementResult.ok();
+        return true;
     }
 
     /**
@@ -74,27 +65,17 @@ public class OverLavaValidator extends AbstractPositionValidator {
      * @param maxY maximum Y to search (from spawn rule)
      * @return Y coordinate one block above lava surface, or -1 if no suitable lava found
      */
-    private int getLavaSurfaceHeight(ServerLevel level, int x, int z, int minY, int maxY) {
-        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos(x, maxY, z);
-
-        // Scan down from maxY looking for lava with air above it
+    private int getLavaSurfaceHeight(TerrainSnapshot terrain, int x, int z, int minY, int maxY) {
+        // Jump down the lava blocks of the column (memoized) looking for lava with air above it
         // This pattern finds underground lava lakes in caves
-        while (pos.getY() >= minY) {
-            BlockState state = level.getBlockState(pos);
-
-            if (isLava(state)) {
-                // Found lava - check if there's air above it (a valid lava surface)
-                BlockPos abovePos = pos.above();
-                BlockState aboveState = level.getBlockState(abovePos);
-
-                if (aboveState.isAir()) {
-                    // This is a valid lava surface with air above
-                    return pos.getY() + 1;
-                }
-                // Lava but no air above - keep searching down
+        int lavaY = terrain.getHighestLavaY(x, z, minY, maxY);
+        while (lavaY != TerrainSnapshot.NONE) {
+            if (terrain.getBlockState(x, lavaY + 1, z).isAir()) {
+                // This is a valid lava surface with air above
+                return lavaY + 1;
             }
-
-            pos.setY(pos.getY() - 1);
+            // Lava but no air above - keep searching down
+            lavaY = terrain.getHighestLavaY(x, z, minY, lavaY - 1);
         }
 
         return -1; // No suitable lava surface found
@@ -2,8 +2,6 @@ package it.magius.struttura.architect.ingame.spawn;
 
 import it.magius.struttura.architect.ingame.model.PositionType;
 import it.magius.struttura.architect.ingame.model.SpawnRule;
-import net.minecraft.core.BlockPos;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.tags.BlockTags;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
@@ -31,14 +29,14 @@ public class OverWaterValidator extends AbstractPositionValidator {
     }
 
     @Override
-    protected int getYAtPosition(ServerLevel level, int x, int z, SpawnRule rule, Random random) {
+    protected int getYAtPosition(TerrainSnapshot terrain, int x, int z, SpawnRule rule, Random random) {
         // Find water surface height at this position (one block above water)
         // Search within the rule's Y range to handle both surface and underground water
-        return getWaterSurfaceHeight(level, x, z, rule.getY1(), rule.getY2());
+        return getWaterSurfaceHeight(terrain, x, z, rule.getY1(), rule.getY2());
     }
 
     @Override
-    protected PlacementResult validatePlacement(PlacementContext ctx) {
+    protected boolean validatePlacement(PlacementContext ctx, SearchTrace trace) {
         int anchorY = ctx.entrancePos().getY(); // Entrance Y = one block above water
         int waterY = anchorY - 1; // Water should be directly below the entrance
         int margin = ctx.margin();
@@ -51,22 +49,15 @@ public class OverWaterValidator extends AbstractPositionValidator {
         // Check entire footprint has water at waterY (below entrance)
         for (int x = ctx.buildingOrigin().getX(); x < ctx.buildingOrigin().getX() + ctx.effectiveWidth(); x++) {
             for (int z = ctx.buildingOrigin().getZ(); z < ctx.buildingOrigin().getZ() + ctx.effectiveDepth(); z++) {
-                BlockPos waterPos = new BlockPos(x, waterY, z);
-                BlockState state = ctx.level().getBlockState(waterPos);
-
+                BlockState state = ctx.terrain().getBlockState(x, waterY, z);
                 if (!isWater(state)) {
-                    return PlacementResult.fail(String.format(
-                        "No water at %s (found: %s)",
-                        waterPos.toShortString(), state.getBlock().getName().getString()));
+                    return trace.rejectBlock(RejectReason.NO_WATER, x, waterY, z, state);
                 }
 
                 // Check that the block at entrance level (above water) is air or replaceable
-                BlockPos abovePos = new BlockPos(x, anchorY, z);
-                BlockState aboveState = ctx.level().getBlockState(abovePos);
+                BlockState aboveState = ctx.terrain().getBlockState(x, anchorY, z);
                 if (!isReplaceableAboveWater(aboveState)) {
-                    return PlacementResult.fail(String.format(
-                        "Non-air block above water at %s (found: %s)",
-                        abovePos.toShortString(), aboveState.getBlock().getName().getString()));
+                    return trace.rejectBlock(RejectReason.NON_AIR_ABOVE_WATER, x, anchorY, z, aboveState);
                 }
             }
         }
@@ -79,22 +70,22 @@ public class OverWaterValidator extends AbstractPositionValidator {
         int maxZ = ctx.buildingOrigin().getZ() + ctx.effectiveDepth() + margin - 1;
         int maxY = anchorY + heightAboveEntrance + margin - 1;
 
-        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        // Air runs are skipped (memoized per column), only the other blocks are checked
+        TerrainSnapshot terrain = ctx.terrain();
         for (int bx = minX; bx <= maxX; bx++) {
             for (int bz = minZ; bz <= maxZ; bz++) {
-                for (int by = anchorY; by <= maxY; by++) {
-                    pos.set(bx, by, bz);
-                    BlockState state = ctx.level().getBlockState(pos);
+                int by = terrain.getLowestNonAirY(bx, bz, anchorY, maxY);
+                while (by != TerrainSnapshot.NONE) {
+                    BlockState state = terrain.getBlockState(bx, by, bz);
                     if (!isReplaceableAboveWater(state)) {
-                        return PlacementResult.fail(String.format(
-                            "Non-air block in building space at %s (found: %s)",
-                            pos.toShortString(), state.getBlock().getName().getString()));
+                        return trace.rejectBlock(RejectReason.NON_AIR_IN_BUILDING_SPACE, bx, by, bz, state);
                     }
+                    by = terrain.getLowestNonAirY(bx, bz, by + 1, maxY);
                 }
             }
         }
 
-        return PlacementResult.ok();
+        return true;
     }
 
     /**
@@ -108,25 +99,16 @@ public class OverWaterValidator extends AbstractPositionValidator {
      * @param maxY maximum Y to search (from spawn rule)
      * @return Y coordinate one block above water surface, or -1 if no suitable water found
      */
-    private int getWaterSurfaceHeight(ServerLevel level, int x, int z, int minY, int maxY) {
-        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos(x, maxY, z);
-
-        // Scan down from maxY looking for water with air/replaceable above it
-        while (pos.getY() >= minY) {
-            BlockState state = level.getBlockState(pos);
-
-            if (isWater(state)) {
-                // Found water - check if there's air or replaceable block above it (a valid water surface)
-                BlockPos abovePos = pos.above();
-                BlockState aboveState = level.getBlockState(abovePos);
-
-                if (isReplaceableAboveWater(aboveState)) {
-                    return pos.getY() + 1;
-                }
-                // Water but solid block above - keep searching down
+    private int getWaterSurfaceHeight(TerrainSnapshot terrain, int x, int z, int minY, int maxY) {
+        // Jump down the water blocks of the column (memoized) looking for water with air/replaceable above it
+        int waterY = terrain.getHighestWaterY(x, z, minY, maxY);
+        while (waterY != TerrainSnapshot.NONE) {
+            // Check if there's air or replaceable block above it (a valid water surface)
+            if (isReplaceableAboveWater(terrain.getBlockState(x, waterY + 1, z))) {
+                return waterY + 1;
             }
-
-            pos.setY(pos.getY() - 1);
+            // Water but solid block above - keep searching down
+            waterY = terrain.getHighestWaterY(x, z, minY, waterY - 1);
         }
 
         return -1; // No suitable water surface found
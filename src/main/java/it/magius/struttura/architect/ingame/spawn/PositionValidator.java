@@ -4,7 +4,6 @@ import it.magius.struttura.architect.ingame.model.PositionType;
 import it.magius.struttura.architect.ingame.model.SpawnRule;
 import it.magius.struttura.architect.ingame.model.SpawnableBuilding;
 import net.minecraft.core.BlockPos;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.ChunkPos;
 
 import java.util.List;
@@ -32,8 +31,10 @@ public interface PositionValidator {
 
     /**
      * Attempts to find a valid spawn position within the chunk.
+     * Only reads the terrain snapshot: safe to call from any thread.
+     * Rejections are not rendered as text (see findPositionWithDetails).
      *
-     * @param level the server level
+     * @param terrain terrain around the chunk (see {@link TerrainSnapshot#capture})
      * @param chunkPos the chunk to search in
      * @param building the building to spawn
      * @param rule the spawn rule with Y constraints
@@ -41,7 +42,7 @@ public interface PositionValidator {
      * @return a valid spawn position, or empty if none found
      */
     Optional<SpawnPosition> findPosition(
-        ServerLevel level,
+        TerrainSnapshot terrain,
         ChunkPos chunkPos,
         SpawnableBuilding building,
         SpawnRule rule,
@@ -50,16 +51,17 @@ public interface PositionValidator {
 
     /**
      * Attempts to find a valid spawn position with detailed failure information.
+     * Renders a text line for every rejection: meant for debug commands, spawning uses findPosition().
      * Default implementation wraps findPosition() with no details.
      */
     default FindResult findPositionWithDetails(
-        ServerLevel level,
+        TerrainSnapshot terrain,
         ChunkPos chunkPos,
         SpawnableBuilding building,
         SpawnRule rule,
         Random random
     ) {
-        Optional<SpawnPosition> result = findPosition(level, chunkPos, building, rule, random);
+        Optional<SpawnPosition> result = findPosition(terrain, chunkPos, building, rule, random);
         if (result.isPresent()) {
             return FindResult.success(result.get());
         } else {
@@ -91,15 +93,16 @@ public interface PositionValidator {
      * Checks if all chunks that a building would occupy are loaded.
      * Buildings can span multiple chunks as long as all required chunks are loaded.
      *
-     * @param level the server level
+     * @param terrain the captured terrain
      * @param origin the building origin position
      * @param effectiveWidth the building width after rotation
      * @param effectiveDepth the building depth after rotation
      * @param margin the margin around the building
-     * @return null if all chunks are loaded, or a string describing which chunk is not loaded
+     * @param trace records which chunk is not loaded ({@link RejectReason#CHUNK_NOT_LOADED})
+     * @return true if all chunks are loaded
      */
-    static String checkChunksLoaded(ServerLevel level, BlockPos origin,
-                                    int effectiveWidth, int effectiveDepth, int margin) {
+    static boolean checkChunksLoaded(TerrainSnapshot terrain, BlockPos origin,
+                                     int effectiveWidth, int effectiveDepth, int margin, SearchTrace trace) {
         int minChunkX = (origin.getX() - margin) >> 4;
         int maxChunkX = (origin.getX() + effectiveWidth + margin - 1) >> 4;
         int minChunkZ = (origin.getZ() - margin) >> 4;
@@ -107,12 +110,12 @@ public interface PositionValidator {
 
         for (int cx = minChunkX; cx <= maxChunkX; cx++) {
             for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
-                if (level.getChunkSource().getChunkNow(cx, cz) == null) {
-                    return String.format("Chunk [%d,%d] not loaded (building spans %d chunks wide, %d chunks deep)",
+                if (!terrain.isChunkLoaded(cx, cz)) {
+                    return trace.reject(RejectReason.CHUNK_NOT_LOADED,
                         cx, cz, maxChunkX - minChunkX + 1, maxChunkZ - minChunkZ + 1);
                 }
             }
         }
-        return null; // All chunks loaded
+        return true; // All chunks loaded
     }
 }
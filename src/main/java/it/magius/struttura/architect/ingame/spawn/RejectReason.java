@@ -0,0 +1,77 @@
+package it.magius.struttura.architect.ingame.spawn;
+
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Why a position validator rejected a quadrant or a placement.
+ *
+ * Validators only record the reason and a few ints (see {@link SearchTrace}); the text
+ * is rendered from the pattern only when diagnostics are requested (force command).
+ * Patterns take the recorded ints in order, then the block name if a block was recorded.
+ */
+enum RejectReason {
+
+    // Quadrant: no Y to try at the chosen column
+    Y_OUT_OF_RANGE("Y=%d outside range [%d-%d]"),
+    Y_RANGE_TOO_SMALL("Y range too small (effective [%d-%d] invalid for height %d + margin %d)"),
+    Y_RANGE_EXHAUSTED("Exhausted Y range [%d-%d]"),
+    NO_WATER_FOUND("No water found"),
+    WATER_TOO_SHALLOW("Water depth too shallow (surface=%d, floor=%d, effective [%d-%d] invalid for height %d + margin %d)"),
+    NO_UNDERGROUND_SPACE("No underground space (surface=%d, effective [%d-%d] invalid for height %d)"),
+
+    // Placement: position and rotation rejected
+    CHUNK_NOT_LOADED("Chunk [%d,%d] not loaded (building spans %d chunks wide, %d chunks deep)"),
+    NON_AIR_BLOCK("Non-air block at %d, %d, %d (block: %s)"),
+    UNACCEPTABLE_BLOCK("Unacceptable block at %d, %d, %d (block: %s)"),
+    NO_WATER("No water at %d, %d, %d (found: %s)"),
+    NON_AIR_ABOVE_WATER("Non-air block above water at %d, %d, %d (found: %s)"),
+    NON_AIR_IN_BUILDING_SPACE("Non-air block in building space at %d, %d, %d (found: %s)"),
+    NO_LAVA("No lava at %d, %d, %d (found: %s)"),
+    NON_AIR_ABOVE_LAVA("Non-air block above lava at %d, %d, %d (found: %s)"),
+    ANCHOR_NOT_FLOOR("Anchor at %d, %d, %d is not solid floor (found: %s)"),
+    NO_WATER_ABOVE_ANCHOR("No water above anchor at %d, %d, %d (found: %s)"),
+    ANCHOR_SKY_ACCESS("Anchor at (%d, %d, %d) has direct sky access"),
+    ANCHOR_ABOVE_SURFACE("Anchor Y=%d is at or above surface Y=%d"),
+
+    // Placement: footprint corner rejected (first int = corner index, see CORNER_NAMES)
+    CORNER_NOT_SOLID("Corner %s ground not solid at %d, %d, %d (block: %s)", true),
+    CORNER_IS_TREE("Corner %s ground is tree at %d, %d, %d (block: %s)", true),
+    CORNER_NO_FLOOR("Corner %s has no solid floor at %d, %d, %d (found: %s)", true),
+    CORNER_NO_WATER_ABOVE_FLOOR("Corner %s has no water above floor at %d, %d, %d (found: %s)", true),
+    CORNER_NO_WATER_ABOVE_TOP("Corner %s has no water above building top at %d, %d, %d (found: %s)", true);
+
+    /**
+     * Footprint corners in the order validators check them: (0,0), (w-1,0), (0,d-1), (w-1,d-1).
+     */
+    static final String[] CORNER_NAMES = {"NW", "NE", "SW", "SE"};
+
+    private final String pattern;
+    private final boolean corner;
+
+    RejectReason(String pattern) {
+        this(pattern, false);
+    }
+
+    RejectReason(String pattern, boolean corner) {
+        this.pattern = pattern;
+        this.corner = corner;
+    }
+
+    /**
+     * Renders the reason text. Diagnostic path only.
+     */
+    String render(int[] args, int argCount, @Nullable BlockState block) {
+        Object[] values = new Object[argCount + (block != null ? 1 : 0)];
+        for (int i = 0; i < argCount; i++) {
+            values[i] = args[i];
+        }
+        if (corner && argCount > 0) {
+            values[0] = CORNER_NAMES[args[0]];
+        }
+        if (block != null) {
+            values[argCount] = block.getBlock().getName().getString();
+        }
+        return String.format(pattern, values);
+    }
+}
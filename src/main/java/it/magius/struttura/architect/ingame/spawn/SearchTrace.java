@@ -0,0 +1,174 @@
+package it.magius.struttura.architect.ingame.spawn;
+
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rejections of one position search.
+ *
+ * Validators record the last rejection as a {@link RejectReason} plus a few ints, without
+ * allocating. On the fast path (spawning) that is all; on the diagnostic path (force
+ * command) each failed quadrant/placement is also rendered as a text line, like the
+ * failure reasons returned by {@link PositionValidator#findPositionWithDetails}.
+ *
+ * One instance per search, not thread-safe.
+ */
+final class SearchTrace {
+
+    private static final int MAX_ARGS = 6;
+
+    // Rendered lines, null on the fast path
+    @Nullable
+    private final List<String> lines;
+
+    // Last rejection
+    private RejectReason reason;
+    private final int[] args = new int[MAX_ARGS];
+    private int argCount;
+    @Nullable
+    private BlockState block;
+
+    private int rejections = 0;
+
+    private SearchTrace(@Nullable List<String> lines) {
+        this.lines = lines;
+    }
+
+    /**
+     * Trace for spawning: reason codes only.
+     */
+    static SearchTrace fast() {
+        return new SearchTrace(null);
+    }
+
+    /**
+     * Trace for debug commands: reason codes rendered as text lines.
+     */
+    static SearchTrace diagnostic() {
+        return new SearchTrace(new ArrayList<>());
+    }
+
+    /**
+     * Whether text is rendered. Callers check this before formatting their own lines.
+     */
+    boolean diagnostics() {
+        return lines != null;
+    }
+
+    /**
+     * Adds a text line (search header). Diagnostic path only, ignored otherwise.
+     */
+    void note(String line) {
+        if (lines != null) {
+            lines.add(line);
+        }
+    }
+
+    // Record the rejection; return false so validators can "return trace.reject(...)"
+
+    boolean reject(RejectReason reason) {
+        return record(reason, 0, null);
+    }
+
+    boolean reject(RejectReason reason, int a, int b) {
+        args[0] = a;
+        args[1] = b;
+        return record(reason, 2, null);
+    }
+
+    boolean reject(RejectReason reason, int a, int b, int c) {
+        args[0] = a;
+        args[1] = b;
+        args[2] = c;
+        return record(reason, 3, null);
+    }
+
+    boolean reject(RejectReason reason, int a, int b, int c, int d) {
+        args[0] = a;
+        args[1] = b;
+        args[2] = c;
+        args[3] = d;
+        return record(reason, 4, null);
+    }
+
+    boolean reject(RejectReason reason, int a, int b, int c, int d, int e, int f) {
+        args[0] = a;
+        args[1] = b;
+        args[2] = c;
+        args[3] = d;
+        args[4] = e;
+        args[5] = f;
+        return record(reason, 6, null);
+    }
+
+    /**
+     * Rejection caused by the block at a position.
+     */
+    boolean rejectBlock(RejectReason reason, int x, int y, int z, BlockState state) {
+        args[0] = x;
+        args[1] = y;
+        args[2] = z;
+        return record(reason, 3, state);
+    }
+
+    /**
+     * Rejection caused by the block at a footprint corner (index in {@link RejectReason#CORNER_NAMES}).
+     */
+    boolean rejectCorner(RejectReason reason, int corner, int x, int y, int z, BlockState state) {
+        args[0] = corner;
+        args[1] = x;
+        args[2] = y;
+        args[3] = z;
+        return record(reason, 4, state);
+    }
+
+    private boolean record(RejectReason reason, int argCount, @Nullable BlockState block) {
+        this.reason = reason;
+        this.argCount = argCount;
+        this.block = block;
+        rejections++;
+        return false;
+    }
+
+    /**
+     * The last rejection made the whole quadrant fail.
+     */
+    void quadrantFailed(int quadrantX, int quadrantZ, int worldX, int worldZ) {
+        if (lines != null) {
+            lines.add(String.format("Quadrant [%d,%d] at (%d,%d): %s",
+                quadrantX, quadrantZ, worldX, worldZ, renderReason()));
+        }
+    }
+
+    /**
+     * The last rejection made the placement at this position and rotation fail.
+     */
+    void placementFailed(int x, int y, int z, int rotation) {
+        if (lines != null) {
+            lines.add(String.format("Pos %d, %d, %d rot %d°: %s", x, y, z, rotation, renderReason()));
+        }
+    }
+
+    private String renderReason() {
+        return reason.render(args, argCount, block);
+    }
+
+    @Nullable
+    RejectReason getLastReason() {
+        return reason;
+    }
+
+    int getRejections() {
+        return rejections;
+    }
+
+    /**
+     * Rendered lines (empty on the fast path).
+     */
+    List<String> getLines() {
+        return lines != null ? lines : List.of();
+    }
+}
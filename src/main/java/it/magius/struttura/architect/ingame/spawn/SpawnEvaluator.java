@@ -10,10 +10,11 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.core.Holder;
 
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.chunk.LevelChunk;
-
 import net.minecraft.world.phys.AABB;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Optional;
 import java.util.Random;
@@ -23,32 +24,68 @@ import java.util.Random;
  * Determines if and what building to spawn in a newly discovered chunk.
  *
  * Pipeline: ChunkCandidate → SpawnChanceCheck → BuildingSelection → BiomeCheck → PositionCheck → Spawn
+ *
+ * The pipeline is split in three steps so the position search can run off the server thread:
+ * - {@link #prepare}: checks that need the world and the list (server thread), captures the terrain;
+ * - {@link #findPosition}: position validators against the captured terrain (any thread);
+ * - {@link #commit}: occupancy checks and spawn (server thread).
+ * The random generator is seeded per chunk and the validators only read the snapshot, so the
+ * result is the same whichever thread runs the search. {@link #evaluate} runs all three now.
  */
 public class SpawnEvaluator {
 
     /**
-     * Evaluates a chunk for building spawn.
-     * Called from ChunkDiscoveryHandler after the chunk is marked as processed.
+     * A chunk that passed the server-thread checks, ready for the position search.
+     *
+     * @param chunkPos the chunk
+     * @param list the list the building was selected from
+     * @param selectionRevision revision of the list selection (changes when a spawn limit is reached or reset)
+     * @param building the selected building
+     * @param downloadFailure download failure state of the building when its rule was checked
+     * @param rule the rule for the chunk biome
+     * @param random the chunk random, positioned after the selection draws
+     * @param terrain terrain around the chunk
+     */
+    public record Candidate(ChunkPos chunkPos, SpawnableList list, int selectionRevision,
+                            SpawnableBuilding building, boolean downloadFailure, SpawnRule rule,
+                            Random random, TerrainSnapshot terrain) {}
+
+    /**
+     * Evaluates a chunk for building spawn, entirely on the calling (server) thread.
+     * Called from SpawnQueue when no spawn evaluation workers are configured.
      *
      * @param level the server level
      * @param chunk the chunk to evaluate
      */
     public static void evaluate(ServerLevel level, LevelChunk chunk) {
+        Candidate candidate = prepare(level, chunk);
+        if (candidate != null) {
+            commit(level, candidate, findPosition(candidate));
+        }
+    }
+
+    /**
+     * Runs the checks that need the server thread and captures the terrain.
+     *
+     * @return the candidate for the position search, or null if nothing spawns in this chunk
+     */
+    @Nullable
+    public static Candidate prepare(ServerLevel level, LevelChunk chunk) {
         // Check if chunk is occupied by a multi-chunk building from this session
         if (OccupiedChunks.isOccupied(chunk.getPos().x, chunk.getPos().z)) {
-            return;
+            return null;
         }
 
         InGameManager manager = InGameManager.getInstance();
 
         // Double-check InGame is still active
         if (!manager.isActive()) {
-            return;
+            return null;
         }
 
         SpawnableList list = manager.getSpawnableList();
         if (list == null || !list.hasBuildings()) {
-            return;
+            return null;
         }
 
         // Create seeded random for deterministic spawn decisions
@@ -56,13 +93,14 @@ public class SpawnEvaluator {
 
         // Step 1: Check spawningPercentage
         if (random.nextDouble() > list.getSpawningPercentage()) {
-            return;
+            return null;
         }
 
         // Step 2: Select random building
+        int selectionRevision = list.getSelectionRevision();
         SpawnableBuilding building = list.selectRandomBuilding(random);
         if (building == null) {
-            return;
+            return null;
         }
 
         // Step 3: Get biome at chunk center
@@ -82,26 +120,67 @@ public class SpawnEvaluator {
                 rule = SpawnRule.createDefault();
             } else {
                 // Building has rules but none match this biome
-                return;
+                return null;
             }
         }
 
         // Step 5: Check rule's percentage (with download failure penalty if applicable)
         double effectivePercentage = building.getEffectivePercentage(rule);
         if (random.nextDouble() > effectivePercentage) {
+            return null;
+        }
+
+        // Capture the terrain the position search may read
+        TerrainSnapshot terrain = TerrainSnapshot.capture(level, chunk.getPos(), building, rule);
+        return new Candidate(chunk.getPos(), list, selectionRevision, building, building.hasDownloadFailure(),
+            rule, random, terrain);
+    }
+
+    /**
+     * Step 6: Finds a valid position. Only reads the candidate: safe to call from any thread.
+     */
+    public static Optional<SpawnPosition> findPosition(Candidate candidate) {
+        PositionValidator validator = PositionValidator.forType(candidate.rule().getType());
+        return validator.findPosition(candidate.terrain(), candidate.chunkPos(),
+            candidate.building(), candidate.rule(), candidate.random());
+    }
+
+    /**
+     * Spawns the building at the found position, if the chunk is still free.
+     * Server thread only; candidates must be committed in the order they were prepared.
+     *
+     * If the list or the selectable buildings changed since {@link #prepare} (a spawn limit
+     * was reached by an earlier commit), the chunk is evaluated again from the start, as a
+     * server-thread evaluation at this point would do.
+     */
+    public static void commit(ServerLevel level, Candidate candidate, Optional<SpawnPosition> positionOpt) {
+        ChunkPos chunkPos = candidate.chunkPos();
+        if (OccupiedChunks.isOccupied(chunkPos.x, chunkPos.z)) {
             return;
         }
 
-        // Step 6: Find valid position
-        PositionValidator validator = PositionValidator.forType(rule.getType());
-        Optional<SpawnPosition> positionOpt = validator.findPosition(
-            level, chunk.getPos(), building, rule, random
-        );
+        InGameManager manager = InGameManager.getInstance();
+        if (!manager.isActive()) {
+            return;
+        }
+
+        LevelChunk chunk = level.getChunkSource().getChunkNow(chunkPos.x, chunkPos.z);
+        if (chunk == null) {
+            return;
+        }
+
+        SpawnableList list = manager.getSpawnableList();
+        if (list != candidate.list() || list.getSelectionRevision() != candidate.selectionRevision()
+                || candidate.building().hasDownloadFailure() != candidate.downloadFailure()) {
+            evaluate(level, chunk);
+            return;
+        }
 
         if (positionOpt.isEmpty()) {
             return;
         }
 
+        SpawnableBuilding building = candidate.building();
         SpawnPosition position = positionOpt.get();
 
         // Step 7: Calculate expected bounds BEFORE spawning
@@ -122,6 +201,8 @@ public class SpawnEvaluator {
 
         // Step 10: Mark chunks as occupied BEFORE spawning
         OccupiedChunks.markOccupied(expectedBounds);
+        // The terrain there is about to change: drop the cached profiles
+        TerrainProfileCache.getInstance().invalidate(expectedBounds);
 
         // Step 11: Spawn the building
         InGameBuildingSpawner.spawn(level, chunk, building, position);
@@ -131,7 +212,7 @@ public class SpawnEvaluator {
      * Creates a seeded random generator for deterministic spawn decisions.
      * The same world seed + list ID + chunk position will always produce the same decisions.
      */
-    private static Random createSeededRandom(long worldSeed, String listId, net.minecraft.world.level.ChunkPos chunkPos) {
+    private static Random createSeededRandom(long worldSeed, String listId, ChunkPos chunkPos) {
         long seed = worldSeed;
         seed ^= (listId != null ? listId.hashCode() * 31L : 0);
         seed ^= (chunkPos.x * 341873128712L);
@@ -1,6 +1,7 @@
 package it.magius.struttura.architect.ingame.spawn;
 
 import it.magius.struttura.architect.Architect;
+import it.magius.struttura.architect.config.ArchitectConfig;
 import it.magius.struttura.architect.ingame.InGameManager;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.server.MinecraftServer;
@@ -8,18 +9,37 @@ import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.chunk.LevelChunk;
 
+import java.util.ArrayDeque;
+import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Thread-safe queue for processing chunk spawn evaluations.
  * Chunks are added to the queue from CHUNK_LOAD events and processed
  * gradually during server ticks to avoid blocking chunk loading.
+ *
+ * Throughput adapts to the server load: each tick evaluates chunks while the estimated
+ * cost of the next evaluation (moving average of the measured ones) fits in the budget,
+ * i.e. the configured spawn evaluation budget capped by the time left in the tick.
+ * At least one chunk per tick is always evaluated, so the queue drains on a lagging server too.
+ *
+ * With spawn evaluation workers configured, the server thread only prepares each chunk
+ * (list checks and terrain capture, see {@link SpawnEvaluator#prepare}) and commits the
+ * result; the position search runs on the workers. Results are committed in the order the
+ * chunks were prepared, so spawns do not depend on which worker finishes first.
  */
 public class SpawnQueue {
 
-    private static final int MAX_CHUNKS_PER_TICK = 3;  // Process max 3 chunks per tick
+    private static final int EVALUATION_AVERAGE_WEIGHT = 8;  // Moving average over ~8 evaluations
+    private static final int MAX_IN_FLIGHT_PER_WORKER = 4;  // Searches waiting or running per worker thread
     private static final long CLEAR_DELAY_TICKS = 5 * 20;  // 5 seconds in ticks
     private static final int SPAWN_DELAY_TICKS = 0;  // No delay needed - process immediately
 
@@ -31,6 +51,21 @@ public class SpawnQueue {
     // Tick at which to clear OccupiedChunks (0 = no clear scheduled)
     private final AtomicLong scheduledClearTick = new AtomicLong(0);
 
+    // Position searches running on the workers, in preparation order (server thread only)
+    private final ArrayDeque<InFlightEvaluation> inFlight = new ArrayDeque<>();
+    private ExecutorService workers;
+    private int workerThreads = -1;
+
+    // Start of the current server tick (System.nanoTime), to know how much of the tick is left
+    private long tickStartNanos = 0;
+
+    // Stats (server thread only)
+    private long averageEvaluationNanos = 0;
+    private long evaluatedChunks = 0;
+    private long droppedUnloaded = 0;
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAdder searches = new LongAdder();
+
     private SpawnQueue() {}
 
     public static SpawnQueue getInstance() {
@@ -45,6 +80,7 @@ public class SpawnQueue {
      * Call this during mod initialization.
      */
     public void register() {
+        ServerTickEvents.START_SERVER_TICK.register(server -> tickStartNanos = System.nanoTime());
         ServerTickEvents.END_SERVER_TICK.register(this::onServerTick);
     }
 
@@ -71,10 +107,37 @@ public class SpawnQueue {
             return;
         }
 
-        // Process up to MAX_CHUNKS_PER_TICK chunks
+        // Budget: configured time, capped by what is left of this tick
+        long now = System.nanoTime();
+        long budgetNanos = ArchitectConfig.getInstance().getSpawnEvaluationTickBudgetMs() * 1_000_000L;
+        if (tickStartNanos > 0) {
+            long remainingNanos = server.tickRateManager().nanosecondsPerTick() - (now - tickStartNanos);
+            budgetNanos = Math.min(budgetNanos, remainingNanos);
+        }
+        long deadline = now + budgetNanos;
+
+        ExecutorService executor = getWorkers();
         int processed = 0;
+
+        // Commit finished searches, oldest first; stop at the first one still running
+        while (!inFlight.isEmpty() && inFlight.peek().result().isDone()) {
+            if (processed > 0 && System.nanoTime() + averageEvaluationNanos > deadline) {
+                break;
+            }
+            commitEvaluation(server, inFlight.poll());
+            processed++;
+        }
+
         long currentTick = server.getTickCount();
-        while (processed < MAX_CHUNKS_PER_TICK && !pendingChunks.isEmpty()) {
+        while (!pendingChunks.isEmpty()) {
+            // Stop when the next evaluation is not expected to fit (always at least one per tick)
+            if (processed > 0 && System.nanoTime() + averageEvaluationNanos > deadline) {
+                break;
+            }
+            if (executor != null && inFlight.size() >= workerThreads * MAX_IN_FLIGHT_PER_WORKER) {
+                break;
+            }
+
             ChunkEntry entry = pendingChunks.peek();
             if (entry == null) {
                 break;
@@ -99,20 +162,47 @@ public class SpawnQueue {
             LevelChunk chunk = level.getChunkSource().getChunkNow(entry.chunkX, entry.chunkZ);
             if (chunk == null) {
                 // Chunk was unloaded, skip
+                droppedUnloaded++;
                 continue;
             }
 
-            // Evaluate spawn
-            try {
-                SpawnEvaluator.evaluate(level, chunk);
-            } catch (Exception e) {
-                Architect.LOGGER.error("Error evaluating spawn for chunk [{}, {}]",
-                    entry.chunkX, entry.chunkZ, e);
+            // Evaluate spawn (or prepare it for the workers)
+            long evaluationStart = System.nanoTime();
+            if (executor == null) {
+                try {
+                    SpawnEvaluator.evaluate(level, chunk);
+                } catch (Exception e) {
+                    Architect.LOGGER.error("Error evaluating spawn for chunk [{}, {}]",
+                        entry.chunkX, entry.chunkZ, e);
+                }
+                recordEvaluation(System.nanoTime() - evaluationStart);
+            } else {
+                SpawnEvaluator.Candidate candidate = null;
+                try {
+                    candidate = SpawnEvaluator.prepare(level, chunk);
+                } catch (Exception e) {
+                    Architect.LOGGER.error("Error evaluating spawn for chunk [{}, {}]",
+                        entry.chunkX, entry.chunkZ, e);
+                }
+                long prepareNanos = System.nanoTime() - evaluationStart;
+                if (candidate == null) {
+                    recordEvaluation(prepareNanos);
+                } else {
+                    SpawnEvaluator.Candidate prepared = candidate;
+                    inFlight.add(new InFlightEvaluation(entry, prepared, prepareNanos,
+                        executor.submit(() -> search(prepared))));
+                }
             }
 
             processed++;
         }
 
+        if (processed > 0 && (!pendingChunks.isEmpty() || !inFlight.isEmpty())) {
+            Architect.LOGGER.debug("Spawn queue: {} steps in {} ms budget, {} waiting, {} searching, avg {} ms per chunk",
+                processed, String.format("%.2f", budgetNanos / 1_000_000.0), pendingChunks.size(), inFlight.size(),
+                String.format("%.2f", getAverageEvaluationMs()));
+        }
+
         // If we processed any chunks, schedule a delayed clear of OccupiedChunks
         if (processed > 0) {
             // Reset the timer - clear will happen 5 seconds after the last chunk is processed
@@ -123,7 +213,7 @@ public class SpawnQueue {
         long clearTick = scheduledClearTick.get();
         if (clearTick > 0 && server.getTickCount() >= clearTick) {
             // Only clear if the queue is still empty
-            if (pendingChunks.isEmpty()) {
+            if (pendingChunks.isEmpty() && inFlight.isEmpty()) {
                 OccupiedChunks.clear();
             }
             // Reset the scheduled clear tick
@@ -131,6 +221,75 @@ public class SpawnQueue {
         }
     }
 
+    /**
+     * Commits a finished search on the server thread.
+     */
+    private void commitEvaluation(MinecraftServer server, InFlightEvaluation evaluation) {
+        long start = System.nanoTime();
+        ChunkEntry entry = evaluation.entry();
+        ServerLevel level = server.getLevel(Level.OVERWORLD);
+        try {
+            Optional<SpawnPosition> position = evaluation.result().get();
+            if (level != null) {
+                SpawnEvaluator.commit(level, evaluation.candidate(), position);
+            }
+        } catch (ExecutionException e) {
+            Architect.LOGGER.error("Error evaluating spawn for chunk [{}, {}]",
+                entry.chunkX, entry.chunkZ, e.getCause());
+        } catch (Exception e) {
+            Architect.LOGGER.error("Error evaluating spawn for chunk [{}, {}]",
+                entry.chunkX, entry.chunkZ, e);
+        }
+        recordEvaluation(evaluation.prepareNanos() + System.nanoTime() - start);
+    }
+
+    /**
+     * Position search, on a worker thread.
+     */
+    private Optional<SpawnPosition> search(SpawnEvaluator.Candidate candidate) {
+        long start = System.nanoTime();
+        try {
+            return SpawnEvaluator.findPosition(candidate);
+        } finally {
+            searchNanos.add(System.nanoTime() - start);
+            searches.increment();
+        }
+    }
+
+    /**
+     * Worker pool for the position searches, or null to evaluate on the server thread.
+     * (Re)created when the configured number of threads changes.
+     */
+    private ExecutorService getWorkers() {
+        int threads = ArchitectConfig.getInstance().getSpawnEvaluationThreads();
+        if (threads != workerThreads) {
+            if (workers != null) {
+                // Running searches finish on the old pool, their results are still committed
+                workers.shutdown();
+                workers = null;
+            }
+            workerThreads = threads;
+            if (threads > 0) {
+                AtomicInteger threadIndex = new AtomicInteger();
+                workers = Executors.newFixedThreadPool(threads, runnable -> {
+                    Thread thread = new Thread(runnable, "Struttura-Spawn-Worker-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+        return workers;
+    }
+
+    private void recordEvaluation(long nanos) {
+        evaluatedChunks++;
+        if (averageEvaluationNanos == 0) {
+            averageEvaluationNanos = nanos;
+        } else {
+            averageEvaluationNanos += (nanos - averageEvaluationNanos) / EVALUATION_AVERAGE_WEIGHT;
+        }
+    }
+
     /**
      * Gets the number of chunks waiting in the queue.
      */
@@ -138,13 +297,58 @@ public class SpawnQueue {
         return pendingChunks.size();
     }
 
+    /**
+     * Gets the number of chunks evaluated since the world was loaded.
+     */
+    public long getEvaluatedChunks() {
+        return evaluatedChunks;
+    }
+
+    /**
+     * Gets the number of queued chunks dropped because they were unloaded before their evaluation.
+     */
+    public long getDroppedUnloaded() {
+        return droppedUnloaded;
+    }
+
+    /**
+     * Gets the moving average of the server-thread time spent evaluating one chunk, in milliseconds
+     * (prepare + commit when the position search runs on the workers).
+     */
+    public double getAverageEvaluationMs() {
+        return averageEvaluationNanos / 1_000_000.0;
+    }
+
+    /**
+     * Gets the number of position searches waiting for or running on the workers.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Gets the average time of a position search on the workers, in milliseconds.
+     */
+    public double getAverageSearchMs() {
+        long count = searches.sum();
+        return count > 0 ? searchNanos.sum() / 1_000_000.0 / count : 0;
+    }
+
     /**
      * Clears the queue. Called when world unloads.
      */
     public void clear() {
-        int size = pendingChunks.size();
+        int size = pendingChunks.size() + inFlight.size();
         pendingChunks.clear();
+        for (InFlightEvaluation evaluation : inFlight) {
+            evaluation.result().cancel(false);
+        }
+        inFlight.clear();
         scheduledClearTick.set(0);
+        // The next world or list starts budgeting from its own evaluation times
+        averageEvaluationNanos = 0;
+        evaluatedChunks = 0;
+        droppedUnloaded = 0;
         if (size > 0) {
             Architect.LOGGER.debug("Cleared {} chunks from spawn queue", size);
         }
@@ -156,4 +360,10 @@ public class SpawnQueue {
      * references to potentially unloaded chunks.
      */
     private record ChunkEntry(ServerLevel level, int chunkX, int chunkZ, long processAfterTick) {}
+
+    /**
+     * Chunk prepared on the server thread whose position search runs on a worker.
+     */
+    private record InFlightEvaluation(ChunkEntry entry, SpawnEvaluator.Candidate candidate, long prepareNanos,
+                                      Future<Optional<SpawnPosition>> result) {}
 }
@@ -0,0 +1,228 @@
+package it.magius.struttura.architect.ingame.spawn;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Terrain of one chunk for the spawn validators: copies of the block palettes of the
+ * non-empty sections and of the live heightmaps, taken on the server thread.
+ *
+ * Per-column facts are computed on first use and kept for later queries (other quadrants,
+ * rotations, neighbouring chunks):
+ * - block classes (air, water, lava, solid) as one 16-bit mask per class, per section and column;
+ * - surface ground Y (below logs and leaves) and topmost solid Y (sky exposure).
+ * The source data never changes and the memoized values are the same whichever thread
+ * computes them first, so a profile can be shared between worker threads.
+ *
+ * Coordinates are world coordinates; only the low 4 bits of X and Z are used.
+ */
+final class TerrainProfile {
+
+    // Block classes: bit offset of the 16-bit mask in a column cell
+    static final int AIR = 0;
+    static final int WATER = 16;
+    static final int LAVA = 32;
+    static final int SOLID = 48;
+
+    private static final Heightmap.Types[] HEIGHTMAP_TYPES = Heightmap.Types.values();
+
+    private final int minY;
+    private final int maxY;
+    private final int minSectionY;
+    private final PalettedContainer<BlockState>[] sections; // null = only air
+    // Level heights (first free Y) per heightmap type, index: z << 4 | x; null if not kept by the chunk
+    private final int[][] heights;
+
+    // Class masks per section and column, stored inverted: 0 = not computed yet
+    // (air and solid never overlap, so a computed cell is never all ones)
+    private final AtomicLongArray cells;
+    // y - minY + 1 per column, 0 = not computed yet
+    private final AtomicIntegerArray groundY;
+    private final AtomicIntegerArray topSolidY;
+
+    private final TerrainProfileCache stats;
+
+    @SuppressWarnings("unchecked")
+    TerrainProfile(LevelChunk chunk, TerrainProfileCache stats) {
+        this.minY = chunk.getMinY();
+        this.maxY = chunk.getMaxY();
+        this.minSectionY = SectionPos.blockToSectionCoord(minY);
+        this.stats = stats;
+
+        LevelChunkSection[] chunkSections = chunk.getSections();
+        this.sections = new PalettedContainer[chunkSections.length];
+        for (int i = 0; i < chunkSections.length; i++) {
+            LevelChunkSection section = chunkSections[i];
+            if (!section.hasOnlyAir()) {
+                sections[i] = section.getStates().copy();
+            }
+        }
+
+        this.heights = new int[HEIGHTMAP_TYPES.length][];
+        for (Heightmap.Types type : HEIGHTMAP_TYPES) {
+            if (!type.keepAfterWorldgen()) {
+                continue;
+            }
+            int[] columnHeights = new int[256];
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    columnHeights[z << 4 | x] = chunk.getHeight(type, x, z) + 1;
+                }
+            }
+            heights[type.ordinal()] = columnHeights;
+        }
+
+        this.cells = new AtomicLongArray(sections.length * 256);
+        this.groundY = new AtomicIntegerArray(256);
+        this.topSolidY = new AtomicIntegerArray(256);
+    }
+
+    BlockState getBlockState(int x, int y, int z) {
+        if (y < minY || y > maxY) {
+            return Blocks.VOID_AIR.defaultBlockState();
+        }
+        PalettedContainer<BlockState> section = sections[(y >> 4) - minSectionY];
+        return section != null ? section.get(x & 15, y & 15, z & 15) : Blocks.AIR.defaultBlockState();
+    }
+
+    /**
+     * Same as Level.getHeight: first free Y above the heightmap column (minimum Y if not kept).
+     */
+    int getHeight(Heightmap.Types type, int x, int z) {
+        int[] columnHeights = heights[type.ordinal()];
+        return columnHeights != null ? columnHeights[(z & 15) << 4 | (x & 15)] : minY;
+    }
+
+    /**
+     * Highest Y in [fromY, toY] whose block is (or is not) of the class, {@link TerrainSnapshot#NONE} if none.
+     */
+    int highest(int blockClass, boolean present, int x, int z, int fromY, int toY) {
+        fromY = Math.max(fromY, minY);
+        toY = Math.min(toY, maxY);
+        for (int sectionY = toY >> 4; sectionY >= fromY >> 4; sectionY--) {
+            int mask = sectionMask(blockClass, present, sectionY, x, z, fromY, toY);
+            if (mask != 0) {
+                return (sectionY << 4) + 31 - Integer.numberOfLeadingZeros(mask);
+            }
+        }
+        return TerrainSnapshot.NONE;
+    }
+
+    /**
+     * Lowest Y in [fromY, toY] whose block is (or is not) of the class, {@link TerrainSnapshot#NONE} if none.
+     */
+    int lowest(int blockClass, boolean present, int x, int z, int fromY, int toY) {
+        fromY = Math.max(fromY, minY);
+        toY = Math.min(toY, maxY);
+        for (int sectionY = fromY >> 4; sectionY <= toY >> 4; sectionY++) {
+            int mask = sectionMask(blockClass, present, sectionY, x, z, fromY, toY);
+            if (mask != 0) {
+                return (sectionY << 4) + Integer.numberOfTrailingZeros(mask);
+            }
+        }
+        return TerrainSnapshot.NONE;
+    }
+
+    /**
+     * 16-bit mask of the section column (bit = local Y) for the class, limited to [fromY, toY].
+     */
+    private int sectionMask(int blockClass, boolean present, int sectionY, int x, int z, int fromY, int toY) {
+        int mask = (int) (cell(sectionY - minSectionY, (z & 15) << 4 | (x & 15)) >>> blockClass) & 0xFFFF;
+        if (!present) {
+            mask = ~mask & 0xFFFF;
+        }
+        int sectionMinY = sectionY << 4;
+        int low = Math.max(fromY - sectionMinY, 0);
+        int high = Math.min(toY - sectionMinY, 15);
+        return mask & ((0xFFFF >>> (15 - high)) & (0xFFFF << low));
+    }
+
+    private long cell(int sectionIndex, int column) {
+        int index = sectionIndex * 256 + column;
+        long stored = cells.getOpaque(index);
+        if (stored != 0) {
+            stats.recordColumnHit();
+            return ~stored;
+        }
+        stats.recordColumnMiss();
+
+        long classes;
+        PalettedContainer<BlockState> section = sections[sectionIndex];
+        if (section == null) {
+            classes = 0xFFFFL << AIR;
+        } else {
+            classes = 0;
+            int x = column & 15;
+            int z = column >> 4;
+            for (int y = 0; y < 16; y++) {
+                BlockState state = section.get(x, y, z);
+                long bit = 1L << y;
+                if (state.isAir()) {
+                    classes |= bit << AIR;
+                } else if (state.is(Blocks.WATER)) {
+                    classes |= bit << WATER;
+                } else if (state.is(Blocks.LAVA)) {
+                    classes |= bit << LAVA;
+                }
+                if (state.isSolid()) {
+                    classes |= bit << SOLID;
+                }
+            }
+        }
+        cells.setOpaque(index, ~classes);
+        return classes;
+    }
+
+    /**
+     * Ground height: Y above the first block below the MOTION_BLOCKING_NO_LEAVES heightmap
+     * that is neither air nor a log/leaves (the heightmap height if there is none).
+     */
+    int getGroundHeight(int x, int z) {
+        int column = (z & 15) << 4 | (x & 15);
+        int stored = groundY.getOpaque(column);
+        if (stored != 0) {
+            stats.recordColumnHit();
+            return stored + minY - 1;
+        }
+        stats.recordColumnMiss();
+
+        int height = getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, x, z);
+        int ground = height;
+        for (int y = height - 1; y > minY; y--) {
+            BlockState state = getBlockState(x, y, z);
+            if (!state.isAir() && !state.is(BlockTags.LOGS) && !state.is(BlockTags.LEAVES)) {
+                ground = y + 1;
+                break;
+            }
+        }
+        groundY.setOpaque(column, ground - minY + 1);
+        return ground;
+    }
+
+    /**
+     * Topmost solid block of the column, {@link TerrainSnapshot#NONE} if none.
+     */
+    int getTopSolidY(int x, int z) {
+        int column = (z & 15) << 4 | (x & 15);
+        int stored = topSolidY.getOpaque(column);
+        if (stored != 0) {
+            stats.recordColumnHit();
+            return stored == Integer.MAX_VALUE ? TerrainSnapshot.NONE : stored + minY - 1;
+        }
+        stats.recordColumnMiss();
+
+        // Nothing above the world surface heightmap but air
+        int top = highest(SOLID, true, x, z, minY, getHeight(Heightmap.Types.WORLD_SURFACE, x, z) - 1);
+        topSolidY.setOpaque(column, top == TerrainSnapshot.NONE ? Integer.MAX_VALUE : top - minY + 1);
+        return top;
+    }
+}
@@ -0,0 +1,167 @@
+package it.magius.struttura.architect.ingame.spawn;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.phys.AABB;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Terrain profiles of the overworld chunks recently read by spawn evaluations, so neighbouring
+ * chunk evaluations reuse the captured terrain and its memoized column facts instead of
+ * copying and probing the same chunks again.
+ *
+ * Least recently used profiles are evicted past {@link #MAX_CHUNKS}; a profile is dropped as soon
+ * as its chunk unloads, for the chunks a building is spawned in, and whenever a block of its chunk
+ * changes (players, explosions, other mods: see LevelChunkMixin). Evaluations already running keep
+ * the profile they took, the next ones capture the chunk again.
+ *
+ * Server thread only, except the column counters (updated from the spawn workers).
+ */
+public class TerrainProfileCache {
+
+    private static final int MAX_CHUNKS = 256;
+
+    private static TerrainProfileCache instance;
+
+    private final Map<Long, TerrainProfile> profiles = new LinkedHashMap<>(MAX_CHUNKS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, TerrainProfile> eldest) {
+            if (size() > MAX_CHUNKS) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // Chunk profiles reused / captured
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    // Column facts already computed / computed on query
+    private final LongAdder columnHits = new LongAdder();
+    private final LongAdder columnMisses = new LongAdder();
+
+    private TerrainProfileCache() {}
+
+    public static TerrainProfileCache getInstance() {
+        if (instance == null) {
+            instance = new TerrainProfileCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Registers the chunk unload handler.
+     * Call this during mod initialization.
+     */
+    public void register() {
+        ServerChunkEvents.CHUNK_UNLOAD.register((level, chunk) -> {
+            if (level.dimension() == Level.OVERWORLD) {
+                invalidate(chunk.getPos().x, chunk.getPos().z);
+            }
+        });
+    }
+
+    /**
+     * Gets the profile of a loaded chunk, capturing it if not cached.
+     * Only overworld profiles are cached (the cache is keyed by chunk position).
+     */
+    TerrainProfile get(ServerLevel level, LevelChunk chunk) {
+        if (level.dimension() != Level.OVERWORLD) {
+            return new TerrainProfile(chunk, this);
+        }
+        long key = chunk.getPos().toLong();
+        TerrainProfile profile = profiles.get(key);
+        if (profile != null) {
+            hits++;
+            return profile;
+        }
+        misses++;
+        profile = new TerrainProfile(chunk, this);
+        profiles.put(key, profile);
+        return profile;
+    }
+
+    /**
+     * Called when a block of a loaded chunk changes: drops its profile, which no longer
+     * matches the terrain.
+     */
+    public void onBlockChanged(ServerLevel level, ChunkPos chunkPos) {
+        if (level.dimension() == Level.OVERWORLD && !profiles.isEmpty()) {
+            profiles.remove(chunkPos.toLong());
+        }
+    }
+
+    /**
+     * Drops the profile of a chunk.
+     */
+    public void invalidate(int chunkX, int chunkZ) {
+        profiles.remove(ChunkPos.asLong(chunkX, chunkZ));
+    }
+
+    /**
+     * Drops the profiles of all chunks covered by the world bounds.
+     */
+    public void invalidate(AABB bounds) {
+        int minChunkX = (int) Math.floor(bounds.minX) >> 4;
+        int maxChunkX = (int) Math.floor(bounds.maxX) >> 4;
+        int minChunkZ = (int) Math.floor(bounds.minZ) >> 4;
+        int maxChunkZ = (int) Math.floor(bounds.maxZ) >> 4;
+        for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+            for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                invalidate(cx, cz);
+            }
+        }
+    }
+
+    /**
+     * Clears the cache and the counters. Called when world unloads.
+     */
+    public void clear() {
+        profiles.clear();
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        columnHits.reset();
+        columnMisses.reset();
+    }
+
+    void recordColumnHit() {
+        columnHits.increment();
+    }
+
+    void recordColumnMiss() {
+        columnMisses.increment();
+    }
+
+    public int size() {
+        return profiles.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getColumnHits() {
+        return columnHits.sum();
+    }
+
+    public long getColumnMisses() {
+        return columnMisses.sum();
+    }
+}
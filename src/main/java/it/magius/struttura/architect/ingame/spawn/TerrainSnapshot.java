@@ -0,0 +1,202 @@
+package it.magius.struttura.architect.ingame.spawn;
+
+import it.magius.struttura.architect.ingame.model.SpawnRule;
+import it.magius.struttura.architect.ingame.model.SpawnableBuilding;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+/**
+ * Read-only copy of the terrain around a chunk, used by the position validators.
+ *
+ * Made of the {@link TerrainProfile}s of the loaded chunks the building could cover, taken
+ * from the {@link TerrainProfileCache} on the server thread; then safe to read from any
+ * thread: spawn evaluations can run on worker threads and still see the same terrain
+ * a server-thread evaluation would.
+ *
+ * Besides single blocks, it answers per-column questions (fluid tops, first solid block,
+ * sky exposure, air/water runs) from the memoized column facts of the profiles.
+ *
+ * Chunks that were not loaded at capture time are reported by {@link #isChunkLoaded};
+ * reads there (and outside the build height) return void air, as the level does.
+ */
+public final class TerrainSnapshot {
+
+    /**
+     * Y returned by the column queries when no block matches.
+     */
+    public static final int NONE = Integer.MIN_VALUE;
+
+    private final int minY;
+    private final int maxY;
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int sizeX;
+    private final int sizeZ;
+    private final TerrainProfile[] chunks; // index: (chunkX - minChunkX) * sizeZ + (chunkZ - minChunkZ)
+
+    private TerrainSnapshot(int minY, int maxY, int minChunkX, int minChunkZ, int sizeX, int sizeZ) {
+        this.minY = minY;
+        this.maxY = maxY;
+        this.minChunkX = minChunkX;
+        this.minChunkZ = minChunkZ;
+        this.sizeX = sizeX;
+        this.sizeZ = sizeZ;
+        this.chunks = new TerrainProfile[sizeX * sizeZ];
+    }
+
+    /**
+     * Captures the loaded chunks a building anchored in the given chunk could cover
+     * (any anchor position, any rotation, margin included). Server thread only.
+     */
+    public static TerrainSnapshot capture(ServerLevel level, ChunkPos chunkPos,
+                                          SpawnableBuilding building, SpawnRule rule) {
+        int extent = Math.max(building.getSizeX(), building.getSizeZ()) + rule.getMargin();
+        int minChunkX = SectionPos.blockToSectionCoord(chunkPos.getMinBlockX() - extent);
+        int maxChunkX = SectionPos.blockToSectionCoord(chunkPos.getMaxBlockX() + extent);
+        int minChunkZ = SectionPos.blockToSectionCoord(chunkPos.getMinBlockZ() - extent);
+        int maxChunkZ = SectionPos.blockToSectionCoord(chunkPos.getMaxBlockZ() + extent);
+
+        TerrainProfileCache cache = TerrainProfileCache.getInstance();
+        TerrainSnapshot snapshot = new TerrainSnapshot(level.getMinY(), level.getMaxY(),
+            minChunkX, minChunkZ, maxChunkX - minChunkX + 1, maxChunkZ - minChunkZ + 1);
+        for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+            for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(cx, cz);
+                if (chunk != null) {
+                    snapshot.chunks[snapshot.chunkIndex(cx, cz)] = cache.get(level, chunk);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private int chunkIndex(int chunkX, int chunkZ) {
+        return (chunkX - minChunkX) * sizeZ + (chunkZ - minChunkZ);
+    }
+
+    private TerrainProfile chunkAt(int chunkX, int chunkZ) {
+        int dx = chunkX - minChunkX;
+        int dz = chunkZ - minChunkZ;
+        if (dx < 0 || dz < 0 || dx >= sizeX || dz >= sizeZ) {
+            return null;
+        }
+        return chunks[dx * sizeZ + dz];
+    }
+
+    /**
+     * Whether the chunk was loaded (and inside the captured area) at capture time.
+     */
+    public boolean isChunkLoaded(int chunkX, int chunkZ) {
+        return chunkAt(chunkX, chunkZ) != null;
+    }
+
+    public BlockState getBlockState(int x, int y, int z) {
+        TerrainProfile chunk = chunkAt(x >> 4, z >> 4);
+        return chunk != null ? chunk.getBlockState(x, y, z) : Blocks.VOID_AIR.defaultBlockState();
+    }
+
+    public BlockState getBlockState(BlockPos pos) {
+        return getBlockState(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Same as Level.getHeight: first free Y above the heightmap column.
+     * Returns the minimum Y for chunks not captured.
+     */
+    public int getHeight(Heightmap.Types type, int x, int z) {
+        TerrainProfile chunk = chunkAt(x >> 4, z >> 4);
+        return chunk != null ? chunk.getHeight(type, x, z) : minY;
+    }
+
+    /**
+     * Y above the ground: first block below the MOTION_BLOCKING_NO_LEAVES heightmap that is
+     * neither air nor a log/leaves block. Returns the minimum Y for chunks not captured.
+     */
+    public int getGroundHeight(int x, int z) {
+        TerrainProfile chunk = chunkAt(x >> 4, z >> 4);
+        return chunk != null ? chunk.getGroundHeight(x, z) : minY;
+    }
+
+    /**
+     * Topmost water block in [fromY, toY], or {@link #NONE}.
+     */
+    public int getHighestWaterY(int x, int z, int fromY, int toY) {
+        return highest(TerrainProfile.WATER, true, x, z, fromY, toY);
+    }
+
+    /**
+     * Topmost lava block in [fromY, toY], or {@link #NONE}.
+     */
+    public int getHighestLavaY(int x, int z, int fromY, int toY) {
+        return highest(TerrainProfile.LAVA, true, x, z, fromY, toY);
+    }
+
+    /**
+     * First solid block at or below Y, or {@link #NONE}.
+     */
+    public int getFirstSolidBelow(int x, int y, int z) {
+        return highest(TerrainProfile.SOLID, true, x, z, minY, y);
+    }
+
+    /**
+     * Whether no solid block stands at or above the position (open path to the sky).
+     * Positions in chunks not captured count as exposed.
+     */
+    public boolean isSkyExposed(int x, int y, int z) {
+        TerrainProfile chunk = chunkAt(x >> 4, z >> 4);
+        return chunk == null || chunk.getTopSolidY(x, z) < y;
+    }
+
+    /**
+     * Lowest non-air block in [fromY, toY], or {@link #NONE} if the column range is all air.
+     */
+    public int getLowestNonAirY(int x, int z, int fromY, int toY) {
+        return lowest(TerrainProfile.AIR, false, x, z, fromY, toY);
+    }
+
+    /**
+     * Lowest block in [fromY, toY] that is not water, or {@link #NONE} if the column range is all water.
+     */
+    public int getLowestNonWaterY(int x, int z, int fromY, int toY) {
+        return lowest(TerrainProfile.WATER, false, x, z, fromY, toY);
+    }
+
+    private int highest(int blockClass, boolean present, int x, int z, int fromY, int toY) {
+        TerrainProfile chunk = chunkAt(x >> 4, z >> 4);
+        return chunk != null ? chunk.highest(blockClass, present, x, z, fromY, toY) : NONE;
+    }
+
+    private int lowest(int blockClass, boolean present, int x, int z, int fromY, int toY) {
+        if (fromY > toY) {
+            return NONE;
+        }
+        // Void air (outside the build height or the captured chunks) only belongs to the air class
+        boolean voidMatches = (blockClass == TerrainProfile.AIR) == present;
+        TerrainProfile chunk = chunkAt(x >> 4, z >> 4);
+        if (chunk == null) {
+            return voidMatches ? fromY : NONE;
+        }
+        if (voidMatches && fromY < minY) {
+            return fromY;
+        }
+        int y = chunk.lowest(blockClass, present, x, z, fromY, toY);
+        if (y == NONE && voidMatches && toY > maxY) {
+            return Math.max(fromY, maxY + 1);
+        }
+        return y;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+}
@@ -4,13 +4,9 @@ import it.magius.struttura.architect.ingame.model.PositionType;
 import it.magius.struttura.architect.ingame.model.SpawnRule;
 import it.magius.struttura.architect.ingame.model.SpawnableBuilding;
 import net.minecraft.core.BlockPos;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.ChunkPos;
-import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.levelgen.Heightmap;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -37,15 +33,15 @@ public class UnderGroundValidator extends AbstractPositionValidator {
     }
 
     @Override
-    protected int getYAtPosition(ServerLevel level, int x, int z, SpawnRule rule, Random random) {
-        // Not used - we override findPositionWithDetails to handle multiple Y attempts
+    protected int getYAtPosition(TerrainSnapshot terrain, int x, int z, SpawnRule rule, Random random) {
+        // Not used - we override search to handle multiple Y attempts
         return rule.getY1();
     }
 
     @Override
-    protected PlacementResult validatePlacement(PlacementContext ctx) {
+    protected boolean validatePlacement(PlacementContext ctx, SearchTrace trace) {
         // Not used directly - we call validateAtY instead
-        return validateAtY(ctx, ctx.entrancePos().getY());
+        return validateAtY(ctx, ctx.entrancePos().getY(), trace);
     }
 
     /**
@@ -53,44 +49,41 @@ public class UnderGroundValidator extends AbstractPositionValidator {
      * The anchor must be underground - there must be solid terrain above it
      * blocking direct access to the sky.
      */
-    private PlacementResult validateAtY(PlacementContext ctx, int y) {
+    private boolean validateAtY(PlacementContext ctx, int y, SearchTrace trace) {
         int anchorX = ctx.entrancePos().getX();
         int anchorZ = ctx.entrancePos().getZ();
 
         // Check that the anchor position is underground (not exposed to sky)
-        if (hasDirectSkyAccess(ctx.level(), anchorX, y, anchorZ)) {
-            return PlacementResult.fail(String.format(
-                "Anchor at (%d, %d, %d) has direct sky access",
-                anchorX, y, anchorZ));
+        if (hasDirectSkyAccess(ctx.terrain(), anchorX, y, anchorZ)) {
+            return trace.reject(RejectReason.ANCHOR_SKY_ACCESS, anchorX, y, anchorZ);
         }
 
         // Get surface height at anchor position
-        int surfaceY = ctx.level().getHeight(Heightmap.Types.WORLD_SURFACE, anchorX, anchorZ);
+        int surfaceY = ctx.terrain().getHeight(Heightmap.Types.WORLD_SURFACE, anchorX, anchorZ);
 
         // Anchor must be below the surface
         if (y >= surfaceY) {
-            return PlacementResult.fail(String.format(
-                "Anchor Y=%d is at or above surface Y=%d",
-                y, surfaceY));
+            return trace.reject(RejectReason.ANCHOR_ABOVE_SURFACE, y, surfaceY);
         }
 
-        return PlacementResult.ok();
+        return true;
     }
 
     @Override
-    public FindResult findPositionWithDetails(ServerLevel level, ChunkPos chunkPos,
-                                               SpawnableBuilding building, SpawnRule rule, Random random) {
+    protected SpawnPosition search(TerrainSnapshot terrain, ChunkPos chunkPos, SpawnableBuilding building,
+                                   SpawnRule rule, Random random, SearchTrace trace) {
 
         int buildingWidth = building.getSizeX();
         int buildingDepth = building.getSizeZ();
         int buildingHeight = building.getSizeY();
         int margin = rule.getMargin();
 
-        List<String> failureReasons = new ArrayList<>();
-        failureReasons.add(String.format("Building: %s (size %dx%dx%d)",
-            building.getRdns(), buildingWidth, buildingHeight, buildingDepth));
-        failureReasons.add(String.format("Rule: Y range [%d-%d], margin=%d, type=%s",
-            rule.getY1(), rule.getY2(), margin, rule.getType()));
+        if (trace.diagnostics()) {
+            trace.note(String.format("Building: %s (size %dx%dx%d)",
+                building.getRdns(), buildingWidth, buildingHeight, buildingDepth));
+            trace.note(String.format("Rule: Y range [%d-%d], margin=%d, type=%s",
+                rule.getY1(), rule.getY2(), margin, rule.getType()));
+        }
 
         // Divide chunk into 4 quadrants and try each
         int[][] quadrants = {
@@ -114,7 +107,7 @@ public class UnderGroundValidator extends AbstractPositionValidator {
             int worldZ = chunkPos.getBlockZ(localZ);
 
             // Get surface height at this position
-            int surfaceY = level.getHeight(Heightmap.Types.WORLD_SURFACE, worldX, worldZ);
+            int surfaceY = terrain.getHeight(Heightmap.Types.WORLD_SURFACE, worldX, worldZ);
 
             // Calculate valid Y range for underground placement
             // Building must be completely below surface:
@@ -125,10 +118,8 @@ public class UnderGroundValidator extends AbstractPositionValidator {
 
             // Check if there's any valid range at all
             if (effectiveMaxY < effectiveMinY) {
-                failureReasons.add(String.format(
-                    "Quadrant [%d,%d] at (%d,%d): No underground space (surface=%d, effective [%d-%d] invalid for height %d)",
-                    quadrant[0], quadrant[1], worldX, worldZ, surfaceY,
-                    effectiveMinY, effectiveMaxY, buildingHeight));
+                trace.reject(RejectReason.NO_UNDERGROUND_SPACE, surfaceY, effectiveMinY, effectiveMaxY, buildingHeight);
+                trace.quadrantFailed(quadrant[0], quadrant[1], worldX, worldZ);
                 continue;
             }
 
@@ -138,9 +129,8 @@ public class UnderGroundValidator extends AbstractPositionValidator {
             while (true) {
                 // Check if we've exhausted the valid range
                 if (currentMinY > effectiveMaxY) {
-                    failureReasons.add(String.format(
-                        "Quadrant [%d,%d] at (%d,%d): Exhausted Y range [%d-%d]",
-                        quadrant[0], quadrant[1], worldX, worldZ, effectiveMinY, effectiveMaxY));
+                    trace.reject(RejectReason.Y_RANGE_EXHAUSTED, effectiveMinY, effectiveMaxY);
+                    trace.quadrantFailed(quadrant[0], quadrant[1], worldX, worldZ);
                     break;
                 }
 
@@ -149,30 +139,18 @@ public class UnderGroundValidator extends AbstractPositionValidator {
                 int y = (range <= 0) ? currentMinY : currentMinY + random.nextInt(range + 1);
 
                 // Try all 4 rotations at this Y
-                int[] rotations = {0, 90, 180, 270};
-
-                for (int rotation : rotations) {
-                    BlockPos entrancePos = new BlockPos(worldX, y, worldZ);
-
-                    PlacementContext ctx = createPlacementContext(level, entrancePos, building, rotation, margin);
-
-                    // Check that all chunks the building will occupy are loaded
-                    String chunkCheck = PositionValidator.checkChunksLoaded(
-                        level, ctx.buildingOrigin(), ctx.effectiveWidth(), ctx.effectiveDepth(), margin);
-                    if (chunkCheck != null) {
-                        failureReasons.add(String.format("Pos %s rot %d°: %s",
-                            entrancePos.toShortString(), rotation, chunkCheck));
-                        continue;
-                    }
-
-                    // Validate the position is underground
-                    PlacementResult result = validateAtY(ctx, y);
-                    if (result.valid()) {
-                        return FindResult.success(SpawnPosition.at(entrancePos, rotation, rule));
-                    } else {
-                        failureReasons.add(String.format("Pos %s rot %d°: %s",
-                            entrancePos.toShortString(), rotation, result.reason()));
+                BlockPos entrancePos = new BlockPos(worldX, y, worldZ);
+                for (int rotation : ROTATIONS) {
+                    PlacementContext ctx = createPlacementContext(terrain, entrancePos, building, rotation, margin);
+
+                    // Check that all chunks the building will occupy are loaded,
+                    // then validate the position is underground
+                    if (PositionValidator.checkChunksLoaded(
+                            terrain, ctx.buildingOrigin(), ctx.effectiveWidth(), ctx.effectiveDepth(), margin, trace)
+                        && validateAtY(ctx, y, trace)) {
+                        return SpawnPosition.at(entrancePos, rotation, rule);
                     }
+                    trace.placementFailed(worldX, y, worldZ, rotation);
                 }
 
                 // Move minY up past this attempt for next iteration
@@ -180,7 +158,7 @@ public class UnderGroundValidator extends AbstractPositionValidator {
             }
         }
 
-        return FindResult.failure(failureReasons);
+        return null;
     }
 
     /**
@@ -190,31 +168,9 @@ public class UnderGroundValidator extends AbstractPositionValidator {
      *
      * @return true if the position can "see" the sky (is exposed), false if underground
      */
-    private boolean hasDirectSkyAccess(ServerLevel level, int x, int y, int z) {
-        int maxY = level.getMaxY();
-        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos(x, y, z);
-
-        // Scan upward from the position
-        for (int checkY = y; checkY <= maxY; checkY++) {
-            pos.setY(checkY);
-            BlockState state = level.getBlockState(pos);
-
-            // If we find a solid block, we're underground (no direct sky access)
-            if (isSolidTerrainBlock(state)) {
-                return false;
-            }
-        }
-
-        // Reached the sky without hitting solid terrain - exposed to sky
-        return true;
-    }
-
-    /**
-     * Checks if a block is solid terrain that blocks sky access.
-     * This includes stone, dirt, sand, etc. but NOT leaves or other passable blocks.
-     */
-    private boolean isSolidTerrainBlock(BlockState state) {
-        // Use the standard solid check - solid blocks that would block light/access
-        return state.isSolid() && !state.isAir();
+    private boolean hasDirectSkyAccess(TerrainSnapshot terrain, int x, int y, int z) {
+        // Exposed if the topmost solid block of the column (memoized) is below the position.
+        // Solid = state.isSolid(): stone, dirt, sand, etc. but NOT leaves or other passable blocks
+        return terrain.isSkyExposed(x, y, z);
     }
 }
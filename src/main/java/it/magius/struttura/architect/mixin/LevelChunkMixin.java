@@ -0,0 +1,34 @@
+package it.magius.struttura.architect.mixin;
+
+import it.magius.struttura.architect.ingame.spawn.TerrainProfileCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Mixin per invalidare il profilo del terreno di un chunk quando cambia un suo blocco.
+ */
+@Mixin(LevelChunk.class)
+public class LevelChunkMixin {
+
+    /**
+     * Un valore di ritorno non null indica che il blocco è stato effettivamente cambiato.
+     */
+    @Inject(
+        method = "setBlockState",
+        at = @At("RETURN")
+    )
+    private void onSetBlockState(CallbackInfoReturnable<BlockState> cir) {
+        if (cir.getReturnValue() == null) {
+            return;
+        }
+        LevelChunk self = (LevelChunk) (Object) this;
+        if (self.getLevel() instanceof ServerLevel level) {
+            TerrainProfileCache.getInstance().onBlockChanged(level, self.getPos());
+        }
+    }
+}
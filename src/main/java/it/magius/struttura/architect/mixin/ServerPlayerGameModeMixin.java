@@ -17,6 +17,7 @@ import net.minecraft.world.phys.BlockHitResult;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
@@ -36,6 +37,10 @@ public class ServerPlayerGameModeMixin {
     @Shadow
     protected ServerLevel level;
 
+    // Posizioni catturate in HEAD di destroyBlock, per aggiornare i tipi di blocco in RETURN
+    @Unique
+    private List<BlockPos> struttura$destroyedPositions = null;
+
     /**
      * Intercetta la rottura di un blocco.
      * NOTE: We capture multi-block positions BEFORE destruction because
@@ -50,6 +55,7 @@ public class ServerPlayerGameModeMixin {
         if (session != null) {
             // Get all positions for multi-block structures BEFORE destruction
             List<BlockPos> allPositions = BlockUtils.getMultiBlockPositions(level, pos);
+            struttura$destroyedPositions = allPositions;
 
             for (BlockPos blockPos : allPositions) {
                 if (!level.getBlockState(blockPos).isAir()) {
@@ -64,6 +70,27 @@ public class ServerPlayerGameModeMixin {
         }
     }
 
+    /**
+     * Dopo la rottura: aggiorna i tipi di blocco (ora aria) delle posizioni tracciate.
+     */
+    @Inject(
+        method = "destroyBlock",
+        at = @At("RETURN")
+    )
+    private void afterBlockDestroy(BlockPos pos, CallbackInfoReturnable<Boolean> cir) {
+        List<BlockPos> positions = struttura$destroyedPositions;
+        struttura$destroyedPositions = null;
+        if (positions == null) {
+            return;
+        }
+        EditingSession session = EditingSession.getSession(player);
+        if (session != null) {
+            for (BlockPos blockPos : positions) {
+                session.onBlockChanged(blockPos);
+            }
+        }
+    }
+
     /**
      * Intercetta l'uso di un item su un blocco (piazzamento).
      */
@@ -87,6 +114,9 @@ public class ServerPlayerGameModeMixin {
 
         EditingSession session = EditingSession.getSession(player);
         if (session != null) {
+            // Il blocco cliccato puo' cambiare tipo (es. tronco scortecciato con l'ascia)
+            session.onBlockChanged(hitResult.getBlockPos());
+
             // Calcola la posizione dove il blocco e' stato piazzato
             BlockPos placedPos = hitResult.getBlockPos().relative(hitResult.getDirection());
             BlockState placedState = world.getBlockState(placedPos);
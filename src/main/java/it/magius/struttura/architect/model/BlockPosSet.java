@@ -0,0 +1,318 @@
+package it.magius.struttura.architect.model;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Set of block positions stored as packed longs ({@link BlockPos#asLong()}) in an
+ * open-addressing hash table with linear probing.
+ *
+ * About 8-16 bytes per position instead of the ~50+ of a HashSet node plus BlockPos,
+ * and nothing for the GC to trace. The primitive methods (contains/add/remove with a
+ * long or coordinates, forEachLong, forEachPos) never allocate.
+ *
+ * Also a {@code Set<BlockPos>} for legacy callers: its iterator works on a copy of the
+ * keys and allocates one BlockPos per element, so hot paths should use the primitive API.
+ * Not thread-safe.
+ */
+public final class BlockPosSet extends AbstractSet<BlockPos> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    // 0 is a valid packed position (0,0,0): it is kept out of the table and tracked by a flag
+    private long[] keys;
+    private boolean containsZero;
+    private int mask;
+    private int size;
+    private int maxFill;
+
+    public BlockPosSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BlockPosSet(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Creates a copy of another set.
+     */
+    public BlockPosSet(BlockPosSet other) {
+        this.keys = other.keys.clone();
+        this.containsZero = other.containsZero;
+        this.mask = other.mask;
+        this.size = other.size;
+        this.maxFill = other.maxFill;
+    }
+
+    // ===== Primitive API =====
+
+    public boolean contains(long packed) {
+        if (packed == 0L) {
+            return containsZero;
+        }
+        long[] k = keys;
+        int slot = hash(packed) & mask;
+        long current;
+        while ((current = k[slot]) != 0L) {
+            if (current == packed) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return contains(BlockPos.asLong(x, y, z));
+    }
+
+    public boolean add(long packed) {
+        if (packed == 0L) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        long[] k = keys;
+        int slot = hash(packed) & mask;
+        long current;
+        while ((current = k[slot]) != 0L) {
+            if (current == packed) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        k[slot] = packed;
+        if (++size >= maxFill) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    public boolean remove(long packed) {
+        if (packed == 0L) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+        long[] k = keys;
+        int slot = hash(packed) & mask;
+        long current;
+        while ((current = k[slot]) != 0L) {
+            if (current == packed) {
+                size--;
+                shiftKeys(slot);
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Adds every position of another set.
+     */
+    public void addAll(BlockPosSet other) {
+        if (other.containsZero) {
+            add(0L);
+        }
+        for (long key : other.keys) {
+            if (key != 0L) {
+                add(key);
+            }
+        }
+    }
+
+    /**
+     * Calls the action with each packed position. The set must not be modified meanwhile.
+     */
+    public void forEachLong(LongConsumer action) {
+        if (containsZero) {
+            action.accept(0L);
+        }
+        for (long key : keys) {
+            if (key != 0L) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * Calls the action with each position through a single reused MutableBlockPos.
+     * The action must not keep the instance (call immutable() if needed) nor modify the set.
+     */
+    public void forEachPos(Consumer<BlockPos> action) {
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        if (containsZero) {
+            action.accept(cursor.set(0L));
+        }
+        for (long key : keys) {
+            if (key != 0L) {
+                action.accept(cursor.set(key));
+            }
+        }
+    }
+
+    /**
+     * Copies the packed positions to a new array.
+     */
+    public long[] toLongArray() {
+        long[] result = new long[size];
+        int i = 0;
+        if (containsZero) {
+            result[i++] = 0L;
+        }
+        for (long key : keys) {
+            if (key != 0L) {
+                result[i++] = key;
+            }
+        }
+        return result;
+    }
+
+    // ===== Set<BlockPos> view =====
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof BlockPos pos && contains(pos.asLong());
+    }
+
+    @Override
+    public boolean add(BlockPos pos) {
+        return add(pos.asLong());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof BlockPos pos && remove(pos.asLong());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(keys, 0L);
+        containsZero = false;
+        size = 0;
+    }
+
+    /**
+     * Iterates over a copy of the keys, so the set may be modified while iterating
+     * (removals through the iterator are supported).
+     */
+    @Override
+    public Iterator<BlockPos> iterator() {
+        long[] snapshot = toLongArray();
+        return new Iterator<>() {
+            private int index = 0;
+            private boolean canRemove = false;
+
+            @Override
+            public boolean hasNext() {
+                return index < snapshot.length;
+            }
+
+            @Override
+            public BlockPos next() {
+                if (index >= snapshot.length) {
+                    throw new NoSuchElementException();
+                }
+                canRemove = true;
+                return BlockPos.of(snapshot[index++]);
+            }
+
+            @Override
+            public void remove() {
+                if (!canRemove) {
+                    throw new IllegalStateException();
+                }
+                canRemove = false;
+                BlockPosSet.this.remove(snapshot[index - 1]);
+            }
+        };
+    }
+
+    // ===== Internals =====
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR) + 1;
+        return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        maxFill = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int newCapacity) {
+        long[] old = keys;
+        allocate(newCapacity);
+        long[] k = keys;
+        for (long key : old) {
+            if (key != 0L) {
+                int slot = hash(key) & mask;
+                while (k[slot] != 0L) {
+                    slot = (slot + 1) & mask;
+                }
+                k[slot] = key;
+            }
+        }
+    }
+
+    /**
+     * Backward-shift deletion: closes the gap at slot so probe chains stay intact.
+     */
+    private void shiftKeys(int slot) {
+        long[] k = keys;
+        int last;
+        while (true) {
+            last = slot;
+            slot = (slot + 1) & mask;
+            long current;
+            while (true) {
+                if ((current = k[slot]) == 0L) {
+                    k[last] = 0L;
+                    return;
+                }
+                int home = hash(current) & mask;
+                // Move current into the gap unless its home lies cyclically in (last, slot]
+                if (last <= slot ? (last >= home || home > slot) : (last >= home && home > slot)) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            k[last] = current;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package it.magius.struttura.architect.model;
+
+import it.magius.struttura.architect.storage.BlockStateCodec;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Live index of tracked positions by block type: block -> positions (inverted index),
+ * whose sizes are the block type histogram.
+ *
+ * Kept up to date by Construction/Room as blocks are added, removed or changed while
+ * editing, so the block list and type counts cost O(types) instead of a world query per
+ * tracked position. Changes not made by players (pistons, fluids, growth) are not seen:
+ * destructive operations ("remove all of type X") still check every position in the world.
+ *
+ * Positions added without a world (loading from disk, moves) invalidate the index; it is
+ * rebuilt from the world the next time it is needed (see {@link #ensure}).
+ * Types are only known per block (not per state): a door opening does not change the index.
+ */
+public final class BlockTypeIndex {
+
+    private final Map<Block, BlockPosSet> positionsByType = new IdentityHashMap<>();
+    private boolean valid = true;
+
+    /**
+     * Whether the index reflects the tracked positions.
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Marks the index as out of date (positions were added without knowing their block).
+     */
+    public void invalidate() {
+        if (valid) {
+            valid = false;
+            positionsByType.clear();
+        }
+    }
+
+    /**
+     * Empties the index (valid: no positions tracked).
+     */
+    public void clear() {
+        positionsByType.clear();
+        valid = true;
+    }
+
+    /**
+     * Rebuilds the index if it is not valid, querying the world for each position.
+     */
+    public void ensure(BlockPosSet positions, ServerLevel level) {
+        if (!valid) {
+            rebuild(positions, level);
+        }
+    }
+
+    /**
+     * Rebuilds the index from the world.
+     */
+    public void rebuild(BlockPosSet positions, ServerLevel level) {
+        positionsByType.clear();
+        positions.forEachPos(pos -> add(pos.asLong(), level.getBlockState(pos).getBlock()));
+        valid = true;
+    }
+
+    /**
+     * Records the block at a position, moving it from its previous type if needed.
+     */
+    public void put(long packed, Block block) {
+        if (!valid) {
+            return;
+        }
+        BlockPosSet current = positionsByType.get(block);
+        if (current != null && current.contains(packed)) {
+            return;
+        }
+        removeFromAnyType(packed);
+        add(packed, block);
+    }
+
+    /**
+     * Re-reads the block at one position from the world.
+     */
+    public void refresh(BlockPos pos, ServerLevel level) {
+        put(pos.asLong(), level.getBlockState(pos).getBlock());
+    }
+
+    /**
+     * Removes a position. The hint (block currently in the world) is checked first,
+     * otherwise every type is checked (O(types)).
+     */
+    public void remove(long packed, Block hint) {
+        if (!valid) {
+            return;
+        }
+        if (hint != null) {
+            BlockPosSet set = positionsByType.get(hint);
+            if (set != null && set.remove(packed)) {
+                if (set.isEmpty()) {
+                    positionsByType.remove(hint);
+                }
+                return;
+            }
+        }
+        removeFromAnyType(packed);
+    }
+
+    /**
+     * Positions of the given block type (live view, do not modify), or null if none.
+     */
+    public BlockPosSet getPositions(Block block) {
+        return positionsByType.get(block);
+    }
+
+    /**
+     * Positions of the given block id (e.g. "minecraft:stone"), or null if none.
+     */
+    public BlockPosSet getPositions(String blockId) {
+        for (Map.Entry<Block, BlockPosSet> entry : positionsByType.entrySet()) {
+            if (BlockStateCodec.blockId(entry.getKey()).equals(blockId)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Count of positions of the given block id.
+     */
+    public int getCount(String blockId) {
+        BlockPosSet set = getPositions(blockId);
+        return set != null ? set.size() : 0;
+    }
+
+    /**
+     * Histogram block id -> count (includes air).
+     */
+    public Map<String, Integer> getCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map.Entry<Block, BlockPosSet> entry : positionsByType.entrySet()) {
+            counts.merge(BlockStateCodec.blockId(entry.getKey()), entry.getValue().size(), Integer::sum);
+        }
+        return counts;
+    }
+
+    private void add(long packed, Block block) {
+        positionsByType.computeIfAbsent(block, b -> new BlockPosSet()).add(packed);
+    }
+
+    private void removeFromAnyType(long packed) {
+        Iterator<BlockPosSet> it = positionsByType.values().iterator();
+        while (it.hasNext()) {
+            BlockPosSet set = it.next();
+            if (set.remove(packed)) {
+                if (set.isEmpty()) {
+                    it.remove();
+                }
+                return;
+            }
+        }
+    }
+}
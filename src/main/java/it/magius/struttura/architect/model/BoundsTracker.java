@@ -0,0 +1,186 @@
+package it.magius.struttura.architect.model;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.Arrays;
+
+/**
+ * Incrementally maintained bounding box of a set of blocks and boxes (entities).
+ *
+ * For each axis it keeps occupancy counts: how many items start (low) and end (high)
+ * at each coordinate. Adding or removing an item is O(1); when the item that defined
+ * the current min/max goes away, the next occupied coordinate is found by scanning the
+ * counts, which is bounded by the construction extent and amortized over removals.
+ * This replaces full rescans of every tracked block and entity on each removal.
+ */
+public final class BoundsTracker {
+
+    private final AxisCounts x = new AxisCounts();
+    private final AxisCounts y = new AxisCounts();
+    private final AxisCounts z = new AxisCounts();
+
+    // Number of blocks currently counted (used to detect changes that bypassed the tracker)
+    private int blockCount = 0;
+
+    public void addBlock(long packed) {
+        addBox(BlockPos.getX(packed), BlockPos.getY(packed), BlockPos.getZ(packed),
+            BlockPos.getX(packed), BlockPos.getY(packed), BlockPos.getZ(packed));
+        blockCount++;
+    }
+
+    public void removeBlock(long packed) {
+        removeBox(BlockPos.getX(packed), BlockPos.getY(packed), BlockPos.getZ(packed),
+            BlockPos.getX(packed), BlockPos.getY(packed), BlockPos.getZ(packed));
+        blockCount--;
+    }
+
+    /**
+     * Adds a box given as {minX, minY, minZ, maxX, maxY, maxZ}.
+     */
+    public void addBox(int[] box) {
+        addBox(box[0], box[1], box[2], box[3], box[4], box[5]);
+    }
+
+    /**
+     * Removes a box previously added with {@link #addBox(int[])}.
+     */
+    public void removeBox(int[] box) {
+        removeBox(box[0], box[1], box[2], box[3], box[4], box[5]);
+    }
+
+    private void addBox(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        x.add(minX, maxX);
+        y.add(minY, maxY);
+        z.add(minZ, maxZ);
+    }
+
+    private void removeBox(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        x.remove(minX, maxX);
+        y.remove(minY, maxY);
+        z.remove(minZ, maxZ);
+    }
+
+    public void clear() {
+        x.clear();
+        y.clear();
+        z.clear();
+        blockCount = 0;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    public boolean isEmpty() {
+        return x.isEmpty();
+    }
+
+    /**
+     * Writes the tracked bounds into the given bounds (reset if nothing is tracked).
+     */
+    public void applyTo(ConstructionBounds bounds) {
+        if (isEmpty()) {
+            bounds.reset();
+            return;
+        }
+        bounds.set(x.min(), y.min(), z.min(), x.max(), y.max(), z.max());
+    }
+
+    /**
+     * Low/high occupancy counts for one axis, stored densely from a base coordinate.
+     */
+    private static final class AxisCounts {
+
+        private int base;
+        private int[] lows = new int[0];
+        private int[] highs = new int[0];
+        private int items = 0;
+
+        // Cached extremes (indices into the arrays), revalidated lazily
+        private int minIndex;
+        private int maxIndex;
+
+        void add(int low, int high) {
+            ensureRange(low, high);
+            int lowIndex = low - base;
+            int highIndex = high - base;
+            lows[lowIndex]++;
+            highs[highIndex]++;
+            if (items == 0 || lowIndex < minIndex) {
+                minIndex = lowIndex;
+            }
+            if (items == 0 || highIndex > maxIndex) {
+                maxIndex = highIndex;
+            }
+            items++;
+        }
+
+        void remove(int low, int high) {
+            int lowIndex = low - base;
+            int highIndex = high - base;
+            if (items == 0 || lowIndex < 0 || highIndex >= highs.length
+                || lows[lowIndex] == 0 || highs[highIndex] == 0) {
+                return;
+            }
+            lows[lowIndex]--;
+            highs[highIndex]--;
+            items--;
+        }
+
+        boolean isEmpty() {
+            return items == 0;
+        }
+
+        int min() {
+            while (lows[minIndex] == 0) {
+                minIndex++;
+            }
+            return base + minIndex;
+        }
+
+        int max() {
+            while (highs[maxIndex] == 0) {
+                maxIndex--;
+            }
+            return base + maxIndex;
+        }
+
+        void clear() {
+            Arrays.fill(lows, 0);
+            Arrays.fill(highs, 0);
+            items = 0;
+        }
+
+        private void ensureRange(int low, int high) {
+            int end = base + lows.length; // exclusive
+            if (low >= base && high < end) {
+                return;
+            }
+            if (items == 0) {
+                // Empty: start over around the new item (e.g. after a move to far coordinates)
+                int size = Math.max(16, high - low + 1);
+                base = low;
+                lows = new int[size];
+                highs = new int[size];
+                return;
+            }
+            int newBase = Math.min(base, low);
+            int newEnd = Math.max(end, high + 1);
+            // Grow by at least half the current size on the side(s) that need it
+            int slack = lows.length / 2;
+            if (newBase < base) newBase -= slack;
+            if (newEnd > end) newEnd += slack;
+
+            int shift = base - newBase;
+            int[] newLows = new int[newEnd - newBase];
+            int[] newHighs = new int[newEnd - newBase];
+            System.arraycopy(lows, 0, newLows, shift, lows.length);
+            System.arraycopy(highs, 0, newHighs, shift, highs.length);
+            lows = newLows;
+            highs = newHighs;
+            base = newBase;
+            minIndex += shift;
+            maxIndex += shift;
+        }
+    }
+}
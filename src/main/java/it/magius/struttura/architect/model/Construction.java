@@ -1,6 +1,7 @@
 package it.magius.struttura.architect.model;
 
 import it.magius.struttura.architect.Architect;
+import it.magius.struttura.architect.storage.BlockStateCodec;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.BuiltInRegistries;
@@ -10,6 +11,7 @@ import net.minecraft.world.entity.Entity;
 import net.minecraft.world.level.block.state.BlockState;
 
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -47,8 +49,8 @@ public class Construction {
     // Key: language code (e.g., "en", "it"), Value: full description
     private final Map<String, String> descriptions = new HashMap<>();
 
-    // Tracked block positions (reference-only, no BlockState stored)
-    private final Set<BlockPos> trackedBlocks = new HashSet<>();
+    // Tracked block positions (reference-only, no BlockState stored), packed as BlockPos.asLong()
+    private final BlockPosSet trackedBlocks = new BlockPosSet();
 
     // Tracked entity UUIDs (reference-only, resolved from world when needed)
     private final Set<UUID> trackedEntities = new HashSet<>();
@@ -56,6 +58,18 @@ public class Construction {
     // Bounds calculated from blocks and entities
     private final ConstructionBounds bounds = new ConstructionBounds();
 
+    // Incremental bounds: per-axis occupancy counts of blocks and entity boxes,
+    // so removals don't rescan every tracked block (entity boxes are re-read on refresh)
+    private final BoundsTracker boundsTracker = new BoundsTracker();
+
+    // Box counted in boundsTracker for each tracked entity {minX, minY, minZ, maxX, maxY, maxZ}.
+    // NO_BOX = entity not in the world / not saved. Missing key = not resolved yet.
+    private final Map<UUID, int[]> entityBoxes = new HashMap<>();
+    private static final int[] NO_BOX = new int[0];
+
+    // Live block type histogram / inverted index (block -> positions) of the tracked blocks
+    private final BlockTypeIndex blockTypes = new BlockTypeIndex();
+
     // Required mods (namespace -> mod info)
     private Map<String, ModInfo> requiredMods = new HashMap<>();
 
@@ -128,11 +142,14 @@ public class Construction {
      * Queries the world to update cached stats (solid/command block counts).
      */
     public void addBlock(BlockPos pos, ServerLevel level) {
-        trackedBlocks.add(pos.immutable());
+        if (trackedBlocks.add(pos.asLong())) {
+            boundsTracker.addBlock(pos.asLong());
+        }
         bounds.expandToInclude(pos);
 
         // Update cached stats from world
         BlockState state = level.getBlockState(pos);
+        blockTypes.put(pos.asLong(), state.getBlock());
         if (!state.isAir()) {
             cachedSolidBlockCount++;
             String blockId = BuiltInRegistries.BLOCK.getKey(state.getBlock()).toString();
@@ -145,21 +162,37 @@ public class Construction {
     /**
      * Adds a block position without expanding bounds or updating stats.
      * Used when loading from file/server where bounds are already known.
+     * The block type index is rebuilt from the world when next needed.
      */
     public void addBlockRaw(BlockPos pos) {
-        trackedBlocks.add(pos.immutable());
+        if (trackedBlocks.add(pos.asLong())) {
+            boundsTracker.addBlock(pos.asLong());
+            blockTypes.invalidate();
+        }
+    }
+
+    /**
+     * Re-reads the block type at a tracked position after the world changed there
+     * (e.g. a tracked block broken or replaced while editing).
+     */
+    public void updateBlockType(BlockPos pos, ServerLevel level) {
+        if (trackedBlocks.contains(pos.asLong())) {
+            blockTypes.refresh(pos, level);
+        }
     }
 
     /**
      * Removes a block from the construction.
-     * Recalculates bounds including entities from the world.
-     * Updates cached stats.
+     * Shrinks bounds incrementally (blocks and entities). Updates cached stats.
      */
     public boolean removeBlock(BlockPos pos, ServerLevel level) {
-        boolean removed = trackedBlocks.remove(pos);
+        boolean removed = trackedBlocks.remove(pos.asLong());
         if (removed) {
+            boundsTracker.removeBlock(pos.asLong());
+
             // Update cached stats before recalculating
             BlockState state = level.getBlockState(pos);
+            blockTypes.remove(pos.asLong(), state.getBlock());
             if (!state.isAir()) {
                 cachedSolidBlockCount = Math.max(0, cachedSolidBlockCount - 1);
                 String blockId = BuiltInRegistries.BLOCK.getKey(state.getBlock()).toString();
@@ -167,7 +200,7 @@ public class Construction {
                     cachedCommandBlockCount = Math.max(0, cachedCommandBlockCount - 1);
                 }
             }
-            recalculateBounds(level);
+            refreshBounds(level);
         }
         return removed;
     }
@@ -176,7 +209,14 @@ public class Construction {
      * Checks if a position is part of the construction.
      */
     public boolean containsBlock(BlockPos pos) {
-        return trackedBlocks.contains(pos);
+        return trackedBlocks.contains(pos.asLong());
+    }
+
+    /**
+     * Checks if a position is part of the construction, without allocating a BlockPos.
+     */
+    public boolean containsBlock(int x, int y, int z) {
+        return trackedBlocks.contains(x, y, z);
     }
 
     /**
@@ -195,42 +235,118 @@ public class Construction {
 
     /**
      * Gets all tracked block positions.
+     * Also usable as a Set&lt;BlockPos&gt;; prefer the primitive BlockPosSet methods in hot paths.
      */
-    public Set<BlockPos> getTrackedBlocks() {
+    public BlockPosSet getTrackedBlocks() {
         return trackedBlocks;
     }
 
+    /**
+     * Removes all tracked blocks (entities are kept).
+     */
+    public void clearBlocks() {
+        trackedBlocks.clear();
+        blockTypes.clear();
+        rebuildBlockBounds();
+    }
+
     /**
      * Recalculates bounds from tracked blocks only (no entities).
      * Also clears any anchors that are now outside the new bounds.
+     * Entity boxes are dropped and resolved again on the next incremental update.
      */
     public void recalculateBounds() {
+        rebuildBlockBounds();
         bounds.reset();
-        for (BlockPos pos : trackedBlocks) {
-            bounds.expandToInclude(pos);
-        }
+        trackedBlocks.forEachPos(bounds::expandToInclude);
         validateAnchors();
     }
 
     /**
-     * Recalculates bounds from tracked blocks and tracked entities in the world.
+     * Full rescan of bounds from tracked blocks and tracked entities in the world.
      * Also clears any anchors that are now outside the new bounds.
+     * Edits use the incremental path (see refreshBounds); this is kept for consistency
+     * checks and resyncs the incremental tracker with the world.
      */
     public void recalculateBounds(ServerLevel level) {
+        rebuildBlockBounds();
         bounds.reset();
-        for (BlockPos pos : trackedBlocks) {
-            bounds.expandToInclude(pos);
-        }
+        trackedBlocks.forEachPos(bounds::expandToInclude);
         // Include tracked entities from the world
         for (UUID entityUuid : trackedEntities) {
             Entity worldEntity = level.getEntity(entityUuid);
             if (worldEntity != null && EntityData.shouldSaveEntity(worldEntity)) {
                 EntityData.expandBoundsForEntity(worldEntity, bounds);
+                trackEntityBox(entityUuid, entityBox(worldEntity));
+            } else {
+                entityBoxes.put(entityUuid, NO_BOX);
+            }
+        }
+        validateAnchors();
+    }
+
+    /**
+     * Updates bounds from the incremental tracker after a removal.
+     * Entity boxes are refreshed from the world every time (entities move, and there are
+     * few of them); only boxes that changed are swapped in the tracker. If the tracker has
+     * drifted from the block set (direct changes through getTrackedBlocks()) a full
+     * rescan is done instead.
+     */
+    private void refreshBounds(ServerLevel level) {
+        if (boundsTracker.getBlockCount() != trackedBlocks.size()) {
+            recalculateBounds(level);
+            return;
+        }
+        for (UUID entityUuid : trackedEntities) {
+            Entity worldEntity = level.getEntity(entityUuid);
+            int[] box = worldEntity != null && EntityData.shouldSaveEntity(worldEntity)
+                ? entityBox(worldEntity) : NO_BOX;
+            int[] current = entityBoxes.get(entityUuid);
+            if (current == null || !Arrays.equals(current, box)) {
+                trackEntityBox(entityUuid, box);
             }
         }
+        boundsTracker.applyTo(bounds);
         validateAnchors();
     }
 
+    /**
+     * Resets the tracker to the tracked blocks; entity boxes must be resolved again.
+     */
+    private void rebuildBlockBounds() {
+        boundsTracker.clear();
+        entityBoxes.clear();
+        trackedBlocks.forEachLong(boundsTracker::addBlock);
+    }
+
+    private void trackEntityBox(UUID uuid, int[] box) {
+        untrackEntityBox(uuid);
+        entityBoxes.put(uuid, box);
+        if (box != NO_BOX) {
+            boundsTracker.addBox(box);
+        }
+    }
+
+    private void untrackEntityBox(UUID uuid) {
+        int[] box = entityBoxes.remove(uuid);
+        if (box != null && box != NO_BOX) {
+            boundsTracker.removeBox(box);
+        }
+    }
+
+    /**
+     * Block-aligned box covered by an entity (same rules as EntityData.expandBoundsForEntity).
+     */
+    private static int[] entityBox(Entity entity) {
+        ConstructionBounds box = new ConstructionBounds();
+        EntityData.expandBoundsForEntity(entity, box);
+        if (!box.isValid()) {
+            return NO_BOX;
+        }
+        return new int[] { box.getMinX(), box.getMinY(), box.getMinZ(),
+            box.getMaxX(), box.getMaxY(), box.getMaxZ() };
+    }
+
     /**
      * Validates that all anchors are within the current bounds.
      * Clears any anchors that are outside.
@@ -256,63 +372,62 @@ public class Construction {
     }
 
     /**
-     * Removes all blocks of a given type (querying world for block states).
-     * Recalculates bounds including entities from the world.
+     * Removes all blocks of a given type.
+     * Every tracked position is checked against the world (not only the indexed ones: blocks
+     * can change without player edits, e.g. pistons, fluids, growth), and the block type index
+     * is resynchronized on the way. Bounds and stats are updated incrementally.
      * @param blockId Block ID (e.g., "minecraft:air", "minecraft:stone")
      * @return number of blocks removed
      */
     public int removeBlocksByType(String blockId, ServerLevel level) {
-        java.util.List<BlockPos> toRemove = new java.util.ArrayList<>();
-
-        for (BlockPos pos : trackedBlocks) {
-            BlockState state = level.getBlockState(pos);
-            String entryBlockId = BuiltInRegistries.BLOCK.getKey(state.getBlock()).toString();
-            if (entryBlockId.equals(blockId)) {
-                toRemove.add(pos);
+        blockTypes.ensure(trackedBlocks, level);
+
+        // Copy: the tracked set and the index are modified while removing
+        long[] candidates = trackedBlocks.toLongArray();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        int removed = 0;
+        for (long packed : candidates) {
+            BlockState state = level.getBlockState(cursor.set(packed));
+            if (!BlockStateCodec.blockId(state).equals(blockId)) {
+                // Keep the index in step with the world for the positions that stay
+                blockTypes.put(packed, state.getBlock());
+                continue;
             }
+            trackedBlocks.remove(packed);
+            boundsTracker.removeBlock(packed);
+            blockTypes.remove(packed, state.getBlock());
+            if (!state.isAir()) {
+                cachedSolidBlockCount = Math.max(0, cachedSolidBlockCount - 1);
+                if (isCommandBlock(blockId)) {
+                    cachedCommandBlockCount = Math.max(0, cachedCommandBlockCount - 1);
+                }
+            }
+            removed++;
         }
 
-        for (BlockPos pos : toRemove) {
-            trackedBlocks.remove(pos);
-        }
-
-        if (!toRemove.isEmpty()) {
-            recalculateBounds(level);
-            // Full recalc of stats since we may have removed many blocks
-            updateCachedStats(level);
+        if (removed > 0) {
+            refreshBounds(level);
         }
-
-        return toRemove.size();
+        return removed;
     }
 
     /**
-     * Counts blocks of a given type by querying the world.
+     * Counts blocks of a given type (from the block type index).
      */
     public int countBlocksByType(String blockId, ServerLevel level) {
-        int count = 0;
-        for (BlockPos pos : trackedBlocks) {
-            BlockState state = level.getBlockState(pos);
-            String entryBlockId = BuiltInRegistries.BLOCK.getKey(state.getBlock()).toString();
-            if (entryBlockId.equals(blockId)) {
-                count++;
-            }
-        }
-        return count;
+        blockTypes.ensure(trackedBlocks, level);
+        return blockTypes.getCount(blockId);
     }
 
     /**
-     * Returns a map with counts of all block types by querying the world.
+     * Returns a map with counts of all block types (from the block type index,
+     * built from the world on first use after a load).
      * Includes air blocks for GUI removal support.
      * @return Map blockId -> count (includes air)
      */
     public Map<String, Integer> getBlockCounts(ServerLevel level) {
-        Map<String, Integer> counts = new HashMap<>();
-        for (BlockPos pos : trackedBlocks) {
-            BlockState state = level.getBlockState(pos);
-            String blockId = BuiltInRegistries.BLOCK.getKey(state.getBlock()).toString();
-            counts.merge(blockId, 1, Integer::sum);
-        }
-        return counts;
+        blockTypes.ensure(trackedBlocks, level);
+        return blockTypes.getCounts();
     }
 
     // Getters
@@ -336,6 +451,7 @@ public class Construction {
         Entity worldEntity = level.getEntity(uuid);
         if (worldEntity != null && EntityData.shouldSaveEntity(worldEntity)) {
             EntityData.expandBoundsForEntity(worldEntity, bounds);
+            trackEntityBox(uuid, entityBox(worldEntity));
 
             // Update cached stats
             cachedEntityCount++;
@@ -357,11 +473,12 @@ public class Construction {
 
     /**
      * Removes an entity UUID from this construction.
-     * Recalculates bounds and updates cached stats.
+     * Shrinks bounds incrementally and updates cached stats.
      */
     public boolean removeEntity(UUID uuid, ServerLevel level) {
         boolean removed = trackedEntities.remove(uuid);
         if (removed) {
+            untrackEntityBox(uuid);
             // Update cached stats before the entity is gone
             Entity worldEntity = level.getEntity(uuid);
             if (worldEntity != null) {
@@ -372,7 +489,7 @@ public class Construction {
                     cachedMobCount = Math.max(0, cachedMobCount - 1);
                 }
             }
-            recalculateBounds(level);
+            refreshBounds(level);
         }
         return removed;
     }
@@ -395,6 +512,9 @@ public class Construction {
      * Clears all tracked entities.
      */
     public void clearTrackedEntities() {
+        for (UUID uuid : trackedEntities) {
+            untrackEntityBox(uuid);
+        }
         trackedEntities.clear();
         cachedEntityCount = 0;
         cachedMobCount = 0;
@@ -426,17 +546,18 @@ public class Construction {
         cachedEntityCount = 0;
         cachedMobCount = 0;
 
-        // Count block stats from world
-        for (BlockPos pos : trackedBlocks) {
+        // Count block stats from world (and resync the block type index in the same pass)
+        blockTypes.clear();
+        trackedBlocks.forEachPos(pos -> {
             BlockState state = level.getBlockState(pos);
+            blockTypes.put(pos.asLong(), state.getBlock());
             if (!state.isAir()) {
                 cachedSolidBlockCount++;
-                String blockId = BuiltInRegistries.BLOCK.getKey(state.getBlock()).toString();
-                if (isCommandBlock(blockId)) {
+                if (isCommandBlock(BlockStateCodec.blockId(state))) {
                     cachedCommandBlockCount++;
                 }
             }
-        }
+        });
 
         // Count entity stats from world
         for (UUID entityUuid : trackedEntities) {
@@ -469,7 +590,7 @@ public class Construction {
         requiredMods.clear();
 
         // Count blocks for each non-vanilla mod
-        for (BlockPos pos : trackedBlocks) {
+        trackedBlocks.forEachPos(pos -> {
             BlockState state = level.getBlockState(pos);
             Identifier blockId = BuiltInRegistries.BLOCK.getKey(state.getBlock());
             String namespace = blockId.getNamespace();
@@ -478,7 +599,7 @@ public class Construction {
                 ModInfo info = requiredMods.computeIfAbsent(namespace, ModInfo::new);
                 info.incrementBlockCount();
             }
-        }
+        });
 
         // Count entities for each non-vanilla mod
         for (UUID entityUuid : trackedEntities) {
@@ -709,6 +830,8 @@ public class Construction {
 
         // Copy tracked block positions
         copy.trackedBlocks.addAll(this.trackedBlocks);
+        copy.rebuildBlockBounds();
+        copy.blockTypes.invalidate();
 
         // Copy tracked entity UUIDs
         copy.trackedEntities.addAll(this.trackedEntities);
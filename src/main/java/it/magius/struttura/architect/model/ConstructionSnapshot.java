@@ -1,12 +1,11 @@
 package it.magius.struttura.architect.model;
 
 import it.magius.struttura.architect.Architect;
+import it.magius.struttura.architect.storage.BlockStateCodec;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Entity;
-import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 
 import java.util.ArrayList;
@@ -19,9 +18,12 @@ import java.util.UUID;
  * Transient data carrier for push/save/move operations.
  * Created by reading from the world, consumed by serialization or placement.
  * Never stored long-term in Construction.
+ *
+ * Block states are kept in a {@link PalettedBlockMap} (palette + packed indices over the
+ * bounds); block entity NBT stays in a sparse map since only few blocks have it.
  */
 public record ConstructionSnapshot(
-    Map<BlockPos, BlockState> blocks,
+    PalettedBlockMap blocks,
     Map<BlockPos, CompoundTag> blockEntityNbt,
     List<EntityData> entities,
     Map<String, RoomSnapshot> rooms
@@ -31,10 +33,32 @@ public record ConstructionSnapshot(
      * Snapshot of a single room's data.
      */
     public record RoomSnapshot(
-        Map<BlockPos, BlockState> blocks,
+        PalettedBlockMap blocks,
         Map<BlockPos, CompoundTag> blockEntityNbt,
         List<EntityData> entities
-    ) {}
+    ) {
+        public RoomSnapshot {
+            // Filled before the block count was known: pick dense or sparse storage now
+            if (blocks != null) {
+                blocks.compact();
+            }
+        }
+
+        /**
+         * Creates a room snapshot from a plain block map (converted to a paletted map).
+         */
+        public RoomSnapshot(Map<BlockPos, BlockState> blocks, Map<BlockPos, CompoundTag> blockEntityNbt,
+                            List<EntityData> entities) {
+            this(PalettedBlockMap.of(blocks), blockEntityNbt, entities);
+        }
+    }
+
+    public ConstructionSnapshot {
+        // Snapshots are often kept (building cache): drop presized volumes that ended up sparse
+        if (blocks != null) {
+            blocks.compact();
+        }
+    }
 
     /**
      * Creates a snapshot by reading all tracked blocks/entities from the world.
@@ -43,27 +67,15 @@ public record ConstructionSnapshot(
     public static ConstructionSnapshot fromWorld(Construction construction, ServerLevel level) {
         var bounds = construction.getBounds();
 
-        // Snapshot base blocks from world
-        Map<BlockPos, BlockState> blocks = new HashMap<>();
+        // Snapshot base blocks from world (volume presized to the bounds)
+        PalettedBlockMap blocks = bounds.isValid()
+            ? new PalettedBlockMap(bounds.getMinX(), bounds.getMinY(), bounds.getMinZ(),
+                bounds.getMaxX(), bounds.getMaxY(), bounds.getMaxZ(), construction.getTrackedBlocks().size())
+            : new PalettedBlockMap();
         Map<BlockPos, CompoundTag> blockEntityNbt = new HashMap<>();
 
-        for (BlockPos pos : construction.getTrackedBlocks()) {
-            BlockState state = level.getBlockState(pos);
-            blocks.put(pos, state);
-
-            // Capture block entity NBT
-            BlockEntity blockEntity = level.getBlockEntity(pos);
-            if (blockEntity != null) {
-                CompoundTag nbt = blockEntity.saveWithoutMetadata(level.registryAccess());
-                nbt.remove("x");
-                nbt.remove("y");
-                nbt.remove("z");
-                nbt.remove("id");
-                if (!nbt.isEmpty()) {
-                    blockEntityNbt.put(pos, nbt);
-                }
-            }
-        }
+        // Read section by section (one chunk/section lookup per section, states from the palette)
+        WorldCapture.captureBySection(construction.getTrackedBlocks(), level, blocks, blockEntityNbt, false);
 
         // Snapshot base entities from world
         List<EntityData> entities = new ArrayList<>();
@@ -95,25 +107,10 @@ public record ConstructionSnapshot(
      * Snapshots a single room by reading from the world.
      */
     private static RoomSnapshot snapshotRoom(Room room, ServerLevel level) {
-        Map<BlockPos, BlockState> blocks = new HashMap<>();
+        PalettedBlockMap blocks = new PalettedBlockMap();
         Map<BlockPos, CompoundTag> blockEntityNbt = new HashMap<>();
 
-        for (BlockPos pos : room.getChangedBlocks()) {
-            BlockState state = level.getBlockState(pos);
-            blocks.put(pos, state);
-
-            BlockEntity blockEntity = level.getBlockEntity(pos);
-            if (blockEntity != null && !state.isAir()) {
-                CompoundTag nbt = blockEntity.saveWithoutMetadata(level.registryAccess());
-                nbt.remove("x");
-                nbt.remove("y");
-                nbt.remove("z");
-                nbt.remove("id");
-                if (!nbt.isEmpty()) {
-                    blockEntityNbt.put(pos, nbt);
-                }
-            }
-        }
+        WorldCapture.captureBySection(room.getChangedBlocks(), level, blocks, blockEntityNbt, true);
 
         // Room entities - these are stored as EntityData (serialized) for spawning later
         // Room entities are not in the world during normal operation (only during room editing)
@@ -134,7 +131,7 @@ public record ConstructionSnapshot(
         Map<String, RoomSnapshot> rooms
     ) {
         return new ConstructionSnapshot(
-            blocks != null ? blocks : new HashMap<>(),
+            PalettedBlockMap.of(blocks),
             blockEntityNbt != null ? blockEntityNbt : new HashMap<>(),
             entities != null ? entities : new ArrayList<>(),
             rooms != null ? rooms : new HashMap<>()
@@ -145,7 +142,13 @@ public record ConstructionSnapshot(
      * Gets the solid block count from the snapshot.
      */
     public int getSolidBlockCount() {
-        return (int) blocks.values().stream().filter(s -> !s.isAir()).count();
+        int[] count = {0};
+        blocks.forEachBlock((x, y, z, state) -> {
+            if (!state.isAir()) {
+                count[0]++;
+            }
+        });
+        return count[0];
     }
 
     /**
@@ -160,10 +163,7 @@ public record ConstructionSnapshot(
      */
     public Map<String, Integer> getBlockCounts() {
         Map<String, Integer> counts = new HashMap<>();
-        for (BlockState state : blocks.values()) {
-            String blockId = BuiltInRegistries.BLOCK.getKey(state.getBlock()).toString();
-            counts.merge(blockId, 1, Integer::sum);
-        }
+        blocks.forEachBlock((x, y, z, state) -> counts.merge(BlockStateCodec.blockId(state), 1, Integer::sum));
         return counts;
     }
 }
@@ -0,0 +1,550 @@
+package it.magius.struttura.architect.model;
+
+import it.magius.struttura.architect.storage.PackedIndexArray;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Block states of a snapshot stored as a palette plus a bit-packed index array over
+ * the bounding volume (like vanilla PalettedContainer), instead of a HashMap node and a
+ * BlockPos per block.
+ *
+ * Cells hold (paletteIndex + 1), 0 = position not part of the snapshot. Cells are laid out
+ * in Y-Z-X order, the same order as blocks.nbt v2, so {@link #forEachBlock} visits blocks
+ * bottom-up (support blocks first) without sorting and without allocating.
+ *
+ * The volume grows when a block is put outside of it. Sparse volumes (more than
+ * {@code MAX_CELLS_PER_BLOCK} cells per block, beyond a small floor; e.g. two far apart blocks
+ * or a few hundred blocks in a 256^3 box) fall back to a plain HashMap so memory stays bounded.
+ * {@link #compact()} re-checks the choice once a map has been filled.
+ *
+ * Also a {@code Map<BlockPos, BlockState>} for legacy callers: its entry iterator allocates
+ * a BlockPos per block, so hot paths should use forEachBlock / getState.
+ * Null values are not stored (putting null removes the position). Not thread-safe.
+ */
+public final class PalettedBlockMap extends AbstractMap<BlockPos, BlockState> {
+
+    // Up to this many cells (2 KB at 4 bits) the volume stays dense however empty it is
+    private static final long SMALL_VOLUME = 1L << 12;
+    // Never presize or grow the volume beyond this many cells
+    private static final long LARGE_VOLUME = 1L << 24;
+    // Max cells per block before switching to the sparse fallback
+    private static final int MAX_CELLS_PER_BLOCK = 64;
+
+    /**
+     * Receives one block. Coordinates are in the key space (or normalized, see forEachBlock).
+     */
+    @FunctionalInterface
+    public interface BlockConsumer {
+        void accept(int x, int y, int z, BlockState state);
+    }
+
+    private final List<BlockState> palette = new ArrayList<>();
+    private final Map<BlockState, Integer> paletteIndex = new IdentityHashMap<>();
+
+    private int originX, originY, originZ;
+    private int sizeX, sizeY, sizeZ;
+    private PackedIndexArray cells;
+    private int size;
+
+    // Sparse fallback (null while dense)
+    private Map<BlockPos, BlockState> sparse;
+    // Sparse keys in Y-Z-X order for forEachBlock, null = sort again
+    private List<BlockPos> sortedKeys;
+
+    private Set<Entry<BlockPos, BlockState>> entrySet;
+
+    public PalettedBlockMap() {
+    }
+
+    /**
+     * Creates a map whose volume already covers the given box (no growth while filling it).
+     */
+    public PalettedBlockMap(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        if (maxX >= minX && maxY >= minY && maxZ >= minZ) {
+            long volume = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+            if (volume <= LARGE_VOLUME) {
+                allocate(minX, minY, minZ, maxX - minX + 1, maxY - minY + 1, maxZ - minZ + 1, 4);
+            }
+        }
+    }
+
+    /**
+     * Creates a map for about expectedBlocks blocks inside the given box: presized like
+     * {@link #PalettedBlockMap(int, int, int, int, int, int)} if the box is dense enough
+     * for them, sparse from the start otherwise.
+     */
+    public PalettedBlockMap(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, int expectedBlocks) {
+        if (maxX >= minX && maxY >= minY && maxZ >= minZ) {
+            long volume = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+            if (volume <= LARGE_VOLUME && isDenseWorthIt(volume, expectedBlocks)) {
+                allocate(minX, minY, minZ, maxX - minX + 1, maxY - minY + 1, maxZ - minZ + 1, 4);
+            } else {
+                sparse = new HashMap<>(Math.max(16, expectedBlocks * 2));
+            }
+        }
+    }
+
+    /**
+     * Returns the map itself if already paletted, otherwise a paletted copy.
+     */
+    public static PalettedBlockMap of(Map<BlockPos, BlockState> blocks) {
+        if (blocks instanceof PalettedBlockMap paletted) {
+            return paletted;
+        }
+        if (blocks == null || blocks.isEmpty()) {
+            return new PalettedBlockMap();
+        }
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (BlockPos pos : blocks.keySet()) {
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            minZ = Math.min(minZ, pos.getZ());
+            maxX = Math.max(maxX, pos.getX());
+            maxY = Math.max(maxY, pos.getY());
+            maxZ = Math.max(maxZ, pos.getZ());
+        }
+        PalettedBlockMap result = new PalettedBlockMap();
+        long volume = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        if (isDenseWorthIt(volume, blocks.size())) {
+            result.allocate(minX, minY, minZ, maxX - minX + 1, maxY - minY + 1, maxZ - minZ + 1, 4);
+        } else {
+            result.sparse = new HashMap<>(blocks.size() * 2);
+        }
+        for (Entry<BlockPos, BlockState> entry : blocks.entrySet()) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    // ===== Primitive API =====
+
+    /**
+     * Gets the state at a position, or null if the position is not part of the snapshot.
+     */
+    public BlockState getState(int x, int y, int z) {
+        if (sparse != null) {
+            return sparse.get(new BlockPos(x, y, z));
+        }
+        int index = indexOf(x, y, z);
+        if (index < 0) {
+            return null;
+        }
+        int value = cells.get(index);
+        return value == 0 ? null : palette.get(value - 1);
+    }
+
+    /**
+     * Visits every block in Y-Z-X order (ascending Y first), with key-space coordinates.
+     * The map must not be modified meanwhile.
+     */
+    public void forEachBlock(BlockConsumer action) {
+        forEachBlock(0, 0, 0, action);
+    }
+
+    /**
+     * Visits every block in Y-Z-X order (ascending Y first), with coordinates relative to
+     * the given offset (e.g. the construction bounds min for normalized coordinates).
+     * The map must not be modified meanwhile.
+     */
+    public void forEachBlock(int offsetX, int offsetY, int offsetZ, BlockConsumer action) {
+        if (size == 0) {
+            return;
+        }
+        if (sparse != null) {
+            if (sortedKeys == null) {
+                List<BlockPos> keys = new ArrayList<>(sparse.keySet());
+                keys.sort(Comparator.comparingInt(BlockPos::getY)
+                    .thenComparingInt(BlockPos::getZ)
+                    .thenComparingInt(BlockPos::getX));
+                sortedKeys = keys;
+            }
+            for (BlockPos pos : sortedKeys) {
+                action.accept(pos.getX() - offsetX, pos.getY() - offsetY, pos.getZ() - offsetZ, sparse.get(pos));
+            }
+            return;
+        }
+        PackedIndexArray c = cells;
+        int remaining = size;
+        int index = 0;
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++, index++) {
+                    int value = c.get(index);
+                    if (value != 0) {
+                        action.accept(originX + x - offsetX, originY + y - offsetY, originZ + z - offsetZ,
+                            palette.get(value - 1));
+                        if (--remaining == 0) {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Distinct states referenced by the palette (may include states no longer used).
+     */
+    public List<BlockState> getPalette() {
+        if (sparse != null) {
+            return new ArrayList<>(new LinkedHashSet<>(sparse.values()));
+        }
+        return Collections.unmodifiableList(palette);
+    }
+
+    /**
+     * Whether blocks are stored densely (false = sparse fallback).
+     */
+    public boolean isDense() {
+        return sparse == null;
+    }
+
+    /**
+     * Re-picks the storage for the current content, to call once the map has been filled
+     * (presized volumes are allocated before the block count is known, and growth may have
+     * switched to sparse too early). Dense storage is also shrunk to the occupied box.
+     */
+    public void compact() {
+        if (size == 0) {
+            if (cells != null || sparse != null) {
+                clear();
+            }
+            return;
+        }
+        int[] box = occupiedBox();
+        long volume = (long) (box[3] - box[0] + 1) * (box[4] - box[1] + 1) * (box[5] - box[2] + 1);
+        boolean dense = volume <= LARGE_VOLUME && isDenseWorthIt(volume, size);
+        if (sparse != null) {
+            if (dense) {
+                Map<BlockPos, BlockState> blocks = sparse;
+                sparse = null;
+                sortedKeys = null;
+                size = 0;
+                allocate(box[0], box[1], box[2], box[3] - box[0] + 1, box[4] - box[1] + 1, box[5] - box[2] + 1, 4);
+                for (Entry<BlockPos, BlockState> entry : blocks.entrySet()) {
+                    put(entry.getKey(), entry.getValue());
+                }
+            }
+        } else if (!dense) {
+            switchToSparse();
+        } else if (volume < (long) sizeX * sizeY * sizeZ) {
+            repack(box[0], box[1], box[2], box[3] - box[0] + 1, box[4] - box[1] + 1, box[5] - box[2] + 1,
+                cells.getBits());
+        }
+    }
+
+    // ===== Map<BlockPos, BlockState> =====
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public BlockState get(Object key) {
+        return key instanceof BlockPos pos ? getState(pos.getX(), pos.getY(), pos.getZ()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public BlockState put(BlockPos pos, BlockState state) {
+        if (state == null) {
+            return remove(pos);
+        }
+        if (sparse != null) {
+            BlockState previous = sparse.put(pos.immutable(), state);
+            if (previous == null) {
+                size++;
+                sortedKeys = null;
+            }
+            return previous;
+        }
+        int x = pos.getX(), y = pos.getY(), z = pos.getZ();
+        if (!ensureCovers(x, y, z)) {
+            return put(pos, state);
+        }
+        int value = paletteId(state) + 1;
+        int index = indexOf(x, y, z);
+        int previous = cells.get(index);
+        cells.set(index, value);
+        if (previous == 0) {
+            size++;
+            return null;
+        }
+        return palette.get(previous - 1);
+    }
+
+    @Override
+    public BlockState remove(Object key) {
+        if (!(key instanceof BlockPos pos)) {
+            return null;
+        }
+        if (sparse != null) {
+            BlockState previous = sparse.remove(pos);
+            if (previous != null) {
+                size--;
+                sortedKeys = null;
+            }
+            return previous;
+        }
+        int index = indexOf(pos.getX(), pos.getY(), pos.getZ());
+        if (index < 0) {
+            return null;
+        }
+        int previous = cells.get(index);
+        if (previous == 0) {
+            return null;
+        }
+        cells.set(index, 0);
+        size--;
+        return palette.get(previous - 1);
+    }
+
+    @Override
+    public void clear() {
+        palette.clear();
+        paletteIndex.clear();
+        cells = null;
+        sizeX = sizeY = sizeZ = 0;
+        sparse = null;
+        sortedKeys = null;
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<BlockPos, BlockState>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<BlockPos, BlockState>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            PalettedBlockMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<BlockPos, BlockState>> iterator() {
+            if (sparse != null) {
+                Iterator<Entry<BlockPos, BlockState>> it = sparse.entrySet().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Entry<BlockPos, BlockState> next() {
+                        return it.next();
+                    }
+
+                    @Override
+                    public void remove() {
+                        it.remove();
+                        size--;
+                        sortedKeys = null;
+                    }
+                };
+            }
+            return new DenseIterator();
+        }
+    }
+
+    /**
+     * Iterates the dense cells in volume order; entries are immutable copies.
+     */
+    private final class DenseIterator implements Iterator<Entry<BlockPos, BlockState>> {
+        private final int volume = cells == null ? 0 : sizeX * sizeY * sizeZ;
+        private int next = advance(0);
+        private int last = -1;
+
+        private int advance(int from) {
+            for (int i = from; i < volume; i++) {
+                if (cells.get(i) != 0) {
+                    return i;
+                }
+            }
+            return volume;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < volume;
+        }
+
+        @Override
+        public Entry<BlockPos, BlockState> next() {
+            if (next >= volume) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = advance(next + 1);
+            int x = last % sizeX;
+            int rest = last / sizeX;
+            BlockPos pos = new BlockPos(originX + x, originY + rest / sizeZ, originZ + rest % sizeZ);
+            return new SimpleImmutableEntry<>(pos, palette.get(cells.get(last) - 1));
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0 || cells.get(last) == 0) {
+                throw new IllegalStateException();
+            }
+            cells.set(last, 0);
+            size--;
+            last = -1;
+        }
+    }
+
+    // ===== Internals =====
+
+    private static boolean isDenseWorthIt(long volume, int blocks) {
+        return volume <= SMALL_VOLUME || volume <= (long) blocks * MAX_CELLS_PER_BLOCK;
+    }
+
+    /**
+     * Min/max corners of the stored blocks: {minX, minY, minZ, maxX, maxY, maxZ}. Map not empty.
+     */
+    private int[] occupiedBox() {
+        int[] box = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+            Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+        forEachBlock((x, y, z, state) -> {
+            box[0] = Math.min(box[0], x);
+            box[1] = Math.min(box[1], y);
+            box[2] = Math.min(box[2], z);
+            box[3] = Math.max(box[3], x);
+            box[4] = Math.max(box[4], y);
+            box[5] = Math.max(box[5], z);
+        });
+        return box;
+    }
+
+    private int indexOf(int x, int y, int z) {
+        int dx = x - originX, dy = y - originY, dz = z - originZ;
+        if (cells == null || dx < 0 || dy < 0 || dz < 0 || dx >= sizeX || dy >= sizeY || dz >= sizeZ) {
+            return -1;
+        }
+        return (dy * sizeZ + dz) * sizeX + dx;
+    }
+
+    private int paletteId(BlockState state) {
+        Integer id = paletteIndex.get(state);
+        if (id != null) {
+            return id;
+        }
+        int newId = palette.size();
+        // Cells store id + 1: widen the index array when the palette outgrows it
+        if (PackedIndexArray.bitsFor(newId + 1) > cells.getBits()) {
+            repack(originX, originY, originZ, sizeX, sizeY, sizeZ, PackedIndexArray.bitsFor(newId + 1));
+        }
+        palette.add(state);
+        paletteIndex.put(state, newId);
+        return newId;
+    }
+
+    private void allocate(int ox, int oy, int oz, int sx, int sy, int sz, int bits) {
+        originX = ox;
+        originY = oy;
+        originZ = oz;
+        sizeX = sx;
+        sizeY = sy;
+        sizeZ = sz;
+        cells = new PackedIndexArray(Math.max(bits, PackedIndexArray.bitsFor(palette.size() + 1)), sx * sy * sz);
+    }
+
+    /**
+     * Makes sure the volume contains the position, growing it if needed.
+     *
+     * @return false if the map switched to the sparse fallback instead
+     */
+    private boolean ensureCovers(int x, int y, int z) {
+        if (cells == null) {
+            allocate(x, y, z, 1, 1, 1, 4);
+            return true;
+        }
+        if (indexOf(x, y, z) >= 0) {
+            return true;
+        }
+        // Grow by at least half the current extent on the side(s) that need it
+        int minX = originX, minY = originY, minZ = originZ;
+        int maxX = originX + sizeX - 1, maxY = originY + sizeY - 1, maxZ = originZ + sizeZ - 1;
+        if (x < minX) minX = x - slack(sizeX);
+        if (x > maxX) maxX = x + slack(sizeX);
+        if (y < minY) minY = y - slack(sizeY);
+        if (y > maxY) maxY = y + slack(sizeY);
+        if (z < minZ) minZ = z - slack(sizeZ);
+        if (z > maxZ) maxZ = z + slack(sizeZ);
+
+        long volume = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        if (volume > LARGE_VOLUME || !isDenseWorthIt(volume, size + 1)) {
+            switchToSparse();
+            return false;
+        }
+        repack(minX, minY, minZ, maxX - minX + 1, maxY - minY + 1, maxZ - minZ + 1, cells.getBits());
+        return true;
+    }
+
+    private static int slack(int extent) {
+        return Math.max(4, extent / 2);
+    }
+
+    private void repack(int ox, int oy, int oz, int sx, int sy, int sz, int bits) {
+        PackedIndexArray oldCells = cells;
+        int oldOriginX = originX, oldOriginY = originY, oldOriginZ = originZ;
+        int oldSizeX = sizeX, oldSizeY = sizeY, oldSizeZ = sizeZ;
+        allocate(ox, oy, oz, sx, sy, sz, bits);
+        int index = 0;
+        for (int y = 0; y < oldSizeY; y++) {
+            for (int z = 0; z < oldSizeZ; z++) {
+                for (int x = 0; x < oldSizeX; x++, index++) {
+                    int value = oldCells.get(index);
+                    if (value != 0) {
+                        cells.set(indexOf(oldOriginX + x, oldOriginY + y, oldOriginZ + z), value);
+                    }
+                }
+            }
+        }
+    }
+
+    private void switchToSparse() {
+        Map<BlockPos, BlockState> map = new HashMap<>(Math.max(16, size * 2));
+        forEachBlock((x, y, z, state) -> map.put(new BlockPos(x, y, z), state));
+        cells = null;
+        sizeX = sizeY = sizeZ = 0;
+        palette.clear();
+        paletteIndex.clear();
+        sparse = map;
+    }
+}
@@ -1,5 +1,6 @@
 package it.magius.struttura.architect.model;
 
+import it.magius.struttura.architect.storage.BlockStateCodec;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.server.level.ServerLevel;
@@ -7,6 +8,7 @@ import net.minecraft.world.level.block.state.BlockState;
 
 import java.time.Instant;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.regex.Pattern;
@@ -26,8 +28,11 @@ public class Room {
     // Display name (user-entered, e.g., "Treasure Room!")
     private String name;
 
-    // Delta: only block positions that differ from the base construction
-    private final Set<BlockPos> changedBlocks;
+    // Delta: only block positions that differ from the base construction (packed as BlockPos.asLong())
+    private final BlockPosSet changedBlocks;
+
+    // Live block type histogram / inverted index of the changed positions
+    private final BlockTypeIndex blockTypes = new BlockTypeIndex();
 
     // Entity UUIDs in this room
     private final Set<UUID> roomEntities;
@@ -48,7 +53,7 @@ public class Room {
     public Room(String name) {
         this.id = generateId(name);
         this.name = name;
-        this.changedBlocks = new HashSet<>();
+        this.changedBlocks = new BlockPosSet();
         this.roomEntities = new HashSet<>();
         this.createdAt = Instant.now();
     }
@@ -59,7 +64,7 @@ public class Room {
     public Room(String id, String name, Instant createdAt) {
         this.id = id;
         this.name = name;
-        this.changedBlocks = new HashSet<>();
+        this.changedBlocks = new BlockPosSet();
         this.roomEntities = new HashSet<>();
         this.createdAt = createdAt;
     }
@@ -112,29 +117,75 @@ public class Room {
 
     /**
      * Adds a block position to the room delta.
+     * The block type index is rebuilt from the world when next needed.
      */
     public void setBlockChange(BlockPos pos) {
-        changedBlocks.add(pos.immutable());
+        if (changedBlocks.add(pos.asLong())) {
+            blockTypes.invalidate();
+        }
+    }
+
+    /**
+     * Adds a block position to the room delta, recording its current block type.
+     */
+    public void setBlockChange(BlockPos pos, ServerLevel level) {
+        changedBlocks.add(pos.asLong());
+        blockTypes.refresh(pos, level);
     }
 
     /**
      * Removes a block from the delta.
      */
     public void removeBlockChange(BlockPos pos) {
-        changedBlocks.remove(pos);
+        if (changedBlocks.remove(pos.asLong())) {
+            blockTypes.remove(pos.asLong(), null);
+        }
+    }
+
+    /**
+     * Re-reads the block type at a changed position after the world changed there.
+     */
+    public void updateBlockType(BlockPos pos, ServerLevel level) {
+        if (changedBlocks.contains(pos.asLong())) {
+            blockTypes.refresh(pos, level);
+        }
+    }
+
+    /**
+     * Marks the block type index as out of date (e.g. the room blocks were re-applied to the world).
+     */
+    public void invalidateBlockTypes() {
+        blockTypes.invalidate();
+    }
+
+    /**
+     * Returns a map with counts of all block types in the delta (from the block type index).
+     * @return Map blockId -> count (includes air)
+     */
+    public Map<String, Integer> getBlockCounts(ServerLevel level) {
+        blockTypes.ensure(changedBlocks, level);
+        return blockTypes.getCounts();
     }
 
     /**
      * Checks if a position has a change.
      */
     public boolean hasBlockChange(BlockPos pos) {
-        return changedBlocks.contains(pos);
+        return changedBlocks.contains(pos.asLong());
+    }
+
+    /**
+     * Checks if a position has a change, without allocating a BlockPos.
+     */
+    public boolean hasBlockChange(int x, int y, int z) {
+        return changedBlocks.contains(x, y, z);
     }
 
     /**
      * Gets all changed block positions.
+     * Also usable as a Set&lt;BlockPos&gt;; prefer the primitive BlockPosSet methods in hot paths.
      */
-    public Set<BlockPos> getChangedBlocks() {
+    public BlockPosSet getChangedBlocks() {
         return changedBlocks;
     }
 
@@ -157,6 +208,7 @@ public class Room {
      */
     public void clearBlockChanges() {
         changedBlocks.clear();
+        blockTypes.clear();
     }
 
     // ===== Entity management (reference-only) =====
@@ -224,18 +276,20 @@ public class Room {
         cachedMobCount = 0;
         int entityCount = 0;
 
-        for (BlockPos pos : changedBlocks) {
+        blockTypes.clear();
+        changedBlocks.forEachPos(pos -> {
             BlockState state = level.getBlockState(pos);
+            blockTypes.put(pos.asLong(), state.getBlock());
             if (!state.isAir()) {
                 cachedSolidBlockCount++;
-                String blockId = BuiltInRegistries.BLOCK.getKey(state.getBlock()).toString();
+                String blockId = BlockStateCodec.blockId(state);
                 if (blockId.equals("minecraft:command_block") ||
                     blockId.equals("minecraft:chain_command_block") ||
                     blockId.equals("minecraft:repeating_command_block")) {
                     cachedCommandBlockCount++;
                 }
             }
-        }
+        });
 
         for (UUID entityUuid : roomEntities) {
             net.minecraft.world.entity.Entity worldEntity = level.getEntity(entityUuid);
@@ -284,6 +338,7 @@ public class Room {
 
         // Copy all block positions
         copy.changedBlocks.addAll(this.changedBlocks);
+        copy.blockTypes.invalidate();
 
         // Copy all entity UUIDs
         copy.roomEntities.addAll(this.roomEntities);
@@ -0,0 +1,144 @@
+package it.magius.struttura.architect.model;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Reads block states and block entity NBT of tracked positions from the world.
+ *
+ * {@link #captureBySection} sorts the positions by chunk section, fetches each chunk and
+ * {@link LevelChunkSection} once and reads states straight from the section palette.
+ * Block entities are only looked up for states that have one.
+ *
+ * {@link #capturePerPosition} is the previous implementation (one level.getBlockState /
+ * getBlockEntity per position, in hash order), kept as reference for the capture timing
+ * dev test.
+ */
+public final class WorldCapture {
+
+    private static final BlockState VOID_AIR = Blocks.VOID_AIR.defaultBlockState();
+
+    private WorldCapture() {}
+
+    /**
+     * Captures the given positions section by section.
+     *
+     * @param positions tracked positions
+     * @param level the world
+     * @param blocks receives the block states
+     * @param blockEntityNbt receives block entity NBT (without position/id)
+     * @param skipAir true to skip block entity capture for air (room snapshots)
+     */
+    public static void captureBySection(BlockPosSet positions, ServerLevel level, PalettedBlockMap blocks,
+                                        Map<BlockPos, CompoundTag> blockEntityNbt, boolean skipAir) {
+        if (positions.isEmpty()) {
+            return;
+        }
+
+        // Sort keys: chunk X, chunk Z, section Y, then local index (see sectionOrderKey)
+        long[] keys = positions.toLongArray();
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = sectionOrderKey(keys[i]);
+        }
+        Arrays.sort(keys);
+
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        LevelChunk chunk = null;
+        int chunkX = 0, chunkZ = 0;
+        LevelChunkSection section = null;
+        long currentSection = 0;
+        boolean hasSection = false;
+
+        for (long key : keys) {
+            int sectionX = (int) (key >> 42);
+            int sectionZ = (int) (key << 22 >> 42);
+            int sectionY = (int) (key << 44 >> 56);
+            int local = (int) (key & 0xFFF);
+            int localX = local & 15;
+            int localZ = (local >> 4) & 15;
+            int localY = (local >> 8) & 15;
+
+            long sectionKey = key >>> 12;
+            if (!hasSection || sectionKey != currentSection) {
+                if (chunk == null || sectionX != chunkX || sectionZ != chunkZ) {
+                    chunk = level.getChunk(sectionX, sectionZ);
+                    chunkX = sectionX;
+                    chunkZ = sectionZ;
+                }
+                int sectionIndex = chunk.getSectionIndexFromSectionY(sectionY);
+                section = sectionIndex >= 0 && sectionIndex < chunk.getSectionsCount()
+                    ? chunk.getSection(sectionIndex) : null;
+                currentSection = sectionKey;
+                hasSection = true;
+            }
+
+            // Outside the build height the world reports void air (same as level.getBlockState)
+            BlockState state = section != null ? section.getBlockState(localX, localY, localZ) : VOID_AIR;
+            cursor.set((sectionX << 4) | localX, (sectionY << 4) | localY, (sectionZ << 4) | localZ);
+            blocks.put(cursor, state);
+
+            if (state.hasBlockEntity() && !(skipAir && state.isAir())) {
+                putBlockEntityNbt(chunk.getBlockEntity(cursor), cursor, level, blockEntityNbt);
+            }
+        }
+    }
+
+    /**
+     * Reference implementation: one world lookup per position, in hash order.
+     */
+    public static void capturePerPosition(BlockPosSet positions, ServerLevel level, PalettedBlockMap blocks,
+                                          Map<BlockPos, CompoundTag> blockEntityNbt, boolean skipAir) {
+        positions.forEachPos(pos -> {
+            BlockState state = level.getBlockState(pos);
+            blocks.put(pos, state);
+
+            BlockEntity blockEntity = level.getBlockEntity(pos);
+            if (blockEntity != null && !(skipAir && state.isAir())) {
+                putBlockEntityNbt(blockEntity, pos, level, blockEntityNbt);
+            }
+        });
+    }
+
+    /**
+     * Stores the block entity NBT (without position/id), if any.
+     * pos may be mutable: the key is copied only when something is stored.
+     */
+    private static void putBlockEntityNbt(BlockEntity blockEntity, BlockPos pos, ServerLevel level,
+                                          Map<BlockPos, CompoundTag> out) {
+        if (blockEntity == null) {
+            return;
+        }
+        CompoundTag nbt = blockEntity.saveWithoutMetadata(level.registryAccess());
+        nbt.remove("x");
+        nbt.remove("y");
+        nbt.remove("z");
+        nbt.remove("id");
+        if (!nbt.isEmpty()) {
+            out.put(pos.immutable(), nbt);
+        }
+    }
+
+    /**
+     * Sortable key grouping positions by section:
+     * chunk X (22 bits) | chunk Z (22 bits) | section Y (8 bits) | local y,z,x (4 bits each).
+     * Values are masked (not offset), which still keeps every section contiguous once sorted.
+     */
+    private static long sectionOrderKey(long packed) {
+        int x = BlockPos.getX(packed);
+        int y = BlockPos.getY(packed);
+        int z = BlockPos.getZ(packed);
+        return ((long) (x >> 4) & 0x3FFFFFL) << 42
+            | ((long) (z >> 4) & 0x3FFFFFL) << 20
+            | ((long) (y >> 4) & 0xFFL) << 12
+            | (long) ((y & 15) << 8 | (z & 15) << 4 | (x & 15));
+    }
+}
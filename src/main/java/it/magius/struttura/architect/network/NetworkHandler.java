@@ -10,10 +10,13 @@ import it.magius.struttura.architect.model.EditMode;
 import it.magius.struttura.architect.model.EntityData;
 import it.magius.struttura.architect.model.Room;
 import it.magius.struttura.architect.placement.ConstructionOperations;
+import it.magius.struttura.architect.placement.PlacementJob;
+import it.magius.struttura.architect.placement.PlacementScheduler;
 import it.magius.struttura.architect.registry.ConstructionRegistry;
 import it.magius.struttura.architect.registry.ModItems;
 import it.magius.struttura.architect.selection.SelectionManager;
 import it.magius.struttura.architect.session.EditingSession;
+import it.magius.struttura.architect.storage.ConstructionCatalog;
 import it.magius.struttura.architect.vanilla.VanillaBatchPushState;
 import it.magius.struttura.architect.command.StrutturaCommand;
 import it.magius.struttura.architect.ChatMessages;
@@ -43,6 +46,13 @@ public class NetworkHandler {
     // Set delle costruzioni attualmente visibili nel mondo
     private static final Set<String> VISIBLE_CONSTRUCTIONS = new HashSet<>();
 
+    /**
+     * Verifica se una costruzione è attualmente visibile nel mondo (show dalla GUI).
+     */
+    public static boolean isConstructionVisible(String constructionId) {
+        return VISIBLE_CONSTRUCTIONS.contains(constructionId);
+    }
+
     /**
      * Registra i payload types lato server.
      */
@@ -249,41 +259,21 @@ public class NetworkHandler {
         List<BlockPos> previewBlocks = new ArrayList<>();
 
         // Itera su tutti i blocchi nell'area selezionata
+        // (lookup sulle coordinate, il BlockPos viene allocato solo per i blocchi di anteprima)
+        boolean checkRoom = inRoom && room != null;
         for (int x = min.getX(); x <= max.getX(); x++) {
             for (int y = min.getY(); y <= max.getY(); y++) {
                 for (int z = min.getZ(); z <= max.getZ(); z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
-
-                    if (mode == EditMode.ADD) {
-                        // Mode ADD: mostra TUTTI i blocchi che verranno aggiunti
-                        // Salta solo se già nel target (room o construction)
-                        // L'aria viene mostrata perché l'utente può scegliere APPLY ALL per includerla
-                        if (inRoom && room != null) {
-                            // In room editing: controlla se è già nella room
-                            if (room.hasBlockChange(pos)) {
-                                continue;
-                            }
-                        } else {
-                            // In building editing: controlla se è già nella construction
-                            if (construction.containsBlock(pos)) {
-                                continue;
-                            }
-                        }
-                        previewBlocks.add(pos);
-                    } else {
-                        // Mode REMOVE: mostra blocchi che verranno rimossi
-                        // Mostra solo se è nel target (room o construction)
-                        if (inRoom && room != null) {
-                            // In room editing: controlla se è nella room
-                            if (room.hasBlockChange(pos)) {
-                                previewBlocks.add(pos);
-                            }
-                        } else {
-                            // In building editing: controlla se è nella construction
-                            if (construction.containsBlock(pos)) {
-                                previewBlocks.add(pos);
-                            }
-                        }
+                    // Target: room se in room editing, altrimenti la construction
+                    boolean inTarget = checkRoom
+                        ? room.hasBlockChange(x, y, z)
+                        : construction.containsBlock(x, y, z);
+
+                    // Mode ADD: mostra TUTTI i blocchi che verranno aggiunti (salta quelli già nel target).
+                    // L'aria viene mostrata perché l'utente può scegliere APPLY ALL per includerla.
+                    // Mode REMOVE: mostra solo i blocchi nel target (verranno rimossi).
+                    if (mode == EditMode.ADD ? !inTarget : inTarget) {
+                        previewBlocks.add(new BlockPos(x, y, z));
                     }
                 }
             }
@@ -1051,6 +1041,13 @@ public class NetworkHandler {
     // Set per tracciare le costruzioni attualmente in pull
     private static final Set<String> PULLING_CONSTRUCTIONS = new HashSet<>();
 
+    /**
+     * Verifica se una costruzione è attualmente in fase di pull dalla GUI.
+     */
+    public static boolean isConstructionBeingPulled(String constructionId) {
+        return PULLING_CONSTRUCTIONS.contains(constructionId);
+    }
+
     private static void handleGuiPull(ServerPlayer player, String id) {
         // Verifica che la costruzione non sia in editing
         if (isConstructionBeingEdited(id)) {
@@ -1068,6 +1065,12 @@ public class NetworkHandler {
             return;
         }
 
+        // Verifica che non sia in corso un piazzamento (move)
+        if (PlacementScheduler.getInstance().isPlacing(id)) {
+            sendGuiError(player, "placement.in_progress", id);
+            return;
+        }
+
         // Verifica che non ci sia già una richiesta API in corso
         if (ApiClient.isRequestInProgress()) {
             sendGuiError(player, "push.request_in_progress");
@@ -1090,50 +1093,55 @@ public class NetworkHandler {
             // Callback viene eseguito su thread async, schedula sul main thread
             if (server != null) {
                 server.execute(() -> {
-                    // Sblocca la costruzione
-                    PULLING_CONSTRUCTIONS.remove(id);
-
                     if (response.success() && response.construction() != null) {
                         Construction construction = response.construction();
 
                         // Register the construction in the registry
                         ConstructionRegistry.getInstance().register(construction);
 
-                        // Use centralized placement with PULL mode (updates construction coordinates)
+                        // Use centralized placement with PULL mode (updates construction coordinates),
+                        // placed across ticks: the construction stays locked until the job is done.
                         // Pull response already contains deserialized snapshot
                         ConstructionSnapshot pullSnapshot = response.snapshot();
-                        var placementResult = ConstructionOperations.placeConstruction(
+                        var job = ConstructionOperations.placeConstructionJob(
                             player, construction, pullSnapshot, ConstructionOperations.PlacementMode.PULL, true,
                             null, player.getYRot(), false
                         );
+                        job.onProgress(PlacementScheduler.actionBarProgress(player, id)).onComplete(placementResult -> {
+                            // Sblocca la costruzione
+                            PULLING_CONSTRUCTIONS.remove(id);
+
+                            // Update cached stats after placement (block/entity counts)
+                            ServerLevel level = (ServerLevel) player.level();
+                            construction.updateCachedStats(level);
+
+                            // Save blocks/entities to disk so room data is available for room editing.
+                            // Create a snapshot from world for base blocks/entities (now at world coords).
+                            ConstructionSnapshot worldSnapshot = ConstructionSnapshot.fromWorld(construction, level);
+                            // Use transformed room snapshots from placeConstructionAt Phase 4b
+                            // (positions already transformed with offset + rotation, paired with block states).
+                            if (!placementResult.transformedRoomSnapshots().isEmpty()) {
+                                worldSnapshot.rooms().putAll(placementResult.transformedRoomSnapshots());
+                            }
+                            ConstructionRegistry.getInstance().getStorage().saveAsync(construction, worldSnapshot);
 
-                        // Update cached stats after placement (block/entity counts)
-                        ServerLevel level = (ServerLevel) player.level();
-                        construction.updateCachedStats(level);
-
-                        // Save blocks/entities to disk so room data is available for room editing.
-                        // Create a snapshot from world for base blocks/entities (now at world coords).
-                        ConstructionSnapshot worldSnapshot = ConstructionSnapshot.fromWorld(construction, level);
-                        // Use transformed room snapshots from placeConstructionAt Phase 4b
-                        // (positions already transformed with offset + rotation, paired with block states).
-                        if (!placementResult.transformedRoomSnapshots().isEmpty()) {
-                            worldSnapshot.rooms().putAll(placementResult.transformedRoomSnapshots());
-                        }
-                        ConstructionRegistry.getInstance().getStorage().save(construction, worldSnapshot);
-
-                        // Validate coherence after pull (blocks should be in world now)
-                        it.magius.struttura.architect.validation.CoherenceChecker.validateConstruction(
-                            level, construction, true);
+                            // Validate coherence after pull (blocks should be in world now)
+                            it.magius.struttura.architect.validation.CoherenceChecker.validateConstruction(
+                                level, construction, true);
 
-                        ChatMessages.send(player, ChatMessages.Level.INFO, "pull.success", id,
-                            placementResult.blocksPlaced(), placementResult.entitiesSpawned());
+                            ChatMessages.send(player, ChatMessages.Level.INFO, "pull.success", id,
+                                placementResult.blocksPlaced(), placementResult.entitiesSpawned());
 
-                        // Update construction list
-                        sendConstructionList(player);
+                            // Update construction list
+                            sendConstructionList(player);
 
-                        Architect.LOGGER.info("Pull successful for {}: {} blocks placed, {} entities spawned",
-                            id, placementResult.blocksPlaced(), placementResult.entitiesSpawned());
+                            Architect.LOGGER.info("Pull successful for {}: {} blocks placed, {} entities spawned",
+                                id, placementResult.blocksPlaced(), placementResult.entitiesSpawned());
+                        }).onCancel(() -> PULLING_CONSTRUCTIONS.remove(id));
+                        PlacementScheduler.getInstance().submit(job);
                     } else {
+                        // Sblocca la costruzione
+                        PULLING_CONSTRUCTIONS.remove(id);
                         sendGuiError(player, "pull.failed", id, response.statusCode(), response.message());
                         Architect.LOGGER.warn("Pull failed for {}: {} - {}",
                             id, response.statusCode(), response.message());
@@ -1175,15 +1183,17 @@ public class NetworkHandler {
         ServerLevel spawnLevel = (ServerLevel) player.level();
         ConstructionSnapshot spawnSnapshot = ConstructionSnapshot.fromWorld(construction, spawnLevel);
 
-        // Use ArchitectSpawn mode for GUI (allows testing room variations)
-        var result = ConstructionOperations.architectSpawn(
-            player, construction, spawnSnapshot, player.getYRot()
+        // Use ArchitectSpawn mode for GUI (allows testing room variations), placed across ticks
+        var job = ConstructionOperations.architectSpawnJob(
+            player, construction, spawnSnapshot, player.getYRot(), null
         );
+        job.ownedBy(player.getUUID()).onProgress(PlacementScheduler.actionBarProgress(player, id)).onComplete(result -> {
+            Architect.LOGGER.info("Player {} architect-spawned {} via GUI ({} blocks, {} rooms)",
+                player.getName().getString(), id, result.blocksPlaced(), result.roomsSpawned());
 
-        Architect.LOGGER.info("Player {} architect-spawned {} via GUI ({} blocks, {} rooms)",
-            player.getName().getString(), id, result.blocksPlaced(), result.roomsSpawned());
-
-        ChatMessages.send(player, ChatMessages.Level.INFO, "spawn.architect_success", id, result.blocksPlaced(), result.roomsSpawned());
+            ChatMessages.send(player, ChatMessages.Level.INFO, "spawn.architect_success", id, result.blocksPlaced(), result.roomsSpawned());
+        });
+        PlacementScheduler.getInstance().submit(job);
     }
 
     /**
@@ -1790,68 +1800,71 @@ public class NetworkHandler {
             return;
         }
 
+        // Verifica che non sia gia' in corso un piazzamento (pull/move)
+        if (PlacementScheduler.getInstance().isPlacing(id)) {
+            sendGuiError(player, "placement.in_progress", id);
+            return;
+        }
+
         ServerLevel level = (ServerLevel) player.level();
 
-        // 1. Save old bounds and create snapshot BEFORE removing the construction
-        ConstructionBounds oldBounds = construction.getBounds().copy();
+        // 1. Single snapshot of the construction BEFORE clearing it: base blocks/entities from
+        // the world, room data from disk (fromWorld captures base blocks, not room deltas, at room
+        // positions, and room entities are not spawned in the world during normal operation)
         ConstructionSnapshot moveSnapshot = ConstructionSnapshot.fromWorld(construction, level);
-
-        // 1b. Load room data from disk instead of from world.
-        // fromWorld captures base blocks (not room deltas) at room positions, and returns
-        // empty room entities (they're not spawned in the world during normal operation).
-        // Disk data has the correct room delta block states and entity data.
         if (!construction.getRooms().isEmpty()) {
             var storage = ConstructionRegistry.getInstance().getStorage();
-            ConstructionSnapshot diskSnapshot = storage.loadNbtOnly(id, oldBounds);
-            if (diskSnapshot != null && !diskSnapshot.rooms().isEmpty()) {
+            var diskRooms = storage.loadRoomSnapshots(id, construction.getBounds());
+            if (diskRooms != null && !diskRooms.isEmpty()) {
                 moveSnapshot.rooms().clear();
-                moveSnapshot.rooms().putAll(diskSnapshot.rooms());
-                Architect.LOGGER.debug("Move: loaded room data from disk for {} rooms", diskSnapshot.rooms().size());
+                moveSnapshot.rooms().putAll(diskRooms);
+                Architect.LOGGER.debug("Move: loaded room data from disk for {} rooms", diskRooms.size());
             }
         }
 
-        // 2. Remove from old position first (use MOVE_CLEAR mode with old bounds)
-        ConstructionOperations.removeConstruction(
-            level, construction, ConstructionOperations.RemovalMode.MOVE_CLEAR, oldBounds
-        );
+        // 2-3. Clear the tracked positions at the old location, then place at the new position
+        // in front of player (updates construction coordinates), placed across ticks
+        var job = ConstructionOperations.moveConstructionJob(player, construction, moveSnapshot);
+        job.ownedBy(player.getUUID()).onProgress(PlacementScheduler.actionBarProgress(player, id)).onComplete(placementResult -> {
+            // 4. Update cached stats after placement (block/entity counts)
+            construction.updateCachedStats(level);
 
-        // 3. Place at new position in front of player (updates construction coordinates)
-        var placementResult = ConstructionOperations.placeConstruction(
-            player, construction, moveSnapshot, ConstructionOperations.PlacementMode.MOVE, true,
-            null, player.getYRot(), false
-        );
-
-        // 4. Update cached stats after placement (block/entity counts)
-        construction.updateCachedStats(level);
+            // 5. Validate coherence after move
+            it.magius.struttura.architect.validation.CoherenceChecker.validateConstruction(
+                level, construction, true);
 
-        // 5. Validate coherence after move
-        it.magius.struttura.architect.validation.CoherenceChecker.validateConstruction(
-            level, construction, true);
-
-        // 5b. Save blocks/entities to disk with updated room data.
-        // Create worldSnapshot from world (base blocks/entities at new positions),
-        // then merge transformed room snapshots from Phase 4b (correctly rotated positions,
-        // block states, and entity data).
-        ConstructionSnapshot worldSnapshot = ConstructionSnapshot.fromWorld(construction, level);
-        if (!placementResult.transformedRoomSnapshots().isEmpty()) {
-            worldSnapshot.rooms().putAll(placementResult.transformedRoomSnapshots());
-        }
-        ConstructionRegistry.getInstance().getStorage().save(construction, worldSnapshot);
+            // 5b. Save blocks/entities to disk from the placed snapshot (moved snapshot data:
+            // base and room blocks, NBT and entities at the new positions, no world read)
+            ConstructionRegistry.getInstance().getStorage().saveAsync(construction, placementResult.placedSnapshot());
 
-        // 6. Save the updated construction
-        ConstructionRegistry.getInstance().register(construction);
+            // 6. Save the updated construction
+            ConstructionRegistry.getInstance().register(construction);
 
-        // 7. Update visibility state
-        VISIBLE_CONSTRUCTIONS.add(id);
+            // 7. Update visibility state
+            VISIBLE_CONSTRUCTIONS.add(id);
 
-        Architect.LOGGER.info("Player {} moved construction {} via GUI to new position ({} blocks, {} entities)",
-            player.getName().getString(), id, placementResult.blocksPlaced(), placementResult.entitiesSpawned());
+            Architect.LOGGER.info("Player {} moved construction {} via GUI to new position ({} blocks, {} entities)",
+                player.getName().getString(), id, placementResult.blocksPlaced(), placementResult.entitiesSpawned());
 
-        if (placementResult.entitiesSpawned() > 0) {
-            ChatMessages.send(player, ChatMessages.Level.INFO, "move.success_with_entities", id, placementResult.blocksPlaced(), placementResult.entitiesSpawned());
-        } else {
-            ChatMessages.send(player, ChatMessages.Level.INFO, "move.success", id, placementResult.blocksPlaced());
-        }
+            if (placementResult.entitiesSpawned() > 0) {
+                ChatMessages.send(player, ChatMessages.Level.INFO, "move.success_with_entities", id, placementResult.blocksPlaced(), placementResult.entitiesSpawned());
+            } else {
+                ChatMessages.send(player, ChatMessages.Level.INFO, "move.success", id, placementResult.blocksPlaced());
+            }
+        }).onCancel(() -> {
+            if (job.hasStarted(PlacementJob.Stage.COORDINATES)) {
+                // Stopped after the new coordinates (entities not spawned): keep it at the new position
+                construction.updateCachedStats(level);
+                ConstructionRegistry.getInstance().getStorage().saveAsync(construction, job.resultSoFar().placedSnapshot());
+                ConstructionRegistry.getInstance().register(construction);
+                VISIBLE_CONSTRUCTIONS.add(id);
+                ChatMessages.send(player, ChatMessages.Level.ERROR, "move.incomplete", id);
+            } else {
+                // Placed back at the old position by the job cleanup
+                ChatMessages.send(player, ChatMessages.Level.ERROR, "move.cancelled", id);
+            }
+        });
+        PlacementScheduler.getInstance().submit(job);
     }
 
     // ===== Helper Methods =====
@@ -2076,13 +2089,8 @@ public class NetworkHandler {
         ServerLevel blockListLevel = (ServerLevel) player.level();
         java.util.Map<String, Integer> blockCounts;
         if (inRoom && room != null) {
-            // Count blocks in the room's changes by querying the world
-            blockCounts = new java.util.HashMap<>();
-            for (BlockPos pos : room.getChangedBlocks()) {
-                BlockState state = blockListLevel.getBlockState(pos);
-                String blockId = net.minecraft.core.registries.BuiltInRegistries.BLOCK.getKey(state.getBlock()).toString();
-                blockCounts.merge(blockId, 1, Integer::sum);
-            }
+            // Live histogram of the room's changes
+            blockCounts = room.getBlockCounts(blockListLevel);
         } else {
             blockCounts = construction.getBlockCounts(blockListLevel);
         }
@@ -2164,13 +2172,13 @@ public class NetworkHandler {
         String lang = I18n.getPlayerLanguage(player);
 
         // Aggiungi tutte le costruzioni dal registry
-        for (Construction c : ConstructionRegistry.getInstance().getAll()) {
-            boolean isEditing = isConstructionBeingEdited(c.getId());
+        for (ConstructionCatalog.Entry c : ConstructionRegistry.getInstance().getEntries()) {
+            boolean isEditing = isConstructionBeingEdited(c.id());
             list.add(new ConstructionListPacket.ConstructionInfo(
-                    c.getId(),
+                    c.id(),
                     c.getTitleWithFallback(lang),
-                    c.getTotalBlockCount(),
-                    c.getTotalEntityCount(),
+                    c.totalBlockCount(),
+                    c.totalEntityCount(),
                     isEditing
             ));
         }
@@ -2216,6 +2224,12 @@ public class NetworkHandler {
             return;
         }
 
+        // Verifica che non sia in corso un piazzamento (move)
+        if (PlacementScheduler.getInstance().isPlacing(id)) {
+            sendGuiError(player, "placement.in_progress", id);
+            return;
+        }
+
         // Verifica che non ci sia già una richiesta API in corso
         if (ApiClient.isRequestInProgress()) {
             sendGuiError(player, "push.request_in_progress");
@@ -2246,6 +2260,8 @@ public class NetworkHandler {
                         Architect.LOGGER.info("Sent mod requirements for {} to {}: {} mods",
                             id, player.getName().getString(), response.requiredMods().size());
                     } else {
+                        // Sblocca la costruzione
+                        PULLING_CONSTRUCTIONS.remove(id);
                         sendGuiError(player, "pull.failed", id, response.statusCode(), response.message());
                         Architect.LOGGER.warn("Pull check failed for {}: {} - {}",
                             id, response.statusCode(), response.message());
@@ -0,0 +1,66 @@
+package it.magius.struttura.architect.placement;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Blocks to place, in placement order: packed world positions with their (already rotated)
+ * states, plus block entity NBT by position.
+ *
+ * A later entry for the same position overrides the block entity NBT of the earlier one
+ * (room blocks placed over base blocks).
+ */
+final class BlockBatch {
+
+    private long[] positions;
+    private BlockState[] states;
+    private int size = 0;
+    private final Map<Long, CompoundTag> blockEntityNbt = new LinkedHashMap<>();
+
+    BlockBatch(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        positions = new long[capacity];
+        states = new BlockState[capacity];
+    }
+
+    void add(long packed, BlockState state, CompoundTag nbt) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+            states = Arrays.copyOf(states, size * 2);
+        }
+        positions[size] = packed;
+        states[size] = state;
+        size++;
+
+        if (nbt != null) {
+            blockEntityNbt.put(packed, nbt);
+        } else if (!blockEntityNbt.isEmpty()) {
+            blockEntityNbt.remove(packed);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long position(int index) {
+        return positions[index];
+    }
+
+    BlockState state(int index) {
+        return states[index];
+    }
+
+    /**
+     * Block entity NBT by packed position, in placement order.
+     */
+    List<Map.Entry<Long, CompoundTag>> blockEntities() {
+        return new ArrayList<>(blockEntityNbt.entrySet());
+    }
+}
@@ -1,12 +1,18 @@
 package it.magius.struttura.architect.placement;
 
 import it.magius.struttura.architect.Architect;
+import it.magius.struttura.architect.model.BlockPosSet;
 import it.magius.struttura.architect.model.ConstructionBounds;
 import it.magius.struttura.architect.model.Construction;
 import it.magius.struttura.architect.model.ConstructionSnapshot;
 import it.magius.struttura.architect.model.EntityData;
+import it.magius.struttura.architect.model.PalettedBlockMap;
 import it.magius.struttura.architect.model.Room;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.IntArrayTag;
 import net.minecraft.nbt.Tag;
@@ -21,11 +27,15 @@ import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.decoration.HangingEntity;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.Rotation;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.level.storage.TagValueInput;
 import net.minecraft.world.level.storage.ValueInput;
 import net.minecraft.world.phys.AABB;
@@ -61,11 +71,16 @@ public class ConstructionOperations {
         SHOW          // Place at original position
     }
 
+    /**
+     * @param placedSnapshot the placed data at the new world positions (base blocks, NBT and
+     *                       entities), built only for moves: saved without reading the world again
+     */
     public record PlacementResult(
         int blocksPlaced,
         int entitiesSpawned,
         BlockPos newOrigin,
-        Map<String, ConstructionSnapshot.RoomSnapshot> transformedRoomSnapshots
+        Map<String, ConstructionSnapshot.RoomSnapshot> transformedRoomSnapshots,
+        @Nullable ConstructionSnapshot placedSnapshot
     ) {}
 
     /**
@@ -113,9 +128,32 @@ public class ConstructionOperations {
         @Nullable BlockPos spawnPoint,
         float yaw,
         boolean runInitCommandBlocks
+    ) {
+        return placeConstructionJob(player, construction, snapshot, mode, updateConstructionCoords,
+            spawnPoint, yaw, runInitCommandBlocks).runToCompletion();
+    }
+
+    /**
+     * Builds the placement of {@link #placeConstruction(ServerPlayer, Construction, ConstructionSnapshot,
+     * PlacementMode, boolean, BlockPos, float, boolean)} as a job, to be submitted to the
+     * {@link PlacementScheduler} (placed across ticks) or run with {@link PlacementJob#runToCompletion()}.
+     * The target position is computed now, from the current player position.
+     *
+     * @return the placement job (not yet submitted)
+     */
+    public static PlacementJob<PlacementResult> placeConstructionJob(
+        ServerPlayer player,
+        Construction construction,
+        ConstructionSnapshot snapshot,
+        PlacementMode mode,
+        boolean updateConstructionCoords,
+        @Nullable BlockPos spawnPoint,
+        float yaw,
+        boolean runInitCommandBlocks
     ) {
         if (snapshot.blocks().isEmpty()) {
-            return new PlacementResult(0, 0, BlockPos.ZERO, java.util.Map.of());
+            return new PlacementJob<PlacementResult>(null)
+                .result(() -> new PlacementResult(0, 0, BlockPos.ZERO, java.util.Map.of(), null));
         }
 
         ServerLevel level = (ServerLevel) player.level();
@@ -166,7 +204,11 @@ public class ConstructionOperations {
             }
         }
 
-        return placeConstructionAt(level, construction, snapshot, targetPos, updateConstructionCoords, rotationSteps, pivotX, pivotZ);
+        // Pull re-places over a possibly existing copy: only real changes are written.
+        // Move keeps the placed snapshot, saved instead of reading the world again
+        return placeConstructionAtJob(level, construction, snapshot, targetPos, updateConstructionCoords,
+            rotationSteps, pivotX, pivotZ, mode == PlacementMode.PULL,
+            mode == PlacementMode.MOVE && updateConstructionCoords);
     }
 
     /**
@@ -216,8 +258,70 @@ public class ConstructionOperations {
         int pivotX,
         int pivotZ
     ) {
+        return placeConstructionAtJob(level, construction, snapshot, targetPos, updateConstructionCoords,
+            rotationSteps, pivotX, pivotZ).runToCompletion();
+    }
+
+    /**
+     * Builds the placement of {@link #placeConstructionAt(ServerLevel, Construction, ConstructionSnapshot,
+     * BlockPos, boolean, int, int, int)} as a job: blocks, block entities, shape updates, construction
+     * coordinates (if requested) and entities are separate stages that can run across ticks.
+     * When coordinates are updated (pull/move) the job is keyed by the construction id.
+     *
+     * @return the placement job (not yet submitted)
+     */
+    public static PlacementJob<PlacementResult> placeConstructionAtJob(
+        ServerLevel level,
+        Construction construction,
+        ConstructionSnapshot snapshot,
+        BlockPos targetPos,
+        boolean updateConstructionCoords,
+        int rotationSteps,
+        int pivotX,
+        int pivotZ
+    ) {
+        return placeConstructionAtJob(level, construction, snapshot, targetPos, updateConstructionCoords,
+            rotationSteps, pivotX, pivotZ, false);
+    }
+
+    /**
+     * Builds the placement job, optionally in diff mode: positions whose state (and block
+     * entity NBT) already match the world are not written, and shape updates are limited
+     * to the positions actually changed. Useful for re-placements over an existing copy (pull).
+     *
+     * @param diff If true, only real changes are written
+     * @return the placement job (not yet submitted)
+     */
+    public static PlacementJob<PlacementResult> placeConstructionAtJob(
+        ServerLevel level,
+        Construction construction,
+        ConstructionSnapshot snapshot,
+        BlockPos targetPos,
+        boolean updateConstructionCoords,
+        int rotationSteps,
+        int pivotX,
+        int pivotZ,
+        boolean diff
+    ) {
+        return placeConstructionAtJob(level, construction, snapshot, targetPos, updateConstructionCoords,
+            rotationSteps, pivotX, pivotZ, diff, false);
+    }
+
+    private static PlacementJob<PlacementResult> placeConstructionAtJob(
+        ServerLevel level,
+        Construction construction,
+        ConstructionSnapshot snapshot,
+        BlockPos targetPos,
+        boolean updateConstructionCoords,
+        int rotationSteps,
+        int pivotX,
+        int pivotZ,
+        boolean diff,
+        boolean keepPlacedSnapshot
+    ) {
+        PlacementJob<PlacementResult> job = new PlacementJob<>(updateConstructionCoords ? construction.getId() : null);
         if (snapshot.blocks().isEmpty()) {
-            return new PlacementResult(0, 0, BlockPos.ZERO, java.util.Map.of());
+            return job.result(() -> new PlacementResult(0, 0, BlockPos.ZERO, java.util.Map.of(), null));
         }
 
         ConstructionBounds bounds = construction.getBounds();
@@ -230,24 +334,13 @@ public class ConstructionOperations {
 
         Rotation rotation = stepsToRotation(rotationSteps);
 
-        // Phase 1: Place all blocks WITH rotation
+        // Plan: rotated positions and states of all blocks (no world access yet)
         Map<BlockPos, BlockState> newBlocks = new HashMap<>();
         Map<BlockPos, BlockPos> originalPosMap = new HashMap<>(); // newPos -> originalPos for NBT lookup
-        int placedCount = 0;
-
-        // Sort blocks by Y ascending (support blocks first)
-        List<Map.Entry<BlockPos, BlockState>> sortedBlocks = new ArrayList<>(snapshot.blocks().entrySet());
-        sortedBlocks.sort(Comparator.comparingInt(e -> e.getKey().getY()));
-
-        for (Map.Entry<BlockPos, BlockState> entry : sortedBlocks) {
-            BlockPos originalPos = entry.getKey();
-            BlockState state = entry.getValue();
-
-            // Normalize position (relative to bounds min)
-            int normX = originalPos.getX() - originalMinX;
-            int normY = originalPos.getY() - originalMinY;
-            int normZ = originalPos.getZ() - originalMinZ;
+        BlockBatch batch = new BlockBatch(snapshot.blocks().size());
 
+        // Paletted snapshot: visited in Y-Z-X order (support blocks first), normalized to bounds min
+        snapshot.blocks().forEachBlock(originalMinX, originalMinY, originalMinZ, (normX, normY, normZ, state) -> {
             // Rotate normalized position around pivot
             int[] rotatedXZ = rotateXZ(normX, normZ, pivotX, pivotZ, rotationSteps);
             int rotatedNormX = rotatedXZ[0];
@@ -259,6 +352,7 @@ public class ConstructionOperations {
                 targetPos.getY() + normY,
                 targetPos.getZ() + rotatedNormZ
             );
+            BlockPos originalPos = new BlockPos(normX + originalMinX, normY + originalMinY, normZ + originalMinZ);
 
             // Rotate the block state
             BlockState rotatedState = state.rotate(rotation);
@@ -267,77 +361,218 @@ public class ConstructionOperations {
             originalPosMap.put(newPos, originalPos);
 
             if (!rotatedState.isAir()) {
-                level.setBlock(newPos, rotatedState, SILENT_PLACE_FLAGS);
-                placedCount++;
+                batch.add(newPos.asLong(), rotatedState, snapshot.blockEntityNbt().get(originalPos));
             }
+        });
+
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+        // Phase 1: Place all blocks WITH rotation, one chunk section per unit
+        SectionBlockWriter writer = new SectionBlockWriter(level, SILENT_PLACE_FLAGS);
+        if (diff) {
+            writer.trackChangedPositions();
         }
+        job.then(PlacementJob.Stage.BLOCKS, () -> {
+            for (int i = 0; i < batch.size(); i++) {
+                writer.add(batch.position(i), batch.state(i));
+            }
+            return writer.sectionCount();
+        }, writer::writeSection);
 
         // Phase 2: Apply block entity NBT after ALL blocks are placed
-        int blockEntityCount = 0;
-        for (Map.Entry<BlockPos, BlockState> entry : newBlocks.entrySet()) {
-            BlockPos newPos = entry.getKey();
-            BlockState state = entry.getValue();
-            if (state.isAir()) continue;
-
-            BlockPos originalPos = originalPosMap.get(newPos);
-            CompoundTag blockNbt = snapshot.blockEntityNbt().get(originalPos);
-
-            if (blockNbt != null) {
-                BlockEntity blockEntity = level.getBlockEntity(newPos);
-                if (blockEntity != null) {
-                    CompoundTag nbtCopy = blockNbt.copy();
-                    nbtCopy.putInt("x", newPos.getX());
-                    nbtCopy.putInt("y", newPos.getY());
-                    nbtCopy.putInt("z", newPos.getZ());
-
-                    ValueInput input = TagValueInput.create(
-                        ProblemReporter.DISCARDING,
-                        level.registryAccess(),
-                        nbtCopy
-                    );
-                    blockEntity.loadCustomOnly(input);
-                    blockEntity.setChanged();
-                    blockEntityCount++;
+        List<Map.Entry<Long, CompoundTag>> blockEntities = batch.blockEntities();
+        int[] blockEntityCount = {0};
+        int[] blockEntitySkipped = {0};
+        job.then(PlacementJob.Stage.BLOCK_ENTITIES, blockEntities.size(), i -> {
+            Map.Entry<Long, CompoundTag> entry = blockEntities.get(i);
+            cursor.set(entry.getKey());
+            if (diff && !writer.getChangedPositions().contains(entry.getKey().longValue())
+                    && blockEntityMatches(level, cursor, entry.getValue())) {
+                blockEntitySkipped[0]++;
+                return;
+            }
+            if (applyBlockEntityNbt(level, cursor, entry.getValue())) {
+                blockEntityCount[0]++;
+            }
+        });
+
+        // Phase 3: Update shape connections (fences, walls, etc.) WITHOUT physics
+        // (diff mode: only around the positions actually changed)
+        ShapeUpdatePlanner shapes = new ShapeUpdatePlanner(newBlocks.size());
+        job.then(PlacementJob.Stage.SHAPES, () -> {
+            if (diff) {
+                writer.getChangedPositions().forEachLong(packed -> shapes.add(packed, level.getBlockState(cursor.set(packed))));
+            } else {
+                for (Map.Entry<BlockPos, BlockState> entry : newBlocks.entrySet()) {
+                    shapes.add(entry.getKey(), entry.getValue());
                 }
             }
-        }
+            return shapes.plan(level);
+        }, i -> shapes.update(level, i));
 
-        if (blockEntityCount > 0) {
-            Architect.LOGGER.debug("Applied NBT to {} block entities", blockEntityCount);
+        // Phase 4: Update construction and room coordinates if requested
+        Map<String, ConstructionSnapshot.RoomSnapshot> transformedRoomSnapshots = new HashMap<>();
+        if (updateConstructionCoords) {
+            job.then(PlacementJob.Stage.COORDINATES, 1, i -> transformedRoomSnapshots.putAll(
+                updatePlacedConstruction(construction, snapshot, newBlocks, originalPosMap,
+                    originalMinX, originalMinY, originalMinZ, originalSizeX, originalSizeZ,
+                    targetPos, rotation, rotationSteps, pivotX, pivotZ)));
         }
 
-        // Phase 3: Update shape connections (fences, walls, etc.) WITHOUT physics
-        for (BlockPos newPos : newBlocks.keySet()) {
-            BlockState state = level.getBlockState(newPos);
-            if (!state.isAir()) {
-                state.updateNeighbourShapes(level, newPos, Block.UPDATE_CLIENTS, 0);
+        // Phase 5: Spawn entities with freeze.
+        // Spawned together (one unit): gravity is restored only once all of them exist
+        List<Entity> spawnedEntities = new ArrayList<>();
+        job.then(PlacementJob.Stage.ENTITIES, 1, i -> {
+            // Clear any previously tracked entity UUIDs before spawning new ones
+            construction.clearTrackedEntities();
+
+            // Spawn entities from the snapshot data
+            // Entities always use rotation during spawn (not pre-rotated in updateConstructionCoordinatesRotated)
+            spawnedEntities.addAll(spawnEntitiesFrozenRotated(
+                EntityTemplate.compileAll(snapshot.entities(), rotationSteps, pivotX, pivotZ),
+                level,
+                targetPos.getX(), targetPos.getY(), targetPos.getZ(),
+                construction,
+                false
+            ));
+
+            // Expand bounds to include spawned entities
+            for (Entity entity : spawnedEntities) {
+                EntityData.expandBoundsForEntity(entity, construction.getBounds());
             }
-        }
+        });
 
-        // Phase 4: Update construction coordinates if requested
-        if (updateConstructionCoords) {
-            if (rotationSteps == 0) {
-                // No rotation: rebuild tracked positions from placed blocks
-                int offsetX = targetPos.getX() - originalMinX;
-                int offsetY = targetPos.getY() - originalMinY;
-                int offsetZ = targetPos.getZ() - originalMinZ;
-                updateConstructionCoordinates(construction, offsetX, offsetY, offsetZ, newBlocks);
-            } else {
-                // With rotation: rebuild construction with new rotated positions and states
-                // Entities ARE rotated here, so spawnEntitiesFrozenRotated will use rotationSteps=0
-                updateConstructionCoordinatesRotated(construction, newBlocks, originalPosMap,
-                    originalMinX, originalMinY, originalMinZ, targetPos,
-                    rotationSteps, pivotX, pivotZ, originalSizeX, originalSizeZ);
+        return job.result(() -> {
+            if (blockEntityCount[0] > 0) {
+                Architect.LOGGER.debug("Applied NBT to {} block entities", blockEntityCount[0]);
+            }
+            if (diff) {
+                Architect.LOGGER.info("Diff placement: {} blocks changed, {} unchanged skipped, {} block entities unchanged",
+                    writer.getBlocksWritten(), writer.getBlocksSkipped(), blockEntitySkipped[0]);
+            }
+            writer.logStats("Placement");
+            shapes.logStats("Placement");
+            Architect.LOGGER.info("Placed {} blocks, {} entities at {}", batch.size(), spawnedEntities.size(), targetPos);
+            ConstructionSnapshot placedSnapshot = keepPlacedSnapshot
+                ? buildPlacedSnapshot(construction, snapshot, newBlocks, originalPosMap, transformedRoomSnapshots,
+                    targetPos, originalMinX, originalMinY, originalMinZ, rotationSteps, pivotX, pivotZ)
+                : null;
+            return new PlacementResult(batch.size(), spawnedEntities.size(), targetPos, transformedRoomSnapshots,
+                placedSnapshot);
+        });
+    }
+
+    /**
+     * Builds the snapshot of a placed construction from the placement data instead of reading
+     * the world: rotated states at the new positions, block entity NBT (position-free) of the
+     * original positions, entities transformed to the new bounds and the transformed rooms.
+     * Must be called once the placement is done (bounds include the spawned entities).
+     */
+    private static ConstructionSnapshot buildPlacedSnapshot(
+        Construction construction,
+        ConstructionSnapshot snapshot,
+        Map<BlockPos, BlockState> newBlocks,
+        Map<BlockPos, BlockPos> originalPosMap,
+        Map<String, ConstructionSnapshot.RoomSnapshot> transformedRoomSnapshots,
+        BlockPos targetPos,
+        int originalMinX,
+        int originalMinY,
+        int originalMinZ,
+        int rotationSteps,
+        int pivotX,
+        int pivotZ
+    ) {
+        ConstructionBounds newBounds = construction.getBounds();
+        PalettedBlockMap blocks = new PalettedBlockMap(newBounds.getMinX(), newBounds.getMinY(), newBounds.getMinZ(),
+            newBounds.getMaxX(), newBounds.getMaxY(), newBounds.getMaxZ(), newBlocks.size());
+        Map<BlockPos, CompoundTag> blockEntityNbt = new HashMap<>();
+        for (Map.Entry<BlockPos, BlockState> entry : newBlocks.entrySet()) {
+            blocks.put(entry.getKey(), entry.getValue());
+            CompoundTag nbt = snapshot.blockEntityNbt().get(originalPosMap.get(entry.getKey()));
+            if (nbt != null) {
+                blockEntityNbt.put(entry.getKey(), nbt);
             }
         }
 
+        List<EntityData> entities = transformEntitiesToBounds(snapshot.entities(), newBounds, targetPos,
+            originalMinX, originalMinY, originalMinZ, rotationSteps, pivotX, pivotZ);
+
+        return new ConstructionSnapshot(blocks, blockEntityNbt, new ArrayList<>(entities),
+            new HashMap<>(transformedRoomSnapshots));
+    }
+
+    /**
+     * Applies block entity NBT (without position) to the block entity at the given position.
+     *
+     * @return true if a block entity was found and loaded
+     */
+    private static boolean applyBlockEntityNbt(ServerLevel level, BlockPos pos, CompoundTag blockNbt) {
+        if (level.getBlockState(pos).isAir()) {
+            return false;
+        }
+        BlockEntity blockEntity = level.getBlockEntity(pos);
+        if (blockEntity == null) {
+            return false;
+        }
+        CompoundTag nbtCopy = blockNbt.copy();
+        nbtCopy.putInt("x", pos.getX());
+        nbtCopy.putInt("y", pos.getY());
+        nbtCopy.putInt("z", pos.getZ());
+
+        ValueInput input = TagValueInput.create(
+            ProblemReporter.DISCARDING,
+            level.registryAccess(),
+            nbtCopy
+        );
+        blockEntity.loadCustomOnly(input);
+        blockEntity.setChanged();
+        return true;
+    }
+
+    /**
+     * Updates the construction after a pull/move placement: tracked positions and bounds
+     * (Phase 4), then room changed blocks and transformed room snapshots (Phase 4b).
+     *
+     * @return transformed room snapshots by room id (new world positions paired with block states)
+     */
+    private static Map<String, ConstructionSnapshot.RoomSnapshot> updatePlacedConstruction(
+        Construction construction,
+        ConstructionSnapshot snapshot,
+        Map<BlockPos, BlockState> newBlocks,
+        Map<BlockPos, BlockPos> originalPosMap,
+        int originalMinX,
+        int originalMinY,
+        int originalMinZ,
+        int originalSizeX,
+        int originalSizeZ,
+        BlockPos targetPos,
+        Rotation rotation,
+        int rotationSteps,
+        int pivotX,
+        int pivotZ
+    ) {
+        // Phase 4: Update construction coordinates
+        if (rotationSteps == 0) {
+            // No rotation: rebuild tracked positions from placed blocks
+            int offsetX = targetPos.getX() - originalMinX;
+            int offsetY = targetPos.getY() - originalMinY;
+            int offsetZ = targetPos.getZ() - originalMinZ;
+            updateConstructionCoordinates(construction, offsetX, offsetY, offsetZ, newBlocks);
+        } else {
+            // With rotation: rebuild construction with new rotated positions and states
+            // Entities ARE rotated here, so spawnEntitiesFrozenRotated will use rotationSteps=0
+            updateConstructionCoordinatesRotated(construction, newBlocks, originalPosMap,
+                originalMinX, originalMinY, originalMinZ, targetPos,
+                rotationSteps, pivotX, pivotZ, originalSizeX, originalSizeZ);
+        }
+
         // Phase 4b: Populate room changedBlocks from snapshot room data and build
         // transformed room snapshots (with new world positions paired with block states).
         // After pull, rooms are created empty (only id/name/createdAt from metadata).
         // The actual room block positions are in the snapshot's room data and need to be
         // populated into the Room objects with the same coordinate transformation as base blocks.
         Map<String, ConstructionSnapshot.RoomSnapshot> transformedRoomSnapshots = new HashMap<>();
-        if (updateConstructionCoords && snapshot.rooms() != null && !snapshot.rooms().isEmpty()) {
+        if (snapshot.rooms() != null && !snapshot.rooms().isEmpty()) {
             for (var roomEntry : snapshot.rooms().entrySet()) {
                 String roomId = roomEntry.getKey();
                 ConstructionSnapshot.RoomSnapshot roomSnapshot = roomEntry.getValue();
@@ -386,94 +621,13 @@ public class ConstructionOperations {
                     }
                 }
 
-                // Rotate room entities if needed (they are saved to disk for later spawning).
-                // Room entities are saved with relPos relative to bounds.min, but after rotation
-                // the bounds.min changes. We need to adjust the rotated relPos so that:
-                //   bounds.min + storedRelPos == targetPos + rotatedRelPos
-                // i.e. storedRelPos = targetPos + rotatedRelPos - bounds.min
-                List<EntityData> transformedEntities;
-                if (rotationSteps != 0 && !roomSnapshot.entities().isEmpty()) {
-                    double pivotCenterX = pivotX + 0.5;
-                    double pivotCenterZ = pivotZ + 0.5;
-                    // Offset to convert from targetPos-relative to bounds.min-relative
-                    var newBounds = construction.getBounds();
-                    double offsetX = targetPos.getX() - newBounds.getMinX();
-                    double offsetY = targetPos.getY() - newBounds.getMinY();
-                    double offsetZ = targetPos.getZ() - newBounds.getMinZ();
-                    int blockOffsetX = targetPos.getX() - newBounds.getMinX();
-                    int blockOffsetY = targetPos.getY() - newBounds.getMinY();
-                    int blockOffsetZ = targetPos.getZ() - newBounds.getMinZ();
-
-                    transformedEntities = new ArrayList<>();
-                    for (EntityData entityData : roomSnapshot.entities()) {
-                        EntityData rotated = entityData.withRotation(rotationSteps, pivotCenterX, pivotCenterZ);
-                        // Shift relPos from targetPos-relative to bounds.min-relative
-                        Vec3 adjustedRelPos = new Vec3(
-                            rotated.getRelativePos().x + offsetX,
-                            rotated.getRelativePos().y + offsetY,
-                            rotated.getRelativePos().z + offsetZ
-                        );
-                        // Shift block_pos in NBT similarly
-                        CompoundTag adjustedNbt = rotated.getNbt().copy();
-                        if (adjustedNbt.contains("block_pos")) {
-                            net.minecraft.nbt.Tag rawTag = adjustedNbt.get("block_pos");
-                            if (rawTag instanceof net.minecraft.nbt.IntArrayTag intArrayTag) {
-                                int[] coords = intArrayTag.getAsIntArray();
-                                if (coords.length >= 3) {
-                                    adjustedNbt.putIntArray("block_pos", new int[]{
-                                        coords[0] + blockOffsetX,
-                                        coords[1] + blockOffsetY,
-                                        coords[2] + blockOffsetZ
-                                    });
-                                }
-                            }
-                        }
-                        transformedEntities.add(new EntityData(
-                            rotated.getEntityType(), adjustedRelPos,
-                            rotated.getYaw(), rotated.getPitch(), adjustedNbt));
-                    }
+                // Rotate room entities if needed (they are saved to disk for later spawning)
+                List<EntityData> transformedEntities = transformEntitiesToBounds(roomSnapshot.entities(),
+                    construction.getBounds(), targetPos, originalMinX, originalMinY, originalMinZ,
+                    rotationSteps, pivotX, pivotZ);
+                if (rotationSteps != 0 && !transformedEntities.isEmpty()) {
                     Architect.LOGGER.debug("Room '{}': rotated {} entities by {} steps",
                         roomId, transformedEntities.size(), rotationSteps);
-                } else if (rotationSteps == 0 && !roomSnapshot.entities().isEmpty()) {
-                    // No rotation but still need to adjust for offset between targetPos and bounds.min
-                    var newBounds = construction.getBounds();
-                    double offsetX = targetPos.getX() - originalMinX - (newBounds.getMinX() - originalMinX);
-                    double offsetY = targetPos.getY() - originalMinY - (newBounds.getMinY() - originalMinY);
-                    double offsetZ = targetPos.getZ() - originalMinZ - (newBounds.getMinZ() - originalMinZ);
-                    if (offsetX != 0 || offsetY != 0 || offsetZ != 0) {
-                        transformedEntities = new ArrayList<>();
-                        int blockOffsetX = (int) offsetX;
-                        int blockOffsetY = (int) offsetY;
-                        int blockOffsetZ = (int) offsetZ;
-                        for (EntityData entityData : roomSnapshot.entities()) {
-                            Vec3 adjustedRelPos = new Vec3(
-                                entityData.getRelativePos().x + offsetX,
-                                entityData.getRelativePos().y + offsetY,
-                                entityData.getRelativePos().z + offsetZ
-                            );
-                            CompoundTag adjustedNbt = entityData.getNbt().copy();
-                            if (adjustedNbt.contains("block_pos")) {
-                                net.minecraft.nbt.Tag rawTag = adjustedNbt.get("block_pos");
-                                if (rawTag instanceof net.minecraft.nbt.IntArrayTag intArrayTag) {
-                                    int[] coords = intArrayTag.getAsIntArray();
-                                    if (coords.length >= 3) {
-                                        adjustedNbt.putIntArray("block_pos", new int[]{
-                                            coords[0] + blockOffsetX,
-                                            coords[1] + blockOffsetY,
-                                            coords[2] + blockOffsetZ
-                                        });
-                                    }
-                                }
-                            }
-                            transformedEntities.add(new EntityData(
-                                entityData.getEntityType(), adjustedRelPos,
-                                entityData.getYaw(), entityData.getPitch(), adjustedNbt));
-                        }
-                    } else {
-                        transformedEntities = roomSnapshot.entities();
-                    }
-                } else {
-                    transformedEntities = roomSnapshot.entities();
                 }
 
                 // Cache entity count from snapshot (room entities are not in the world,
@@ -490,31 +644,111 @@ public class ConstructionOperations {
             }
         }
 
-        // Phase 5: Spawn entities with freeze
-        // Clear any previously tracked entity UUIDs before spawning new ones
-        construction.clearTrackedEntities();
-
-        // Spawn entities from the snapshot data
-        // Entities always use rotation during spawn (not pre-rotated in updateConstructionCoordinatesRotated)
-        List<Entity> spawnedEntities = spawnEntitiesFrozenRotated(
-            snapshot.entities(),
-            level,
-            targetPos.getX(), targetPos.getY(), targetPos.getZ(),
-            rotationSteps, pivotX, pivotZ,
-            construction,
-            false
-        );
+        return transformedRoomSnapshots;
+    }
 
-        // Expand bounds to include spawned entities
-        if (construction != null) {
-            for (Entity entity : spawnedEntities) {
-                EntityData.expandBoundsForEntity(entity, construction.getBounds());
+    /**
+     * Transforms stored entities (relPos and block_pos relative to the old bounds.min) to the
+     * placed position: rotated around the pivot, then made relative to the new bounds.min.
+     * Room entities are saved with relPos relative to bounds.min, but after rotation
+     * the bounds.min changes. The rotated relPos is adjusted so that:
+     *   bounds.min + storedRelPos == targetPos + rotatedRelPos
+     * i.e. storedRelPos = targetPos + rotatedRelPos - bounds.min
+     *
+     * @return the transformed entities (the same list if nothing changes)
+     */
+    private static List<EntityData> transformEntitiesToBounds(
+        List<EntityData> entities,
+        ConstructionBounds newBounds,
+        BlockPos targetPos,
+        int originalMinX,
+        int originalMinY,
+        int originalMinZ,
+        int rotationSteps,
+        int pivotX,
+        int pivotZ
+    ) {
+        List<EntityData> transformedEntities;
+        if (rotationSteps != 0 && !entities.isEmpty()) {
+            double pivotCenterX = pivotX + 0.5;
+            double pivotCenterZ = pivotZ + 0.5;
+            // Offset to convert from targetPos-relative to bounds.min-relative
+            double offsetX = targetPos.getX() - newBounds.getMinX();
+            double offsetY = targetPos.getY() - newBounds.getMinY();
+            double offsetZ = targetPos.getZ() - newBounds.getMinZ();
+            int blockOffsetX = targetPos.getX() - newBounds.getMinX();
+            int blockOffsetY = targetPos.getY() - newBounds.getMinY();
+            int blockOffsetZ = targetPos.getZ() - newBounds.getMinZ();
+
+            transformedEntities = new ArrayList<>();
+            for (EntityData entityData : entities) {
+                EntityData rotated = entityData.withRotation(rotationSteps, pivotCenterX, pivotCenterZ);
+                // Shift relPos from targetPos-relative to bounds.min-relative
+                Vec3 adjustedRelPos = new Vec3(
+                    rotated.getRelativePos().x + offsetX,
+                    rotated.getRelativePos().y + offsetY,
+                    rotated.getRelativePos().z + offsetZ
+                );
+                // Shift block_pos in NBT similarly
+                CompoundTag adjustedNbt = rotated.getNbt().copy();
+                if (adjustedNbt.contains("block_pos")) {
+                    net.minecraft.nbt.Tag rawTag = adjustedNbt.get("block_pos");
+                    if (rawTag instanceof net.minecraft.nbt.IntArrayTag intArrayTag) {
+                        int[] coords = intArrayTag.getAsIntArray();
+                        if (coords.length >= 3) {
+                            adjustedNbt.putIntArray("block_pos", new int[]{
+                                coords[0] + blockOffsetX,
+                                coords[1] + blockOffsetY,
+                                coords[2] + blockOffsetZ
+                            });
+                        }
+                    }
+                }
+                transformedEntities.add(new EntityData(
+                    rotated.getEntityType(), adjustedRelPos,
+                    rotated.getYaw(), rotated.getPitch(), adjustedNbt));
             }
+        } else if (rotationSteps == 0 && !entities.isEmpty()) {
+            // No rotation but still need to adjust for offset between targetPos and bounds.min
+            double offsetX = targetPos.getX() - originalMinX - (newBounds.getMinX() - originalMinX);
+            double offsetY = targetPos.getY() - originalMinY - (newBounds.getMinY() - originalMinY);
+            double offsetZ = targetPos.getZ() - originalMinZ - (newBounds.getMinZ() - originalMinZ);
+            if (offsetX != 0 || offsetY != 0 || offsetZ != 0) {
+                transformedEntities = new ArrayList<>();
+                int blockOffsetX = (int) offsetX;
+                int blockOffsetY = (int) offsetY;
+                int blockOffsetZ = (int) offsetZ;
+                for (EntityData entityData : entities) {
+                    Vec3 adjustedRelPos = new Vec3(
+                        entityData.getRelativePos().x + offsetX,
+                        entityData.getRelativePos().y + offsetY,
+                        entityData.getRelativePos().z + offsetZ
+                    );
+                    CompoundTag adjustedNbt = entityData.getNbt().copy();
+                    if (adjustedNbt.contains("block_pos")) {
+                        net.minecraft.nbt.Tag rawTag = adjustedNbt.get("block_pos");
+                        if (rawTag instanceof net.minecraft.nbt.IntArrayTag intArrayTag) {
+                            int[] coords = intArrayTag.getAsIntArray();
+                            if (coords.length >= 3) {
+                                adjustedNbt.putIntArray("block_pos", new int[]{
+                                    coords[0] + blockOffsetX,
+                                    coords[1] + blockOffsetY,
+                                    coords[2] + blockOffsetZ
+                                });
+                            }
+                        }
+                    }
+                    transformedEntities.add(new EntityData(
+                        entityData.getEntityType(), adjustedRelPos,
+                        entityData.getYaw(), entityData.getPitch(), adjustedNbt));
+                }
+            } else {
+                transformedEntities = entities;
+            }
+        } else {
+            transformedEntities = entities;
         }
-
-        Architect.LOGGER.info("Placed {} blocks, {} entities at {}", placedCount, spawnedEntities.size(), targetPos);
-
-        return new PlacementResult(placedCount, spawnedEntities.size(), targetPos, transformedRoomSnapshots);
+        return transformedEntities;
     }
 
     /**
@@ -524,69 +758,14 @@ public class ConstructionOperations {
      *
      * @param level The ServerLevel
      * @param roomSnapshot The room snapshot with block states and NBT data to place
+     * @param diff If true, only positions that differ from the world are written
      * @return Number of blocks placed
      */
-    public static int placeRoomBlocks(ServerLevel level, ConstructionSnapshot.RoomSnapshot roomSnapshot) {
+    public static int placeRoomBlocks(ServerLevel level, ConstructionSnapshot.RoomSnapshot roomSnapshot, boolean diff) {
         if (roomSnapshot.blocks().isEmpty()) {
             return 0;
         }
-
-        // Phase 1: Clear containers at positions we're about to modify
-        for (BlockPos pos : roomSnapshot.blocks().keySet()) {
-            BlockEntity blockEntity = level.getBlockEntity(pos);
-            if (blockEntity instanceof Clearable clearable) {
-                clearable.clearContent();
-            }
-        }
-
-        // Phase 2: Sort and place room blocks
-        List<Map.Entry<BlockPos, BlockState>> sortedBlocks = new ArrayList<>(roomSnapshot.blocks().entrySet());
-        sortedBlocks.sort(Comparator.comparingInt(e -> e.getKey().getY()));
-
-        int placedCount = 0;
-        for (Map.Entry<BlockPos, BlockState> entry : sortedBlocks) {
-            BlockPos pos = entry.getKey();
-            BlockState state = entry.getValue();
-            level.setBlock(pos, state, SILENT_PLACE_FLAGS);
-            placedCount++;
-        }
-
-        // Phase 3: Apply block entity NBT
-        for (Map.Entry<BlockPos, BlockState> entry : sortedBlocks) {
-            BlockPos pos = entry.getKey();
-            BlockState state = entry.getValue();
-            if (state.isAir()) continue;
-
-            CompoundTag blockNbt = roomSnapshot.blockEntityNbt().get(pos);
-            if (blockNbt != null) {
-                BlockEntity blockEntity = level.getBlockEntity(pos);
-                if (blockEntity != null) {
-                    CompoundTag nbtCopy = blockNbt.copy();
-                    nbtCopy.putInt("x", pos.getX());
-                    nbtCopy.putInt("y", pos.getY());
-                    nbtCopy.putInt("z", pos.getZ());
-
-                    ValueInput input = TagValueInput.create(
-                        ProblemReporter.DISCARDING,
-                        level.registryAccess(),
-                        nbtCopy
-                    );
-                    blockEntity.loadCustomOnly(input);
-                    blockEntity.setChanged();
-                }
-            }
-        }
-
-        // Phase 4: Update shape connections
-        for (BlockPos pos : roomSnapshot.blocks().keySet()) {
-            BlockState state = level.getBlockState(pos);
-            if (!state.isAir()) {
-                state.updateNeighbourShapes(level, pos, Block.UPDATE_CLIENTS, 0);
-            }
-        }
-
-        Architect.LOGGER.debug("Room: placed {} delta blocks", placedCount);
-        return placedCount;
+        return placeBlocksSilently(level, roomSnapshot.blocks(), roomSnapshot.blockEntityNbt(), diff, "Room: placed delta blocks");
     }
 
     /**
@@ -599,83 +778,21 @@ public class ConstructionOperations {
      * @param positions The positions to restore (room's changed block positions)
      * @param savedBaseBlocks Map of position to saved base block state
      * @param savedBaseNbt Map of position to saved base block entity NBT (can be null)
+     * @param diff If true, only positions that differ from the world are written
      * @return Number of blocks restored
      */
     public static int restoreBaseBlocks(
         ServerLevel level,
         Set<BlockPos> positions,
         Map<BlockPos, BlockState> savedBaseBlocks,
-        @Nullable Map<BlockPos, CompoundTag> savedBaseNbt
+        @Nullable Map<BlockPos, CompoundTag> savedBaseNbt,
+        boolean diff
     ) {
         if (positions.isEmpty()) {
             return 0;
         }
-
-        // Phase 1: Clear containers
-        for (BlockPos pos : positions) {
-            BlockEntity blockEntity = level.getBlockEntity(pos);
-            if (blockEntity instanceof Clearable clearable) {
-                clearable.clearContent();
-            }
-        }
-
-        // Phase 2: Build list of base blocks to restore
-        List<Map.Entry<BlockPos, BlockState>> blocksToRestore = new ArrayList<>();
-        for (BlockPos pos : positions) {
-            BlockState baseState = savedBaseBlocks.get(pos);
-            if (baseState != null) {
-                blocksToRestore.add(Map.entry(pos, baseState));
-            } else {
-                // No base block = restore to air
-                blocksToRestore.add(Map.entry(pos, Blocks.AIR.defaultBlockState()));
-            }
-        }
-
-        // Sort by Y ascending
-        blocksToRestore.sort(Comparator.comparingInt(e -> e.getKey().getY()));
-
-        // Phase 3: Place base blocks
-        int restoredCount = 0;
-        for (Map.Entry<BlockPos, BlockState> entry : blocksToRestore) {
-            BlockPos pos = entry.getKey();
-            BlockState state = entry.getValue();
-            level.setBlock(pos, state, SILENT_PLACE_FLAGS);
-            restoredCount++;
-        }
-
-        // Phase 4: Apply base block entity NBT
-        if (savedBaseNbt != null) {
-            for (Map.Entry<BlockPos, BlockState> entry : blocksToRestore) {
-                BlockPos pos = entry.getKey();
-                BlockState state = entry.getValue();
-                if (state.isAir()) continue;
-
-                CompoundTag blockNbt = savedBaseNbt.get(pos);
-                if (blockNbt != null) {
-                    BlockEntity blockEntity = level.getBlockEntity(pos);
-                    if (blockEntity != null) {
-                        ValueInput input = TagValueInput.create(
-                            ProblemReporter.DISCARDING,
-                            level.registryAccess(),
-                            blockNbt
-                        );
-                        blockEntity.loadCustomOnly(input);
-                        blockEntity.setChanged();
-                    }
-                }
-            }
-        }
-
-        // Phase 5: Update shape connections
-        for (BlockPos pos : positions) {
-            BlockState state = level.getBlockState(pos);
-            if (!state.isAir()) {
-                state.updateNeighbourShapes(level, pos, Block.UPDATE_CLIENTS, 0);
-            }
-        }
-
-        Architect.LOGGER.debug("Room: restored {} base blocks", restoredCount);
-        return restoredCount;
+        return placeBlocksSilently(level, baseBlocksAt(positions, savedBaseBlocks), savedBaseNbt, diff,
+            "Room: restored base blocks");
     }
 
     /**
@@ -687,83 +804,122 @@ public class ConstructionOperations {
      * @param positions The specific positions to restore
      * @param savedBaseBlocks Map of position to saved base block state
      * @param savedBaseNbt Map of position to saved base block entity NBT (can be null)
+     * @param diff If true, only positions that differ from the world are written
      * @return Number of blocks restored
      */
     public static int restoreBaseBlocksAt(
         ServerLevel level,
         Collection<BlockPos> positions,
         Map<BlockPos, BlockState> savedBaseBlocks,
-        @Nullable Map<BlockPos, CompoundTag> savedBaseNbt
+        @Nullable Map<BlockPos, CompoundTag> savedBaseNbt,
+        boolean diff
     ) {
         if (positions.isEmpty()) {
             return 0;
         }
+        return placeBlocksSilently(level, baseBlocksAt(positions, savedBaseBlocks), savedBaseNbt, diff,
+            "Restored base blocks at specific positions");
+    }
 
-        // Phase 1: Clear containers
+    /**
+     * Base block states to restore at the given positions (air where no base block was saved).
+     */
+    private static Map<BlockPos, BlockState> baseBlocksAt(Collection<BlockPos> positions,
+                                                          Map<BlockPos, BlockState> savedBaseBlocks) {
+        Map<BlockPos, BlockState> blocks = new LinkedHashMap<>();
         for (BlockPos pos : positions) {
-            BlockEntity blockEntity = level.getBlockEntity(pos);
-            if (blockEntity instanceof Clearable clearable) {
-                clearable.clearContent();
-            }
+            blocks.put(pos, savedBaseBlocks.getOrDefault(pos, Blocks.AIR.defaultBlockState()));
         }
+        return blocks;
+    }
 
-        // Phase 2: Build list of base blocks to restore
-        List<Map.Entry<BlockPos, BlockState>> blocksToRestore = new ArrayList<>();
-        for (BlockPos pos : positions) {
-            BlockState baseState = savedBaseBlocks.get(pos);
-            if (baseState != null) {
-                blocksToRestore.add(Map.entry(pos, baseState));
+    /**
+     * Places blocks and their block entity NBT without physics:
+     * containers are cleared, states written by chunk section, NBT applied, then shape connections
+     * updated. In diff mode, positions whose state and block entity NBT already match the world
+     * are skipped entirely (no container clearing, write, NBT load or shape update).
+     *
+     * @param blockNbt Block entity NBT (without position/id) by position, can be null
+     * @param label Log label
+     * @return Number of positions written
+     */
+    private static int placeBlocksSilently(
+        ServerLevel level,
+        Map<BlockPos, BlockState> blocks,
+        @Nullable Map<BlockPos, CompoundTag> blockNbt,
+        boolean diff,
+        String label
+    ) {
+        // Phase 1: Select the positions to write
+        List<Map.Entry<BlockPos, BlockState>> toWrite = new ArrayList<>(diff ? 16 : blocks.size());
+        int skipped = 0;
+        for (Map.Entry<BlockPos, BlockState> entry : blocks.entrySet()) {
+            BlockPos pos = entry.getKey();
+            BlockState state = entry.getValue();
+            if (diff && level.getBlockState(pos) == state
+                    && blockEntityMatches(level, pos, blockNbt != null ? blockNbt.get(pos) : null)) {
+                skipped++;
             } else {
-                // No base block = restore to air
-                blocksToRestore.add(Map.entry(pos, Blocks.AIR.defaultBlockState()));
+                toWrite.add(Map.entry(pos.immutable(), state));
+            }
+        }
+
+        // Phase 2: Clear containers at positions we're about to modify
+        for (Map.Entry<BlockPos, BlockState> entry : toWrite) {
+            BlockEntity blockEntity = level.getBlockEntity(entry.getKey());
+            if (blockEntity instanceof Clearable clearable) {
+                clearable.clearContent();
             }
         }
 
-        // Sort by Y ascending
-        blocksToRestore.sort(Comparator.comparingInt(e -> e.getKey().getY()));
+        // Phase 3: Place blocks (bulk, by chunk section)
+        SectionBlockWriter writer = new SectionBlockWriter(level, SILENT_PLACE_FLAGS);
+        for (Map.Entry<BlockPos, BlockState> entry : toWrite) {
+            writer.add(entry.getKey(), entry.getValue());
+        }
+        writer.writeAll();
 
-        // Phase 3: Place base blocks
-        int restoredCount = 0;
-        for (Map.Entry<BlockPos, BlockState> entry : blocksToRestore) {
-            BlockPos pos = entry.getKey();
-            BlockState state = entry.getValue();
-            level.setBlock(pos, state, SILENT_PLACE_FLAGS);
-            restoredCount++;
-        }
-
-        // Phase 4: Apply base block entity NBT
-        if (savedBaseNbt != null) {
-            for (Map.Entry<BlockPos, BlockState> entry : blocksToRestore) {
-                BlockPos pos = entry.getKey();
-                BlockState state = entry.getValue();
-                if (state.isAir()) continue;
-
-                CompoundTag blockNbt = savedBaseNbt.get(pos);
-                if (blockNbt != null) {
-                    BlockEntity blockEntity = level.getBlockEntity(pos);
-                    if (blockEntity != null) {
-                        ValueInput input = TagValueInput.create(
-                            ProblemReporter.DISCARDING,
-                            level.registryAccess(),
-                            blockNbt
-                        );
-                        blockEntity.loadCustomOnly(input);
-                        blockEntity.setChanged();
-                    }
+        // Phase 4: Apply block entity NBT
+        if (blockNbt != null && !blockNbt.isEmpty()) {
+            for (Map.Entry<BlockPos, BlockState> entry : toWrite) {
+                CompoundTag nbt = blockNbt.get(entry.getKey());
+                if (nbt != null) {
+                    applyBlockEntityNbt(level, entry.getKey(), nbt);
                 }
             }
         }
 
-        // Phase 5: Update shape connections
-        for (BlockPos pos : positions) {
-            BlockState state = level.getBlockState(pos);
-            if (!state.isAir()) {
-                state.updateNeighbourShapes(level, pos, Block.UPDATE_CLIENTS, 0);
-            }
+        // Phase 5: Update shape connections (connecting blocks and the shell around the written ones)
+        ShapeUpdatePlanner shapes = new ShapeUpdatePlanner(toWrite.size());
+        for (Map.Entry<BlockPos, BlockState> entry : toWrite) {
+            shapes.add(entry.getKey(), entry.getValue());
         }
+        shapes.updateAll(level);
+        shapes.logStats(label);
+
+        Architect.LOGGER.debug("{}: {} written, {} unchanged skipped", label, toWrite.size(), skipped);
+        return toWrite.size();
+    }
 
-        Architect.LOGGER.debug("Restored {} base blocks at specific positions", restoredCount);
-        return restoredCount;
+    /**
+     * Whether the block entity at the position already holds the given NBT
+     * (without position/id; null = no block entity data expected).
+     * The hashes are compared first, equality only when they match.
+     */
+    private static boolean blockEntityMatches(ServerLevel level, BlockPos pos, @Nullable CompoundTag expected) {
+        BlockEntity blockEntity = level.getBlockEntity(pos);
+        if (blockEntity == null) {
+            return expected == null;
+        }
+        CompoundTag current = blockEntity.saveWithoutMetadata(level.registryAccess());
+        current.remove("x");
+        current.remove("y");
+        current.remove("z");
+        current.remove("id");
+        if (expected == null) {
+            return current.isEmpty();
+        }
+        return current.hashCode() == expected.hashCode() && current.equals(expected);
     }
 
     // ============== REMOVAL OPERATIONS ==============
@@ -774,18 +930,26 @@ public class ConstructionOperations {
         MOVE_CLEAR  // Clear old position for MOVE operation
     }
 
+    public enum RemovalStrategy {
+        TRACKED,    // Only the tracked base and room positions, chunk by chunk
+        VOLUME      // Every cell of the bounds (cleanup: also removes untracked blocks inside them)
+    }
+
     public record RemovalResult(
         int blocksRemoved,
-        int entitiesRemoved
+        int entitiesRemoved,
+        int cellsVisited
     ) {}
 
     /**
      * Removes a construction from the world without triggering drops or physics.
+     * Uses the TRACKED strategy, or VOLUME when custom bounds are given
+     * (their cells are not the construction's tracked positions).
      *
      * @param level The ServerLevel
      * @param construction The construction to remove
      * @param mode The removal mode
-     * @param customBounds Optional custom bounds (for MOVE_CLEAR with old bounds)
+     * @param customBounds Optional custom bounds (e.g. a copy spawned elsewhere)
      * @return RemovalResult with counts
      */
     public static RemovalResult removeConstruction(
@@ -794,30 +958,137 @@ public class ConstructionOperations {
         RemovalMode mode,
         @Nullable ConstructionBounds customBounds
     ) {
-        ConstructionBounds bounds = customBounds != null ? customBounds : construction.getBounds();
+        return removeConstruction(level, construction, mode, customBounds,
+            customBounds != null ? RemovalStrategy.VOLUME : RemovalStrategy.TRACKED);
+    }
+
+    /**
+     * Removes a construction from the world without triggering drops or physics.
+     *
+     * TRACKED visits only the tracked base and room positions (one loaded check per chunk,
+     * containers looked up among the chunk's block entities); VOLUME sweeps every cell of
+     * the bounds and is kept as a cleanup mode, e.g. for blocks placed inside the bounds
+     * but never tracked. Both write the removal in bulk by chunk section.
+     *
+     * @param level The ServerLevel
+     * @param construction The construction to remove
+     * @param mode The removal mode
+     * @param customBounds Optional custom bounds (entity sweep, and cells for VOLUME)
+     * @param strategy Which cells to visit
+     * @return RemovalResult with counts (including the cells visited)
+     */
+    public static RemovalResult removeConstruction(
+        ServerLevel level,
+        Construction construction,
+        RemovalMode mode,
+        @Nullable ConstructionBounds customBounds,
+        RemovalStrategy strategy
+    ) {
+        ConstructionBounds bounds = customBounds != null ? customBounds : construction.getBounds();
 
         if (!bounds.isValid()) {
-            return new RemovalResult(0, 0);
+            return new RemovalResult(0, 0, 0);
+        }
+
+        // Phase 1: Clear containers FIRST (prevent drops), and queue the removal of the blocks
+        SectionBlockWriter writer = new SectionBlockWriter(level, SILENT_REMOVE_FLAGS);
+        int[] containersCleared = {0};
+        int cellsVisited = strategy == RemovalStrategy.TRACKED
+            ? queueTrackedRemoval(level, construction, writer, containersCleared)
+            : queueVolumeRemoval(level, bounds, writer, containersCleared);
+
+        // Phase 2: Remove entities BEFORE blocks (prevent death from falling)
+        int entitiesRemoved = removeConstructionEntities(level, construction, bounds);
+
+        // Phase 3: Remove the blocks (no drops, no physics).
+        // Written in bulk by chunk section, bottom-up: direct palette writes with no
+        // neighbour updates, so plants never break (and drop) when their support goes first
+        int blocksRemoved = writer.writeAll();
+        writer.logStats(mode.toString());
+
+        Architect.LOGGER.info("{}: removed {} blocks, {} entities, {} containers cleared ({} strategy, {} cells visited)",
+            mode, blocksRemoved, entitiesRemoved, containersCleared[0], strategy, cellsVisited);
+
+        return new RemovalResult(blocksRemoved, entitiesRemoved, cellsVisited);
+    }
+
+    /**
+     * Queues air at the tracked base and room positions, grouped by chunk: one loaded check
+     * and one chunk lookup per chunk; containers are found among the chunk's block entities.
+     *
+     * @return cells visited (positions plus block entities inspected)
+     */
+    private static int queueTrackedRemoval(ServerLevel level, Construction construction,
+                                           SectionBlockWriter writer, int[] containersCleared) {
+        BlockPosSet positions = new BlockPosSet(construction.getTrackedBlocks());
+        for (Room room : construction.getRooms().values()) {
+            positions.addAll(room.getChangedBlocks());
         }
 
-        // Phase 1: Clear all containers FIRST (prevent drops)
-        int containersCleared = 0;
-        for (int x = bounds.getMinX(); x <= bounds.getMaxX(); x++) {
-            for (int y = bounds.getMinY(); y <= bounds.getMaxY(); y++) {
+        Long2ObjectOpenHashMap<LongArrayList> byChunk = new Long2ObjectOpenHashMap<>();
+        positions.forEachLong(packed -> byChunk.computeIfAbsent(
+            ChunkPos.asLong(BlockPos.getX(packed) >> 4, BlockPos.getZ(packed) >> 4),
+            k -> new LongArrayList()).add(packed));
+
+        BlockState air = Blocks.AIR.defaultBlockState();
+        int cellsVisited = 0;
+        for (Long2ObjectMap.Entry<LongArrayList> entry : byChunk.long2ObjectEntrySet()) {
+            int chunkX = ChunkPos.getX(entry.getLongKey());
+            int chunkZ = ChunkPos.getZ(entry.getLongKey());
+            if (!level.hasChunk(chunkX, chunkZ)) {
+                continue;
+            }
+            LevelChunk chunk = level.getChunk(chunkX, chunkZ);
+            for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+                cellsVisited++;
+                if (blockEntity instanceof Clearable clearable && positions.contains(blockEntity.getBlockPos().asLong())) {
+                    clearable.clearContent();
+                    containersCleared[0]++;
+                }
+            }
+            LongArrayList chunkPositions = entry.getValue();
+            for (int i = 0; i < chunkPositions.size(); i++) {
+                writer.add(chunkPositions.getLong(i), air);
+            }
+            cellsVisited += chunkPositions.size();
+        }
+        return cellsVisited;
+    }
+
+    /**
+     * Queues air at every cell of the bounds, clearing containers on the way (cleanup mode).
+     *
+     * @return cells visited
+     */
+    private static int queueVolumeRemoval(ServerLevel level, ConstructionBounds bounds,
+                                          SectionBlockWriter writer, int[] containersCleared) {
+        BlockState air = Blocks.AIR.defaultBlockState();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        int cellsVisited = 0;
+        for (int y = bounds.getMaxY(); y >= bounds.getMinY(); y--) {
+            for (int x = bounds.getMinX(); x <= bounds.getMaxX(); x++) {
                 for (int z = bounds.getMinZ(); z <= bounds.getMaxZ(); z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
+                    pos.set(x, y, z);
+                    cellsVisited++;
                     if (!level.isLoaded(pos)) continue;
-                    BlockEntity blockEntity = level.getBlockEntity(pos);
-                    if (blockEntity instanceof Clearable clearable) {
+                    if (level.getBlockEntity(pos) instanceof Clearable clearable) {
                         clearable.clearContent();
-                        containersCleared++;
+                        containersCleared[0]++;
                     }
+                    writer.add(pos, air);
                 }
             }
         }
+        return cellsVisited;
+    }
 
-        // Phase 2: Remove entities BEFORE blocks (prevent death from falling)
-        // First, remove entities tracked by UUID (these can be anywhere in the world)
+    /**
+     * Removes the entities of a construction: tracked by UUID (these can be anywhere in
+     * the world), then any untracked entity in the bounds area (legacy cleanup). Players are kept.
+     *
+     * @return number of entities removed
+     */
+    private static int removeConstructionEntities(ServerLevel level, Construction construction, ConstructionBounds bounds) {
         int entitiesRemoved = 0;
         Set<UUID> trackedUuids = construction.getTrackedEntities();
         if (!trackedUuids.isEmpty()) {
@@ -845,30 +1116,52 @@ public class ConstructionOperations {
             entity.discard();
             entitiesRemoved++;
         }
+        return entitiesRemoved;
+    }
 
-        // Phase 3: Remove all blocks (no drops, no physics)
-        // IMPORTANT: Iterate from TOP to BOTTOM (Y descending) to remove plants/grass
-        // before removing the ground blocks they sit on. This prevents plants from
-        // breaking naturally and dropping items when their support block is removed.
-        int blocksRemoved = 0;
-        for (int y = bounds.getMaxY(); y >= bounds.getMinY(); y--) {
-            for (int x = bounds.getMinX(); x <= bounds.getMaxX(); x++) {
-                for (int z = bounds.getMinZ(); z <= bounds.getMaxZ(); z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
-                    if (!level.isLoaded(pos)) continue;
-                    BlockState currentState = level.getBlockState(pos);
-                    if (!currentState.is(Blocks.AIR)) {
-                        level.setBlock(pos, Blocks.AIR.defaultBlockState(), SILENT_REMOVE_FLAGS);
-                        blocksRemoved++;
-                    }
-                }
-            }
-        }
-
-        Architect.LOGGER.info("{}: removed {} blocks, {} entities, {} containers cleared",
-            mode, blocksRemoved, entitiesRemoved, containersCleared);
+    // ============== MOVE ==============
 
-        return new RemovalResult(blocksRemoved, entitiesRemoved);
+    /**
+     * Moves a construction in front of the player.
+     * The old location is cleared only at the tracked positions (base and rooms, TRACKED
+     * removal) instead of over the whole bounding volume, the given snapshot is the only
+     * copy of the data (placed as is, with offset and rotation) and the result
+     * carries the placed snapshot ({@link PlacementResult#placedSnapshot()}) to save without
+     * reading the world again.
+     *
+     * The old location is cleared by the first stage of the job. If the job stops (cancel or
+     * failure) before the construction coordinates are updated, a cleanup stage places the
+     * snapshot back at the old location, so the construction is left where it was (blocks
+     * already written at the new location stay there). Once the coordinates are updated the
+     * construction belongs to the new location: cancel listeners should then save it from
+     * {@link PlacementJob#resultSoFar()} (see {@link PlacementJob#hasStarted} COORDINATES).
+     *
+     * @param player The player (target position and yaw)
+     * @param construction The construction to move (coordinates are updated)
+     * @param snapshot The construction data at the current position (base from the world, rooms from disk)
+     * @return the placement job (not yet submitted)
+     */
+    public static PlacementJob<PlacementResult> moveConstructionJob(
+        ServerPlayer player,
+        Construction construction,
+        ConstructionSnapshot snapshot
+    ) {
+        ServerLevel level = (ServerLevel) player.level();
+        BlockPos originalMin = construction.getBounds().getMin();
+
+        PlacementJob<PlacementResult> job = placeConstructionJob(player, construction, snapshot, PlacementMode.MOVE,
+            true, null, player.getYRot(), false);
+        job.first(PlacementJob.Stage.CLEAR, 1, i -> removeConstruction(level, construction,
+            RemovalMode.MOVE_CLEAR, null, RemovalStrategy.TRACKED));
+        job.thenAlways(PlacementJob.Stage.RESTORE,
+            () -> job.isStopping() && job.hasStarted(PlacementJob.Stage.CLEAR)
+                && !job.hasStarted(PlacementJob.Stage.COORDINATES) ? 1 : 0,
+            i -> {
+                Architect.LOGGER.warn("Move of {} stopped before completion, restoring it at {}",
+                    construction.getId(), originalMin);
+                placeConstructionAtJob(level, construction, snapshot, originalMin, false, 0, 0, 0).runToCompletion();
+            });
+        return job;
     }
 
     // ============== HELPER METHODS ==============
@@ -1045,7 +1338,7 @@ public class ConstructionOperations {
         Map<BlockPos, BlockState> newBlocks
     ) {
         // Update tracked block positions
-        construction.getTrackedBlocks().clear();
+        construction.clearBlocks();
         construction.getBounds().reset();
         for (BlockPos pos : newBlocks.keySet()) {
             construction.addBlockRaw(pos);
@@ -1109,7 +1402,7 @@ public class ConstructionOperations {
         int originalSizeZ
     ) {
         // Step 1: Update tracked block positions with new world positions
-        construction.getTrackedBlocks().clear();
+        construction.clearBlocks();
         construction.getBounds().reset();
         for (BlockPos pos : newBlocks.keySet()) {
             construction.addBlockRaw(pos);
@@ -1457,185 +1750,57 @@ public class ConstructionOperations {
 
     /**
      * Spawns entities with freeze and rotation support.
-     * Rotates entity positions around pivot and adjusts entity yaw.
+     * Entities come as templates already rotated around the pivot (see EntityTemplate):
+     * each spawn is a shallow NBT copy moved to the target position.
      * Tracks spawned entity UUIDs in the construction for later removal.
      *
      * @param construction The construction to track spawned entities in (can be null to skip tracking)
      */
     private static List<Entity> spawnEntitiesFrozenRotated(
-        List<EntityData> entities,
+        List<EntityTemplate> templates,
         ServerLevel level,
         int targetX, int targetY, int targetZ,
-        int rotationSteps,
-        int pivotX, int pivotZ,
         Construction construction,
         boolean keepFrozen
     ) {
-        if (entities.isEmpty()) {
+        if (templates.isEmpty()) {
             return new ArrayList<>();
         }
 
         List<Entity> spawnedEntities = new ArrayList<>();
 
-        // For entities, pivot should be at center of the pivot block (add 0.5)
-        // This ensures entities rotate around the same center as blocks
-        double pivotCenterX = pivotX + 0.5;
-        double pivotCenterZ = pivotZ + 0.5;
-
-        Architect.LOGGER.info("spawnEntitiesFrozenRotated: target=({},{},{}), rotation={}, pivot=({},{}), pivotCenter=({},{}), entities={}",
-            targetX, targetY, targetZ, rotationSteps, pivotX, pivotZ, pivotCenterX, pivotCenterZ, entities.size());
+        Architect.LOGGER.debug("spawnEntitiesFrozenRotated: target=({},{},{}), entities={}",
+            targetX, targetY, targetZ, templates.size());
 
-        for (EntityData data : entities) {
+        for (EntityTemplate template : templates) {
+            EntityData data = template.getSource();
+            if (template.getType() == null) {
+                Architect.LOGGER.warn("Failed to create entity of type {}", data.getEntityType());
+                continue;
+            }
             try {
-                // Get relative position and rotate it around pivot center
-                double relX = data.getRelativePos().x;
-                double relY = data.getRelativePos().y;
-                double relZ = data.getRelativePos().z;
-
-                // Rotate the relative position around pivot center
-                double[] rotatedXZ = rotateXZDouble(relX, relZ, pivotCenterX, pivotCenterZ, rotationSteps);
-                double rotatedRelX = rotatedXZ[0];
-                double rotatedRelZ = rotatedXZ[1];
-
-                // Calculate world position
-                double worldX = targetX + rotatedRelX;
-                double worldY = targetY + relY;
-                double worldZ = targetZ + rotatedRelZ;
-
-                Architect.LOGGER.info("  Entity {}: relPos=({},{},{}), rotatedRel=({},{}), worldPos=({},{},{})",
-                    data.getEntityType(), relX, relY, relZ, rotatedRelX, rotatedRelZ, worldX, worldY, worldZ);
-
-                // Copy and clean NBT
-                CompoundTag nbt = data.getNbt().copy();
-                nbt.remove("Motion");
-                nbt.remove("UUID");
-                if (keepFrozen) {
-                    // Remove spawn properties - will be restored by unfreezeSpawnedEntities
-                    nbt.remove("NoGravity");
-                    nbt.remove("NoAI");
-                }
-
-                // Remove maps from item frames
-                String entityType = data.getEntityType();
-                if (entityType.equals("minecraft:item_frame") || entityType.equals("minecraft:glow_item_frame")) {
-                    EntityData.removeMapFromItemFrameNbt(nbt);
-                }
-
-                // Ensure id tag exists
-                if (!nbt.contains("id")) {
-                    nbt.putString("id", data.getEntityType());
-                }
-
-                // Update block_pos for hanging entities (item frames, paintings)
-                // Read relative block_pos from NBT, rotate around pivot, add target offset
-                // This must be done BEFORE entity creation since Minecraft validates block_pos
-                // Log block_pos BEFORE update
-                if (nbt.contains("block_pos")) {
-                    Tag bpBefore = nbt.get("block_pos");
-                    if (bpBefore instanceof IntArrayTag bpArr) {
-                        int[] c = bpArr.getAsIntArray();
-                        Architect.LOGGER.info("  block_pos BEFORE update: [{},{},{}]", c[0], c[1], c[2]);
-                    }
-                }
-
-                updateHangingEntityCoordsRotated(nbt, targetX, targetY, targetZ, rotationSteps, pivotX, pivotZ);
-
-                // Log block_pos AFTER update
-                if (nbt.contains("block_pos")) {
-                    Tag bpAfter = nbt.get("block_pos");
-                    if (bpAfter instanceof IntArrayTag bpArr) {
-                        int[] c = bpArr.getAsIntArray();
-                        Architect.LOGGER.info("  block_pos AFTER update: [{},{},{}]", c[0], c[1], c[2]);
-                    }
-                }
-
-                // Update sleeping_pos for villagers (with rotation)
-                updateSleepingPosRotated(nbt, targetX, targetY, targetZ, rotationSteps, pivotX, pivotZ);
-
-                // Set Pos in NBT BEFORE entity creation.
-                // For hanging entities, use block_pos as approximate Pos so MC validation passes,
-                // then loadEntityRecursive recalculates the exact position from block_pos + facing + size.
-                // For other entities, use the rotated relative position.
-                if (nbt.contains("block_pos")) {
-                    Tag rawTag = nbt.get("block_pos");
-                    if (rawTag instanceof IntArrayTag intArrayTag) {
-                        int[] coords = intArrayTag.getAsIntArray();
-                        if (coords.length >= 3) {
-                            Architect.LOGGER.info("  Pos set from block_pos: ({},{},{})",
-                                coords[0] + 0.5, coords[1] + 0.5, coords[2] + 0.5);
-                            net.minecraft.nbt.ListTag posTag = new net.minecraft.nbt.ListTag();
-                            posTag.add(net.minecraft.nbt.DoubleTag.valueOf(coords[0] + 0.5));
-                            posTag.add(net.minecraft.nbt.DoubleTag.valueOf(coords[1] + 0.5));
-                            posTag.add(net.minecraft.nbt.DoubleTag.valueOf(coords[2] + 0.5));
-                            nbt.put("Pos", posTag);
-                        }
-                    }
-                } else {
-                    net.minecraft.nbt.ListTag posTag = new net.minecraft.nbt.ListTag();
-                    posTag.add(net.minecraft.nbt.DoubleTag.valueOf(worldX));
-                    posTag.add(net.minecraft.nbt.DoubleTag.valueOf(worldY));
-                    posTag.add(net.minecraft.nbt.DoubleTag.valueOf(worldZ));
-                    nbt.put("Pos", posTag);
-                }
+                // Calculate world position (rotated around the pivot center at compile time)
+                double worldX = targetX + template.getOffsetX();
+                double worldY = targetY + template.getOffsetY();
+                double worldZ = targetZ + template.getOffsetZ();
 
-                // Rotate facing for ALL entities that have it (item frames, paintings, etc.)
-                // MC 1.21.11 uses "Facing" (capital F), not "facing"
-                if (nbt.contains("Facing") && rotationSteps != 0) {
-                    int facing = nbt.getByteOr("Facing", (byte) 0);
-                    // Only rotate horizontal facings (2-5): down=0, up=1, north=2, south=3, west=4, east=5
-                    if (facing >= 2 && facing <= 5) {
-                        int newFacing = rotateFacing(facing, rotationSteps);
-                        nbt.putByte("Facing", (byte) newFacing);
-                        Architect.LOGGER.debug("Rotated entity Facing from {} to {} (steps={})", facing, newFacing, rotationSteps);
-                    }
-                }
+                // Pos, block_pos and sleeping_pos set BEFORE entity creation:
+                // Minecraft validates block_pos of hanging entities on load
+                CompoundTag nbt = template.instantiate(targetX, targetY, targetZ, keepFrozen);
 
-                // Rotate "facing" (lowercase) for paintings (MC 1.21.11 LEGACY_ID_CODEC_2D)
-                // Paintings use different facing values than item frames:
-                // 2D: 0=south, 1=west, 2=north, 3=east
-                if (nbt.contains("facing") && rotationSteps != 0) {
-                    int facing2D = nbt.getByteOr("facing", (byte) 0);
-                    int newFacing2D = rotateFacing2D(facing2D, rotationSteps);
-                    nbt.putByte("facing", (byte) newFacing2D);
-                    Architect.LOGGER.debug("Rotated painting facing (2D) from {} to {} (steps={})", facing2D, newFacing2D, rotationSteps);
-                }
-
-                // Rotate yaw in NBT for non-hanging entities (mobs, armor stands, etc.)
-                // Must be done BEFORE creating the entity, as setYRot() after creation may be ignored
-                boolean isHangingEntity = entityType.equals("minecraft:item_frame") ||
-                                          entityType.equals("minecraft:glow_item_frame") ||
-                                          entityType.equals("minecraft:painting");
-                if (!isHangingEntity && rotationSteps != 0 && nbt.contains("Rotation")) {
-                    // Rotation tag is a list of 2 floats: [yaw, pitch]
-                    net.minecraft.nbt.Tag rotationTag = nbt.get("Rotation");
-                    if (rotationTag instanceof net.minecraft.nbt.ListTag rotationList && rotationList.size() >= 2) {
-                        float originalYaw = rotationList.getFloatOr(0, 0f);
-                        float pitch = rotationList.getFloatOr(1, 0f);
-                        // Coordinates rotate COUNTER-CLOCKWISE, yaw must match
-                        // MC yaw increases clockwise (0=south, 90=west, 180=north, 270=east)
-                        // So to rotate entity view counter-clockwise, we ADD degrees
-                        float rotatedYaw = originalYaw + (rotationSteps * 90f);
-
-                        net.minecraft.nbt.ListTag newRotation = new net.minecraft.nbt.ListTag();
-                        newRotation.add(net.minecraft.nbt.FloatTag.valueOf(rotatedYaw));
-                        newRotation.add(net.minecraft.nbt.FloatTag.valueOf(pitch));
-                        nbt.put("Rotation", newRotation);
-
-                        Architect.LOGGER.debug("Rotated entity yaw in NBT from {} to {} (steps={})", originalYaw, rotatedYaw, rotationSteps);
-                    }
-                }
-
-                // Create entity from NBT
-                Entity entity = EntityType.loadEntityRecursive(nbt, level, EntitySpawnReason.LOAD, e -> e);
+                // Create entity from the type resolved at compile time, then load the NBT
+                // (no second lookup of the id as in EntityType.loadEntityRecursive)
+                Entity entity = template.getType().create(level, EntitySpawnReason.LOAD);
 
                 if (entity != null) {
+                    entity.load(TagValueInput.create(ProblemReporter.DISCARDING, level.registryAccess(), nbt));
                     entity.setUUID(UUID.randomUUID());
 
                     if (entity instanceof HangingEntity) {
                         // Hanging entities (paintings, item frames) calculate their own position
                         // from block_pos + facing in NBT. Do NOT call setPos() or it will
                         // override the correct position and cause them to detach.
-                        Architect.LOGGER.info("  HangingEntity created: finalPos=({},{},{}), blockPos={}",
+                        Architect.LOGGER.debug("  HangingEntity created: finalPos=({},{},{}), blockPos={}",
                             entity.getX(), entity.getY(), entity.getZ(), entity.blockPosition());
                     } else {
                         entity.setNoGravity(true);
@@ -1645,7 +1810,7 @@ public class ConstructionOperations {
                         if (entity instanceof Mob mob) {
                             mob.setNoAi(true);
                         }
-                        Architect.LOGGER.info("  Entity created: finalPos=({},{},{})",
+                        Architect.LOGGER.debug("  Entity created: finalPos=({},{},{})",
                             entity.getX(), entity.getY(), entity.getZ());
                     }
 
@@ -1755,12 +1920,12 @@ public class ConstructionOperations {
      * 2D facing values: 0=south(+Z), 1=west(-X), 2=north(-Z), 3=east(+X)
      * Clockwise: south -> west -> north -> east -> south
      */
-    private static int rotateFacing2D(int facing2D, int steps) {
+    static int rotateFacing2D(int facing2D, int steps) {
         if (steps == 0 || facing2D < 0 || facing2D > 3) return facing2D;
         return (facing2D + steps) % 4;
     }
 
-    private static int rotateFacing(int facing, int steps) {
+    static int rotateFacing(int facing, int steps) {
         if (steps == 0 || facing < 2 || facing > 5) return facing;
 
         // Map facing to clockwise index: north=0, east=1, south=2, west=3
@@ -1786,63 +1951,6 @@ public class ConstructionOperations {
         }
     }
 
-    /**
-     * Updates block_pos or TileX/Y/Z for hanging entities (item frames, paintings) with rotation.
-     * Reads the relative block_pos from NBT, rotates it around the pivot, and adds the target offset.
-     */
-    private static void updateHangingEntityCoordsRotated(
-        CompoundTag nbt,
-        int targetX, int targetY, int targetZ,
-        int rotationSteps, int pivotX, int pivotZ
-    ) {
-        if (nbt.contains("block_pos")) {
-            Tag rawTag = nbt.get("block_pos");
-            if (rawTag instanceof IntArrayTag intArrayTag) {
-                int[] coords = intArrayTag.getAsIntArray();
-                if (coords.length >= 3) {
-                    // Rotate the relative block position around the pivot
-                    int[] rotated = rotateXZ(coords[0], coords[2], pivotX, pivotZ, rotationSteps);
-                    int newX = targetX + rotated[0];
-                    int newY = targetY + coords[1];
-                    int newZ = targetZ + rotated[1];
-                    nbt.putIntArray("block_pos", new int[]{newX, newY, newZ});
-                }
-            }
-        } else if (nbt.contains("TileX") && nbt.contains("TileY") && nbt.contains("TileZ")) {
-            // Fallback for old format
-            int relX = nbt.getIntOr("TileX", 0);
-            int relY = nbt.getIntOr("TileY", 0);
-            int relZ = nbt.getIntOr("TileZ", 0);
-            int[] rotated = rotateXZ(relX, relZ, pivotX, pivotZ, rotationSteps);
-            nbt.putInt("TileX", targetX + rotated[0]);
-            nbt.putInt("TileY", targetY + relY);
-            nbt.putInt("TileZ", targetZ + rotated[1]);
-        }
-    }
-
-    /**
-     * Updates sleeping_pos for sleeping villagers with rotation support.
-     */
-    private static void updateSleepingPosRotated(
-        CompoundTag nbt,
-        int targetX, int targetY, int targetZ,
-        int rotationSteps, int pivotX, int pivotZ
-    ) {
-        if (nbt.contains("sleeping_pos")) {
-            Tag sleepingTag = nbt.get("sleeping_pos");
-            if (sleepingTag instanceof IntArrayTag sleepingIntArray) {
-                int[] coords = sleepingIntArray.getAsIntArray();
-                if (coords.length >= 3) {
-                    int[] rotated = rotateXZ(coords[0], coords[2], pivotX, pivotZ, rotationSteps);
-                    int newX = targetX + rotated[0];
-                    int newY = targetY + coords[1];
-                    int newZ = targetZ + rotated[1];
-                    nbt.putIntArray("sleeping_pos", new int[]{newX, newY, newZ});
-                }
-            }
-        }
-    }
-
     // ============== ROTATION HELPER METHODS ==============
 
     /**
@@ -1868,7 +1976,7 @@ public class ConstructionOperations {
      * @param steps Number of 90-degree rotations (0-3)
      * @return The corresponding Rotation enum value
      */
-    private static Rotation stepsToRotation(int steps) {
+    static Rotation stepsToRotation(int steps) {
         // Minecraft's Rotation enum uses clockwise naming
         // We need blocks to rotate in the same direction as coordinates
         return switch (steps) {
@@ -1889,7 +1997,7 @@ public class ConstructionOperations {
      * @param steps Number of 90-degree counter-clockwise rotations (0-3)
      * @return Array with [newX, newZ]
      */
-    private static int[] rotateXZ(int x, int z, int pivotX, int pivotZ, int steps) {
+    static int[] rotateXZ(int x, int z, int pivotX, int pivotZ, int steps) {
         if (steps == 0) return new int[]{x, z};
 
         int relX = x - pivotX;
@@ -1943,7 +2051,7 @@ public class ConstructionOperations {
      * @param steps Number of 90-degree counter-clockwise rotations (0-3)
      * @return Array with [newX, newZ]
      */
-    private static double[] rotateXZDouble(double x, double z, double pivotX, double pivotZ, int steps) {
+    static double[] rotateXZDouble(double x, double z, double pivotX, double pivotZ, int steps) {
         if (steps == 0) return new double[]{x, z};
 
         double relX = x - pivotX;
@@ -2055,7 +2163,24 @@ public class ConstructionOperations {
         float yaw,
         @Nullable List<String> forcedRoomIds
     ) {
-        return architectSpawn(
+        return architectSpawnJob(player, construction, snapshot, yaw, forcedRoomIds).runToCompletion();
+    }
+
+    /**
+     * Builds an ArchitectSpawn in front of the player as a job (see
+     * {@link #architectSpawnJob(ServerLevel, Construction, ConstructionSnapshot, float, List, BlockPos, long, ServerPlayer)}).
+     * Room selection uses the world seed and the player position.
+     *
+     * @return the spawn job (not yet submitted)
+     */
+    public static PlacementJob<ArchitectSpawnResult> architectSpawnJob(
+        ServerPlayer player,
+        Construction construction,
+        ConstructionSnapshot snapshot,
+        float yaw,
+        @Nullable List<String> forcedRoomIds
+    ) {
+        return architectSpawnJob(
             (ServerLevel) player.level(),
             construction,
             snapshot,
@@ -2091,8 +2216,55 @@ public class ConstructionOperations {
         long roomSeed,
         @Nullable ServerPlayer player
     ) {
+        return architectSpawnJob(level, construction, snapshot, yaw, forcedRoomIds, spawnPoint, roomSeed, player)
+            .runToCompletion();
+    }
+
+    /**
+     * Builds an ArchitectSpawn as a job, to be submitted to the {@link PlacementScheduler}
+     * (placed across ticks) or run with {@link PlacementJob#runToCompletion()}.
+     * Room selection, position and the block plan are computed now; the world is only
+     * touched by the job stages: blocks (Y layers bottom-up, base then rooms), foundation,
+     * block entities, shape updates, entities (frozen) and unfreeze (also run on cancel).
+     *
+     * @return the spawn job (not yet submitted)
+     * @see #architectSpawn(ServerLevel, Construction, ConstructionSnapshot, float, List, BlockPos, long, ServerPlayer)
+     */
+    public static PlacementJob<ArchitectSpawnResult> architectSpawnJob(
+        ServerLevel level,
+        Construction construction,
+        ConstructionSnapshot snapshot,
+        float yaw,
+        @Nullable List<String> forcedRoomIds,
+        @Nullable BlockPos spawnPoint,
+        long roomSeed,
+        @Nullable ServerPlayer player
+    ) {
+        return architectSpawnJob(level, construction, snapshot, yaw, forcedRoomIds, spawnPoint, roomSeed, player, null);
+    }
+
+    /**
+     * Builds an ArchitectSpawn job using a precompiled placement plan when available.
+     *
+     * @param cached Precomputed placement plans and room index (e.g. BuildingCache for in-game
+     *               spawns), or null to compute them for this spawn only. Data that does not
+     *               match the snapshot/construction is ignored.
+     * @return the spawn job (not yet submitted)
+     */
+    public static PlacementJob<ArchitectSpawnResult> architectSpawnJob(
+        ServerLevel level,
+        Construction construction,
+        ConstructionSnapshot snapshot,
+        float yaw,
+        @Nullable List<String> forcedRoomIds,
+        @Nullable BlockPos spawnPoint,
+        long roomSeed,
+        @Nullable ServerPlayer player,
+        @Nullable SpawnPlanSource cached
+    ) {
+        PlacementJob<ArchitectSpawnResult> job = new PlacementJob<>(null);
         if (snapshot.blocks().isEmpty()) {
-            return new ArchitectSpawnResult(0, 0, 0, BlockPos.ZERO);
+            return job.result(() -> new ArchitectSpawnResult(0, 0, 0, BlockPos.ZERO));
         }
 
         ConstructionBounds bounds = construction.getBounds();
@@ -2101,26 +2273,22 @@ public class ConstructionOperations {
         List<Room> eligibleRooms = extractEligibleRooms(construction);
 
         // Step 2: Select rooms to spawn (random, non-overlapping, with forced rooms support)
-        List<Room> roomsToSpawn = selectRoomsToSpawnWithSeed(eligibleRooms, roomSeed, construction, snapshot, forcedRoomIds);
+        RoomOverlapIndex roomIndex = cached != null ? cached.roomIndex() : null;
+        if (roomIndex == null || !roomIndex.matches(construction, snapshot)) {
+            roomIndex = RoomOverlapIndex.build(construction, snapshot);
+        }
+        List<Room> roomsToSpawn = selectRoomsToSpawnWithSeed(eligibleRooms, roomSeed, roomIndex, forcedRoomIds);
 
         // Step 3: Calculate position and rotation
-        int rotationSteps = 0;
-        int pivotX = 0;
-        int pivotZ = 0;
-
         float entranceYaw = construction.getAnchors().hasEntrance()
             ? construction.getAnchors().getEntranceYaw()
             : 0f;
-        rotationSteps = calculateRotationSteps(yaw, entranceYaw);
+        int rotationSteps = calculateRotationSteps(yaw, entranceYaw);
 
-        if (construction.getAnchors().hasEntrance()) {
-            BlockPos entrance = construction.getAnchors().getEntrance();
-            pivotX = entrance.getX();
-            pivotZ = entrance.getZ();
-        } else {
-            pivotX = bounds.getSizeX() / 2;
-            pivotZ = bounds.getSizeZ() / 2;
-        }
+        // Pivot: entrance if present, otherwise the center of the bounds
+        PlacementPlan.Frame frame = PlacementPlan.Frame.of(construction);
+        int pivotX = frame.pivotX();
+        int pivotZ = frame.pivotZ();
 
         BlockPos targetPos;
         if (spawnPoint != null) {
@@ -2136,47 +2304,96 @@ public class ConstructionOperations {
         } else {
             // No position available
             Architect.LOGGER.error("architectSpawn called without spawnPoint or player");
-            return new ArchitectSpawnResult(0, 0, 0, BlockPos.ZERO);
+            return job.result(() -> new ArchitectSpawnResult(0, 0, 0, BlockPos.ZERO));
         }
 
-        // Step 4: Place base construction blocks (skip entities and command blocks)
-        int blocksPlaced = placeBlocksForArchitectSpawn(
-            level, construction, snapshot, targetPos, rotationSteps, pivotX, pivotZ
-        );
+        // Rotated block plan: cached per building and rotation, or compiled now
+        PlacementPlan plan = cached != null ? cached.plan(rotationSteps) : null;
+        if (plan == null || !plan.matches(snapshot, frame, rotationSteps)) {
+            plan = PlacementPlan.compile(snapshot, frame, rotationSteps);
+        }
+        PlacementPlan placementPlan = plan;
 
-        // Step 5: Place selected room blocks (overwrite base where applicable)
+        // Step 4: Base construction blocks, ALL of them including air (to clear existing terrain)
+        BlockBatch batch = new BlockBatch(plan.getBaseSize());
+        plan.addBase(batch, targetPos);
+
+        // Step 5: Selected room blocks (overwrite base where applicable)
         for (Room room : roomsToSpawn) {
-            ConstructionSnapshot.RoomSnapshot roomSnapshot = snapshot.rooms().get(room.getId());
-            if (roomSnapshot != null) {
-                blocksPlaced += placeRoomBlocksRotated(
-                    level, construction, roomSnapshot, targetPos, rotationSteps, pivotX, pivotZ
-                );
+            int roomBlocks = plan.addRoom(room.getId(), batch, targetPos);
+            if (roomBlocks > 0) {
+                Architect.LOGGER.debug("Room: placed {} rotated blocks", roomBlocks);
             }
         }
 
-        // Step 5.5: Fill foundation columns (extend ground under building)
+        // Blocks are written one chunk section per unit (later room entries override the base)
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        SectionBlockWriter writer = new SectionBlockWriter(level, SILENT_PLACE_FLAGS);
+        job.then(PlacementJob.Stage.BLOCKS, () -> {
+            for (int i = 0; i < batch.size(); i++) {
+                writer.add(batch.position(i), batch.state(i));
+            }
+            return writer.sectionCount();
+        }, writer::writeSection);
+
+        // Step 5.5: Fill foundation columns (extend ground under building).
+        // Planned when the stage starts: the ground scan must see the placed blocks
+        BlockBatch[] foundation = {null};
+        SectionBlockWriter foundationWriter = new SectionBlockWriter(level, SILENT_PLACE_FLAGS);
         if (construction.getAnchors().hasEntrance()) {
-            blocksPlaced += fillFoundationColumns(
-                level, construction, snapshot, targetPos, rotationSteps, pivotX, pivotZ
-            );
-        }
+            job.then(PlacementJob.Stage.FOUNDATION, () -> {
+                foundation[0] = planFoundationColumns(level, placementPlan, targetPos);
+                for (int i = 0; i < foundation[0].size(); i++) {
+                    foundationWriter.add(foundation[0].position(i), foundation[0].state(i));
+                }
+                return foundationWriter.sectionCount();
+            }, foundationWriter::writeSection);
+        }
+
+        // Block entity NBT after ALL blocks are placed
+        List<Map.Entry<Long, CompoundTag>> blockEntities = batch.blockEntities();
+        job.then(PlacementJob.Stage.BLOCK_ENTITIES, blockEntities.size(), i -> {
+            Map.Entry<Long, CompoundTag> entry = blockEntities.get(i);
+            applyBlockEntityNbt(level, cursor.set(entry.getKey()), entry.getValue());
+        });
+
+        // Update shape connections (fences, walls, etc.) WITHOUT physics.
+        // Planned when the stage starts, from the states actually in the world (rooms over base)
+        ShapeUpdatePlanner shapes = new ShapeUpdatePlanner(batch.size());
+        job.then(PlacementJob.Stage.SHAPES, () -> {
+            for (int i = 0; i < batch.size(); i++) {
+                shapes.add(batch.position(i), level.getBlockState(cursor.set(batch.position(i))));
+            }
+            return shapes.plan(level);
+        }, i -> shapes.update(level, i));
 
-        // Step 6: Spawn all entities (base + selected rooms) - frozen
-        List<Entity> spawnedEntities = spawnEntitiesForArchitectSpawn(
-            level, construction, snapshot, roomsToSpawn, targetPos, rotationSteps, pivotX, pivotZ
-        );
+        // Step 6: Spawn all entities (base + selected rooms) - frozen, one per unit
+        List<EntityData> entitiesToSpawn = collectEntitiesForArchitectSpawn(snapshot, roomsToSpawn);
+        List<Entity> spawnedEntities = new ArrayList<>();
+        job.then(PlacementJob.Stage.ENTITIES, entitiesToSpawn.size(),
+            i -> spawnedEntities.addAll(spawnEntitiesListForArchitectSpawn(
+                level, List.of(placementPlan.entityTemplate(entitiesToSpawn.get(i))), targetPos)));
 
         // Step 7: Command blocks are already placed in step 4 and 5
         // (They are not separated in this implementation since we don't need special handling)
 
-        // Step 8: Unfreeze all spawned entities
-        unfreezeSpawnedEntities(level, spawnedEntities);
-
-        Architect.LOGGER.info("ArchitectSpawn: {} blocks, {} entities, {} rooms at ({},{},{})",
-            blocksPlaced, spawnedEntities.size(), roomsToSpawn.size(),
-            targetPos.getX(), targetPos.getY(), targetPos.getZ());
+        // Step 8: Unfreeze all spawned entities (also after a cancel, so nothing stays frozen)
+        job.thenAlways(PlacementJob.Stage.UNFREEZE, spawnedEntities::size,
+            i -> unfreezeSpawnedEntity(level, spawnedEntities.get(i)));
 
-        return new ArchitectSpawnResult(blocksPlaced, spawnedEntities.size(), roomsToSpawn.size(), targetPos);
+        return job.result(() -> {
+            int blocksPlaced = batch.size() + (foundation[0] != null ? foundation[0].size() : 0);
+            writer.logStats("ArchitectSpawn blocks");
+            shapes.logStats("ArchitectSpawn");
+            if (foundation[0] != null) {
+                foundationWriter.logStats("ArchitectSpawn foundation");
+            }
+            Architect.LOGGER.info("Unfroze {} entities", spawnedEntities.size());
+            Architect.LOGGER.info("ArchitectSpawn: {} blocks, {} entities, {} rooms at ({},{},{})",
+                blocksPlaced, spawnedEntities.size(), roomsToSpawn.size(),
+                targetPos.getX(), targetPos.getY(), targetPos.getZ());
+            return new ArchitectSpawnResult(blocksPlaced, spawnedEntities.size(), roomsToSpawn.size(), targetPos);
+        });
     }
 
     /**
@@ -2195,16 +2412,14 @@ public class ConstructionOperations {
      *
      * @param eligibleRooms Rooms that passed spawn criteria
      * @param seed Seed for random room selection
-     * @param construction Construction for bounds calculation
-     * @param snapshot The snapshot containing block states, NBT and entity data
+     * @param roomIndex Room bounds and pairwise overlaps
      * @param forcedRoomIds Optional list of room IDs to force spawn (100% probability)
      * @return List of non-overlapping rooms to spawn
      */
     private static List<Room> selectRoomsToSpawnWithSeed(
         List<Room> eligibleRooms,
         long seed,
-        Construction construction,
-        ConstructionSnapshot snapshot,
+        RoomOverlapIndex roomIndex,
         @Nullable List<String> forcedRoomIds
     ) {
         if (eligibleRooms.isEmpty()) {
@@ -2212,6 +2427,7 @@ public class ConstructionOperations {
         }
 
         List<Room> roomsToSpawn = new ArrayList<>();
+        long[] selection = roomIndex.newSelection();
 
         // Convert forced room IDs to a set for O(1) lookup
         Set<String> forcedRoomSet = forcedRoomIds != null
@@ -2224,8 +2440,9 @@ public class ConstructionOperations {
                 if (forcedRoomSet.contains(room.getId())) {
                     // Forced room: always try to spawn (100% probability)
                     // But still check for overlaps with already selected rooms
-                    if (!hasOverlappingBounds(room, roomsToSpawn, construction, snapshot)) {
+                    if (!roomIndex.overlapsSelected(room.getId(), selection)) {
                         roomsToSpawn.add(room);
+                        roomIndex.select(room.getId(), selection);
                         Architect.LOGGER.debug("Forced room '{}' added to spawn list", room.getId());
                     } else {
                         Architect.LOGGER.debug("Forced room '{}' skipped due to overlap", room.getId());
@@ -2250,8 +2467,9 @@ public class ConstructionOperations {
                 // Roll for this room
                 if (random.nextDouble() < spawnProbability) {
                     // Check bounds overlap with already selected rooms (including forced ones)
-                    if (!hasOverlappingBounds(room, roomsToSpawn, construction, snapshot)) {
+                    if (!roomIndex.overlapsSelected(room.getId(), selection)) {
                         roomsToSpawn.add(room);
+                        roomIndex.select(room.getId(), selection);
                     }
                 }
             }
@@ -2261,333 +2479,32 @@ public class ConstructionOperations {
     }
 
     /**
-     * Checks if a room's bounds overlap with any room in the list.
-     */
-    private static boolean hasOverlappingBounds(
-        Room candidate,
-        List<Room> existingRooms,
-        Construction construction,
-        ConstructionSnapshot snapshot
-    ) {
-        if (existingRooms.isEmpty()) {
-            return false;
-        }
-
-        // Calculate candidate bounds from its block positions
-        AABB candidateBounds = calculateRoomBounds(candidate, construction, snapshot);
-        if (candidateBounds == null) {
-            return false; // Room has no blocks
-        }
-
-        for (Room existing : existingRooms) {
-            AABB existingBounds = calculateRoomBounds(existing, construction, snapshot);
-            if (existingBounds != null && candidateBounds.intersects(existingBounds)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    /**
-     * Calculates the AABB bounds of a room based on its block changes and entities from snapshot.
-     * Returns null if the room has no blocks or entities.
-     */
-    @Nullable
-    private static AABB calculateRoomBounds(Room room, Construction construction, ConstructionSnapshot snapshot) {
-        ConstructionSnapshot.RoomSnapshot roomSnapshot = snapshot.rooms().get(room.getId());
-
-        // Use snapshot blocks if available, otherwise fall back to room positions
-        Set<BlockPos> blockPositions = roomSnapshot != null
-            ? roomSnapshot.blocks().keySet()
-            : room.getChangedBlocks();
-        List<EntityData> entities = roomSnapshot != null
-            ? roomSnapshot.entities()
-            : Collections.emptyList();
-
-        if (blockPositions.isEmpty() && entities.isEmpty() && room.getRoomEntities().isEmpty()) {
-            return null;
-        }
-
-        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
-        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
-
-        // Process block positions
-        for (BlockPos pos : blockPositions) {
-            minX = Math.min(minX, pos.getX());
-            minY = Math.min(minY, pos.getY());
-            minZ = Math.min(minZ, pos.getZ());
-            maxX = Math.max(maxX, pos.getX());
-            maxY = Math.max(maxY, pos.getY());
-            maxZ = Math.max(maxZ, pos.getZ());
-        }
-
-        // Include room entities from snapshot in bounds calculation
-        ConstructionBounds constrBounds = construction.getBounds();
-        for (EntityData entity : entities) {
-            int ex = constrBounds.getMinX() + (int) entity.getRelativePos().x;
-            int ey = constrBounds.getMinY() + (int) entity.getRelativePos().y;
-            int ez = constrBounds.getMinZ() + (int) entity.getRelativePos().z;
-            minX = Math.min(minX, ex);
-            minY = Math.min(minY, ey);
-            minZ = Math.min(minZ, ez);
-            maxX = Math.max(maxX, ex);
-            maxY = Math.max(maxY, ey);
-            maxZ = Math.max(maxZ, ez);
-        }
-
-        if (minX == Integer.MAX_VALUE) {
-            return null; // No blocks or entities
-        }
-
-        return new AABB(minX, minY, minZ, maxX + 1, maxY + 1, maxZ + 1);
-    }
-
-    /**
-     * Places construction blocks for ArchitectSpawn without spawning entities.
-     * Uses the same logic as placeConstructionAt but doesn't update coordinates
-     * and doesn't spawn entities (they are handled separately).
-     *
-     * @return Number of blocks placed
-     */
-    private static int placeBlocksForArchitectSpawn(
-        ServerLevel level,
-        Construction construction,
-        ConstructionSnapshot snapshot,
-        BlockPos targetPos,
-        int rotationSteps,
-        int pivotX,
-        int pivotZ
-    ) {
-        ConstructionBounds bounds = construction.getBounds();
-        int originalMinX = bounds.getMinX();
-        int originalMinY = bounds.getMinY();
-        int originalMinZ = bounds.getMinZ();
-
-        Rotation rotation = stepsToRotation(rotationSteps);
-
-        // Sort blocks by Y ascending (support blocks first)
-        List<Map.Entry<BlockPos, BlockState>> sortedBlocks = new ArrayList<>(snapshot.blocks().entrySet());
-        sortedBlocks.sort(Comparator.comparingInt(e -> e.getKey().getY()));
-
-        Map<BlockPos, BlockPos> originalPosMap = new HashMap<>(); // newPos -> originalPos for NBT lookup
-        int placedCount = 0;
-
-        for (Map.Entry<BlockPos, BlockState> entry : sortedBlocks) {
-            BlockPos originalPos = entry.getKey();
-            BlockState state = entry.getValue();
-
-            // Normalize position (relative to bounds min)
-            int normX = originalPos.getX() - originalMinX;
-            int normY = originalPos.getY() - originalMinY;
-            int normZ = originalPos.getZ() - originalMinZ;
-
-            // Rotate normalized position around pivot
-            int[] rotatedXZ = rotateXZ(normX, normZ, pivotX, pivotZ, rotationSteps);
-            int rotatedNormX = rotatedXZ[0];
-            int rotatedNormZ = rotatedXZ[1];
-
-            // Calculate final world position
-            BlockPos newPos = new BlockPos(
-                targetPos.getX() + rotatedNormX,
-                targetPos.getY() + normY,
-                targetPos.getZ() + rotatedNormZ
-            );
-
-            // Rotate the block state
-            BlockState rotatedState = state.rotate(rotation);
-
-            originalPosMap.put(newPos, originalPos);
-
-            // Place ALL blocks from NBT, including air (to clear existing terrain)
-            level.setBlock(newPos, rotatedState, SILENT_PLACE_FLAGS);
-            placedCount++;
-        }
-
-        // Apply block entity NBT after ALL blocks are placed
-        for (Map.Entry<BlockPos, BlockPos> entry : originalPosMap.entrySet()) {
-            BlockPos newPos = entry.getKey();
-            BlockPos originalPos = entry.getValue();
-
-            BlockState state = level.getBlockState(newPos);
-            if (state.isAir()) continue;
-
-            CompoundTag blockNbt = snapshot.blockEntityNbt().get(originalPos);
-            if (blockNbt != null) {
-                BlockEntity blockEntity = level.getBlockEntity(newPos);
-                if (blockEntity != null) {
-                    CompoundTag nbtCopy = blockNbt.copy();
-                    nbtCopy.putInt("x", newPos.getX());
-                    nbtCopy.putInt("y", newPos.getY());
-                    nbtCopy.putInt("z", newPos.getZ());
-
-                    net.minecraft.world.level.storage.ValueInput input = net.minecraft.world.level.storage.TagValueInput.create(
-                        ProblemReporter.DISCARDING,
-                        level.registryAccess(),
-                        nbtCopy
-                    );
-                    blockEntity.loadCustomOnly(input);
-                    blockEntity.setChanged();
-                }
-            }
-        }
-
-        // Update shape connections (fences, walls, etc.) WITHOUT physics
-        for (BlockPos newPos : originalPosMap.keySet()) {
-            BlockState state = level.getBlockState(newPos);
-            if (!state.isAir()) {
-                state.updateNeighbourShapes(level, newPos, Block.UPDATE_CLIENTS, 0);
-            }
-        }
-
-        return placedCount;
-    }
-
-    /**
-     * Places room delta blocks with rotation support.
-     * Overwrites base construction blocks where applicable.
-     *
-     * @return Number of blocks placed
-     */
-    private static int placeRoomBlocksRotated(
-        ServerLevel level,
-        Construction construction,
-        ConstructionSnapshot.RoomSnapshot roomSnapshot,
-        BlockPos targetPos,
-        int rotationSteps,
-        int pivotX,
-        int pivotZ
-    ) {
-        if (roomSnapshot.blocks().isEmpty()) {
-            return 0;
-        }
-
-        ConstructionBounds bounds = construction.getBounds();
-        int originalMinX = bounds.getMinX();
-        int originalMinY = bounds.getMinY();
-        int originalMinZ = bounds.getMinZ();
-
-        Rotation rotation = stepsToRotation(rotationSteps);
-
-        // Sort blocks by Y ascending
-        List<Map.Entry<BlockPos, BlockState>> sortedBlocks = new ArrayList<>(roomSnapshot.blocks().entrySet());
-        sortedBlocks.sort(Comparator.comparingInt(e -> e.getKey().getY()));
-
-        Map<BlockPos, BlockPos> posMap = new HashMap<>(); // newPos -> originalPos
-        int placedCount = 0;
-
-        for (Map.Entry<BlockPos, BlockState> entry : sortedBlocks) {
-            BlockPos originalPos = entry.getKey();
-            BlockState state = entry.getValue();
-
-            // Room blocks are stored in world coordinates, convert to normalized
-            int normX = originalPos.getX() - originalMinX;
-            int normY = originalPos.getY() - originalMinY;
-            int normZ = originalPos.getZ() - originalMinZ;
-
-            // Rotate normalized position around pivot
-            int[] rotatedXZ = rotateXZ(normX, normZ, pivotX, pivotZ, rotationSteps);
-            int rotatedNormX = rotatedXZ[0];
-            int rotatedNormZ = rotatedXZ[1];
-
-            // Calculate final world position
-            BlockPos newPos = new BlockPos(
-                targetPos.getX() + rotatedNormX,
-                targetPos.getY() + normY,
-                targetPos.getZ() + rotatedNormZ
-            );
-
-            // Rotate the block state
-            BlockState rotatedState = state.rotate(rotation);
-
-            posMap.put(newPos, originalPos);
-            level.setBlock(newPos, rotatedState, SILENT_PLACE_FLAGS);
-            placedCount++;
-        }
-
-        // Apply block entity NBT
-        for (Map.Entry<BlockPos, BlockPos> entry : posMap.entrySet()) {
-            BlockPos newPos = entry.getKey();
-            BlockPos originalPos = entry.getValue();
-
-            BlockState state = level.getBlockState(newPos);
-            if (state.isAir()) continue;
-
-            CompoundTag blockNbt = roomSnapshot.blockEntityNbt().get(originalPos);
-            if (blockNbt != null) {
-                BlockEntity blockEntity = level.getBlockEntity(newPos);
-                if (blockEntity != null) {
-                    CompoundTag nbtCopy = blockNbt.copy();
-                    nbtCopy.putInt("x", newPos.getX());
-                    nbtCopy.putInt("y", newPos.getY());
-                    nbtCopy.putInt("z", newPos.getZ());
-
-                    net.minecraft.world.level.storage.ValueInput input = net.minecraft.world.level.storage.TagValueInput.create(
-                        ProblemReporter.DISCARDING,
-                        level.registryAccess(),
-                        nbtCopy
-                    );
-                    blockEntity.loadCustomOnly(input);
-                    blockEntity.setChanged();
-                }
-            }
-        }
-
-        // Update shape connections
-        for (BlockPos newPos : posMap.keySet()) {
-            BlockState state = level.getBlockState(newPos);
-            if (!state.isAir()) {
-                state.updateNeighbourShapes(level, newPos, Block.UPDATE_CLIENTS, 0);
-            }
-        }
-
-        Architect.LOGGER.debug("Room: placed {} rotated blocks", placedCount);
-        return placedCount;
-    }
-
-    /**
-     * Spawns entities for ArchitectSpawn (base + selected rooms).
-     * Entities are spawned frozen and will be unfrozen later.
+     * Collects the entities to spawn for ArchitectSpawn (base + selected rooms).
      * Base entities are filtered to exclude those at positions where room entities will spawn.
      *
-     * @return List of spawned entities (for later unfreezing)
+     * @return Entities to spawn, base first
      */
-    private static List<Entity> spawnEntitiesForArchitectSpawn(
-        ServerLevel level,
-        Construction construction,
+    private static List<EntityData> collectEntitiesForArchitectSpawn(
         ConstructionSnapshot snapshot,
-        List<Room> roomsToSpawn,
-        BlockPos targetPos,
-        int rotationSteps,
-        int pivotX,
-        int pivotZ
+        List<Room> roomsToSpawn
     ) {
-        List<Entity> spawnedEntities = new ArrayList<>();
-
         // Collect all room entity positions from snapshot (to filter out overlapping base entities)
         Set<String> roomEntityPositions = collectRoomEntityPositions(roomsToSpawn, snapshot);
 
-        // Spawn base entities (excluding those at room entity positions)
-        List<EntityData> filteredBaseEntities = filterBaseEntities(
+        // Base entities (excluding those at room entity positions)
+        List<EntityData> entities = new ArrayList<>(filterBaseEntities(
             snapshot.entities(), roomEntityPositions
-        );
-        spawnedEntities.addAll(spawnEntitiesListForArchitectSpawn(
-            level, filteredBaseEntities, targetPos,
-            rotationSteps, pivotX, pivotZ
         ));
 
-        // Spawn room entities (only from selected rooms, using snapshot data)
+        // Room entities (only from selected rooms, using snapshot data)
         for (Room room : roomsToSpawn) {
             ConstructionSnapshot.RoomSnapshot roomSnapshot = snapshot.rooms().get(room.getId());
             if (roomSnapshot != null) {
-                spawnedEntities.addAll(spawnEntitiesListForArchitectSpawn(
-                    level, roomSnapshot.entities(), targetPos,
-                    rotationSteps, pivotX, pivotZ
-                ));
+                entities.addAll(roomSnapshot.entities());
             }
         }
 
-        return spawnedEntities;
+        return entities;
     }
 
     /**
@@ -2643,253 +2560,215 @@ public class ConstructionOperations {
     }
 
     /**
-     * Spawns a list of entities for ArchitectSpawn with rotation support.
+     * Spawns a list of entities for ArchitectSpawn (templates of the rotated placement plan).
      * Delegates to the centralized spawnEntitiesFrozenRotated with keepFrozen=true,
-     * so unfreezeSpawnedEntities handles gravity/AI restoration.
+     * so unfreezeSpawnedEntity handles gravity/AI restoration.
      */
     private static List<Entity> spawnEntitiesListForArchitectSpawn(
         ServerLevel level,
-        List<EntityData> entities,
-        BlockPos targetPos,
-        int rotationSteps,
-        int pivotX,
-        int pivotZ
+        List<EntityTemplate> templates,
+        BlockPos targetPos
     ) {
         return spawnEntitiesFrozenRotated(
-            entities, level,
+            templates, level,
             targetPos.getX(), targetPos.getY(), targetPos.getZ(),
-            rotationSteps, pivotX, pivotZ,
             null,   // No construction tracking for architectSpawn
-            true    // Keep frozen - unfreezeSpawnedEntities handles it
+            true    // Keep frozen - unfreezeSpawnedEntity handles it
         );
     }
 
     /**
-     * Unfreezes all spawned entities.
+     * Unfreezes a spawned entity.
      * Re-enables AI for mobs and restores original gravity settings.
      *
      * @param level The server level
-     * @param spawnedEntities List of entities that were spawned and need unfreezing
+     * @param entity Entity that was spawned and needs unfreezing
      */
-    private static void unfreezeSpawnedEntities(ServerLevel level, List<Entity> spawnedEntities) {
-        for (Entity entity : spawnedEntities) {
-            // Check if entity is still valid
-            if (entity.isRemoved()) {
-                continue;
-            }
+    private static void unfreezeSpawnedEntity(ServerLevel level, Entity entity) {
+        // Check if entity is still valid
+        if (entity.isRemoved()) {
+            return;
+        }
 
-            EntityType<?> entityType = entity.getType();
+        EntityType<?> entityType = entity.getType();
 
-            // Create a default entity of the same type to get default property values
-            Entity defaultEntity = entityType.create(level, EntitySpawnReason.LOAD);
+        // Create a default entity of the same type to get default property values
+        Entity defaultEntity = entityType.create(level, EntitySpawnReason.LOAD);
 
-            if (defaultEntity != null) {
-                // Get default values from fresh entity
-                boolean defaultNoGravity = defaultEntity.isNoGravity();
-                boolean defaultNoAI = (defaultEntity instanceof Mob defaultMob) && defaultMob.isNoAi();
+        if (defaultEntity != null) {
+            // Get default values from fresh entity
+            boolean defaultNoGravity = defaultEntity.isNoGravity();
+            boolean defaultNoAI = (defaultEntity instanceof Mob defaultMob) && defaultMob.isNoAi();
 
-                // Apply default NoGravity (hanging entities always keep NoGravity)
-                if (isHangingEntity(entity)) {
-                    entity.setNoGravity(true);
-                } else {
-                    entity.setNoGravity(defaultNoGravity);
-                }
+            // Apply default NoGravity (hanging entities always keep NoGravity)
+            if (isHangingEntity(entity)) {
+                entity.setNoGravity(true);
+            } else {
+                entity.setNoGravity(defaultNoGravity);
+            }
 
-                // Apply default NoAI for mobs and nudge out of blocks
-                if (entity instanceof Mob mob) {
-                    EntityUtils.nudgeEntityOutOfBlocks(level, mob);
-                    mob.setNoAi(defaultNoAI);
-                    // Prevent hostile mobs from despawning (they would be removed by MC otherwise)
-                    mob.setPersistenceRequired();
-                }
+            // Apply default NoAI for mobs and nudge out of blocks
+            if (entity instanceof Mob mob) {
+                EntityUtils.nudgeEntityOutOfBlocks(level, mob);
+                mob.setNoAi(defaultNoAI);
+                // Prevent hostile mobs from despawning (they would be removed by MC otherwise)
+                mob.setPersistenceRequired();
+            }
 
-                // Discard the temporary default entity
-                defaultEntity.discard();
+            // Discard the temporary default entity
+            defaultEntity.discard();
+        } else {
+            // Fallback if we can't create default entity
+            if (isHangingEntity(entity)) {
+                entity.setNoGravity(true);
             } else {
-                // Fallback if we can't create default entity
-                if (isHangingEntity(entity)) {
-                    entity.setNoGravity(true);
-                } else {
-                    entity.setNoGravity(false);
-                }
-
-                if (entity instanceof Mob mob) {
-                    EntityUtils.nudgeEntityOutOfBlocks(level, mob);
-                    mob.setNoAi(false);
-                    mob.setPersistenceRequired();
-                }
+                entity.setNoGravity(false);
             }
 
-            // Clean up struttura tag
-            entity.getTags().remove("struttura_spawned");
+            if (entity instanceof Mob mob) {
+                EntityUtils.nudgeEntityOutOfBlocks(level, mob);
+                mob.setNoAi(false);
+                mob.setPersistenceRequired();
+            }
         }
 
-        Architect.LOGGER.info("Unfroze {} entities", spawnedEntities.size());
+        // Clean up struttura tag
+        entity.getTags().remove("struttura_spawned");
     }
 
     /**
-     * Fills foundation columns below the entrance level to prevent buildings from floating.
-     * For each (X,Z) column that has building blocks below the entrance Y, finds the lowest
-     * building block and fills any non-solid gap between it and the natural ground below
+     * Plans foundation columns below the entrance level to prevent buildings from floating.
+     * For each footprint column (lowest building block at or below the entrance Y, from the
+     * placement plan), fills any non-solid gap between that block and the natural ground below
      * by repeating the ground block found at the bottom of the gap.
+     * Reads the world (the building blocks must already be placed) but does not modify it.
+     *
+     * The ground scan reads chunk sections directly: it jumps to the OCEAN_FLOOR heightmap when
+     * that is below the gap top (nothing solid in between, so no natural ground) and skips
+     * all-air sections 16 blocks at a time.
      *
      * @param level The server level
-     * @param construction The construction being spawned
-     * @param snapshot The construction snapshot (used to identify foundation columns)
+     * @param plan The placement plan (foundation footprint: lowest building block per column)
      * @param targetPos The world-space origin of the building
-     * @param rotationSteps Rotation steps (0-3)
-     * @param pivotX Rotation pivot X (normalized)
-     * @param pivotZ Rotation pivot Z (normalized)
-     * @return Number of foundation blocks placed
+     * @return Foundation blocks to place
      */
-    private static int fillFoundationColumns(
+    private static BlockBatch planFoundationColumns(
         ServerLevel level,
-        Construction construction,
-        ConstructionSnapshot snapshot,
-        BlockPos targetPos,
-        int rotationSteps,
-        int pivotX, int pivotZ
+        PlacementPlan plan,
+        BlockPos targetPos
     ) {
-        int entranceNormY = construction.getAnchors().hasEntrance()
-            ? construction.getAnchors().getEntrance().getY()
-            : 0;
-
-        ConstructionBounds bounds = construction.getBounds();
-        int originalMinX = bounds.getMinX();
-        int originalMinY = bounds.getMinY();
-        int originalMinZ = bounds.getMinZ();
-
-        // For each (rotatedWorldX, rotatedWorldZ) column, track the minimum world Y
-        // that has a non-air building block at or below the entrance level
-        // Key: packed (worldX, worldZ), Value: minimum worldY
-        Map<Long, Integer> columnMinWorldY = new HashMap<>();
-        Map<Long, int[]> columnWorldXZ = new HashMap<>();
-
-        for (Map.Entry<BlockPos, BlockState> entry : snapshot.blocks().entrySet()) {
-            BlockPos originalPos = entry.getKey();
-            BlockState state = entry.getValue();
-
-            // Skip air blocks (they are not structural)
-            if (state.isAir()) {
-                continue;
-            }
-
-            int normX = originalPos.getX() - originalMinX;
-            int normY = originalPos.getY() - originalMinY;
-            int normZ = originalPos.getZ() - originalMinZ;
-
-            // Only consider foundation zone (at or below entrance level)
-            if (normY > entranceNormY) {
-                continue;
-            }
-
-            // Rotate to get world position
-            int[] rotatedXZ = rotateXZ(normX, normZ, pivotX, pivotZ, rotationSteps);
-            int worldX = targetPos.getX() + rotatedXZ[0];
-            int worldY = targetPos.getY() + normY;
-            int worldZ = targetPos.getZ() + rotatedXZ[1];
-
-            long key = ((long) worldX << 32) | (worldZ & 0xFFFFFFFFL);
-            Integer currentMin = columnMinWorldY.get(key);
-            if (currentMin == null || worldY < currentMin) {
-                columnMinWorldY.put(key, worldY);
-                columnWorldXZ.put(key, new int[]{worldX, worldZ});
-            }
-        }
-
-        if (columnMinWorldY.isEmpty()) {
-            return 0;
+        int columns = plan.getFootprintSize();
+        if (columns == 0) {
+            return new BlockBatch(0);
         }
 
         int maxScanDepth = 64;
-        BlockPos.MutableBlockPos scanPos = new BlockPos.MutableBlockPos();
 
-        // Pass 1: Scan ground for each column and collect fill data
-        // Stores: key -> [groundY, groundStateIndex]
-        Map<Long, int[]> columnFillData = new HashMap<>();
-        List<BlockState> allGroundStates = new ArrayList<>();
+        // Pass 1: Scan ground for each column (arrays indexed by footprint column)
+        // groundY = Integer.MIN_VALUE: no fill needed
+        int[] groundY = new int[columns];
+        BlockState[] groundStates = new BlockState[columns];
+        int fillColumns = 0;
+        int statesRead = 0;
+        LevelChunk chunk = null;
+        BlockPos.MutableBlockPos scanPos = new BlockPos.MutableBlockPos();
 
-        for (Map.Entry<Long, Integer> entry : columnMinWorldY.entrySet()) {
-            long key = entry.getKey();
-            int minWorldY = entry.getValue();
-            int[] xz = columnWorldXZ.get(key);
-            int worldX = xz[0];
-            int worldZ = xz[1];
+        for (int column = 0; column < columns; column++) {
+            int worldX = targetPos.getX() + plan.getFootprintX(column);
+            int worldZ = targetPos.getZ() + plan.getFootprintZ(column);
+            int fillTopY = targetPos.getY() + plan.getFootprintMinY(column) - 1;
+            int localX = worldX & 15;
+            int localZ = worldZ & 15;
+            groundY[column] = Integer.MIN_VALUE;
 
-            // Check the block just below the lowest building block
-            scanPos.set(worldX, minWorldY - 1, worldZ);
-            BlockState blockBelow = level.getBlockState(scanPos);
+            if (chunk == null || chunk.getPos().x != worldX >> 4 || chunk.getPos().z != worldZ >> 4) {
+                chunk = level.getChunk(worldX >> 4, worldZ >> 4);
+            }
 
             // If block below is already natural ground, no fill needed
-            if (isNaturalGround(blockBelow)) {
+            statesRead++;
+            if (isNaturalGround(chunk.getBlockState(scanPos.set(worldX, fillTopY, worldZ)))) {
                 continue;
             }
 
             // Scan downward to find the first natural ground block (dirt or stone only)
-            int fillTopY = minWorldY - 1;
-            int groundY = -1;
+            int lowestY = Math.max(fillTopY - maxScanDepth, level.getMinY());
+            int y = fillTopY;
+            // Natural ground blocks motion: nothing between the heightmap top and the gap top can be ground
+            int oceanFloorY = chunk.getHeight(Heightmap.Types.OCEAN_FLOOR, localX, localZ);
+            if (oceanFloorY < y) {
+                y = oceanFloorY;
+            }
             BlockState groundState = null;
-
-            for (int y = fillTopY; y >= fillTopY - maxScanDepth && y >= level.getMinY(); y--) {
-                scanPos.set(worldX, y, worldZ);
-                BlockState state = level.getBlockState(scanPos);
+            while (y >= lowestY) {
+                int sectionIndex = chunk.getSectionIndex(y);
+                LevelChunkSection section = chunk.getSection(sectionIndex);
+                if (section.hasOnlyAir()) {
+                    // Skip to the top of the section below
+                    y = SectionPos.sectionToBlockCoord(chunk.getSectionYFromSectionIndex(sectionIndex)) - 1;
+                    continue;
+                }
+                BlockState state = section.getBlockState(localX, y & 15, localZ);
+                statesRead++;
                 if (isNaturalGround(state)) {
-                    groundY = y;
+                    groundY[column] = y;
                     // Use plain dirt instead of grass_block variants (grass shouldn't be underground)
                     groundState = state.is(BlockTags.DIRT) ? Blocks.DIRT.defaultBlockState() : state;
                     break;
                 }
+                y--;
             }
 
             // Fallback if no natural ground found within scan depth
             if (groundState == null) {
                 groundState = Blocks.COBBLESTONE.defaultBlockState();
-                groundY = fillTopY - maxScanDepth;
+                groundY[column] = fillTopY - maxScanDepth;
             }
+            groundStates[column] = groundState;
+            fillColumns++;
+        }
 
-            int stateIndex = allGroundStates.size();
-            allGroundStates.add(groundState);
-            columnFillData.put(key, new int[]{groundY, stateIndex});
+        if (fillColumns == 0) {
+            return new BlockBatch(0);
         }
 
-        if (columnFillData.isEmpty()) {
-            return 0;
+        // Pass 2: Choose blocks with variation (from the ground states of the filled columns)
+        BlockState[] variation = new BlockState[fillColumns];
+        int variationCount = 0;
+        for (int column = 0; column < columns; column++) {
+            if (groundY[column] != Integer.MIN_VALUE) {
+                variation[variationCount++] = groundStates[column];
+            }
         }
 
-        // Pass 2: Place blocks with variation
         Random random = new Random();
-        int placedCount = 0;
+        BlockBatch fill = new BlockBatch(fillColumns * 4);
 
-        for (Map.Entry<Long, int[]> entry : columnFillData.entrySet()) {
-            long key = entry.getKey();
-            int[] fillData = entry.getValue();
-            int groundY = fillData[0];
-            BlockState primaryState = allGroundStates.get(fillData[1]);
-
-            int minWorldY = columnMinWorldY.get(key);
-            int[] xz = columnWorldXZ.get(key);
-            int worldX = xz[0];
-            int worldZ = xz[1];
-            int fillTopY = minWorldY - 1;
+        for (int column = 0; column < columns; column++) {
+            if (groundY[column] == Integer.MIN_VALUE) {
+                continue;
+            }
+            int worldX = targetPos.getX() + plan.getFootprintX(column);
+            int worldZ = targetPos.getZ() + plan.getFootprintZ(column);
+            int fillTopY = targetPos.getY() + plan.getFootprintMinY(column) - 1;
+            BlockState primaryState = groundStates[column];
 
-            for (int y = groundY + 1; y <= fillTopY; y++) {
+            for (int y = groundY[column] + 1; y <= fillTopY; y++) {
                 BlockState blockToPlace = primaryState;
                 // Randomly pick a block from another column for variation
-                if (allGroundStates.size() > 1 && random.nextDouble() < FOUNDATION_VARIATION_CHANCE) {
-                    blockToPlace = allGroundStates.get(random.nextInt(allGroundStates.size()));
+                if (variationCount > 1 && random.nextDouble() < FOUNDATION_VARIATION_CHANCE) {
+                    blockToPlace = variation[random.nextInt(variationCount)];
                 }
-                scanPos.set(worldX, y, worldZ);
-                level.setBlock(scanPos, blockToPlace, SILENT_PLACE_FLAGS);
-                placedCount++;
+                fill.add(BlockPos.asLong(worldX, y, worldZ), blockToPlace, null);
             }
         }
 
-        if (placedCount > 0) {
-            Architect.LOGGER.info("Foundation fill: {} blocks placed under {} columns",
-                placedCount, columnMinWorldY.size());
+        if (fill.size() > 0) {
+            Architect.LOGGER.info("Foundation fill: {} blocks planned under {} of {} columns ({} states read)",
+                fill.size(), fillColumns, columns, statesRead);
         }
 
-        return placedCount;
+        return fill;
     }
 
     /**
@@ -0,0 +1,225 @@
+package it.magius.struttura.architect.placement;
+
+import it.magius.struttura.architect.model.EntityData;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.DoubleTag;
+import net.minecraft.nbt.FloatTag;
+import net.minecraft.nbt.IntArrayTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.entity.EntityType;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity of a snapshot prepared for one rotation: NBT already cleaned (no Motion/UUID,
+ * no maps in item frames, id set) and rotated (Facing, facing, yaw), relative position,
+ * block_pos and sleeping_pos already rotated around the pivot, entity type resolved.
+ *
+ * Spawning only needs a shallow copy of the NBT plus the target offset
+ * (see {@link #instantiate}). Compiled per building and rotation with the
+ * {@link PlacementPlan}, or per placement when there is no plan.
+ */
+final class EntityTemplate {
+
+    private final EntityData source;
+    @Nullable
+    private final EntityType<?> type;
+    private final CompoundTag nbt;
+    // Rotated position relative to the target
+    private final double offsetX;
+    private final double offsetY;
+    private final double offsetZ;
+    // Hanging/sleeping fixups: rotated block offsets from the target, null if not present
+    @Nullable
+    private final int[] hangingPos;
+    private final boolean legacyTilePos;
+    @Nullable
+    private final int[] sleepingPos;
+
+    private EntityTemplate(EntityData source, @Nullable EntityType<?> type, CompoundTag nbt,
+                           double offsetX, double offsetY, double offsetZ,
+                           @Nullable int[] hangingPos, boolean legacyTilePos, @Nullable int[] sleepingPos) {
+        this.source = source;
+        this.type = type;
+        this.nbt = nbt;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.offsetZ = offsetZ;
+        this.hangingPos = hangingPos;
+        this.legacyTilePos = legacyTilePos;
+        this.sleepingPos = sleepingPos;
+    }
+
+    /**
+     * Compiles the template. Does not access the world: safe to call from any thread.
+     *
+     * @param rotationSteps rotation steps (0-3)
+     * @param pivotX pivot X (normalized, block coordinates)
+     * @param pivotZ pivot Z (normalized, block coordinates)
+     */
+    static EntityTemplate compile(EntityData data, int rotationSteps, int pivotX, int pivotZ) {
+        String entityType = data.getEntityType();
+        boolean hanging = entityType.equals("minecraft:item_frame")
+            || entityType.equals("minecraft:glow_item_frame")
+            || entityType.equals("minecraft:painting");
+
+        // Entities rotate around the center of the pivot block, as blocks do
+        double[] rotatedXZ = ConstructionOperations.rotateXZDouble(
+            data.getRelativePos().x, data.getRelativePos().z, pivotX + 0.5, pivotZ + 0.5, rotationSteps);
+
+        // Copy and clean NBT
+        CompoundTag nbt = data.getNbt().copy();
+        nbt.remove("Motion");
+        nbt.remove("UUID");
+        if (entityType.equals("minecraft:item_frame") || entityType.equals("minecraft:glow_item_frame")) {
+            EntityData.removeMapFromItemFrameNbt(nbt);
+        }
+        if (!nbt.contains("id")) {
+            nbt.putString("id", entityType);
+        }
+
+        // block_pos (or old TileX/Y/Z) for hanging entities, rotated around the pivot
+        int[] hangingPos = null;
+        boolean legacyTilePos = false;
+        if (nbt.contains("block_pos")) {
+            hangingPos = rotatedBlockOffset(nbt.get("block_pos"), rotationSteps, pivotX, pivotZ);
+        } else if (nbt.contains("TileX") && nbt.contains("TileY") && nbt.contains("TileZ")) {
+            int[] rotated = ConstructionOperations.rotateXZ(
+                nbt.getIntOr("TileX", 0), nbt.getIntOr("TileZ", 0), pivotX, pivotZ, rotationSteps);
+            hangingPos = new int[]{rotated[0], nbt.getIntOr("TileY", 0), rotated[1]};
+            legacyTilePos = true;
+        }
+
+        // sleeping_pos for villagers
+        int[] sleepingPos = nbt.contains("sleeping_pos")
+            ? rotatedBlockOffset(nbt.get("sleeping_pos"), rotationSteps, pivotX, pivotZ)
+            : null;
+
+        if (rotationSteps != 0) {
+            // Item frames: "Facing" with 3D values, only horizontal ones (2-5) rotate
+            if (nbt.contains("Facing")) {
+                int facing = nbt.getByteOr("Facing", (byte) 0);
+                if (facing >= 2 && facing <= 5) {
+                    nbt.putByte("Facing", (byte) ConstructionOperations.rotateFacing(facing, rotationSteps));
+                }
+            }
+            // Paintings: "facing" with 2D values
+            if (nbt.contains("facing")) {
+                int facing2D = nbt.getByteOr("facing", (byte) 0);
+                nbt.putByte("facing", (byte) ConstructionOperations.rotateFacing2D(facing2D, rotationSteps));
+            }
+            // Yaw of non-hanging entities: coordinates rotate counter-clockwise, MC yaw
+            // increases clockwise, so the view rotates by ADDING degrees
+            if (!hanging && nbt.get("Rotation") instanceof ListTag rotationList && rotationList.size() >= 2) {
+                float originalYaw = rotationList.getFloatOr(0, 0f);
+                float pitch = rotationList.getFloatOr(1, 0f);
+                ListTag newRotation = new ListTag();
+                newRotation.add(FloatTag.valueOf(originalYaw + (rotationSteps * 90f)));
+                newRotation.add(FloatTag.valueOf(pitch));
+                nbt.put("Rotation", newRotation);
+            }
+        }
+
+        EntityType<?> type = EntityType.byString(nbt.getStringOr("id", entityType)).orElse(null);
+
+        return new EntityTemplate(data, type, nbt,
+            rotatedXZ[0], data.getRelativePos().y, rotatedXZ[1],
+            hangingPos, legacyTilePos, sleepingPos);
+    }
+
+    /**
+     * Compiles the templates of a list of entities, in the same order.
+     */
+    static List<EntityTemplate> compileAll(List<EntityData> entities, int rotationSteps, int pivotX, int pivotZ) {
+        List<EntityTemplate> templates = new ArrayList<>(entities.size());
+        for (EntityData data : entities) {
+            templates.add(compile(data, rotationSteps, pivotX, pivotZ));
+        }
+        return templates;
+    }
+
+    @Nullable
+    private static int[] rotatedBlockOffset(@Nullable Tag tag, int rotationSteps, int pivotX, int pivotZ) {
+        if (tag instanceof IntArrayTag intArrayTag) {
+            int[] coords = intArrayTag.getAsIntArray();
+            if (coords.length >= 3) {
+                int[] rotated = ConstructionOperations.rotateXZ(coords[0], coords[2], pivotX, pivotZ, rotationSteps);
+                return new int[]{rotated[0], coords[1], rotated[1]};
+            }
+        }
+        return null;
+    }
+
+    /**
+     * NBT for spawning at the target position: shallow copy of the template with Pos,
+     * block_pos/TileX/Y/Z and sleeping_pos moved to the target.
+     *
+     * @param keepFrozen also drop NoGravity/NoAI (restored by the unfreeze stage)
+     */
+    CompoundTag instantiate(int targetX, int targetY, int targetZ, boolean keepFrozen) {
+        CompoundTag copy = nbt.shallowCopy();
+        if (keepFrozen) {
+            copy.remove("NoGravity");
+            copy.remove("NoAI");
+        }
+
+        // Hanging entities: block_pos as approximate Pos so MC validation passes, then
+        // loadEntityRecursive recalculates the exact position from block_pos + facing + size
+        double posX = targetX + offsetX;
+        double posY = targetY + offsetY;
+        double posZ = targetZ + offsetZ;
+        if (hangingPos != null) {
+            int x = targetX + hangingPos[0];
+            int y = targetY + hangingPos[1];
+            int z = targetZ + hangingPos[2];
+            if (legacyTilePos) {
+                copy.putInt("TileX", x);
+                copy.putInt("TileY", y);
+                copy.putInt("TileZ", z);
+            } else {
+                copy.putIntArray("block_pos", new int[]{x, y, z});
+                posX = x + 0.5;
+                posY = y + 0.5;
+                posZ = z + 0.5;
+            }
+        }
+        if (sleepingPos != null) {
+            copy.putIntArray("sleeping_pos",
+                new int[]{targetX + sleepingPos[0], targetY + sleepingPos[1], targetZ + sleepingPos[2]});
+        }
+
+        ListTag posTag = new ListTag();
+        posTag.add(DoubleTag.valueOf(posX));
+        posTag.add(DoubleTag.valueOf(posY));
+        posTag.add(DoubleTag.valueOf(posZ));
+        copy.put("Pos", posTag);
+        return copy;
+    }
+
+    EntityData getSource() {
+        return source;
+    }
+
+    /**
+     * Resolved entity type, null if the id is unknown (e.g. mod not installed).
+     */
+    @Nullable
+    EntityType<?> getType() {
+        return type;
+    }
+
+    double getOffsetX() {
+        return offsetX;
+    }
+
+    double getOffsetY() {
+        return offsetY;
+    }
+
+    double getOffsetZ() {
+        return offsetZ;
+    }
+}
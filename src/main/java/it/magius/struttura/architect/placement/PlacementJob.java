@@ -0,0 +1,327 @@
+package it.magius.struttura.architect.placement;
+
+import it.magius.struttura.architect.Architect;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A placement split into stages of small work units, so it can be spread over several
+ * server ticks by the {@link PlacementScheduler} (or run at once with {@link #runToCompletion()}).
+ *
+ * Each stage is prepared when it starts (so it can read the world as left by the previous
+ * stages) and then runs its units in order. Listeners are called on the server thread:
+ * progress after every slice, completion once with the result, cancel if the job stops early.
+ *
+ * A stage that throws stops the job like a cancel: the remaining stages are skipped except
+ * the cleanup ones ({@link #thenAlways}), which still run, each isolated from the others' failures.
+ *
+ * @param <R> type of the result passed to the completion listener
+ */
+public final class PlacementJob<R> {
+
+    /**
+     * Stages of a placement, in execution order.
+     */
+    public enum Stage {
+        CLEAR,           // Old location cleared (move)
+        BLOCKS,          // Block states (Y layers bottom-up)
+        FOUNDATION,      // Foundation columns under the building
+        BLOCK_ENTITIES,  // Block entity NBT
+        SHAPES,          // Neighbour shape updates (fences, walls, ...)
+        COORDINATES,     // Construction/room coordinates after pull/move
+        ENTITIES,        // Entity spawn (frozen)
+        UNFREEZE,        // Gravity/AI restore
+        RESTORE          // Old location placed back after a stopped move
+    }
+
+    /**
+     * Progress of the running stage.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(Stage stage, int done, int total);
+    }
+
+    private record StageEntry(Stage stage, IntSupplier prepare, IntConsumer unit, boolean always) {}
+
+    @Nullable
+    private final String key;
+    @Nullable
+    private UUID owner;
+    private final List<StageEntry> stages = new ArrayList<>();
+    private Supplier<R> result = () -> null;
+    private ProgressListener progressListener;
+    private Consumer<R> completeListener;
+    private Runnable cancelListener;
+
+    private int stageIndex = 0;
+    private int unitIndex = 0;
+    private int unitTotal = -1; // -1 = stage not prepared yet
+    private boolean cancelRequested = false;
+    private boolean done = false;
+    private boolean cancelled = false;
+    private int ticks = 0;
+    private long workNanos = 0;
+    private RuntimeException failure = null;
+    private final EnumSet<Stage> startedStages = EnumSet.noneOf(Stage.class);
+    private final EnumSet<Stage> completedStages = EnumSet.noneOf(Stage.class);
+
+    /**
+     * @param key construction id for pull/move jobs (see {@link PlacementScheduler#isPlacing}),
+     *            null for jobs that do not own the construction (spawns)
+     */
+    public PlacementJob(@Nullable String key) {
+        this.key = key;
+    }
+
+    /**
+     * Adds a stage with a known number of units.
+     */
+    public PlacementJob<R> then(Stage stage, int units, IntConsumer unit) {
+        return then(stage, () -> units, unit);
+    }
+
+    /**
+     * Adds a stage whose units are computed when the stage starts.
+     */
+    public PlacementJob<R> then(Stage stage, IntSupplier prepare, IntConsumer unit) {
+        stages.add(new StageEntry(stage, prepare, unit, false));
+        return this;
+    }
+
+    /**
+     * Adds a stage before all the others. Only before the job is submitted.
+     */
+    public PlacementJob<R> first(Stage stage, int units, IntConsumer unit) {
+        stages.add(0, new StageEntry(stage, () -> units, unit, false));
+        return this;
+    }
+
+    /**
+     * Adds a stage that also runs after a cancel (cleanup, e.g. unfreezing spawned entities).
+     */
+    public PlacementJob<R> thenAlways(Stage stage, IntSupplier prepare, IntConsumer unit) {
+        stages.add(new StageEntry(stage, prepare, unit, true));
+        return this;
+    }
+
+    /**
+     * Sets how the result is built once all stages are done.
+     */
+    public PlacementJob<R> result(Supplier<R> result) {
+        this.result = result;
+        return this;
+    }
+
+    /**
+     * Marks the job as started by a player: it is cancelled if the player disconnects
+     * (see {@link PlacementScheduler#cancelOwnedBy}). Only for jobs that can stop safely
+     * (test spawns, moves); pulls must finish so the construction ends up consistent.
+     */
+    public PlacementJob<R> ownedBy(UUID playerId) {
+        this.owner = playerId;
+        return this;
+    }
+
+    public PlacementJob<R> onProgress(ProgressListener listener) {
+        this.progressListener = listener;
+        return this;
+    }
+
+    public PlacementJob<R> onComplete(Consumer<R> listener) {
+        this.completeListener = listener;
+        return this;
+    }
+
+    public PlacementJob<R> onCancel(Runnable listener) {
+        this.cancelListener = listener;
+        return this;
+    }
+
+    /**
+     * Requests the job to stop: the current unit finishes, remaining stages are skipped
+     * (except cleanup stages) and the cancel listener is called instead of the completion one.
+     */
+    public void cancel() {
+        if (!done) {
+            cancelRequested = true;
+        }
+    }
+
+    @Nullable
+    public String getKey() {
+        return key;
+    }
+
+    @Nullable
+    public UUID getOwner() {
+        return owner;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Whether the job is stopping early (cancel requested or a stage failed).
+     * Cleanup stages use it to know if they have anything to undo.
+     */
+    public boolean isStopping() {
+        return cancelRequested;
+    }
+
+    /**
+     * Whether a stage has begun (it may have failed or been cut short by a cancel since).
+     */
+    public boolean hasStarted(Stage stage) {
+        return startedStages.contains(stage);
+    }
+
+    /**
+     * Whether all the units of a stage have run.
+     */
+    public boolean hasCompleted(Stage stage) {
+        return completedStages.contains(stage);
+    }
+
+    /**
+     * Builds the result from the stages run so far, e.g. in a cancel listener to keep what a
+     * stopped job already did. Only for jobs whose result supplier accepts partial runs.
+     */
+    public R resultSoFar() {
+        return result.get();
+    }
+
+    /**
+     * The running stage, or null if the job is done.
+     */
+    @Nullable
+    public Stage getStage() {
+        return stageIndex < stages.size() ? stages.get(stageIndex).stage() : null;
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Runs all remaining stages now and returns the result (null if cancelled).
+     * A stage failure is rethrown, as the synchronous placement would have done.
+     */
+    public R runToCompletion() {
+        R[] holder = newHolder();
+        Consumer<R> listener = completeListener;
+        completeListener = r -> {
+            holder[0] = r;
+            if (listener != null) {
+                listener.accept(r);
+            }
+        };
+        runUntil(Long.MAX_VALUE);
+        if (failure != null) {
+            throw failure;
+        }
+        return holder[0];
+    }
+
+    /**
+     * Runs work units until the deadline (System.nanoTime) or the end of the job.
+     * At least one unit is run per call, so a job always makes progress.
+     *
+     * @return true if the job is done (completed or cancelled)
+     */
+    boolean runUntil(long deadlineNanos) {
+        if (done) {
+            return true;
+        }
+        long start = System.nanoTime();
+        ticks++;
+        try {
+            boolean first = true;
+            while (stageIndex < stages.size()) {
+                StageEntry entry = stages.get(stageIndex);
+                if (cancelRequested && !entry.always()) {
+                    nextStage();
+                    continue;
+                }
+                try {
+                    if (unitTotal < 0) {
+                        startedStages.add(entry.stage());
+                        unitTotal = entry.prepare().getAsInt();
+                        unitIndex = 0;
+                    }
+                    while (unitIndex < unitTotal) {
+                        if (!first && System.nanoTime() >= deadlineNanos) {
+                            reportProgress(entry.stage());
+                            return false;
+                        }
+                        first = false;
+                        entry.unit().accept(unitIndex++);
+                    }
+                } catch (RuntimeException e) {
+                    // Stop like a cancel: skip to the cleanup stages (a failing cleanup stage
+                    // does not prevent the next ones)
+                    Architect.LOGGER.error("Placement job failed in stage {}", entry.stage(), e);
+                    if (failure == null) {
+                        failure = e;
+                    }
+                    cancelRequested = true;
+                    nextStage();
+                    continue;
+                }
+                reportProgress(entry.stage());
+                completedStages.add(entry.stage());
+                nextStage();
+            }
+        } finally {
+            workNanos += System.nanoTime() - start;
+        }
+
+        done = true;
+        if (cancelRequested) {
+            cancelled = true;
+            Architect.LOGGER.info("Placement job cancelled after {} ticks ({} ms of work)",
+                ticks, workNanos / 1_000_000);
+            if (cancelListener != null) {
+                cancelListener.run();
+            }
+        } else {
+            Architect.LOGGER.debug("Placement job completed in {} ticks ({} ms of work)",
+                ticks, workNanos / 1_000_000);
+            R value = result.get();
+            if (completeListener != null) {
+                completeListener.accept(value);
+            }
+        }
+        return true;
+    }
+
+    private void nextStage() {
+        stageIndex++;
+        unitIndex = 0;
+        unitTotal = -1;
+    }
+
+    private void reportProgress(Stage stage) {
+        if (progressListener != null) {
+            progressListener.onProgress(stage, unitIndex, Math.max(unitTotal, 0));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private R[] newHolder() {
+        return (R[]) new Object[1];
+    }
+}
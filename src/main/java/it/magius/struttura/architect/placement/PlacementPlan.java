@@ -0,0 +1,302 @@
+package it.magius.struttura.architect.placement;
+
+import it.magius.struttura.architect.model.Construction;
+import it.magius.struttura.architect.model.ConstructionBounds;
+import it.magius.struttura.architect.model.ConstructionSnapshot;
+import it.magius.struttura.architect.model.EntityData;
+import it.magius.struttura.architect.model.PalettedBlockMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precompiled block placement of a snapshot for one rotation: positions already rotated
+ * and packed as offsets from the target position, rotated states and block entity NBT,
+ * for the base and for each room. Placing is then a linear pass over arrays
+ * (see {@link #addBase} / {@link #addRoom}).
+ *
+ * Also holds the foundation footprint (for each (X,Z) column with building blocks at or
+ * below the entrance level, the offset of the lowest one) and the entity templates of
+ * the base and room entities for this rotation (see {@link EntityTemplate}).
+ *
+ * A plan does not depend on where the building is placed, so it can be cached per
+ * building and rotation (BuildingCache) and compiled on a worker thread: it only reads
+ * the snapshot and the {@link Frame} captured on the server thread.
+ */
+public final class PlacementPlan {
+
+    /**
+     * Construction data a plan depends on (bounds min, rotation pivot, entrance level),
+     * captured from the Construction so the plan can be compiled off-thread.
+     */
+    public record Frame(int minX, int minY, int minZ, int pivotX, int pivotZ, boolean hasEntrance, int entranceNormY) {
+
+        public static Frame of(Construction construction) {
+            ConstructionBounds bounds = construction.getBounds();
+            boolean hasEntrance = construction.getAnchors().hasEntrance();
+            // Pivot: entrance if present, otherwise the center of the bounds (normalized)
+            BlockPos entrance = hasEntrance ? construction.getAnchors().getEntrance() : null;
+            return new Frame(
+                bounds.getMinX(), bounds.getMinY(), bounds.getMinZ(),
+                hasEntrance ? entrance.getX() : bounds.getSizeX() / 2,
+                hasEntrance ? entrance.getZ() : bounds.getSizeZ() / 2,
+                hasEntrance,
+                hasEntrance ? entrance.getY() : 0
+            );
+        }
+    }
+
+    /**
+     * Blocks of the base or of a room, in Y-Z-X order (supports first).
+     */
+    static final class Layer {
+        final long[] offsets;           // packed (x, y, z) offsets from the target position
+        final BlockState[] states;      // rotated states
+        final int[] blockEntityIndexes; // ascending indexes into offsets/states
+        final CompoundTag[] blockEntityNbt; // shared templates (applyBlockEntityNbt copies them)
+
+        Layer(long[] offsets, BlockState[] states, int[] blockEntityIndexes, CompoundTag[] blockEntityNbt) {
+            this.offsets = offsets;
+            this.states = states;
+            this.blockEntityIndexes = blockEntityIndexes;
+            this.blockEntityNbt = blockEntityNbt;
+        }
+
+        int size() {
+            return offsets.length;
+        }
+
+        void addTo(BlockBatch batch, BlockPos targetPos) {
+            int tx = targetPos.getX();
+            int ty = targetPos.getY();
+            int tz = targetPos.getZ();
+            int nextBlockEntity = 0;
+            for (int i = 0; i < offsets.length; i++) {
+                CompoundTag nbt = null;
+                if (nextBlockEntity < blockEntityIndexes.length && blockEntityIndexes[nextBlockEntity] == i) {
+                    nbt = blockEntityNbt[nextBlockEntity++];
+                }
+                batch.add(BlockPos.offset(offsets[i], tx, ty, tz), states[i], nbt);
+            }
+        }
+    }
+
+    private final ConstructionSnapshot snapshot;
+    private final Frame frame;
+    private final int rotationSteps;
+    private final Layer base;
+    private final Map<String, Layer> rooms;
+
+    // Foundation footprint: one entry per column (offsets from the target position)
+    private final int[] footprintX;
+    private final int[] footprintZ;
+    private final int[] footprintMinY;
+
+    // Entity templates, keyed by the snapshot entity they were compiled from
+    private final Map<EntityData, EntityTemplate> entityTemplates;
+
+    private PlacementPlan(ConstructionSnapshot snapshot, Frame frame, int rotationSteps, Layer base,
+                          Map<String, Layer> rooms, int[] footprintX, int[] footprintZ, int[] footprintMinY,
+                          Map<EntityData, EntityTemplate> entityTemplates) {
+        this.snapshot = snapshot;
+        this.frame = frame;
+        this.rotationSteps = rotationSteps;
+        this.base = base;
+        this.rooms = rooms;
+        this.footprintX = footprintX;
+        this.footprintZ = footprintZ;
+        this.footprintMinY = footprintMinY;
+        this.entityTemplates = entityTemplates;
+    }
+
+    /**
+     * Compiles the plan. Does not access the world: safe to call from any thread
+     * as long as the snapshot is not modified meanwhile.
+     *
+     * @param rotationSteps rotation steps (0-3, see ConstructionOperations.calculateRotationSteps)
+     */
+    public static PlacementPlan compile(ConstructionSnapshot snapshot, Frame frame, int rotationSteps) {
+        Rotation rotation = ConstructionOperations.stepsToRotation(rotationSteps);
+
+        Layer base = compileLayer(snapshot.blocks(), snapshot.blockEntityNbt(), frame, rotation, rotationSteps);
+        Map<String, Layer> rooms = new HashMap<>();
+        for (Map.Entry<String, ConstructionSnapshot.RoomSnapshot> entry : snapshot.rooms().entrySet()) {
+            ConstructionSnapshot.RoomSnapshot room = entry.getValue();
+            if (!room.blocks().isEmpty()) {
+                rooms.put(entry.getKey(),
+                    compileLayer(room.blocks(), room.blockEntityNbt(), frame, rotation, rotationSteps));
+            }
+        }
+
+        // Foundation footprint: lowest non-air base block at or below the entrance level, per column
+        int[] footprintX = new int[0];
+        int[] footprintZ = new int[0];
+        int[] footprintMinY = new int[0];
+        if (frame.hasEntrance()) {
+            Map<Long, Integer> columnIndex = new HashMap<>();
+            int count = 0;
+            footprintX = new int[16];
+            footprintZ = new int[16];
+            footprintMinY = new int[16];
+            for (int i = 0; i < base.size(); i++) {
+                long offset = base.offsets[i];
+                int y = BlockPos.getY(offset);
+                if (y > frame.entranceNormY() || base.states[i].isAir()) {
+                    continue;
+                }
+                int x = BlockPos.getX(offset);
+                int z = BlockPos.getZ(offset);
+                Integer index = columnIndex.get(((long) x << 32) | (z & 0xFFFFFFFFL));
+                if (index == null) {
+                    if (count == footprintX.length) {
+                        footprintX = Arrays.copyOf(footprintX, count * 2);
+                        footprintZ = Arrays.copyOf(footprintZ, count * 2);
+                        footprintMinY = Arrays.copyOf(footprintMinY, count * 2);
+                    }
+                    columnIndex.put(((long) x << 32) | (z & 0xFFFFFFFFL), count);
+                    footprintX[count] = x;
+                    footprintZ[count] = z;
+                    footprintMinY[count] = y;
+                    count++;
+                } else if (y < footprintMinY[index]) {
+                    footprintMinY[index] = y;
+                }
+            }
+            footprintX = Arrays.copyOf(footprintX, count);
+            footprintZ = Arrays.copyOf(footprintZ, count);
+            footprintMinY = Arrays.copyOf(footprintMinY, count);
+        }
+
+        // Entity templates of the base and of every room
+        Map<EntityData, EntityTemplate> entityTemplates = new IdentityHashMap<>();
+        addEntityTemplates(entityTemplates, snapshot.entities(), frame, rotationSteps);
+        for (ConstructionSnapshot.RoomSnapshot room : snapshot.rooms().values()) {
+            addEntityTemplates(entityTemplates, room.entities(), frame, rotationSteps);
+        }
+
+        return new PlacementPlan(snapshot, frame, rotationSteps, base, rooms, footprintX, footprintZ, footprintMinY,
+            entityTemplates);
+    }
+
+    private static void addEntityTemplates(Map<EntityData, EntityTemplate> templates, List<EntityData> entities,
+                                           Frame frame, int rotationSteps) {
+        for (EntityData data : entities) {
+            templates.put(data, EntityTemplate.compile(data, rotationSteps, frame.pivotX(), frame.pivotZ()));
+        }
+    }
+
+    private static Layer compileLayer(PalettedBlockMap blocks, Map<BlockPos, CompoundTag> blockEntityNbt,
+                                      Frame frame, Rotation rotation, int rotationSteps) {
+        int size = blocks.size();
+        long[] offsets = new long[size];
+        BlockState[] states = new BlockState[size];
+        int[] blockEntityIndexes = new int[Math.min(size, blockEntityNbt.size())];
+        CompoundTag[] blockEntityTags = new CompoundTag[blockEntityIndexes.length];
+        int[] counts = {0, 0};
+        BlockPos.MutableBlockPos originalPos = new BlockPos.MutableBlockPos();
+
+        // Paletted snapshot: visited in Y-Z-X order, normalized to bounds min
+        blocks.forEachBlock(frame.minX(), frame.minY(), frame.minZ(), (normX, normY, normZ, state) -> {
+            int[] rotatedXZ = ConstructionOperations.rotateXZ(normX, normZ, frame.pivotX(), frame.pivotZ(), rotationSteps);
+            int i = counts[0]++;
+            offsets[i] = BlockPos.asLong(rotatedXZ[0], normY, rotatedXZ[1]);
+            states[i] = state.rotate(rotation);
+
+            if (!blockEntityNbt.isEmpty()) {
+                CompoundTag nbt = blockEntityNbt.get(
+                    originalPos.set(normX + frame.minX(), normY + frame.minY(), normZ + frame.minZ()));
+                if (nbt != null && counts[1] < blockEntityIndexes.length) {
+                    blockEntityIndexes[counts[1]] = i;
+                    blockEntityTags[counts[1]++] = nbt;
+                }
+            }
+        });
+
+        return new Layer(
+            counts[0] == size ? offsets : Arrays.copyOf(offsets, counts[0]),
+            counts[0] == size ? states : Arrays.copyOf(states, counts[0]),
+            Arrays.copyOf(blockEntityIndexes, counts[1]),
+            Arrays.copyOf(blockEntityTags, counts[1]));
+    }
+
+    /**
+     * Whether this plan was compiled from the given data (cache validation).
+     */
+    public boolean matches(ConstructionSnapshot snapshot, Frame frame, int rotationSteps) {
+        return this.snapshot == snapshot && this.frame.equals(frame) && this.rotationSteps == rotationSteps;
+    }
+
+    public int getRotationSteps() {
+        return rotationSteps;
+    }
+
+    public Frame getFrame() {
+        return frame;
+    }
+
+    /**
+     * Number of base blocks (air included).
+     */
+    public int getBaseSize() {
+        return base.size();
+    }
+
+    /**
+     * Appends the base blocks at the given target position.
+     */
+    void addBase(BlockBatch batch, BlockPos targetPos) {
+        base.addTo(batch, targetPos);
+    }
+
+    /**
+     * Appends the blocks of a room at the given target position.
+     *
+     * @return number of blocks added (0 if the room has no blocks)
+     */
+    int addRoom(String roomId, BlockBatch batch, BlockPos targetPos) {
+        Layer room = rooms.get(roomId);
+        if (room == null) {
+            return 0;
+        }
+        room.addTo(batch, targetPos);
+        return room.size();
+    }
+
+    /**
+     * Number of foundation columns.
+     */
+    int getFootprintSize() {
+        return footprintX.length;
+    }
+
+    int getFootprintX(int column) {
+        return footprintX[column];
+    }
+
+    int getFootprintZ(int column) {
+        return footprintZ[column];
+    }
+
+    /**
+     * Y offset of the lowest building block of the column.
+     */
+    int getFootprintMinY(int column) {
+        return footprintMinY[column];
+    }
+
+    /**
+     * Template of a snapshot entity for this rotation (compiled now if the entity
+     * is not part of the plan's snapshot).
+     */
+    EntityTemplate entityTemplate(EntityData data) {
+        EntityTemplate template = entityTemplates.get(data);
+        return template != null ? template : EntityTemplate.compile(data, rotationSteps, frame.pivotX(), frame.pivotZ());
+    }
+}
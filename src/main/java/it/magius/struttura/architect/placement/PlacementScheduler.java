@@ -0,0 +1,154 @@
+package it.magius.struttura.architect.placement;
+
+import it.magius.struttura.architect.Architect;
+import it.magius.struttura.architect.config.ArchitectConfig;
+import it.magius.struttura.architect.i18n.I18n;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs placement jobs across server ticks within a per-tick time budget
+ * (ArchitectConfig placementTickBudgetMs), so large spawns/pulls/moves do not stall the server.
+ *
+ * Jobs run in submission order on the server thread: the first job uses the budget,
+ * the next ones start when it is done or in the remaining time of the same tick.
+ */
+public class PlacementScheduler {
+
+    private static PlacementScheduler instance;
+
+    // Accessed only from the server thread
+    private final List<PlacementJob<?>> jobs = new ArrayList<>();
+
+    private PlacementScheduler() {}
+
+    public static PlacementScheduler getInstance() {
+        if (instance == null) {
+            instance = new PlacementScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Registers the tick handler.
+     * Call this during mod initialization.
+     */
+    public void register() {
+        ServerTickEvents.END_SERVER_TICK.register(this::onServerTick);
+    }
+
+    /**
+     * Queues a job; its first slice runs at the end of the current tick.
+     * Must be called from the server thread.
+     */
+    public <R> PlacementJob<R> submit(PlacementJob<R> job) {
+        jobs.add(job);
+        return job;
+    }
+
+    /**
+     * Whether a pull/move job for the given construction is still running.
+     */
+    public boolean isPlacing(String constructionId) {
+        for (PlacementJob<?> job : jobs) {
+            if (constructionId.equals(job.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of queued or running jobs.
+     */
+    public int getJobCount() {
+        return jobs.size();
+    }
+
+    /**
+     * Requests all jobs to stop (their cancel listeners are called on the next tick,
+     * or by {@link #finishAll()}).
+     */
+    public void cancelAll() {
+        for (PlacementJob<?> job : jobs) {
+            job.cancel();
+        }
+    }
+
+    /**
+     * Requests the jobs started by a player to stop (player disconnected).
+     *
+     * @return the number of jobs cancelled
+     */
+    public int cancelOwnedBy(UUID playerId) {
+        int count = 0;
+        for (PlacementJob<?> job : jobs) {
+            if (playerId.equals(job.getOwner())) {
+                job.cancel();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Runs all jobs to the end immediately (server stopping: constructions must be
+     * consistent before they are saved).
+     */
+    public void finishAll() {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        Architect.LOGGER.info("Finishing {} pending placement jobs", jobs.size());
+        // Listeners may submit new jobs: finish until the list is empty
+        while (!jobs.isEmpty()) {
+            PlacementJob<?> job = jobs.remove(0);
+            job.runUntil(Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Progress listener showing the block placement percentage in the player's action bar
+     * (sent only when the percentage changes).
+     */
+    public static PlacementJob.ProgressListener actionBarProgress(ServerPlayer player, String constructionId) {
+        int[] lastPercent = {-1};
+        return (stage, done, total) -> {
+            if (stage != PlacementJob.Stage.BLOCKS || total == 0 || player.hasDisconnected()) {
+                return;
+            }
+            int percent = (int) (done * 100L / total);
+            if (percent != lastPercent[0]) {
+                lastPercent[0] = percent;
+                player.displayClientMessage(Component.literal(
+                    I18n.tr(player, "placement.progress", constructionId, percent)), true);
+            }
+        };
+    }
+
+    private void onServerTick(MinecraftServer server) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        long budgetNanos = ArchitectConfig.getInstance().getPlacementTickBudgetMs() * 1_000_000L;
+        long deadline = System.nanoTime() + budgetNanos;
+
+        // Iterate over a copy: listeners may submit new jobs (they start on the next tick)
+        List<PlacementJob<?>> current = new ArrayList<>(jobs);
+        for (PlacementJob<?> job : current) {
+            if (job.runUntil(deadline)) {
+                jobs.remove(job);
+            }
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+    }
+}
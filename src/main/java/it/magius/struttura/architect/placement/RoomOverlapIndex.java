@@ -0,0 +1,182 @@
+package it.magius.struttura.architect.placement;
+
+import it.magius.struttura.architect.model.Construction;
+import it.magius.struttura.architect.model.ConstructionBounds;
+import it.magius.struttura.architect.model.ConstructionSnapshot;
+import it.magius.struttura.architect.model.EntityData;
+import it.magius.struttura.architect.model.Room;
+import net.minecraft.world.phys.AABB;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Room bounds and pairwise overlaps of a construction, computed once from the snapshot.
+ *
+ * Each room's AABB (blocks + entities) is computed with a single scan; overlaps are kept as
+ * one bitset row per room, so room selection checks a candidate against the selected rooms
+ * with a few bit operations instead of rescanning blocks.
+ *
+ * Rooms without blocks or entities have no bounds and never overlap.
+ */
+public final class RoomOverlapIndex {
+
+    private final ConstructionSnapshot snapshot;
+    private final int minX, minY, minZ;
+    private final List<String> roomIds;
+    private final Map<String, Integer> indexById;
+    private final AABB[] bounds;
+    private final long[][] overlaps;
+
+    private RoomOverlapIndex(ConstructionSnapshot snapshot, int minX, int minY, int minZ,
+                             List<String> roomIds, AABB[] bounds, long[][] overlaps) {
+        this.snapshot = snapshot;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.roomIds = roomIds;
+        this.bounds = bounds;
+        this.overlaps = overlaps;
+        this.indexById = new HashMap<>();
+        for (int i = 0; i < roomIds.size(); i++) {
+            indexById.put(roomIds.get(i), i);
+        }
+    }
+
+    /**
+     * Builds the index for the rooms of the construction.
+     */
+    public static RoomOverlapIndex build(Construction construction, ConstructionSnapshot snapshot) {
+        Collection<Room> rooms = construction.getRooms().values();
+        ConstructionBounds constrBounds = construction.getBounds();
+
+        List<String> roomIds = new ArrayList<>(rooms.size());
+        AABB[] bounds = new AABB[rooms.size()];
+        int index = 0;
+        for (Room room : rooms) {
+            roomIds.add(room.getId());
+            bounds[index++] = calculateRoomBounds(room, constrBounds, snapshot);
+        }
+
+        int words = (bounds.length + 63) >>> 6;
+        long[][] overlaps = new long[bounds.length][words];
+        for (int i = 0; i < bounds.length; i++) {
+            if (bounds[i] == null) {
+                continue;
+            }
+            for (int j = i + 1; j < bounds.length; j++) {
+                if (bounds[j] != null && bounds[i].intersects(bounds[j])) {
+                    overlaps[i][j >>> 6] |= 1L << j;
+                    overlaps[j][i >>> 6] |= 1L << i;
+                }
+            }
+        }
+
+        return new RoomOverlapIndex(snapshot, constrBounds.getMinX(), constrBounds.getMinY(), constrBounds.getMinZ(),
+            roomIds, bounds, overlaps);
+    }
+
+    /**
+     * Whether this index was built from the given snapshot and construction (cache validation).
+     */
+    public boolean matches(Construction construction, ConstructionSnapshot snapshot) {
+        ConstructionBounds constrBounds = construction.getBounds();
+        if (this.snapshot != snapshot || constrBounds.getMinX() != minX || constrBounds.getMinY() != minY
+                || constrBounds.getMinZ() != minZ || construction.getRooms().size() != roomIds.size()) {
+            return false;
+        }
+        int i = 0;
+        for (String id : construction.getRooms().keySet()) {
+            if (!id.equals(roomIds.get(i++))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Empty selection bitset for {@link #overlapsSelected} / {@link #select}.
+     */
+    long[] newSelection() {
+        return new long[(roomIds.size() + 63) >>> 6];
+    }
+
+    /**
+     * Whether the room overlaps any room of the selection (unknown rooms never overlap).
+     */
+    boolean overlapsSelected(String roomId, long[] selection) {
+        Integer index = indexById.get(roomId);
+        if (index == null) {
+            return false;
+        }
+        long[] row = overlaps[index];
+        for (int w = 0; w < row.length; w++) {
+            if ((row[w] & selection[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void select(String roomId, long[] selection) {
+        Integer index = indexById.get(roomId);
+        if (index != null) {
+            selection[index >>> 6] |= 1L << index;
+        }
+    }
+
+    /**
+     * Bounds of the room (blocks + entities), null if it has none or is unknown.
+     */
+    @Nullable
+    public AABB getBounds(String roomId) {
+        Integer index = indexById.get(roomId);
+        return index != null ? bounds[index] : null;
+    }
+
+    /**
+     * Calculates the AABB bounds of a room based on its block changes and entities from snapshot.
+     * Returns null if the room has no blocks or entities.
+     */
+    @Nullable
+    private static AABB calculateRoomBounds(Room room, ConstructionBounds constrBounds, ConstructionSnapshot snapshot) {
+        ConstructionSnapshot.RoomSnapshot roomSnapshot = snapshot.rooms().get(room.getId());
+        List<EntityData> entities = roomSnapshot != null ? roomSnapshot.entities() : List.of();
+
+        int[] box = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+            Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+
+        // Use snapshot blocks if available, otherwise fall back to room positions
+        if (roomSnapshot != null) {
+            roomSnapshot.blocks().forEachBlock((x, y, z, state) -> include(box, x, y, z));
+        } else {
+            room.getChangedBlocks().forEachPos(pos -> include(box, pos.getX(), pos.getY(), pos.getZ()));
+        }
+
+        // Include room entities from snapshot in bounds calculation
+        for (EntityData entity : entities) {
+            include(box,
+                constrBounds.getMinX() + (int) entity.getRelativePos().x,
+                constrBounds.getMinY() + (int) entity.getRelativePos().y,
+                constrBounds.getMinZ() + (int) entity.getRelativePos().z);
+        }
+
+        if (box[0] == Integer.MAX_VALUE) {
+            return null; // No blocks or entities
+        }
+        return new AABB(box[0], box[1], box[2], box[3] + 1, box[4] + 1, box[5] + 1);
+    }
+
+    private static void include(int[] box, int x, int y, int z) {
+        box[0] = Math.min(box[0], x);
+        box[1] = Math.min(box[1], y);
+        box[2] = Math.min(box[2], z);
+        box[3] = Math.max(box[3], x);
+        box[4] = Math.max(box[4], y);
+        box[5] = Math.max(box[5], z);
+    }
+}
@@ -0,0 +1,283 @@
+package it.magius.struttura.architect.placement;
+
+import it.magius.struttura.architect.Architect;
+import it.magius.struttura.architect.model.BlockPosSet;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.protocol.game.ClientboundSectionBlocksUpdatePacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.lighting.LightEngine;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk block writer: groups writes by chunk section and sets states straight in the
+ * {@link LevelChunkSection} palette, instead of one level.setBlock per block.
+ *
+ * Per section: one chunk lookup, one light section status update and one
+ * {@link ClientboundSectionBlocksUpdatePacket} to the players tracking the chunk.
+ * Per chunk, once its last pending section is written: heightmaps and sky light sources
+ * are recomputed, then the light engine is asked to recheck the blocks whose light
+ * properties changed.
+ *
+ * Positions where the old or new state has a block entity are written with level.setBlock
+ * (with the given flags), so block entities are created/removed and synced as usual.
+ * A later write to the same position replaces the earlier one.
+ * Positions that already hold the target state are skipped (counted, see {@link #getBlocksSkipped}).
+ */
+public final class SectionBlockWriter {
+
+    private static final class PendingSection {
+        final BlockState[] states = new BlockState[4096]; // index: y << 8 | z << 4 | x
+    }
+
+    private final ServerLevel level;
+    private final int blockEntityFlags;
+    private final Map<Long, PendingSection> pending = new HashMap<>();
+    private final Map<Long, Integer> pendingSectionsPerChunk = new HashMap<>();
+    private final Map<Long, List<Long>> lightChecksPerChunk = new HashMap<>();
+    private long[] order = null;
+    private BlockPosSet changedPositions = null;
+
+    private int blocksWritten = 0;
+    private int blockEntityWrites = 0;
+    private int blocksSkipped = 0;
+    private int sectionsWritten = 0;
+    private long writeNanos = 0;
+
+    /**
+     * @param level the world
+     * @param blockEntityFlags level.setBlock flags for positions with block entities
+     */
+    public SectionBlockWriter(ServerLevel level, int blockEntityFlags) {
+        this.level = level;
+        this.blockEntityFlags = blockEntityFlags;
+    }
+
+    /**
+     * Queues a write. Positions outside the build height are ignored.
+     * Must be called before the first {@link #writeSection}.
+     */
+    public void add(long packedPos, BlockState state) {
+        if (order != null) {
+            throw new IllegalStateException("Writes already started");
+        }
+        int x = BlockPos.getX(packedPos);
+        int y = BlockPos.getY(packedPos);
+        int z = BlockPos.getZ(packedPos);
+        if (level.isOutsideBuildHeight(y)) {
+            return;
+        }
+
+        long sectionKey = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+        PendingSection section = pending.get(sectionKey);
+        if (section == null) {
+            section = new PendingSection();
+            pending.put(sectionKey, section);
+            pendingSectionsPerChunk.merge(ChunkPos.asLong(x >> 4, z >> 4), 1, Integer::sum);
+        }
+        section.states[(y & 15) << 8 | (z & 15) << 4 | (x & 15)] = state;
+    }
+
+    public void add(BlockPos pos, BlockState state) {
+        add(pos.asLong(), state);
+    }
+
+    /**
+     * Records the positions actually changed (see {@link #getChangedPositions}),
+     * e.g. to limit follow-up work such as shape updates to real changes.
+     */
+    public SectionBlockWriter trackChangedPositions() {
+        if (changedPositions == null) {
+            changedPositions = new BlockPosSet();
+        }
+        return this;
+    }
+
+    /**
+     * Number of sections to write (bottom-up order, see {@link #writeSection}).
+     */
+    public int sectionCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes all queued sections now.
+     *
+     * @return number of blocks changed
+     */
+    public int writeAll() {
+        int total = sectionCount();
+        for (int i = 0; i < total; i++) {
+            writeSection(i);
+        }
+        return getBlocksWritten();
+    }
+
+    /**
+     * Writes one section. Sections are ordered by Y (bottom-up), then X and Z,
+     * so supports are in place before what stands on them.
+     *
+     * @return number of blocks changed in the section
+     */
+    public int writeSection(int index) {
+        if (order == null) {
+            order = pending.keySet().stream()
+                .sorted(Comparator.<Long>comparingInt(k -> SectionPos.y(k))
+                    .thenComparingInt(k -> SectionPos.x(k))
+                    .thenComparingInt(k -> SectionPos.z(k)))
+                .mapToLong(Long::longValue).toArray();
+        }
+        long sectionKey = order[index];
+        PendingSection pendingSection = pending.remove(sectionKey);
+        if (pendingSection == null) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        SectionPos sectionPos = SectionPos.of(sectionKey);
+        LevelChunk chunk = level.getChunk(sectionPos.x(), sectionPos.z());
+        LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionPos.y()));
+        long chunkKey = ChunkPos.asLong(sectionPos.x(), sectionPos.z());
+        List<Long> lightChecks = lightChecksPerChunk.computeIfAbsent(chunkKey, k -> new ArrayList<>());
+
+        boolean wasEmpty = section.hasOnlyAir();
+        ShortSet changed = new ShortOpenHashSet();
+        List<Integer> blockEntityIndexes = new ArrayList<>();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+        for (int i = 0; i < 4096; i++) {
+            BlockState state = pendingSection.states[i];
+            if (state == null) {
+                continue;
+            }
+            int localX = i & 15;
+            int localZ = (i >> 4) & 15;
+            int localY = (i >> 8) & 15;
+            BlockState oldState = section.getBlockState(localX, localY, localZ);
+            if (oldState == state) {
+                blocksSkipped++;
+                continue;
+            }
+            if (oldState.hasBlockEntity() || state.hasBlockEntity()) {
+                blockEntityIndexes.add(i);
+                continue;
+            }
+
+            section.setBlockState(localX, localY, localZ, state);
+            cursor.set(sectionPos.minBlockX() + localX, sectionPos.minBlockY() + localY, sectionPos.minBlockZ() + localZ);
+            changed.add(SectionPos.sectionRelativePos(cursor));
+            if (changedPositions != null) {
+                changedPositions.add(cursor.asLong());
+            }
+            // POI (beds, workstations, ...)
+            level.onBlockStateChange(cursor, oldState, state);
+            if (LightEngine.hasDifferentLightProperties(oldState, state)) {
+                lightChecks.add(cursor.asLong());
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            chunk.markUnsaved();
+            boolean isEmpty = section.hasOnlyAir();
+            if (wasEmpty != isEmpty) {
+                level.getChunkSource().getLightEngine().updateSectionStatus(sectionPos, isEmpty);
+            }
+            ClientboundSectionBlocksUpdatePacket packet =
+                new ClientboundSectionBlocksUpdatePacket(sectionPos, changed, section);
+            for (ServerPlayer player : level.getChunkSource().chunkMap.getPlayers(chunk.getPos(), false)) {
+                player.connection.send(packet);
+            }
+        }
+
+        // Block entities: regular path (creation/removal, client sync)
+        for (int i : blockEntityIndexes) {
+            cursor.set(sectionPos.minBlockX() + (i & 15), sectionPos.minBlockY() + ((i >> 8) & 15),
+                sectionPos.minBlockZ() + ((i >> 4) & 15));
+            if (level.setBlock(cursor, pendingSection.states[i], blockEntityFlags)) {
+                blockEntityWrites++;
+                if (changedPositions != null) {
+                    changedPositions.add(cursor.asLong());
+                }
+            }
+        }
+
+        int sectionChanged = changed.size();
+        blocksWritten += sectionChanged;
+        sectionsWritten++;
+
+        // Last pending section of this chunk: heightmaps, sky light sources, light checks
+        if (pendingSectionsPerChunk.merge(chunkKey, -1, Integer::sum) == 0) {
+            pendingSectionsPerChunk.remove(chunkKey);
+            finishChunk(chunk, lightChecksPerChunk.remove(chunkKey));
+        }
+
+        writeNanos += System.nanoTime() - start;
+        return sectionChanged + blockEntityIndexes.size();
+    }
+
+    private void finishChunk(LevelChunk chunk, List<Long> lightChecks) {
+        Set<Heightmap.Types> types = EnumSet.noneOf(Heightmap.Types.class);
+        for (Map.Entry<Heightmap.Types, Heightmap> entry : chunk.getHeightmaps()) {
+            types.add(entry.getKey());
+        }
+        if (!types.isEmpty()) {
+            Heightmap.primeHeightmaps(chunk, types);
+        }
+
+        if (lightChecks != null && !lightChecks.isEmpty()) {
+            chunk.initializeLightSources();
+            for (long packed : lightChecks) {
+                level.getChunkSource().getLightEngine().checkBlock(BlockPos.of(packed));
+            }
+        }
+    }
+
+    /**
+     * Blocks changed so far (section writes and block entity writes).
+     */
+    public int getBlocksWritten() {
+        return blocksWritten + blockEntityWrites;
+    }
+
+    /**
+     * Writes skipped because the world already held the target state.
+     */
+    public int getBlocksSkipped() {
+        return blocksSkipped;
+    }
+
+    /**
+     * Positions changed so far, or null if not tracked (see {@link #trackChangedPositions}).
+     */
+    @Nullable
+    public BlockPosSet getChangedPositions() {
+        return changedPositions;
+    }
+
+    /**
+     * Logs totals and throughput of the writes done so far.
+     */
+    public void logStats(String label) {
+        double ms = writeNanos / 1_000_000.0;
+        long blocksPerSecond = writeNanos > 0 ? (long) (getBlocksWritten() * 1_000_000_000.0 / writeNanos) : 0;
+        Architect.LOGGER.debug("{}: wrote {} blocks ({} with block entities), skipped {} unchanged, in {} sections, {} ms ({} blocks/s)",
+            label, getBlocksWritten(), blockEntityWrites, blocksSkipped, sectionsWritten,
+            String.format("%.1f", ms), blocksPerSecond);
+    }
+}
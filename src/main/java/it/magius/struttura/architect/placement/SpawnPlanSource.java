@@ -0,0 +1,22 @@
+package it.magius.struttura.architect.placement;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Precomputed spawn data of a building, kept by a cache (e.g. BuildingCache for in-game spawns).
+ * ArchitectSpawn validates what it gets and falls back to computing it when null or stale.
+ */
+public interface SpawnPlanSource {
+
+    /**
+     * Placement plan for the rotation steps (0-3), or null if not available.
+     */
+    @Nullable
+    PlacementPlan plan(int rotationSteps);
+
+    /**
+     * Room bounds/overlap index, or null if not available.
+     */
+    @Nullable
+    RoomOverlapIndex roomIndex();
+}
@@ -1,28 +1,40 @@
 package it.magius.struttura.architect.registry;
 
 import it.magius.struttura.architect.Architect;
+import it.magius.struttura.architect.command.StrutturaCommand;
+import it.magius.struttura.architect.config.ArchitectConfig;
 import it.magius.struttura.architect.model.Construction;
 import it.magius.struttura.architect.model.ConstructionBounds;
+import it.magius.struttura.architect.network.NetworkHandler;
+import it.magius.struttura.architect.placement.PlacementScheduler;
+import it.magius.struttura.architect.session.EditingSession;
+import it.magius.struttura.architect.storage.ConstructionCatalog;
 import it.magius.struttura.architect.storage.ConstructionStorage;
 import net.minecraft.core.BlockPos;
 
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * Registro globale delle costruzioni nel mondo.
  * Tiene traccia di tutte le costruzioni create/caricate.
  * Integrato con ConstructionStorage per la persistenza.
+ *
+ * All'avvio viene letto solo il catalogo (ConstructionCatalog): le costruzioni
+ * vengono caricate da disco alla prima get(id) e le meno usate vengono rimosse
+ * dalla memoria oltre il limite maxLoadedConstructions della config.
  */
 public class ConstructionRegistry {
 
     // Singleton instance
     private static final ConstructionRegistry INSTANCE = new ConstructionRegistry();
 
-    // Mappa ID -> Costruzione
-    private final Map<String, Construction> constructions = new HashMap<>();
+    // Mappa ID -> Costruzione caricata (ordine di accesso, la prima e' la meno usata)
+    private final LinkedHashMap<String, Construction> constructions = new LinkedHashMap<>(16, 0.75f, true);
 
-    // Mappa ID -> Posizione centro (per teleport)
+    // Mappa ID -> Posizione centro (per teleport), le altre vengono dal catalogo
     private final Map<String, BlockPos> constructionPositions = new HashMap<>();
 
     // Storage per persistenza
@@ -31,6 +43,9 @@ public class ConstructionRegistry {
     // Flag per indicare se lo storage è stato inizializzato
     private boolean storageInitialized = false;
 
+    // Ricostruzione del catalogo in corso (comando admin)
+    private final AtomicBoolean catalogRebuildRunning = new AtomicBoolean(false);
+
     private ConstructionRegistry() {}
 
     public static ConstructionRegistry getInstance() {
@@ -51,7 +66,8 @@ public class ConstructionRegistry {
     }
 
     /**
-     * Carica tutte le costruzioni salvate da disco.
+     * Carica il catalogo delle costruzioni salvate.
+     * Le costruzioni vere e proprie (metadata + posizioni dei blocchi) vengono caricate alla prima get(id).
      */
     public void loadAll() {
         if (!storageInitialized) {
@@ -59,29 +75,43 @@ public class ConstructionRegistry {
             return;
         }
 
-        List<String> ids = storage.listAll();
-        int loaded = 0;
-
-        for (String id : ids) {
-            Construction construction = storage.load(id);
-            if (construction != null) {
-                constructions.put(id, construction);
-
-                // Aggiorna posizione
-                ConstructionBounds bounds = construction.getBounds();
-                if (bounds.isInitialized()) {
-                    constructionPositions.put(id, bounds.getCenter());
-                }
+        ConstructionCatalog catalog = storage.getCatalog();
+        Architect.LOGGER.info("Construction catalog ready: {} constructions on disk", catalog.size());
+    }
 
-                loaded++;
-            }
+    /**
+     * Ricostruisce il catalogo da disco in background (vedi ConstructionStorage.rebuildCatalog).
+     * Il callback viene chiamato sul thread della ricostruzione, con null in caso di errore.
+     *
+     * @return false se lo storage non è inizializzato o una ricostruzione è già in corso
+     */
+    public boolean rebuildCatalogAsync(Consumer<ConstructionStorage.CatalogRebuildResult> callback) {
+        ConstructionStorage target = storage;
+        if (!storageInitialized || target == null) {
+            return false;
+        }
+        if (!catalogRebuildRunning.compareAndSet(false, true)) {
+            return false;
         }
 
-        Architect.LOGGER.info("Loaded {} constructions from disk", loaded);
+        Thread thread = new Thread(() -> {
+            ConstructionStorage.CatalogRebuildResult result = null;
+            try {
+                result = target.rebuildCatalog();
+            } catch (Exception e) {
+                Architect.LOGGER.error("Construction catalog rebuild failed", e);
+            } finally {
+                catalogRebuildRunning.set(false);
+            }
+            callback.accept(result);
+        }, "Struttura-Catalog-Rebuild");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
     }
 
     /**
-     * Salva tutte le costruzioni su disco.
+     * Accoda il salvataggio di tutte le costruzioni (scritte in background dal thread IO).
      */
     public void saveAll() {
         if (!storageInitialized) {
@@ -89,14 +119,11 @@ public class ConstructionRegistry {
             return;
         }
 
-        int saved = 0;
         for (Construction construction : constructions.values()) {
-            if (storage.save(construction)) {
-                saved++;
-            }
+            storage.saveAsync(construction);
         }
 
-        Architect.LOGGER.info("Saved {} constructions to disk", saved);
+        Architect.LOGGER.info("Queued {} constructions for saving", constructions.size());
     }
 
     /**
@@ -104,6 +131,7 @@ public class ConstructionRegistry {
      */
     public void register(Construction construction) {
         constructions.put(construction.getId(), construction);
+        evictExcess();
 
         // Salva la posizione centro
         ConstructionBounds bounds = construction.getBounds();
@@ -111,9 +139,9 @@ public class ConstructionRegistry {
             constructionPositions.put(construction.getId(), bounds.getCenter());
         }
 
-        // Salva su disco
+        // Salva su disco (in background)
         if (storageInitialized && storage != null) {
-            storage.save(construction);
+            storage.saveAsync(construction);
         }
     }
 
@@ -147,6 +175,7 @@ public class ConstructionRegistry {
                 if (bounds.isInitialized()) {
                     constructionPositions.put(id, bounds.getCenter());
                 }
+                evictExcess();
             }
         }
 
@@ -161,9 +190,9 @@ public class ConstructionRegistry {
             return true;
         }
 
-        // Controlla anche su disco
+        // Controlla anche il catalogo e il disco
         if (storageInitialized && storage != null) {
-            return storage.exists(id);
+            return storage.getCatalog().contains(id) || storage.exists(id);
         }
 
         return false;
@@ -173,7 +202,14 @@ public class ConstructionRegistry {
      * Ottiene la posizione di una costruzione.
      */
     public BlockPos getPosition(String id) {
-        return constructionPositions.get(id);
+        BlockPos pos = constructionPositions.get(id);
+        if (pos == null && storageInitialized && storage != null) {
+            ConstructionCatalog.Entry entry = storage.getCatalog().get(id);
+            if (entry != null) {
+                pos = entry.getCenter();
+            }
+        }
+        return pos;
     }
 
     /**
@@ -184,21 +220,41 @@ public class ConstructionRegistry {
     }
 
     /**
-     * Ottiene tutte le costruzioni registrate.
+     * Ottiene le costruzioni attualmente caricate in memoria.
+     * Per elencare tutte le costruzioni usare getEntries().
      */
     public Collection<Construction> getAll() {
         return Collections.unmodifiableCollection(constructions.values());
     }
 
     /**
-     * Ottiene tutti gli ID delle costruzioni (memoria + disco).
+     * Ottiene i dati di catalogo di tutte le costruzioni (caricate + solo su disco),
+     * senza caricarle. Per quelle in memoria i dati sono presi dalla costruzione.
+     */
+    public Collection<ConstructionCatalog.Entry> getEntries() {
+        Map<String, ConstructionCatalog.Entry> entries = new HashMap<>();
+        if (storageInitialized && storage != null) {
+            for (ConstructionCatalog.Entry entry : storage.getCatalog().getEntries()) {
+                entries.put(entry.id(), entry);
+            }
+        }
+        for (Construction construction : constructions.values()) {
+            entries.put(construction.getId(), ConstructionCatalog.Entry.of(construction));
+        }
+        return entries.values();
+    }
+
+    /**
+     * Ottiene tutti gli ID delle costruzioni (memoria + catalogo).
      */
     public Set<String> getAllIds() {
         Set<String> allIds = new HashSet<>(constructions.keySet());
 
         // Aggiungi anche quelli su disco non ancora caricati
         if (storageInitialized && storage != null) {
-            allIds.addAll(storage.listAll());
+            for (ConstructionCatalog.Entry entry : storage.getCatalog().getEntries()) {
+                allIds.add(entry.id());
+            }
         }
 
         return Collections.unmodifiableSet(allIds);
@@ -211,6 +267,47 @@ public class ConstructionRegistry {
         return constructions.size();
     }
 
+    /**
+     * Rimuove dalla memoria le costruzioni meno usate oltre il limite di config.
+     * Le costruzioni in editing, visibili nel mondo o con un job di piazzamento
+     * (spawn/move/pull) attivo restano caricate: i loro job e handler tengono un
+     * riferimento all'oggetto e le modifiche andrebbero perse con una copia ricaricata.
+     * Prima di rimuoverle viene accodato il salvataggio dei metadati, come faceva saveAll allo stop.
+     */
+    private void evictExcess() {
+        int max = ArchitectConfig.getInstance().getMaxLoadedConstructions();
+        if (constructions.size() <= max) {
+            return;
+        }
+
+        Set<String> editing = new HashSet<>();
+        for (EditingSession session : EditingSession.getAllSessions()) {
+            editing.add(session.getConstruction().getId());
+        }
+
+        Iterator<Map.Entry<String, Construction>> it = constructions.entrySet().iterator();
+        while (constructions.size() > max && it.hasNext()) {
+            Map.Entry<String, Construction> eldest = it.next();
+            if (editing.contains(eldest.getKey()) || isInUse(eldest.getKey())) {
+                continue;
+            }
+            if (storageInitialized && storage != null) {
+                storage.saveAsync(eldest.getValue());
+            }
+            constructionPositions.remove(eldest.getKey());
+            it.remove();
+            Architect.LOGGER.debug("Evicted construction from memory: {}", eldest.getKey());
+        }
+    }
+
+    private static boolean isInUse(String id) {
+        return PlacementScheduler.getInstance().isPlacing(id)
+            || NetworkHandler.isConstructionVisible(id)
+            || NetworkHandler.isConstructionBeingPulled(id)
+            || StrutturaCommand.isConstructionVisible(id)
+            || StrutturaCommand.isConstructionBeingPulled(id);
+    }
+
     /**
      * Verifica se lo storage è inizializzato.
      */
@@ -236,9 +333,13 @@ public class ConstructionRegistry {
 
     /**
      * Pulisce completamente il registro e resetta lo storage.
+     * Attende la scrittura dei salvataggi in coda prima di rilasciare lo storage.
      */
     public void shutdown() {
-        saveAll();
+        if (storageInitialized && storage != null) {
+            saveAll();
+            storage.close();
+        }
         clear();
         storage = null;
         storageInitialized = false;
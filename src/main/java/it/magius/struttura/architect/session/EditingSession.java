@@ -134,7 +134,7 @@ public class EditingSession {
                 // Editing a room: save in the room
                 Room room = construction.getRoom(currentRoom);
                 if (room != null) {
-                    room.setBlockChange(pos);
+                    room.setBlockChange(pos, level);
                     // Expand construction bounds if block is outside current bounds
                     construction.getBounds().expandToInclude(pos);
                 }
@@ -148,8 +148,27 @@ public class EditingSession {
             NetworkHandler.sendEditingInfo(player);
             // Update block positions
             NetworkHandler.sendBlockPositions(player);
+        } else {
+            // In REMOVE mode, placement does nothing special (only keep block types in sync)
+            onBlockChanged(pos);
+        }
+    }
+
+    /**
+     * Handles a block that changed in the world without being added or removed
+     * (e.g. a tracked block after being broken, or replaced while in REMOVE mode).
+     * Keeps the live block type index of the construction (or current room) in sync.
+     */
+    public void onBlockChanged(BlockPos pos) {
+        ServerLevel level = (ServerLevel) player.level();
+        if (isInRoom()) {
+            Room room = construction.getRoom(currentRoom);
+            if (room != null) {
+                room.updateBlockType(pos, level);
+            }
+        } else {
+            construction.updateBlockType(pos, level);
         }
-        // In REMOVE mode, placement does nothing special
     }
 
     /**
@@ -163,7 +182,7 @@ public class EditingSession {
                 // Editing a room: air in the room
                 Room room = construction.getRoom(currentRoom);
                 if (room != null) {
-                    room.setBlockChange(pos);
+                    room.setBlockChange(pos, level);
                     // Expand construction bounds if block is outside current bounds
                     construction.getBounds().expandToInclude(pos);
                 }
@@ -235,6 +254,7 @@ public class EditingSession {
 
         // Apply room blocks in the world
         applyRoomBlocks(world, room);
+        room.invalidateBlockTypes();
 
         // Spawn room entities from disk
         spawnRoomEntities(world, room);
@@ -568,7 +588,7 @@ public class EditingSession {
         it.magius.struttura.architect.model.ConstructionSnapshot.RoomSnapshot roomSnapshot =
             fullSnapshot.rooms().get(room.getId());
 
-        int appliedCount = ConstructionOperations.placeRoomBlocks(world, roomSnapshot);
+        int appliedCount = ConstructionOperations.placeRoomBlocks(world, roomSnapshot, true);
         Architect.LOGGER.debug("Applied {} room blocks for room '{}' in construction {}",
             appliedCount, room.getId(), construction.getId());
     }
@@ -579,7 +599,7 @@ public class EditingSession {
      */
     private void restoreBaseBlocks(ServerLevel world, Room room) {
         int restoredCount = ConstructionOperations.restoreBaseBlocks(
-            world, room.getChangedBlocks(), savedBaseBlocks, savedBaseNbt);
+            world, room.getChangedBlocks(), savedBaseBlocks, savedBaseNbt, true);
         savedBaseBlocks.clear();
         savedBaseNbt.clear();
         Architect.LOGGER.debug("Restored {} base blocks after exiting room '{}' in construction {}",
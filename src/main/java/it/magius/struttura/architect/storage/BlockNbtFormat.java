@@ -0,0 +1,349 @@
+package it.magius.struttura.architect.storage;
+
+import it.magius.struttura.architect.model.ConstructionSnapshot;
+import it.magius.struttura.architect.model.PalettedBlockMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Reader/writer for the blocks.nbt layout, shared by local storage and the cloud API.
+ *
+ * Version 1 (legacy):
+ * root {
+ *     version: 1
+ *     palette: [ { state: "minecraft:stone" }, ... ]
+ *     blocks: [ { x, y, z, p, nbt? }, ... ]
+ *     rooms: { roomId: { blocks: [ ... ] } }
+ * }
+ *
+ * Version 2 (packed): same palette and rooms layout, but every "blocks" entry is a
+ * single compound holding palette indices bit-packed into a long[]:
+ * blocks {
+ *     count: N                  number of blocks in the section
+ *     origin: [I; x, y, z]      normalized min corner of the section
+ *     size: [I; sx, sy, sz]     section extent
+ *     bits: B                   bits per packed entry
+ *     layout: "dense"|"sparse"
+ *     data: [L; ...]            dense: (paletteIndex + 1) per cell in Y-Z-X volume order, 0 = not tracked
+ *                               sparse: paletteIndex per block, in the order of "positions"
+ *     positions: [L; ...]       sparse only: sorted volume indices
+ *     nbt: [ { i: ordinal, nbt: {...} }, ... ]   block entities, ordinal = block index in volume order
+ * }
+ * Dense is used when the bounding volume is small relative to the block count,
+ * sparse for hollow/thin builds where the volume would be mostly empty.
+ * All coordinates are normalized (relative to the construction bounds min).
+ */
+public final class BlockNbtFormat {
+
+    public static final int VERSION_LEGACY = 1;
+    public static final int VERSION_PACKED = 2;
+    public static final int CURRENT_VERSION = VERSION_PACKED;
+
+    private static final String LAYOUT_DENSE = "dense";
+    private static final String LAYOUT_SPARSE = "sparse";
+
+    private BlockNbtFormat() {}
+
+    /**
+     * Receives one block while reading a section.
+     * Coordinates are normalized; nbt is null when the block has no block entity data.
+     */
+    @FunctionalInterface
+    public interface BlockVisitor {
+        void accept(int x, int y, int z, int paletteIndex, CompoundTag nbt);
+    }
+
+    // ===== Writing =====
+
+    /**
+     * Serializes the snapshot blocks (base + rooms) into a blocks.nbt root tag.
+     *
+     * @param snapshot the snapshot to serialize
+     * @param roomIds rooms to include (rooms without blocks in the snapshot are skipped)
+     * @param offsetX normalization offset (bounds min X)
+     * @param offsetY normalization offset (bounds min Y)
+     * @param offsetZ normalization offset (bounds min Z)
+     * @param version VERSION_LEGACY or VERSION_PACKED
+     * @param stateSerializer converts a BlockState to its palette string
+     */
+    public static CompoundTag write(ConstructionSnapshot snapshot, Iterable<String> roomIds,
+                                   int offsetX, int offsetY, int offsetZ, int version,
+                                   Function<BlockState, String> stateSerializer) {
+        CompoundTag root = new CompoundTag();
+        PaletteBuilder palette = new PaletteBuilder(stateSerializer);
+
+        if (version >= VERSION_PACKED) {
+            root.put("blocks", writePackedSection(snapshot.blocks(), snapshot.blockEntityNbt(),
+                offsetX, offsetY, offsetZ, palette));
+        } else {
+            root.put("blocks", writeLegacySection(snapshot.blocks(), snapshot.blockEntityNbt(),
+                offsetX, offsetY, offsetZ, palette));
+        }
+
+        // Room deltas (shared palette, same normalization)
+        CompoundTag roomsTag = new CompoundTag();
+        for (String roomId : roomIds) {
+            ConstructionSnapshot.RoomSnapshot roomSnapshot = snapshot.rooms().get(roomId);
+            if (roomSnapshot == null || roomSnapshot.blocks().isEmpty()) continue;
+
+            CompoundTag roomTag = new CompoundTag();
+            if (version >= VERSION_PACKED) {
+                roomTag.put("blocks", writePackedSection(roomSnapshot.blocks(), roomSnapshot.blockEntityNbt(),
+                    offsetX, offsetY, offsetZ, palette));
+            } else {
+                roomTag.put("blocks", writeLegacySection(roomSnapshot.blocks(), roomSnapshot.blockEntityNbt(),
+                    offsetX, offsetY, offsetZ, palette));
+            }
+            roomsTag.put(roomId, roomTag);
+        }
+
+        root.put("palette", palette.paletteList);
+        root.putInt("version", version);
+        if (!roomsTag.isEmpty()) {
+            root.put("rooms", roomsTag);
+        }
+        return root;
+    }
+
+    private static ListTag writeLegacySection(PalettedBlockMap blocks, Map<BlockPos, CompoundTag> blockEntityNbt,
+                                              int offsetX, int offsetY, int offsetZ, PaletteBuilder palette) {
+        ListTag blocksList = new ListTag();
+        BlockPos.MutableBlockPos lookup = new BlockPos.MutableBlockPos();
+        blocks.forEachBlock((x, y, z, state) -> {
+            CompoundTag blockTag = new CompoundTag();
+            blockTag.putInt("x", x - offsetX);
+            blockTag.putInt("y", y - offsetY);
+            blockTag.putInt("z", z - offsetZ);
+            blockTag.putInt("p", palette.indexOf(state));
+
+            CompoundTag nbt = blockEntityNbt.isEmpty() ? null : blockEntityNbt.get(lookup.set(x, y, z));
+            if (nbt != null && !nbt.isEmpty()) {
+                blockTag.put("nbt", nbt);
+            }
+            blocksList.add(blockTag);
+        });
+        return blocksList;
+    }
+
+    private static CompoundTag writePackedSection(PalettedBlockMap blocks, Map<BlockPos, CompoundTag> blockEntityNbt,
+                                                  int offsetX, int offsetY, int offsetZ, PaletteBuilder palette) {
+        CompoundTag section = new CompoundTag();
+        int count = blocks.size();
+        section.putInt("count", count);
+        if (count == 0) {
+            return section;
+        }
+
+        // Section extent (normalized), registering palette entries on the way
+        int[] extent = { Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+            Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE };
+        blocks.forEachBlock(offsetX, offsetY, offsetZ, (x, y, z, state) -> {
+            if (x < extent[0]) extent[0] = x;
+            if (y < extent[1]) extent[1] = y;
+            if (z < extent[2]) extent[2] = z;
+            if (x > extent[3]) extent[3] = x;
+            if (y > extent[4]) extent[4] = y;
+            if (z > extent[5]) extent[5] = z;
+            palette.indexOf(state);
+        });
+        int minX = extent[0], minY = extent[1], minZ = extent[2];
+
+        int sizeX = extent[3] - minX + 1;
+        int sizeY = extent[4] - minY + 1;
+        int sizeZ = extent[5] - minZ + 1;
+        long volume = (long) sizeX * sizeY * sizeZ;
+
+        int bits = PackedIndexArray.bitsFor(palette.size());
+        boolean dense = volume <= Integer.MAX_VALUE
+            && PackedIndexArray.longsFor(bits, volume) <= count + PackedIndexArray.longsFor(bits, count);
+
+        // The paletted map visits blocks in Y-Z-X order, i.e. by ascending volume index:
+        // ordinals are the visit order, no sorting needed
+        PackedIndexArray packed = new PackedIndexArray(bits, dense ? (int) volume : count);
+        long[] keys = dense ? null : new long[count];
+        ListTag nbtList = new ListTag();
+        BlockPos.MutableBlockPos lookup = new BlockPos.MutableBlockPos();
+        int[] ordinal = {0};
+
+        blocks.forEachBlock(offsetX, offsetY, offsetZ, (x, y, z, state) -> {
+            int i = ordinal[0]++;
+            long key = ((long) (y - minY) * sizeZ + (z - minZ)) * sizeX + (x - minX);
+            int paletteIndex = palette.indexOf(state);
+            if (dense) {
+                packed.set((int) key, paletteIndex + 1);
+            } else {
+                packed.set(i, paletteIndex);
+                keys[i] = key;
+            }
+
+            CompoundTag nbt = blockEntityNbt.isEmpty() ? null
+                : blockEntityNbt.get(lookup.set(x + offsetX, y + offsetY, z + offsetZ));
+            if (nbt != null && !nbt.isEmpty()) {
+                CompoundTag entry = new CompoundTag();
+                entry.putInt("i", i);
+                entry.put("nbt", nbt);
+                nbtList.add(entry);
+            }
+        });
+
+        section.putIntArray("origin", new int[] { minX, minY, minZ });
+        section.putIntArray("size", new int[] { sizeX, sizeY, sizeZ });
+        section.putInt("bits", bits);
+        section.putString("layout", dense ? LAYOUT_DENSE : LAYOUT_SPARSE);
+        section.putLongArray("data", packed.getRaw());
+        if (!dense) {
+            section.putLongArray("positions", keys);
+        }
+        if (!nbtList.isEmpty()) {
+            section.put("nbt", nbtList);
+        }
+        return section;
+    }
+
+    /**
+     * Shared palette: state -> index, serializing each distinct BlockState only once.
+     */
+    private static final class PaletteBuilder {
+        private final Function<BlockState, String> serializer;
+        private final Map<BlockState, Integer> byState = new IdentityHashMap<>();
+        private final Map<String, Integer> byString = new HashMap<>();
+        private final ListTag paletteList = new ListTag();
+
+        PaletteBuilder(Function<BlockState, String> serializer) {
+            this.serializer = serializer;
+        }
+
+        int indexOf(BlockState state) {
+            Integer cached = byState.get(state);
+            if (cached != null) {
+                return cached;
+            }
+            String stateString = serializer.apply(state);
+            int index = byString.computeIfAbsent(stateString, s -> {
+                CompoundTag paletteEntry = new CompoundTag();
+                paletteEntry.putString("state", s);
+                paletteList.add(paletteEntry);
+                return paletteList.size() - 1;
+            });
+            byState.put(state, index);
+            return index;
+        }
+
+        int size() {
+            return paletteList.size();
+        }
+    }
+
+    // ===== Reading =====
+
+    /**
+     * Gets the format version of a blocks.nbt root (files without version are legacy).
+     */
+    public static int getVersion(CompoundTag root) {
+        return root.getIntOr("version", VERSION_LEGACY);
+    }
+
+    /**
+     * Reads the palette state strings, in index order.
+     */
+    public static List<String> readPalette(CompoundTag root) {
+        ListTag paletteList = root.getList("palette").orElse(new ListTag());
+        List<String> palette = new ArrayList<>(paletteList.size());
+        for (int i = 0; i < paletteList.size(); i++) {
+            CompoundTag paletteEntry = paletteList.getCompound(i).orElseThrow();
+            palette.add(paletteEntry.getString("state").orElse(""));
+        }
+        return palette;
+    }
+
+    /**
+     * Visits every block of a section.
+     *
+     * @param container the root tag (base blocks) or a room tag (room blocks)
+     * @param version the root format version
+     * @param visitor receives normalized coordinates, palette index and optional block entity NBT
+     */
+    public static void readSection(CompoundTag container, int version, BlockVisitor visitor) {
+        if (version >= VERSION_PACKED) {
+            container.getCompound("blocks").ifPresent(section -> readPackedSection(section, visitor));
+        } else {
+            readLegacySection(container.getList("blocks").orElse(new ListTag()), visitor);
+        }
+    }
+
+    private static void readLegacySection(ListTag blocksList, BlockVisitor visitor) {
+        for (int i = 0; i < blocksList.size(); i++) {
+            CompoundTag blockTag = blocksList.getCompound(i).orElseThrow();
+            CompoundTag nbt = blockTag.getCompound("nbt").orElse(null);
+            visitor.accept(
+                blockTag.getIntOr("x", 0),
+                blockTag.getIntOr("y", 0),
+                blockTag.getIntOr("z", 0),
+                blockTag.getIntOr("p", 0),
+                nbt != null && !nbt.isEmpty() ? nbt : null);
+        }
+    }
+
+    private static void readPackedSection(CompoundTag section, BlockVisitor visitor) {
+        int count = section.getIntOr("count", 0);
+        if (count == 0) {
+            return;
+        }
+
+        int[] origin = section.getIntArray("origin").orElse(new int[3]);
+        int[] size = section.getIntArray("size").orElse(new int[3]);
+        int bits = section.getIntOr("bits", 1);
+        boolean dense = LAYOUT_DENSE.equals(section.getString("layout").orElse(LAYOUT_DENSE));
+        long[] data = section.getLongArray("data").orElse(null);
+
+        int sizeX = size[0];
+        int sizeZ = size[2];
+
+        // Sparse block entity table keyed by ordinal
+        Map<Integer, CompoundTag> nbtByOrdinal = new HashMap<>();
+        ListTag nbtList = section.getList("nbt").orElse(new ListTag());
+        for (int i = 0; i < nbtList.size(); i++) {
+            CompoundTag entry = nbtList.getCompound(i).orElseThrow();
+            CompoundTag nbt = entry.getCompound("nbt").orElse(null);
+            if (nbt != null && !nbt.isEmpty()) {
+                nbtByOrdinal.put(entry.getIntOr("i", -1), nbt);
+            }
+        }
+
+        if (dense) {
+            int volume = sizeX * size[1] * sizeZ;
+            PackedIndexArray packed = new PackedIndexArray(bits, volume, data);
+            int ordinal = 0;
+            for (int index = 0; index < volume && ordinal < count; index++) {
+                int value = packed.get(index);
+                if (value == 0) continue;
+
+                int x = index % sizeX;
+                int rest = index / sizeX;
+                int z = rest % sizeZ;
+                int y = rest / sizeZ;
+                visitor.accept(x + origin[0], y + origin[1], z + origin[2], value - 1,
+                    nbtByOrdinal.isEmpty() ? null : nbtByOrdinal.get(ordinal));
+                ordinal++;
+            }
+        } else {
+            long[] positions = section.getLongArray("positions").orElse(new long[0]);
+            int n = Math.min(count, positions.length);
+            PackedIndexArray packed = new PackedIndexArray(bits, count, data);
+            for (int i = 0; i < n; i++) {
+                long key = positions[i];
+                int x = (int) (key % sizeX);
+                long rest = key / sizeX;
+                int z = (int) (rest % sizeZ);
+                int y = (int) (rest / sizeZ);
+                visitor.accept(x + origin[0], y + origin[1], z + origin[2], packed.get(i),
+                    nbtByOrdinal.isEmpty() ? null : nbtByOrdinal.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package it.magius.struttura.architect.storage;
+
+import it.magius.struttura.architect.Architect;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.Identifier;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.Property;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts BlockStates to and from their palette string form.
+ * Format: "minecraft:stone" or "minecraft:oak_stairs[facing=north,half=bottom]"
+ *
+ * Blocks are resolved with a direct registry lookup and properties through the
+ * block's StateDefinition, so parsing is independent of registry size.
+ * Both directions are memoized: the set of distinct states is bounded by the
+ * block registry, while palettes repeat the same strings across every load and pull.
+ *
+ * Thread-safe: used from the server thread, download threads and the storage IO executor.
+ */
+public final class BlockStateCodec {
+
+    // State string -> parsed state (unknown blocks are cached as AIR to avoid re-logging)
+    private static final Map<String, BlockState> PARSED = new ConcurrentHashMap<>();
+
+    // BlockState -> state string (BlockState uses identity equality, states are interned by Minecraft)
+    private static final Map<BlockState, String> SERIALIZED = new ConcurrentHashMap<>();
+
+    // Block -> registry id string (e.g. "minecraft:stone")
+    private static final Map<Block, String> BLOCK_IDS = new ConcurrentHashMap<>();
+
+    private BlockStateCodec() {}
+
+    /**
+     * Serializes a BlockState to its palette string.
+     */
+    public static String serialize(BlockState state) {
+        String cached = SERIALIZED.get(state);
+        if (cached != null) {
+            return cached;
+        }
+        String result = serializeUncached(state);
+        SERIALIZED.put(state, result);
+        return result;
+    }
+
+    /**
+     * Parses a palette string into a BlockState.
+     * Unknown blocks resolve to AIR, unknown properties/values are ignored.
+     */
+    public static BlockState parse(String stateString) {
+        BlockState cached = PARSED.get(stateString);
+        if (cached != null) {
+            return cached;
+        }
+        BlockState result = parseUncached(stateString);
+        PARSED.put(stateString, result);
+        return result;
+    }
+
+    /**
+     * Gets the registry id string of a block (e.g. "minecraft:stone").
+     */
+    public static String blockId(Block block) {
+        return BLOCK_IDS.computeIfAbsent(block, b -> BuiltInRegistries.BLOCK.getKey(b).toString());
+    }
+
+    /**
+     * Gets the registry id string of the block of a state.
+     */
+    public static String blockId(BlockState state) {
+        return blockId(state.getBlock());
+    }
+
+    private static String serializeUncached(BlockState state) {
+        StringBuilder sb = new StringBuilder(blockId(state.getBlock()));
+
+        var properties = state.getValues();
+        if (!properties.isEmpty()) {
+            sb.append('[');
+            boolean first = true;
+            for (var entry : properties.entrySet()) {
+                if (!first) sb.append(',');
+                first = false;
+                sb.append(entry.getKey().getName());
+                sb.append('=');
+                sb.append(entry.getValue().toString().toLowerCase());
+            }
+            sb.append(']');
+        }
+
+        return sb.toString();
+    }
+
+    private static BlockState parseUncached(String stateString) {
+        try {
+            int bracketIndex = stateString.indexOf('[');
+            String blockIdStr = bracketIndex != -1 ? stateString.substring(0, bracketIndex) : stateString;
+
+            Identifier id = Identifier.tryParse(blockIdStr);
+            Optional<Block> block = id != null ? BuiltInRegistries.BLOCK.getOptional(id) : Optional.empty();
+            if (block.isEmpty()) {
+                Architect.LOGGER.warn("Unknown block in state string: {}", stateString);
+                return Blocks.AIR.defaultBlockState();
+            }
+
+            BlockState state = block.get().defaultBlockState();
+            if (bracketIndex == -1) {
+                return state;
+            }
+
+            // Properties: "key=value,key=value]" - walk the string without splitting
+            var definition = block.get().getStateDefinition();
+            int end = stateString.lastIndexOf(']');
+            if (end < bracketIndex) {
+                end = stateString.length();
+            }
+            int start = bracketIndex + 1;
+            while (start < end) {
+                int comma = stateString.indexOf(',', start);
+                if (comma == -1 || comma > end) {
+                    comma = end;
+                }
+                int equals = stateString.indexOf('=', start);
+                if (equals != -1 && equals < comma) {
+                    String name = stateString.substring(start, equals).trim();
+                    String value = stateString.substring(equals + 1, comma).trim();
+                    Property<?> property = definition.getProperty(name);
+                    if (property != null) {
+                        state = applyProperty(state, property, value);
+                    }
+                }
+                start = comma + 1;
+            }
+
+            return state;
+
+        } catch (Exception e) {
+            Architect.LOGGER.warn("Failed to parse block state: {}", stateString, e);
+            return Blocks.AIR.defaultBlockState();
+        }
+    }
+
+    private static <T extends Comparable<T>> BlockState applyProperty(BlockState state, Property<T> property, String value) {
+        Optional<T> parsed = property.getValue(value);
+        return parsed.isPresent() ? state.setValue(property, parsed.get()) : state;
+    }
+}
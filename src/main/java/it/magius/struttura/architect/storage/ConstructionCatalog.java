@@ -0,0 +1,301 @@
+package it.magius.struttura.architect.storage;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import it.magius.struttura.architect.Architect;
+import it.magius.struttura.architect.i18n.LanguageUtils;
+import it.magius.struttura.architect.model.Construction;
+import it.magius.struttura.architect.model.ConstructionBounds;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.Tag;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact index of the constructions saved on disk (catalog.nbt in the storage directory).
+ *
+ * Holds what lists, suggestions and teleports need (titles, author, bounds, counts)
+ * without loading metadata.json or blocks.nbt. Each entry records the CRC32 and
+ * modification time of the metadata.json it was built from, so stale entries can be
+ * detected when the construction is loaded.
+ *
+ * Kept up to date by ConstructionStorage on every metadata write and delete.
+ * Thread-safe: updated from the storage IO thread, read from the server thread.
+ */
+public final class ConstructionCatalog {
+
+    public static final String FILE_NAME = "catalog.nbt";
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Catalog data for one construction.
+     *
+     * @param id the construction ID
+     * @param authorName author display name
+     * @param titles titles by BCP 47 language code
+     * @param bounds min/max corners as {minX, minY, minZ, maxX, maxY, maxZ}, or null if not set
+     * @param blockCount base block count (without rooms)
+     * @param totalBlockCount block count including room changes
+     * @param totalEntityCount entity count including rooms
+     * @param roomCount number of rooms
+     * @param metadataHash CRC32 of metadata.json
+     * @param lastModified metadata.json modification time (epoch millis)
+     */
+    public record Entry(String id, String authorName, Map<String, String> titles, int[] bounds,
+                        int blockCount, int totalBlockCount, int totalEntityCount, int roomCount,
+                        long metadataHash, long lastModified) {
+
+        /**
+         * Builds an entry from the metadata.json content.
+         */
+        public static Entry fromMetadata(JsonObject json, long metadataHash, long lastModified) {
+            String id = json.get("id").getAsString();
+            String authorName = json.has("authorName") ? json.get("authorName").getAsString() : "";
+
+            Map<String, String> titles = new HashMap<>();
+            if (json.has("titles") && json.get("titles").isJsonObject()) {
+                for (var entry : json.getAsJsonObject("titles").entrySet()) {
+                    if (!entry.getValue().isJsonNull()) {
+                        titles.put(entry.getKey(), entry.getValue().getAsString());
+                    }
+                }
+            }
+
+            int[] bounds = null;
+            if (json.has("bounds") && json.get("bounds").isJsonObject()) {
+                JsonObject b = json.getAsJsonObject("bounds");
+                if (b.has("minX") && b.has("maxX")) {
+                    bounds = new int[] {
+                        b.get("minX").getAsInt(), b.get("minY").getAsInt(), b.get("minZ").getAsInt(),
+                        b.get("maxX").getAsInt(), b.get("maxY").getAsInt(), b.get("maxZ").getAsInt()
+                    };
+                }
+            }
+
+            int totalBlocks = json.has("blocksCount") ? json.get("blocksCount").getAsInt() : 0;
+            int totalEntities = json.has("entitiesCount") ? json.get("entitiesCount").getAsInt() : 0;
+
+            // blocksCount includes room changes, the base count is derived from the room list
+            int roomBlocks = 0;
+            int roomCount = 0;
+            if (json.has("rooms") && json.get("rooms").isJsonArray()) {
+                for (JsonElement element : json.getAsJsonArray("rooms")) {
+                    JsonObject roomJson = element.getAsJsonObject();
+                    if (roomJson.has("blockChanges")) {
+                        roomBlocks += roomJson.get("blockChanges").getAsInt();
+                    }
+                    roomCount++;
+                }
+            }
+
+            return new Entry(id, authorName, LanguageUtils.migrateKeys(titles), bounds,
+                Math.max(0, totalBlocks - roomBlocks), totalBlocks, totalEntities, roomCount,
+                metadataHash, lastModified);
+        }
+
+        /**
+         * Builds an entry from an in-memory construction (e.g. one still being edited).
+         * Not backed by a metadata.json, so hash and modification time are 0.
+         */
+        public static Entry of(Construction construction) {
+            ConstructionBounds b = construction.getBounds();
+            int[] bounds = b.isValid()
+                ? new int[] { b.getMinX(), b.getMinY(), b.getMinZ(), b.getMaxX(), b.getMaxY(), b.getMaxZ() }
+                : null;
+            return new Entry(construction.getId(), construction.getAuthorName(),
+                new HashMap<>(construction.getTitles()), bounds,
+                construction.getBlockCount(), construction.getTotalBlockCount(),
+                construction.getTotalEntityCount(), construction.getRoomCount(), 0L, 0L);
+        }
+
+        /**
+         * Gets the title in the preferred language, with fallback (same rules as Construction).
+         */
+        public String getTitleWithFallback(String preferredLang) {
+            if (titles.containsKey(preferredLang) && !titles.get(preferredLang).isEmpty()) {
+                return titles.get(preferredLang);
+            }
+            if (titles.containsKey("en") && !titles.get("en").isEmpty()) {
+                return titles.get("en");
+            }
+            return titles.values().stream().filter(t -> t != null && !t.isEmpty()).findFirst().orElse("");
+        }
+
+        /**
+         * Center of the bounds, or null if the construction has no bounds.
+         */
+        public BlockPos getCenter() {
+            if (bounds == null) {
+                return null;
+            }
+            return new BlockPos(
+                (bounds[0] + bounds[3]) / 2,
+                (bounds[1] + bounds[4]) / 2,
+                (bounds[2] + bounds[5]) / 2
+            );
+        }
+
+        private CompoundTag toTag() {
+            CompoundTag tag = new CompoundTag();
+            tag.putString("id", id);
+            tag.putString("author", authorName);
+            CompoundTag titlesTag = new CompoundTag();
+            for (var entry : titles.entrySet()) {
+                titlesTag.putString(entry.getKey(), entry.getValue());
+            }
+            tag.put("titles", titlesTag);
+            if (bounds != null) {
+                tag.putIntArray("bounds", bounds);
+            }
+            tag.putInt("blocks", blockCount);
+            tag.putInt("totalBlocks", totalBlockCount);
+            tag.putInt("totalEntities", totalEntityCount);
+            tag.putInt("rooms", roomCount);
+            tag.putLong("hash", metadataHash);
+            tag.putLong("mtime", lastModified);
+            return tag;
+        }
+
+        private static Entry fromTag(CompoundTag tag) {
+            Map<String, String> titles = new HashMap<>();
+            CompoundTag titlesTag = tag.getCompoundOrEmpty("titles");
+            for (String lang : titlesTag.keySet()) {
+                titles.put(lang, titlesTag.getStringOr(lang, ""));
+            }
+            int[] bounds = tag.getIntArray("bounds").filter(b -> b.length == 6).orElse(null);
+            return new Entry(
+                tag.getStringOr("id", ""),
+                tag.getStringOr("author", ""),
+                titles,
+                bounds,
+                tag.getIntOr("blocks", 0),
+                tag.getIntOr("totalBlocks", 0),
+                tag.getIntOr("totalEntities", 0),
+                tag.getIntOr("rooms", 0),
+                tag.getLongOr("hash", 0L),
+                tag.getLongOr("mtime", 0L)
+            );
+        }
+    }
+
+    private final Path file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty = false;
+
+    ConstructionCatalog(Path storageDirectory) {
+        this.file = storageDirectory.resolve(FILE_NAME);
+    }
+
+    /**
+     * Reads catalog.nbt.
+     *
+     * @return false if the file is missing, unreadable or from another format version
+     *         (the caller should rebuild from the construction directories)
+     */
+    boolean load() {
+        entries.clear();
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (InputStream is = Files.newInputStream(file)) {
+            CompoundTag root = NbtIo.readCompressed(is, NbtAccounter.unlimitedHeap());
+            if (root.getIntOr("version", 0) != FORMAT_VERSION) {
+                Architect.LOGGER.info("Construction catalog format changed, rebuilding");
+                return false;
+            }
+            ListTag list = root.getListOrEmpty("entries");
+            for (Tag element : list) {
+                if (element instanceof CompoundTag entryTag) {
+                    Entry entry = Entry.fromTag(entryTag);
+                    if (!entry.id().isEmpty()) {
+                        entries.put(entry.id(), entry);
+                    }
+                }
+            }
+            dirty = false;
+            return true;
+        } catch (Exception e) {
+            Architect.LOGGER.warn("Failed to read construction catalog, rebuilding", e);
+            entries.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Writes catalog.nbt if anything changed since the last write.
+     */
+    synchronized void saveIfDirty() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        ListTag list = new ListTag();
+        for (Entry entry : entries.values()) {
+            list.add(entry.toTag());
+        }
+        CompoundTag root = new CompoundTag();
+        root.putInt("version", FORMAT_VERSION);
+        root.put("entries", list);
+
+        try {
+            ConstructionStorage.writeAtomically(file, os -> NbtIo.writeCompressed(root, os));
+        } catch (IOException e) {
+            dirty = true;
+            Architect.LOGGER.error("Failed to write construction catalog", e);
+        }
+    }
+
+    void put(Entry entry) {
+        entries.put(entry.id(), entry);
+        dirty = true;
+    }
+
+    void remove(String id) {
+        if (entries.remove(id) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Replaces all entries with the result of a rebuild started at scanStartMillis.
+     * Entries written while the scan was running (newer than the scan start) are kept.
+     */
+    void replaceAll(Map<String, Entry> rebuilt, long scanStartMillis) {
+        entries.entrySet().removeIf(e -> !rebuilt.containsKey(e.getKey())
+            && e.getValue().lastModified() < scanStartMillis);
+        for (Entry entry : rebuilt.values()) {
+            entries.merge(entry.id(), entry,
+                (current, scanned) -> current.lastModified() > scanned.lastModified() ? current : scanned);
+        }
+        dirty = true;
+    }
+
+    public Entry get(String id) {
+        return entries.get(id);
+    }
+
+    public boolean contains(String id) {
+        return entries.containsKey(id);
+    }
+
+    public Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,178 @@
+package it.magius.struttura.architect.storage;
+
+import com.google.gson.JsonObject;
+import it.magius.struttura.architect.Architect;
+import it.magius.struttura.architect.model.ConstructionBounds;
+import it.magius.struttura.architect.model.ConstructionSnapshot;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Background writer for construction saves.
+ *
+ * The server thread captures everything that depends on mutable state (metadata JSON,
+ * world snapshot, bounds, room ids) into a {@link PendingSave}; serialization, compression
+ * and disk writes then run on a single dedicated IO thread.
+ *
+ * Saves for the same ID are merged while they wait in the queue: the latest metadata wins,
+ * and a metadata-only save keeps the block/entity snapshot of an earlier full save.
+ * The final disk state is the same as running the saves one after the other.
+ */
+final class ConstructionSaveQueue {
+
+    private static final long FLUSH_TIMEOUT_SECONDS = 60;
+
+    /**
+     * Everything needed to write a construction, captured on the server thread.
+     *
+     * @param id the construction ID
+     * @param metadata metadata.json content
+     * @param snapshot block/entity data, or null for a metadata-only save
+     * @param bounds bounds used to normalize the snapshot (copy)
+     * @param roomIds rooms to write from the snapshot (copy)
+     * @param summary counts for the log line
+     */
+    record PendingSave(String id, JsonObject metadata, ConstructionSnapshot snapshot,
+                       ConstructionBounds bounds, Set<String> roomIds, String summary) {
+
+        /**
+         * Merges this (newer) save with an older pending one for the same ID.
+         */
+        PendingSave mergedWith(PendingSave older) {
+            if (snapshot != null || older.snapshot == null) {
+                return this;
+            }
+            return new PendingSave(id, metadata, older.snapshot, older.bounds, older.roomIds, summary);
+        }
+    }
+
+    private final Map<String, PendingSave> pending = new ConcurrentHashMap<>();
+    private final Consumer<PendingSave> writer;
+    private ExecutorService executor;
+    private volatile String writingId;
+
+    ConstructionSaveQueue(Consumer<PendingSave> writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Queues a save. If a save for the same ID is still waiting, the two are merged.
+     */
+    void submit(PendingSave save) {
+        AtomicBoolean schedule = new AtomicBoolean(false);
+        pending.compute(save.id(), (id, older) -> {
+            if (older == null) {
+                schedule.set(true);
+                return save;
+            }
+            return save.mergedWith(older);
+        });
+
+        if (schedule.get()) {
+            executor().execute(() -> runPending(save.id()));
+        }
+    }
+
+    /**
+     * Removes a queued (not yet started) save, e.g. before deleting the construction.
+     */
+    void cancel(String id) {
+        pending.remove(id);
+    }
+
+    /**
+     * Blocks until any queued or running save for the given ID has reached the disk.
+     * Used before reading a construction back.
+     */
+    void awaitPending(String id) {
+        if (pending.containsKey(id) || id.equals(writingId)) {
+            flush();
+        }
+    }
+
+    /**
+     * Blocks until every save submitted so far has been written.
+     * Must not be called from the IO thread.
+     */
+    void flush() {
+        ExecutorService current;
+        synchronized (this) {
+            current = executor;
+        }
+        if (current == null || current.isShutdown()) {
+            return;
+        }
+        try {
+            // Single-threaded FIFO: the barrier completes after all earlier tasks
+            current.submit(() -> {}).get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            Architect.LOGGER.error("Timed out waiting for construction saves to complete", e);
+        }
+    }
+
+    /**
+     * Flushes pending saves and stops the IO thread.
+     */
+    void close() {
+        flush();
+        synchronized (this) {
+            if (executor != null) {
+                executor.shutdown();
+                try {
+                    if (!executor.awaitTermination(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                        Architect.LOGGER.warn("Construction IO thread did not terminate in time");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                executor = null;
+            }
+        }
+    }
+
+    /**
+     * Number of saves waiting to be written.
+     */
+    int getPendingCount() {
+        return pending.size();
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null || executor.isShutdown()) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Struttura-Storage-IO");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    private void runPending(String id) {
+        // Publish the ID before taking it out of pending: awaitPending checks pending first,
+        // so it always sees the save in one of the two places until it is on disk
+        writingId = id;
+        try {
+            PendingSave save = pending.remove(id);
+            if (save == null) {
+                return;
+            }
+            writer.accept(save);
+        } catch (Exception e) {
+            Architect.LOGGER.error("Async save failed for construction: {}", id, e);
+        } finally {
+            writingId = null;
+        }
+    }
+}
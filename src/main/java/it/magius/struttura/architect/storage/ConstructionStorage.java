@@ -6,30 +6,41 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonElement;
 import it.magius.struttura.architect.Architect;
+import it.magius.struttura.architect.config.ArchitectConfig;
 import it.magius.struttura.architect.i18n.LanguageUtils;
 import it.magius.struttura.architect.model.Construction;
 import it.magius.struttura.architect.model.ConstructionBounds;
 import it.magius.struttura.architect.model.ConstructionSnapshot;
 import it.magius.struttura.architect.model.EntityData;
 import it.magius.struttura.architect.model.ModInfo;
+import it.magius.struttura.architect.model.PalettedBlockMap;
 import it.magius.struttura.architect.model.Room;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.NbtIo;
 import net.minecraft.nbt.NbtAccounter;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
 
 /**
  * Gestisce il salvataggio e il caricamento delle costruzioni su filesystem.
@@ -40,7 +51,7 @@ import java.util.*;
  *       └── category/
  *           └── name/
  *               ├── metadata.json  (info costruzione)
- *               └── blocks.nbt     (dati blocchi)
+ *               └── blocks.nbt     (dati blocchi, vedi BlockNbtFormat)
  */
 public class ConstructionStorage {
 
@@ -50,6 +61,12 @@ public class ConstructionStorage {
 
     private final Path baseDirectory;
 
+    // Background writer for saveAsync (IO thread created on first use)
+    private final ConstructionSaveQueue saveQueue = new ConstructionSaveQueue(this::writePendingSave);
+
+    // Index of saved constructions (loaded on first use)
+    private ConstructionCatalog catalog;
+
     /**
      * Creates a ConstructionStorage for Architect mode (editing).
      * Path: {gameDirectory}/struttura/architect/buildings/
@@ -78,11 +95,14 @@ public class ConstructionStorage {
      */
     public boolean save(Construction construction) {
         try {
+            saveQueue.awaitPending(construction.getId());
+
             Path constructionDir = getConstructionDirectory(construction.getId());
             ensureDirectoryExists(constructionDir);
 
             // Save metadata only (no blocks/entities NBT)
-            saveMetadata(construction, constructionDir);
+            saveMetadata(buildMetadataJson(construction), constructionDir);
+            getCatalog().saveIfDirty();
 
             Architect.LOGGER.info("Saved construction metadata: {} ({} blocks, {} entities, {} rooms)",
                 construction.getId(), construction.getBlockCount(), construction.getEntityCount(), construction.getRoomCount());
@@ -104,17 +124,16 @@ public class ConstructionStorage {
      */
     public boolean save(Construction construction, ConstructionSnapshot snapshot) {
         try {
+            saveQueue.awaitPending(construction.getId());
+
             Path constructionDir = getConstructionDirectory(construction.getId());
             ensureDirectoryExists(constructionDir);
 
-            // Save metadata
-            saveMetadata(construction, constructionDir);
-
-            // Save blocks from snapshot
-            saveBlocks(snapshot, construction.getBounds(), construction.getRooms(), constructionDir);
-
-            // Save entities from snapshot
-            saveEntities(snapshot, construction.getRooms(), constructionDir);
+            // Blocks and entities first, metadata.json last (listAll only sees directories with metadata)
+            saveBlocks(snapshot, construction.getBounds(), construction.getRooms().keySet(), constructionDir);
+            saveEntities(snapshot, construction.getRooms().keySet(), constructionDir);
+            saveMetadata(buildMetadataJson(construction), constructionDir);
+            getCatalog().saveIfDirty();
 
             Architect.LOGGER.info("Saved construction: {} ({} blocks, {} entities, {} rooms)",
                 construction.getId(), construction.getBlockCount(), construction.getEntityCount(), construction.getRoomCount());
@@ -126,6 +145,241 @@ public class ConstructionStorage {
         }
     }
 
+    /**
+     * Queues a metadata-only save on the storage IO thread.
+     * The metadata JSON is built here (caller thread), the write happens in background.
+     *
+     * @param construction the construction to save
+     */
+    public void saveAsync(Construction construction) {
+        saveAsync(construction, null);
+    }
+
+    /**
+     * Queues a full save (metadata + blocks.nbt + entities.nbt) on the storage IO thread.
+     * Must be called on the server thread: metadata, bounds and room ids are captured here,
+     * while NBT serialization, GZIP compression and the atomic file writes run in background.
+     * The snapshot must not be modified after this call.
+     *
+     * @param construction the construction to save
+     * @param snapshot the world snapshot, or null for a metadata-only save
+     */
+    public void saveAsync(Construction construction, ConstructionSnapshot snapshot) {
+        try {
+            String summary = String.format("%d blocks, %d entities, %d rooms",
+                construction.getBlockCount(), construction.getEntityCount(), construction.getRoomCount());
+            saveQueue.submit(new ConstructionSaveQueue.PendingSave(
+                construction.getId(),
+                buildMetadataJson(construction),
+                snapshot,
+                construction.getBounds().copy(),
+                new LinkedHashSet<>(construction.getRooms().keySet()),
+                summary
+            ));
+        } catch (Exception e) {
+            Architect.LOGGER.error("Failed to queue save for construction: {}", construction.getId(), e);
+        }
+    }
+
+    /**
+     * Blocks until all queued async saves have been written to disk.
+     */
+    public void flushPendingSaves() {
+        saveQueue.flush();
+    }
+
+    /**
+     * Flushes queued async saves and stops the storage IO thread.
+     * Called when the registry shuts down.
+     */
+    public void close() {
+        int pending = saveQueue.getPendingCount();
+        if (pending > 0) {
+            Architect.LOGGER.info("Flushing {} pending construction saves", pending);
+        }
+        saveQueue.close();
+        ConstructionCatalog loadedCatalog = getLoadedCatalog();
+        if (loadedCatalog != null) {
+            loadedCatalog.saveIfDirty();
+        }
+    }
+
+    /**
+     * Gets the catalog of saved constructions, loading catalog.nbt on first use.
+     * If the catalog is missing or unreadable it is rebuilt from the metadata.json files.
+     */
+    public synchronized ConstructionCatalog getCatalog() {
+        if (catalog == null) {
+            catalog = new ConstructionCatalog(baseDirectory);
+            long start = System.nanoTime();
+            if (catalog.load()) {
+                Architect.LOGGER.info("Loaded construction catalog: {} entries in {} ms",
+                    catalog.size(), (System.nanoTime() - start) / 1_000_000);
+            } else {
+                rebuildCatalog();
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Outcome of a catalog rebuild.
+     *
+     * @param constructions entries read successfully
+     * @param failed constructions skipped because their metadata.json could not be read
+     * @param bytesRead total metadata bytes read
+     * @param elapsedNanos wall-clock duration of the rebuild
+     */
+    public record CatalogRebuildResult(int constructions, int failed, long bytesRead, long elapsedNanos) {
+
+        public long elapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        public double constructionsPerSecond() {
+            return elapsedNanos > 0 ? (constructions + failed) * 1_000_000_000.0 / elapsedNanos : 0;
+        }
+
+        public double megabytesPerSecond() {
+            return elapsedNanos > 0 ? (bytesRead / (1024.0 * 1024.0)) * 1_000_000_000.0 / elapsedNanos : 0;
+        }
+    }
+
+    /**
+     * Rebuilds the catalog by scanning the storage directory and reading every metadata.json
+     * (blocks.nbt is not read: counts and bounds are in the metadata).
+     * Directory walks and metadata parsing run on a fork-join pool sized by
+     * the storageParallelism config (0 = one worker per core).
+     *
+     * @return counts and throughput of the rebuild
+     */
+    public CatalogRebuildResult rebuildCatalog() {
+        long start = System.nanoTime();
+        long scanStartMillis = System.currentTimeMillis();
+
+        Map<String, ConstructionCatalog.Entry> rebuilt = new ConcurrentHashMap<>();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        AtomicLong bytesRead = new AtomicLong();
+
+        ForkJoinPool pool = createWorkerPool();
+        try {
+            List<String> ids = pool.submit(this::listAllParallel).get();
+            int total = ids.size();
+            int progressStep = Math.max(1, total / 10);
+
+            pool.submit(() -> ids.parallelStream().forEach(id -> {
+                ConstructionCatalog.Entry entry = readCatalogEntry(id, bytesRead);
+                if (entry != null) {
+                    rebuilt.put(id, entry);
+                } else {
+                    failed.incrementAndGet();
+                }
+                int count = done.incrementAndGet();
+                if (count % progressStep == 0 && count < total) {
+                    Architect.LOGGER.info("Rebuilding construction catalog: {}/{}", count, total);
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Architect.LOGGER.warn("Construction catalog rebuild interrupted");
+        } catch (ExecutionException e) {
+            Architect.LOGGER.error("Construction catalog rebuild failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        // Future.get() above publishes the workers' writes to this thread
+        ConstructionCatalog target = getCatalogInstance();
+        target.replaceAll(rebuilt, scanStartMillis);
+        target.saveIfDirty();
+
+        CatalogRebuildResult result = new CatalogRebuildResult(rebuilt.size(), failed.get(),
+            bytesRead.get(), System.nanoTime() - start);
+        Architect.LOGGER.info("Rebuilt construction catalog: {} entries ({} failed) in {} ms, {} constructions/s, {} MB/s",
+            result.constructions(), result.failed(), result.elapsedMillis(),
+            String.format("%.0f", result.constructionsPerSecond()), String.format("%.2f", result.megabytesPerSecond()));
+        return result;
+    }
+
+    private static ForkJoinPool createWorkerPool() {
+        int parallelism = ArchitectConfig.getInstance().getStorageParallelism();
+        if (parallelism <= 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        return new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("Struttura-Storage-Worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    private synchronized ConstructionCatalog getLoadedCatalog() {
+        return catalog;
+    }
+
+    private synchronized ConstructionCatalog getCatalogInstance() {
+        if (catalog == null) {
+            catalog = new ConstructionCatalog(baseDirectory);
+        }
+        return catalog;
+    }
+
+    /**
+     * Reads the catalog entry of a construction from its metadata.json.
+     *
+     * @return the entry, or null if the metadata is missing or invalid
+     */
+    private ConstructionCatalog.Entry readCatalogEntry(String id, AtomicLong bytesRead) {
+        Path metadataFile = getConstructionDirectory(id).resolve("metadata.json");
+        try {
+            byte[] bytes = Files.readAllBytes(metadataFile);
+            bytesRead.addAndGet(bytes.length);
+            JsonObject json = JsonParser.parseString(new String(bytes, StandardCharsets.UTF_8)).getAsJsonObject();
+            return ConstructionCatalog.Entry.fromMetadata(json, crc32(bytes),
+                Files.getLastModifiedTime(metadataFile).toMillis());
+        } catch (Exception e) {
+            Architect.LOGGER.warn("Skipping construction {} in catalog: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    private static long crc32(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    /**
+     * Writes a queued save (runs on the storage IO thread).
+     */
+    private void writePendingSave(ConstructionSaveQueue.PendingSave save) {
+        long start = System.nanoTime();
+        try {
+            Path constructionDir = getConstructionDirectory(save.id());
+            ensureDirectoryExists(constructionDir);
+
+            if (save.snapshot() != null) {
+                saveBlocks(save.snapshot(), save.bounds(), save.roomIds(), constructionDir);
+                saveEntities(save.snapshot(), save.roomIds(), constructionDir);
+            }
+            saveMetadata(save.metadata(), constructionDir);
+
+            Architect.LOGGER.info("Saved construction{}: {} ({}) in {} ms",
+                save.snapshot() != null ? "" : " metadata", save.id(), save.summary(),
+                (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            Architect.LOGGER.error("Failed to save construction: {}", save.id(), e);
+        }
+
+        // Write the catalog once the burst of saves is over
+        if (saveQueue.getPendingCount() == 0) {
+            getCatalog().saveIfDirty();
+        }
+    }
+
     /**
      * Full save with world access: creates a snapshot and saves everything.
      * Convenience method that combines snapshot creation and save.
@@ -165,10 +419,10 @@ public class ConstructionStorage {
             ensureDirectoryExists(constructionDir);
 
             // Save blocks from snapshot
-            saveBlocks(snapshot, construction.getBounds(), construction.getRooms(), constructionDir);
+            saveBlocks(snapshot, construction.getBounds(), construction.getRooms().keySet(), constructionDir);
 
             // Save entities from snapshot
-            saveEntities(snapshot, construction.getRooms(), constructionDir);
+            saveEntities(snapshot, construction.getRooms().keySet(), constructionDir);
 
             Architect.LOGGER.debug("Saved NBT cache: {} ({} blocks, {} entities)",
                 construction.getId(), snapshot.blocks().size(), snapshot.entities().size());
@@ -190,6 +444,7 @@ public class ConstructionStorage {
      */
     public ConstructionSnapshot loadNbtOnly(String id, ConstructionBounds bounds) {
         try {
+            saveQueue.awaitPending(id);
             Path constructionDir = getConstructionDirectory(id);
 
             if (!Files.exists(constructionDir)) {
@@ -202,7 +457,7 @@ public class ConstructionStorage {
             }
 
             // Load blocks and entities as snapshot data
-            ConstructionSnapshot snapshot = loadBlocksAsSnapshot(constructionDir, bounds);
+            ConstructionSnapshot snapshot = loadBlocksAsSnapshot(constructionDir, bounds, true);
 
             // Merge entity data
             List<EntityData> entities = loadEntitiesAsSnapshot(constructionDir);
@@ -232,6 +487,42 @@ public class ConstructionStorage {
         }
     }
 
+    /**
+     * Loads only the room data (blocks, block entity NBT and entities of each room) from disk,
+     * without the base blocks and entities.
+     * Used by move: the base comes from the world, room deltas and room entities only exist on disk.
+     *
+     * @param id the construction ID (RDNS)
+     * @param bounds the construction bounds (for denormalization)
+     * @return room snapshots by room id, or null if not found
+     */
+    public Map<String, ConstructionSnapshot.RoomSnapshot> loadRoomSnapshots(String id, ConstructionBounds bounds) {
+        try {
+            saveQueue.awaitPending(id);
+            Path constructionDir = getConstructionDirectory(id);
+
+            if (!Files.exists(constructionDir.resolve("blocks.nbt"))) {
+                return null;
+            }
+
+            ConstructionSnapshot snapshot = loadBlocksAsSnapshot(constructionDir, bounds, false);
+            Map<String, ConstructionSnapshot.RoomSnapshot> rooms = new HashMap<>();
+            for (var entry : snapshot.rooms().entrySet()) {
+                List<EntityData> roomEntities = loadRoomEntitiesAsSnapshot(constructionDir, entry.getKey());
+                rooms.put(entry.getKey(), new ConstructionSnapshot.RoomSnapshot(
+                    entry.getValue().blocks(),
+                    entry.getValue().blockEntityNbt(),
+                    roomEntities
+                ));
+            }
+            return rooms;
+
+        } catch (Exception e) {
+            Architect.LOGGER.error("Failed to load room data: {}", id, e);
+            return null;
+        }
+    }
+
     /**
      * Carica una costruzione da disco.
      *
@@ -240,6 +531,7 @@ public class ConstructionStorage {
      */
     public Construction load(String id) {
         try {
+            saveQueue.awaitPending(id);
             Path constructionDir = getConstructionDirectory(id);
 
             if (!Files.exists(constructionDir)) {
@@ -277,10 +569,41 @@ public class ConstructionStorage {
             return ids;
         }
 
-        try {
-            // Scansiona fino a 10 livelli per supportare ID con molti segmenti
-            // (es: it.magius.category.subcategory.name -> 5 livelli)
-            Files.walk(baseDirectory, 10)
+        // Scansiona fino a 10 livelli per supportare ID con molti segmenti
+        // (es: it.magius.category.subcategory.name -> 5 livelli)
+        collectIds(baseDirectory, 10, ids);
+        return ids;
+    }
+
+    /**
+     * Like listAll, but walks each namespace directory as a separate parallel task.
+     * Must run inside a ForkJoinPool (the parallel stream uses the caller's pool).
+     */
+    private List<String> listAllParallel() {
+        if (!Files.exists(baseDirectory)) {
+            return new ArrayList<>();
+        }
+
+        List<Path> namespaces;
+        try (var stream = Files.list(baseDirectory)) {
+            namespaces = stream.filter(Files::isDirectory).toList();
+        } catch (IOException e) {
+            Architect.LOGGER.error("Failed to list constructions", e);
+            return new ArrayList<>();
+        }
+
+        return namespaces.parallelStream()
+            .flatMap(namespace -> {
+                List<String> ids = new ArrayList<>();
+                collectIds(namespace, 9, ids);
+                return ids.stream();
+            })
+            .toList();
+    }
+
+    private void collectIds(Path root, int maxDepth, List<String> ids) {
+        try (var stream = Files.walk(root, maxDepth)) {
+            stream
                 .filter(path -> Files.isDirectory(path))
                 .filter(path -> Files.exists(path.resolve("metadata.json")))
                 .forEach(path -> {
@@ -290,10 +613,8 @@ public class ConstructionStorage {
                     }
                 });
         } catch (IOException e) {
-            Architect.LOGGER.error("Failed to list constructions", e);
+            Architect.LOGGER.error("Failed to list constructions in {}", root, e);
         }
-
-        return ids;
     }
 
     /**
@@ -315,6 +636,10 @@ public class ConstructionStorage {
      */
     public boolean delete(String id) {
         try {
+            // Drop queued saves and wait for a running one, so it can't recreate the files
+            saveQueue.cancel(id);
+            saveQueue.awaitPending(id);
+
             Path constructionDir = getConstructionDirectory(id);
 
             if (!Files.exists(constructionDir)) {
@@ -335,6 +660,13 @@ public class ConstructionStorage {
             // Prova a eliminare le directory vuote parent
             cleanEmptyParentDirectories(constructionDir.getParent());
 
+            // Catalog only if in use (the InGame NBT cache deletes through this storage too)
+            ConstructionCatalog loadedCatalog = getLoadedCatalog();
+            if (loadedCatalog != null) {
+                loadedCatalog.remove(id);
+                loadedCatalog.saveIfDirty();
+            }
+
             Architect.LOGGER.info("Deleted construction: {}", id);
             return true;
 
@@ -401,7 +733,10 @@ public class ConstructionStorage {
 
     // ===== Metadata serialization =====
 
-    private void saveMetadata(Construction construction, Path directory) throws IOException {
+    /**
+     * Builds the metadata.json content. Reads the (mutable) Construction, so it runs on the caller thread.
+     */
+    private JsonObject buildMetadataJson(Construction construction) {
         JsonObject json = new JsonObject();
         json.addProperty("id", construction.getId());
         json.addProperty("authorId", construction.getAuthorId().toString());
@@ -507,10 +842,19 @@ public class ConstructionStorage {
         // Versione del mod Struttura
         json.addProperty("modVersion", Architect.MOD_VERSION);
 
+        return json;
+    }
+
+    /**
+     * Writes metadata.json and updates the catalog entry.
+     */
+    private void saveMetadata(JsonObject json, Path directory) throws IOException {
+        byte[] bytes = GSON.toJson(json).getBytes(StandardCharsets.UTF_8);
         Path metadataFile = directory.resolve("metadata.json");
-        try (Writer writer = Files.newBufferedWriter(metadataFile, StandardCharsets.UTF_8)) {
-            GSON.toJson(json, writer);
-        }
+        writeAtomically(metadataFile, os -> os.write(bytes));
+
+        getCatalog().put(ConstructionCatalog.Entry.fromMetadata(json, crc32(bytes),
+            Files.getLastModifiedTime(metadataFile).toMillis()));
     }
 
     private Construction loadMetadata(Path directory) throws IOException {
@@ -520,8 +864,17 @@ public class ConstructionStorage {
             return null;
         }
 
-        try (Reader reader = Files.newBufferedReader(metadataFile, StandardCharsets.UTF_8)) {
-            JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+        try (InputStream is = Files.newInputStream(metadataFile)) {
+            byte[] bytes = is.readAllBytes();
+            JsonObject json = JsonParser.parseString(new String(bytes, StandardCharsets.UTF_8)).getAsJsonObject();
+
+            // Refresh the catalog entry if metadata.json was changed outside of this storage
+            long hash = crc32(bytes);
+            ConstructionCatalog.Entry cached = getCatalog().get(json.get("id").getAsString());
+            if (cached == null || cached.metadataHash() != hash) {
+                getCatalog().put(ConstructionCatalog.Entry.fromMetadata(json, hash,
+                    Files.getLastModifiedTime(metadataFile).toMillis()));
+            }
 
             String id = json.get("id").getAsString();
             UUID authorId = UUID.fromString(json.get("authorId").getAsString());
@@ -668,104 +1021,18 @@ public class ConstructionStorage {
     /**
      * Saves block data from a snapshot to blocks.nbt.
      * Uses the snapshot's block states and block entity NBT (not from Construction).
+     * Written in the packed format (see {@link BlockNbtFormat}).
      */
-    private void saveBlocks(ConstructionSnapshot snapshot, ConstructionBounds bounds, Map<String, Room> rooms, Path directory) throws IOException {
-        CompoundTag root = new CompoundTag();
-
+    private void saveBlocks(ConstructionSnapshot snapshot, ConstructionBounds bounds, Set<String> roomIds, Path directory) throws IOException {
         // Get bounds offsets for coordinate normalization
         int offsetX = bounds.isValid() ? bounds.getMinX() : 0;
         int offsetY = bounds.isValid() ? bounds.getMinY() : 0;
         int offsetZ = bounds.isValid() ? bounds.getMinZ() : 0;
 
-        // Palette: blockState string -> index
-        Map<String, Integer> palette = new LinkedHashMap<>();
-        ListTag paletteList = new ListTag();
-
-        // Base blocks from snapshot
-        ListTag blocksList = new ListTag();
-
-        for (Map.Entry<BlockPos, BlockState> entry : snapshot.blocks().entrySet()) {
-            BlockPos pos = entry.getKey();
-            BlockState state = entry.getValue();
-
-            String stateString = serializeBlockState(state);
-
-            int paletteIndex = palette.computeIfAbsent(stateString, s -> {
-                CompoundTag paletteEntry = new CompoundTag();
-                paletteEntry.putString("state", s);
-                paletteList.add(paletteEntry);
-                return palette.size();
-            });
-
-            // Normalized coordinates (relative to 0,0,0)
-            CompoundTag blockTag = new CompoundTag();
-            blockTag.putInt("x", pos.getX() - offsetX);
-            blockTag.putInt("y", pos.getY() - offsetY);
-            blockTag.putInt("z", pos.getZ() - offsetZ);
-            blockTag.putInt("p", paletteIndex);
-
-            // Block entity NBT from snapshot
-            CompoundTag blockEntityNbt = snapshot.blockEntityNbt().get(pos);
-            if (blockEntityNbt != null && !blockEntityNbt.isEmpty()) {
-                blockTag.put("nbt", blockEntityNbt);
-            }
-
-            blocksList.add(blockTag);
-        }
+        CompoundTag root = BlockNbtFormat.write(snapshot, roomIds, offsetX, offsetY, offsetZ,
+            BlockNbtFormat.CURRENT_VERSION, BlockStateCodec::serialize);
 
-        root.put("palette", paletteList);
-        root.put("blocks", blocksList);
-        root.putInt("version", 1); // NBT format version
-
-        // Room deltas (always with normalized coordinates)
-        CompoundTag roomsTag = new CompoundTag();
-        for (Room room : rooms.values()) {
-            ConstructionSnapshot.RoomSnapshot roomSnapshot = snapshot.rooms().get(room.getId());
-            if (roomSnapshot != null && !roomSnapshot.blocks().isEmpty()) {
-                CompoundTag roomTag = new CompoundTag();
-                ListTag roomBlocksList = new ListTag();
-
-                for (Map.Entry<BlockPos, BlockState> entry : roomSnapshot.blocks().entrySet()) {
-                    BlockPos pos = entry.getKey();
-                    BlockState state = entry.getValue();
-
-                    String stateString = serializeBlockState(state);
-
-                    // Add to shared palette if not present
-                    int paletteIndex = palette.computeIfAbsent(stateString, s -> {
-                        CompoundTag paletteEntry = new CompoundTag();
-                        paletteEntry.putString("state", s);
-                        paletteList.add(paletteEntry);
-                        return palette.size();
-                    });
-
-                    CompoundTag blockTag = new CompoundTag();
-                    blockTag.putInt("x", pos.getX() - offsetX);
-                    blockTag.putInt("y", pos.getY() - offsetY);
-                    blockTag.putInt("z", pos.getZ() - offsetZ);
-                    blockTag.putInt("p", paletteIndex);
-
-                    // Block entity NBT from room snapshot
-                    CompoundTag blockEntityNbt = roomSnapshot.blockEntityNbt().get(pos);
-                    if (blockEntityNbt != null && !blockEntityNbt.isEmpty()) {
-                        blockTag.put("nbt", blockEntityNbt);
-                    }
-
-                    roomBlocksList.add(blockTag);
-                }
-
-                roomTag.put("blocks", roomBlocksList);
-                roomsTag.put(room.getId(), roomTag);
-            }
-        }
-        if (!roomsTag.isEmpty()) {
-            root.put("rooms", roomsTag);
-        }
-
-        Path blocksFile = directory.resolve("blocks.nbt");
-        try (OutputStream os = Files.newOutputStream(blocksFile)) {
-            NbtIo.writeCompressed(root, os);
-        }
+        writeAtomically(directory.resolve("blocks.nbt"), os -> NbtIo.writeCompressed(root, os));
     }
 
     /**
@@ -791,20 +1058,11 @@ public class ConstructionStorage {
         try (InputStream is = Files.newInputStream(blocksFile)) {
             root = NbtIo.readCompressed(is, NbtAccounter.unlimitedHeap());
         }
+        int version = BlockNbtFormat.getVersion(root);
 
         // Load base blocks (only positions, no block state data stored in Construction)
-        ListTag blocksList = root.getList("blocks").orElse(new ListTag());
-
-        for (int i = 0; i < blocksList.size(); i++) {
-            CompoundTag blockTag = blocksList.getCompound(i).orElseThrow();
-            int x = blockTag.getInt("x").orElse(0) + offsetX;
-            int y = blockTag.getInt("y").orElse(0) + offsetY;
-            int z = blockTag.getInt("z").orElse(0) + offsetZ;
-
-            BlockPos pos = new BlockPos(x, y, z);
-            // Reference-only: just track the position, no state/NBT stored
-            construction.addBlockRaw(pos);
-        }
+        BlockNbtFormat.readSection(root, version, (x, y, z, p, nbt) ->
+            construction.addBlockRaw(new BlockPos(x + offsetX, y + offsetY, z + offsetZ)));
 
         // Load room deltas (only positions)
         CompoundTag roomsTag = root.getCompound("rooms").orElse(null);
@@ -819,111 +1077,13 @@ public class ConstructionStorage {
                 CompoundTag roomTag = roomsTag.getCompound(roomId).orElse(null);
                 if (roomTag == null) continue;
 
-                ListTag roomBlocksList = roomTag.getList("blocks").orElse(new ListTag());
-
-                for (int i = 0; i < roomBlocksList.size(); i++) {
-                    CompoundTag blockTag = roomBlocksList.getCompound(i).orElseThrow();
-                    int x = blockTag.getInt("x").orElse(0) + offsetX;
-                    int y = blockTag.getInt("y").orElse(0) + offsetY;
-                    int z = blockTag.getInt("z").orElse(0) + offsetZ;
-
-                    BlockPos pos = new BlockPos(x, y, z);
-                    // Reference-only: just track the position
-                    room.setBlockChange(pos);
-                }
+                // Reference-only: just track the position
+                BlockNbtFormat.readSection(roomTag, version, (x, y, z, p, nbt) ->
+                    room.setBlockChange(new BlockPos(x + offsetX, y + offsetY, z + offsetZ)));
             }
         }
     }
 
-    /**
-     * Serializza un BlockState in stringa.
-     * Formato: "minecraft:stone" o "minecraft:oak_stairs[facing=north,half=bottom]"
-     */
-    private String serializeBlockState(BlockState state) {
-        String blockId = BuiltInRegistries.BLOCK.getKey(state.getBlock()).toString();
-        StringBuilder sb = new StringBuilder(blockId);
-
-        // Aggiungi proprietà se presenti
-        var properties = state.getValues();
-        if (!properties.isEmpty()) {
-            sb.append("[");
-            boolean first = true;
-            for (var entry : properties.entrySet()) {
-                if (!first) sb.append(",");
-                first = false;
-                sb.append(entry.getKey().getName());
-                sb.append("=");
-                sb.append(entry.getValue().toString().toLowerCase());
-            }
-            sb.append("]");
-        }
-
-        return sb.toString();
-    }
-
-    /**
-     * Deserializza un BlockState da stringa.
-     */
-    private BlockState deserializeBlockState(String stateString) {
-        try {
-            // Parse block ID e properties
-            String blockIdStr;
-            String propertiesStr = null;
-
-            int bracketIndex = stateString.indexOf('[');
-            if (bracketIndex != -1) {
-                blockIdStr = stateString.substring(0, bracketIndex);
-                propertiesStr = stateString.substring(bracketIndex + 1, stateString.length() - 1);
-            } else {
-                blockIdStr = stateString;
-            }
-
-            // Ottieni il blocco cercando nel registro
-            Block block = net.minecraft.world.level.block.Blocks.AIR;
-
-            // Itera sul registro per trovare il blocco con l'ID corrispondente
-            for (Block b : BuiltInRegistries.BLOCK) {
-                String registeredId = BuiltInRegistries.BLOCK.getKey(b).toString();
-                if (registeredId.equals(blockIdStr)) {
-                    block = b;
-                    break;
-                }
-            }
-
-            BlockState state = block.defaultBlockState();
-
-            // Applica le proprietà
-            if (propertiesStr != null && !propertiesStr.isEmpty()) {
-                for (String propPair : propertiesStr.split(",")) {
-                    String[] kv = propPair.split("=");
-                    if (kv.length == 2) {
-                        state = applyProperty(state, kv[0].trim(), kv[1].trim());
-                    }
-                }
-            }
-
-            return state;
-
-        } catch (Exception e) {
-            Architect.LOGGER.warn("Failed to deserialize block state: {}", stateString, e);
-            return net.minecraft.world.level.block.Blocks.AIR.defaultBlockState();
-        }
-    }
-
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private BlockState applyProperty(BlockState state, String propertyName, String value) {
-        for (var property : state.getProperties()) {
-            if (property.getName().equals(propertyName)) {
-                Optional<?> parsedValue = property.getValue(value);
-                if (parsedValue.isPresent()) {
-                    return state.setValue((net.minecraft.world.level.block.state.properties.Property) property,
-                        (Comparable) parsedValue.get());
-                }
-            }
-        }
-        return state;
-    }
-
     // ===== Entities serialization (NBT) =====
 
     /**
@@ -938,12 +1098,12 @@ public class ConstructionStorage {
      * }
      * Note: UUID is NOT stored - it's only a runtime identifier.
      */
-    private void saveEntities(ConstructionSnapshot snapshot, Map<String, Room> rooms, Path directory) throws IOException {
+    private void saveEntities(ConstructionSnapshot snapshot, Set<String> roomIds, Path directory) throws IOException {
         // Check if there are any entities (base + rooms)
         boolean hasAnyEntities = !snapshot.entities().isEmpty();
         if (!hasAnyEntities) {
-            for (Room room : rooms.values()) {
-                ConstructionSnapshot.RoomSnapshot roomSnapshot = snapshot.rooms().get(room.getId());
+            for (String roomId : roomIds) {
+                ConstructionSnapshot.RoomSnapshot roomSnapshot = snapshot.rooms().get(roomId);
                 if (roomSnapshot != null && !roomSnapshot.entities().isEmpty()) {
                     hasAnyEntities = true;
                     break;
@@ -983,8 +1143,8 @@ public class ConstructionStorage {
 
         // Room entities from snapshot
         CompoundTag roomsTag = new CompoundTag();
-        for (Room room : rooms.values()) {
-            ConstructionSnapshot.RoomSnapshot roomSnapshot = snapshot.rooms().get(room.getId());
+        for (String roomId : roomIds) {
+            ConstructionSnapshot.RoomSnapshot roomSnapshot = snapshot.rooms().get(roomId);
             if (roomSnapshot != null && !roomSnapshot.entities().isEmpty()) {
                 CompoundTag roomTag = new CompoundTag();
                 ListTag roomEntitiesList = new ListTag();
@@ -1003,16 +1163,37 @@ public class ConstructionStorage {
                 }
 
                 roomTag.put("entities", roomEntitiesList);
-                roomsTag.put(room.getId(), roomTag);
+                roomsTag.put(roomId, roomTag);
             }
         }
         if (!roomsTag.isEmpty()) {
             root.put("rooms", roomsTag);
         }
 
-        Path entitiesFile = directory.resolve("entities.nbt");
-        try (OutputStream os = Files.newOutputStream(entitiesFile)) {
-            NbtIo.writeCompressed(root, os);
+        writeAtomically(directory.resolve("entities.nbt"), os -> NbtIo.writeCompressed(root, os));
+    }
+
+    @FunctionalInterface
+    interface StreamWriter {
+        void write(OutputStream os) throws IOException;
+    }
+
+    /**
+     * Writes a file crash-safely: content goes to a sibling .tmp file, is forced to disk,
+     * then renamed over the target. A crash leaves either the old or the new file, never a partial one.
+     */
+    static void writeAtomically(Path target, StreamWriter writer) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            writer.write(os);
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
         }
     }
 
@@ -1026,6 +1207,7 @@ public class ConstructionStorage {
     public List<EntityData> loadRoomEntities(Construction construction, String roomId) {
         List<EntityData> entities = new ArrayList<>();
         try {
+            saveQueue.awaitPending(construction.getId());
             Path constructionDir = getConstructionDirectory(construction.getId());
             Path entitiesFile = constructionDir.resolve("entities.nbt");
 
@@ -1081,11 +1263,18 @@ public class ConstructionStorage {
     /**
      * Loads blocks.nbt as a ConstructionSnapshot (with full block state data).
      * Used by loadNbtOnly for the InGame spawner which needs block states for placement.
+     *
+     * @param includeBase false to skip the base blocks (rooms only, base left empty)
      */
-    private ConstructionSnapshot loadBlocksAsSnapshot(Path directory, ConstructionBounds bounds) throws IOException {
+    private ConstructionSnapshot loadBlocksAsSnapshot(Path directory, ConstructionBounds bounds,
+                                                      boolean includeBase) throws IOException {
         Path blocksFile = directory.resolve("blocks.nbt");
 
-        Map<BlockPos, BlockState> blocks = new HashMap<>();
+        // Paletted storage presized to the bounds: no HashMap node / BlockPos per cached block
+        PalettedBlockMap blocks = (includeBase && bounds != null && bounds.isValid())
+            ? new PalettedBlockMap(bounds.getMinX(), bounds.getMinY(), bounds.getMinZ(),
+                bounds.getMaxX(), bounds.getMaxY(), bounds.getMaxZ())
+            : new PalettedBlockMap();
         Map<BlockPos, CompoundTag> blockEntityNbt = new HashMap<>();
         Map<String, ConstructionSnapshot.RoomSnapshot> rooms = new HashMap<>();
 
@@ -1101,36 +1290,24 @@ public class ConstructionStorage {
         try (InputStream is = Files.newInputStream(blocksFile)) {
             root = NbtIo.readCompressed(is, NbtAccounter.unlimitedHeap());
         }
+        int version = BlockNbtFormat.getVersion(root);
 
         // Load palette
-        ListTag paletteList = root.getList("palette").orElse(new ListTag());
         List<BlockState> palette = new ArrayList<>();
-
-        for (int i = 0; i < paletteList.size(); i++) {
-            CompoundTag paletteEntry = paletteList.getCompound(i).orElseThrow();
-            String stateString = paletteEntry.getString("state").orElse("");
-            BlockState state = deserializeBlockState(stateString);
-            palette.add(state);
+        for (String stateString : BlockNbtFormat.readPalette(root)) {
+            palette.add(BlockStateCodec.parse(stateString));
         }
 
         // Load base blocks
-        ListTag blocksList = root.getList("blocks").orElse(new ListTag());
-
-        for (int i = 0; i < blocksList.size(); i++) {
-            CompoundTag blockTag = blocksList.getCompound(i).orElseThrow();
-            int x = blockTag.getInt("x").orElse(0) + offsetX;
-            int y = blockTag.getInt("y").orElse(0) + offsetY;
-            int z = blockTag.getInt("z").orElse(0) + offsetZ;
-            int paletteIndex = blockTag.getInt("p").orElse(0);
-
-            BlockPos pos = new BlockPos(x, y, z);
-            BlockState state = palette.get(paletteIndex);
-            blocks.put(pos, state);
-
-            CompoundTag nbt = blockTag.getCompound("nbt").orElse(null);
-            if (nbt != null && !nbt.isEmpty()) {
-                blockEntityNbt.put(pos, nbt);
-            }
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        if (includeBase) {
+            BlockNbtFormat.readSection(root, version, (x, y, z, p, nbt) -> {
+                cursor.set(x + offsetX, y + offsetY, z + offsetZ);
+                blocks.put(cursor, palette.get(p));
+                if (nbt != null) {
+                    blockEntityNbt.put(cursor.immutable(), nbt);
+                }
+            });
         }
 
         // Load room blocks
@@ -1140,26 +1317,16 @@ public class ConstructionStorage {
                 CompoundTag roomTag = roomsTag.getCompound(roomId).orElse(null);
                 if (roomTag == null) continue;
 
-                Map<BlockPos, BlockState> roomBlocks = new HashMap<>();
+                PalettedBlockMap roomBlocks = new PalettedBlockMap();
                 Map<BlockPos, CompoundTag> roomBlockEntityNbt = new HashMap<>();
 
-                ListTag roomBlocksList = roomTag.getList("blocks").orElse(new ListTag());
-                for (int i = 0; i < roomBlocksList.size(); i++) {
-                    CompoundTag blockTag = roomBlocksList.getCompound(i).orElseThrow();
-                    int x = blockTag.getInt("x").orElse(0) + offsetX;
-                    int y = blockTag.getInt("y").orElse(0) + offsetY;
-                    int z = blockTag.getInt("z").orElse(0) + offsetZ;
-                    int paletteIndex = blockTag.getInt("p").orElse(0);
-
-                    BlockPos pos = new BlockPos(x, y, z);
-                    BlockState state = palette.get(paletteIndex);
-                    roomBlocks.put(pos, state);
-
-                    CompoundTag nbt = blockTag.getCompound("nbt").orElse(null);
-                    if (nbt != null && !nbt.isEmpty()) {
-                        roomBlockEntityNbt.put(pos, nbt);
+                BlockNbtFormat.readSection(roomTag, version, (x, y, z, p, nbt) -> {
+                    cursor.set(x + offsetX, y + offsetY, z + offsetZ);
+                    roomBlocks.put(cursor, palette.get(p));
+                    if (nbt != null) {
+                        roomBlockEntityNbt.put(cursor.immutable(), nbt);
                     }
-                }
+                });
 
                 rooms.put(roomId, new ConstructionSnapshot.RoomSnapshot(
                     roomBlocks, roomBlockEntityNbt, new ArrayList<>()));
@@ -0,0 +1,76 @@
+package it.magius.struttura.architect.storage;
+
+/**
+ * Fixed-size array of small unsigned integers packed into a long[].
+ * Entries never span two longs (same layout as vanilla SimpleBitStorage),
+ * so get/set are a single shift+mask on one word.
+ */
+public final class PackedIndexArray {
+
+    private final int bits;
+    private final int size;
+    private final int valuesPerLong;
+    private final long mask;
+    private final long[] data;
+
+    /**
+     * Creates a zero-filled array.
+     *
+     * @param bits bits per entry (1-32)
+     * @param size number of entries
+     */
+    public PackedIndexArray(int bits, int size) {
+        this(bits, size, null);
+    }
+
+    /**
+     * Wraps existing packed data (e.g. read from NBT).
+     * If data is null or has the wrong length a zero-filled array is allocated.
+     */
+    public PackedIndexArray(int bits, int size, long[] data) {
+        if (bits < 1 || bits > 32) {
+            throw new IllegalArgumentException("Invalid bits per entry: " + bits);
+        }
+        this.bits = bits;
+        this.size = size;
+        this.valuesPerLong = 64 / bits;
+        this.mask = (1L << bits) - 1L;
+        int longs = (size + valuesPerLong - 1) / valuesPerLong;
+        this.data = (data != null && data.length == longs) ? data : new long[longs];
+    }
+
+    /**
+     * Minimum number of bits needed to store values in [0, maxValue].
+     */
+    public static int bitsFor(int maxValue) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(maxValue));
+    }
+
+    /**
+     * Number of longs needed to store the given entries.
+     */
+    public static long longsFor(int bits, long size) {
+        int perLong = 64 / bits;
+        return (size + perLong - 1) / perLong;
+    }
+
+    public int get(int index) {
+        int cell = index / valuesPerLong;
+        int shift = (index - cell * valuesPerLong) * bits;
+        return (int) ((data[cell] >>> shift) & mask);
+    }
+
+    public void set(int index, int value) {
+        int cell = index / valuesPerLong;
+        int shift = (index - cell * valuesPerLong) * bits;
+        data[cell] = (data[cell] & ~(mask << shift)) | (((long) value & mask) << shift);
+    }
+
+    public int getBits() { return bits; }
+    public int getSize() { return size; }
+
+    /**
+     * Raw backing array (not copied).
+     */
+    public long[] getRaw() { return data; }
+}